@@ -0,0 +1,28 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @author Pair programming
+ *
+ * Runs the benchmarks, and writes the results to benchmark-results.json so runs can be compared.
+ * Must be run from the GoL folder, where the pattern files are found.
+ * An optional argument selects the benchmarks by a regular expression, like StaticGameOfLife.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+
+        Options options = new OptionsBuilder()
+                .include((args.length > 0) ? args[0] : BenchmarkMain.class.getPackage().getName() + ".")
+                .resultFormat(ResultFormatType.JSON)
+                .result("benchmark-results.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
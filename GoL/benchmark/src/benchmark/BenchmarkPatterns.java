@@ -0,0 +1,60 @@
+package benchmark;
+
+import model.GameOfLife;
+import model.Parser.ParseResult;
+import model.Parser.PatternParser;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * @author Pair programming
+ *
+ * Loads the patterns used by the benchmarks, and places them on game boards.
+ * Paths are relative to the GoL folder, which must be the working directory when the benchmarks are run.
+ */
+final class BenchmarkPatterns {
+
+    // a gun, a methuselah and a breeder, growing at different speeds
+    static final String GUN = "Patterns/Life/Guns/gun-p165mwss.rle";
+    static final String METHUSELAH = "Patterns/Life/Methuselahs/acorn.lif";
+    static final String BREEDER = "Patterns/Life/Breeders/breeder.lif";
+
+    private BenchmarkPatterns() {
+    }
+
+    /**
+     * Reads a pattern file
+     *
+     * @param path Path of the pattern file
+     * @return The parsed pattern
+     * @throws IOException if the file could not be read or is not a pattern
+     */
+    static ParseResult load(String path) throws IOException {
+
+        ParseResult pattern = new PatternParser().parse(new File(path));
+        if (pattern == null)
+            throw new IOException("No pattern found in " + path);
+        return pattern;
+    }
+
+    /**
+     * Places a pattern in the middle of a game board, or in the top left corner of boards smaller than the pattern
+     *
+     * @param gol The game board
+     * @param pattern The parsed pattern
+     */
+    static void place(GameOfLife gol, ParseResult pattern) {
+
+        int left = Math.max(0, (gol.getGridWidth() - pattern.getWidth()) / 2);
+        int top = Math.max(0, (gol.getGridHeight() - pattern.getHeight()) / 2);
+
+        for (int x = 0; x < pattern.getWidth(); x++) {
+            for (int y = 0; y < pattern.getHeight(); y++) {
+
+                if (pattern.isCellAlive(x, y))
+                    gol.setCellAlive(left + x, top + y);
+            }
+        }
+    }
+}
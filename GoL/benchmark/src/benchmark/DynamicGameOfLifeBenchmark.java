@@ -0,0 +1,59 @@
+package benchmark;
+
+import model.GameOfLife;
+import model.DynamicGameOfLife;
+import model.WorkerPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Pair programming
+ *
+ * Measures generations per second of the dynamic game board, for every combination of pattern and threads.
+ * Every iteration starts again from the loaded pattern, so growing patterns do not make later iterations slower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DynamicGameOfLifeBenchmark {
+
+    @Param({BenchmarkPatterns.GUN, BenchmarkPatterns.METHUSELAH, BenchmarkPatterns.BREEDER})
+    public String pattern;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private GameOfLife start;
+    private GameOfLife gol;
+
+    @Setup(Level.Trial)
+    public void loadPattern() throws IOException {
+
+        WorkerPool.setParallelism(threads);
+
+        start = new DynamicGameOfLife();
+        BenchmarkPatterns.place(start, BenchmarkPatterns.load(pattern));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBoard() {
+        gol = start.clone();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopWorkers() {
+        WorkerPool.shutdown();
+    }
+
+    @Benchmark
+    public int nextGeneration() {
+
+        gol.nextGeneration();
+        return gol.getCellCount();
+    }
+}
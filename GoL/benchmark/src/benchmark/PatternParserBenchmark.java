@@ -0,0 +1,44 @@
+package benchmark;
+
+import model.Parser.ParseResult;
+import model.Parser.PatternParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Pair programming
+ *
+ * Measures the time to read a pattern file in every format supported by the PatternParser:
+ * plain text, Life 1.05, Life 1.06 and RLE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternParserBenchmark {
+
+    @Param({
+            "src/test/Test pattern/3enginecordershipgun.cells",
+            "src/test/Test pattern/3enginecordershiprake_105.lif",
+            "src/test/Test pattern/3enginecordershiprake_106.lif",
+            "Patterns/Life/Guns/Cordership-gun-p784.rle"})
+    public String path;
+
+    private final PatternParser parser = new PatternParser();
+    private File file;
+
+    @Setup(Level.Trial)
+    public void findFile() {
+        file = new File(path);
+    }
+
+    @Benchmark
+    public ParseResult parse() throws IOException {
+        return parser.parse(file);
+    }
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import model.DynamicGameOfLife;
+import model.GameOfLife;
+import model.PackedGameOfLife;
+import model.Parser.PatternOutput;
+import model.Parser.PlainTextWriter;
+import model.Parser.RleWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Pair programming
+ *
+ * Measures the time to write a pattern in the RLE and plain text formats, as done when saving a pattern to file.
+ * The streaming writers write to a channel that discards the bytes, so only the writing itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternWriterBenchmark {
+
+    @Param({BenchmarkPatterns.GUN, BenchmarkPatterns.BREEDER})
+    public String pattern;
+
+    @Param({"dynamic", "packed"})
+    public String board;
+
+    private GameOfLife gol;
+    private PatternOutput output;
+
+    @Setup(Level.Trial)
+    public void loadPattern() throws IOException {
+
+        gol = board.equals("packed") ? new PackedGameOfLife(1024, 1024) : new DynamicGameOfLife();
+        BenchmarkPatterns.place(gol, BenchmarkPatterns.load(pattern));
+
+        output = new PatternOutput(new DiscardingChannel());
+    }
+
+    @Benchmark
+    public List<String> writeRle() {
+        return RleWriter.write(gol, gol.getRule().toString());
+    }
+
+    @Benchmark
+    public List<String> writePlainText() {
+        return PlainTextWriter.write(gol);
+    }
+
+    @Benchmark
+    public PatternOutput streamRle() throws IOException {
+
+        RleWriter.write(gol, gol.getRule().toString(), output);
+        output.flush();
+        return output;
+    }
+
+    @Benchmark
+    public PatternOutput streamPlainText() throws IOException {
+
+        PlainTextWriter.write(gol, output);
+        output.flush();
+        return output;
+    }
+
+    /**
+     * Channel that accepts every byte, and keeps none of them
+     */
+    private static class DiscardingChannel implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer source) {
+
+            int written = source.remaining();
+            source.position(source.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package benchmark;
+
+import model.GameOfLife;
+import model.StaticGameOfLife;
+import model.rules.Rule;
+import model.rules.RuleParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Pair programming
+ *
+ * Measures the time to create a rule from a rulestring, for the built in rules and a custom rule
+ * written in another notation, which has to be formatted before it is compiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleParserBenchmark {
+
+    @Param({RuleParser.CLASSIC_RULESTRING, RuleParser.HIGHLIFE_RULESTRING, RuleParser.DNN_RULESTRING, "34678/3678"})
+    public String rulestring;
+
+    private GameOfLife gol;
+
+    @Setup(Level.Trial)
+    public void createBoard() {
+        gol = new StaticGameOfLife(64, 64);
+    }
+
+    @Benchmark
+    public Rule createRule() {
+        return RuleParser.createRule(gol, rulestring);
+    }
+}
@@ -4,6 +4,8 @@ import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
@@ -13,7 +15,7 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.paint.Color;
 import model.*;
-import model.Parser.PatternParser;
+import model.Parser.ParseResult;
 import model.rules.RuleFormatException;
 import model.rules.RuleParser;
 import s305080.Gif.GifSaver;
@@ -38,6 +40,10 @@ import java.util.Optional;
  */
 public class CanvasController {
 
+    // cells of empty space kept past the pattern, and the largest width and height of a packed board
+    private static final int PACKED_MARGIN = 50;
+    private static final int PACKED_MAX_SIZE = 8192;
+
     private MasterController masterController;
 
     //region mouse input
@@ -61,6 +67,13 @@ public class CanvasController {
     private Cell cell;
     private CameraView cView = new CameraView();
 
+    // the board is drawn into a pixel buffer, which is put on the canvas as one image
+    private BoardRasterizer rasterizer = new BoardRasterizer();
+    private WritableImage boardImage;
+
+    // the generation being drawn, a snapshot published by the thread evolving the board
+    private BoardView frame;
+
     // whether or not to draw grid lines
     private boolean gridLines;
     private boolean userWantsGridLines;
@@ -121,7 +134,9 @@ public class CanvasController {
         // to store buttons being pressed
         buttonsPressed = new ArrayList<>();
 
-        cView.updateView(gol, cell.getSize(), (int)canvas.getWidth(), (int)canvas.getHeight());
+        gol.publishSnapshot();
+        frame = gol.getSnapshot();
+        cView.updateView(frame, cell.getSize(), (int)canvas.getWidth(), (int)canvas.getHeight());
 
         initializeListeners();
         initializeAnimation();
@@ -165,6 +180,7 @@ public class CanvasController {
                         if(!thread.isAlive()){
                             thread = new Thread(() -> {
                                 gol.nextGeneration();
+                                gol.publishSnapshot();
                             });
                             thread.start();
                         }
@@ -190,6 +206,71 @@ public class CanvasController {
         changeGol(newGol);
     }
 
+    /**
+     * Replaces the existing game of life board with a static one where the cells are packed in words.
+     * The new board reaches past the bounding box of the pattern by a margin, so every cell keeps its place,
+     * and covers the part of the canvas that is shown, so there is room to draw.
+     * Its size is limited, as unbounded boards and small cells could ask for a board too large to allocate.
+     * @return false if the pattern does not fit on the largest packed board, and the board was kept
+     */
+    boolean changeToPacked(){
+        // the pattern keeps its coordinates, so the board must reach past the bottom right corner of it
+        int[] boundingBox = gol.getBoundingBox();
+
+        if (boundingBox[1] + 1 > PACKED_MAX_SIZE || boundingBox[3] + 1 > PACKED_MAX_SIZE) {
+            MessageBox.alert("The pattern is too large for a packed board of at most "
+                    + PACKED_MAX_SIZE + " x " + PACKED_MAX_SIZE + " cells");
+            return false;
+        }
+
+        // creates new packed grid, sized from the pattern and the canvas
+        int canvasWidth = (int) Math.min(Math.ceil(canvas.getWidth() / cell.getSize()), PACKED_MAX_SIZE);
+        int canvasHeight = (int) Math.min(Math.ceil(canvas.getHeight() / cell.getSize()), PACKED_MAX_SIZE);
+        int width = Math.min(Math.max(boundingBox[1] + 1 + PACKED_MARGIN, canvasWidth), PACKED_MAX_SIZE);
+        int height = Math.min(Math.max(boundingBox[3] + 1 + PACKED_MARGIN, canvasHeight), PACKED_MAX_SIZE);
+        GameOfLife newGol = new PackedGameOfLife(width, height, gol.getRule().toString());
+
+        // sets it as primary gol
+        changeGol(newGol);
+        return true;
+    }
+
+    /**
+     * Replaces the existing game of life board with an unbounded one, where only live cells are stored
+     * @return false if the rule can not be used on an unbounded board, and the board was kept
+     */
+    boolean changeToSparse(){
+        // creates new sparse gol
+        GameOfLife newGol;
+        try {
+            newGol = new SparseGameOfLife(gol.getRule().toString());
+        } catch (IllegalArgumentException e) {
+            MessageBox.alert(e.getMessage());
+            return false;
+        }
+        //sets it as primary gol
+        changeGol(newGol);
+        return true;
+    }
+
+    /**
+     * Replaces the existing game of life board with an unbounded one, evolved with the HashLife algorithm
+     * @return false if the rule can not be used on an unbounded board, and the board was kept
+     */
+    boolean changeToHashLife(){
+        // creates new HashLife gol
+        GameOfLife newGol;
+        try {
+            newGol = new HashLifeGameOfLife(gol.getRule().toString());
+        } catch (IllegalArgumentException e) {
+            MessageBox.alert(e.getMessage());
+            return false;
+        }
+        //sets it as primary gol
+        changeGol(newGol);
+        return true;
+    }
+
     /**
      * Replaces the existing static game of life board with a dynamic one
      */
@@ -230,8 +311,12 @@ public class CanvasController {
 
         waitForThread();
         boolean isEmpty = true;
-        for (int x = 0; x < widthAndHeight[0]; x++) {
-            for (int y = 0; y < widthAndHeight[1]; y++) {
+
+        // only the cells inside the bounding box of the pattern can be alive
+        int[] boundingBox = gol.getBoundingBox();
+
+        for (int x = Math.max(boundingBox[0], 0); x <= Math.min(boundingBox[1], widthAndHeight[0] - 1); x++) {
+            for (int y = Math.max(boundingBox[2], 0); y <= Math.min(boundingBox[3], widthAndHeight[1] - 1); y++) {
                 if (gol.isCellAlive(x,y ))
                 {
                     newGol.setCellAlive(x,y);
@@ -578,7 +663,7 @@ public class CanvasController {
     }
 
     /**
-     * makes sure that x and y are inside the game board, if the board is dynamic
+     * makes sure that x and y are inside the game board, if the board can grow
      * @param x The X coordinate of the cell to fit the board to
      * @param y The Y coordinate of the cell to fit the board to
      */
@@ -587,13 +672,13 @@ public class CanvasController {
         // checks x is negative
         if(x < 0){
             // extends the board to fit to x
-            ((DynamicGameOfLife) gol).increaseXLeft(Math.abs(x));
+            gol.increaseXLeft(Math.abs(x));
            // boardOffsetX -= (x - 1) * cell.getSize();
         }
         // checks if y is negative
         if(y < 0){
             // extends the board to fit to x
-            ((DynamicGameOfLife)gol).increaseYTop(Math.abs(y));
+            gol.increaseYTop(Math.abs(y));
             //boardOffsetY -= (y - 1) * cell.getSize();
         }
     }
@@ -693,8 +778,17 @@ public class CanvasController {
      */
     void renderCanvas() {
 
+        long start = GenerationMetrics.getInstance().startTiming();
+
+        // draws the last generation published by the evolving thread, or a new snapshot if the board is not being evolved.
+        // only this thread starts the evolving thread, so it can not start between the check and the snapshot.
+        // the snapshot is taken with getSnapshot(), so its cells are not reused while it is drawn
+        if (!thread.isAlive())
+            gol.publishSnapshot();
+        frame = gol.getSnapshot();
+
         // checks wich cells are inside the canvas view
-        cView.updateView(gol, cell.getSize(), (int)canvas.getWidth(), (int)canvas.getHeight());
+        cView.updateView(frame, cell.getSize(), (int)canvas.getWidth(), (int)canvas.getHeight());
 
         // renders the cells on the canvas
         renderLife();
@@ -715,38 +809,50 @@ public class CanvasController {
             renderMarkup();
         }
         //to see where the grid is
-        if (gol instanceof StaticGameOfLife) {
+        if (gol instanceof StaticGameOfLife || gol instanceof PackedGameOfLife) {
             gc.setLineWidth(2);
-            gc.strokeRect(-cView.getCommonOffsetX(gol, cell.getSize()), -cView.getCommonOffsetY(gol, cell.getSize()), gol.getGridWidth() * cell.getSize(), gol.getGridHeight() * cell.getSize());
+            gc.strokeRect(-cView.getCommonOffsetX(frame, cell.getSize()), -cView.getCommonOffsetY(frame, cell.getSize()), frame.getGridWidth() * cell.getSize(), frame.getGridHeight() * cell.getSize());
         }
+
+        GenerationMetrics.getInstance().record(GenerationMetrics.Phase.RENDER, start);
     }
 
     /**
      * Renders the current state of the game of life simulation to the canvas.
-     * Sets background color and cell color.
+     * The cells are drawn into a pixel buffer with the cell and background colors, and the buffer is drawn as one image.
+     * When cells are smaller than a pixel, every pixel shows how many of the cells it covers are alive.
      */
     private void renderLife() {
 
-        // fills the background
-        gc.setFill(cell.getDeadColor());
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        int width = (int) canvas.getWidth();
+        int height = (int) canvas.getHeight();
 
-        gc.setFill(cell.getColor());
+        if (width <= 0 || height <= 0)
+            return;
 
-        // runs through the cells inside the view
-        for (int x = cView.currViewMinX; x <= cView.currViewMaxX; x++) {
-            for (int y = cView.currViewMinY; y <= cView.currViewMaxY; y++) {
+        // a new image is only needed when the canvas is resized
+        if (boardImage == null || boardImage.getWidth() != width || boardImage.getHeight() != height)
+            boardImage = new WritableImage(width, height);
 
-               try {
-                   // draws the cells that are alive
+        // the snapshot is never changed while it is drawn
+        int[] pixels = rasterizer.rasterize(frame,
+                cView.getCommonOffsetX(frame, cell.getSize()), cView.getCommonOffsetY(frame, cell.getSize()),
+                cell.getSize(), cell.getSpacingInPixels(),
+                toArgb(cell.getColor()), toArgb(cell.getDeadColor()), width, height);
 
-                   if (gol.isCellAlive(x, y))
-                       drawCell(x, y);
-               }
-                catch (NullPointerException ignored){
-                }
-            }
-        }
+        boardImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        gc.drawImage(boardImage, 0, 0);
+    }
+
+    /**
+     * Converts a color to an opaque ARGB pixel
+     */
+    private static int toArgb(Color color) {
+
+        return 0xFF000000
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
     }
 
     /**
@@ -763,7 +869,7 @@ public class CanvasController {
         for (double i = 0; i < canvas.getWidth(); i += cell.getSize()){
 
             // draws vertical line number "i" inside the canvas view
-            gc.strokeLine(xCoordinate = -cView.getCommonOffsetX(gol,
+            gc.strokeLine(xCoordinate = -cView.getCommonOffsetX(frame,
                     cell.getSize()) % cell.getSize() +
                     i - cell.getSpacingInPixels() / 2, 0,
                     xCoordinate, canvas.getHeight());
@@ -774,7 +880,7 @@ public class CanvasController {
         for (double i = 0; i < canvas.getHeight(); i += cell.getSize()){
 
             // draws horizontal line number "i" inside the canvas view
-            gc.strokeLine(0, yCoordinate = -cView.getCommonOffsetY(gol,
+            gc.strokeLine(0, yCoordinate = -cView.getCommonOffsetY(frame,
                     cell.getSize()) % cell.getSize() +
                     i - cell.getSpacingInPixels() / 2,
                     canvas.getWidth(), yCoordinate);
@@ -863,8 +969,10 @@ public class CanvasController {
      * @param y The y coordinate in the game of life grid.
      */
     private void drawCell(int x, int y) {
-        // draws the cell at the x, y coordinate in the grid
-        gc.fillRect(getCanvasPosX(x), getCanvasPosY(y), cell.getSize() - cell.getSpacingInPixels(), cell.getSize() - cell.getSpacingInPixels());
+        // draws the cell at the x, y coordinate in the grid, placed by the offset of the generation being drawn
+        gc.fillRect(x * cell.getSize() - cView.getCommonOffsetX(frame, cell.getSize()),
+                y * cell.getSize() - cView.getCommonOffsetY(frame, cell.getSize()),
+                cell.getSize() - cell.getSpacingInPixels(), cell.getSize() - cell.getSpacingInPixels());
     }
 
     /**
@@ -988,17 +1096,17 @@ public class CanvasController {
     /**
      * Sets the pattern that is imported from a file
      *
-     * @param clipBoardPattern the pattern that is imported from a file
+     * @param parseResult the pattern that is imported from a file, or null if nothing was imported
      */
-    void setClipBoardPattern(boolean[][] clipBoardPattern) {
+    void setClipBoardPattern(ParseResult parseResult) {
 
-        this.clipBoardPattern = clipBoardPattern;
+        this.clipBoardPattern = (parseResult != null) ? parseResult.getPattern() : null;
 
         // checks if pattern is null
         if (clipBoardPattern != null) {
             importing = true;
 
-            String importedRule = PatternParser.getLastImportedRule();
+            String importedRule = parseResult.getRule();
 
             if (importedRule != null) {
                 try {
@@ -1065,8 +1173,12 @@ public class CanvasController {
      * @param ruleText The rule to be set, in Born/Survive format
      */
     public void setRule(String ruleText) {
-        // sets the rule
-        gol.setRule(ruleText);
+        // sets the rule, unless the board can not use it
+        try {
+            gol.setRule(ruleText);
+        } catch (IllegalArgumentException e) {
+            MessageBox.alert(e.getMessage());
+        }
         masterController.getToolController().setRuleLabel(gol.getRule());
     }
 
@@ -0,0 +1,370 @@
+package controller;
+
+import model.*;
+import model.Parser.MappedPatternReader;
+import model.Parser.ParseResult;
+import model.Parser.PatternOutput;
+import model.Parser.PatternParser;
+import model.Parser.RleWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Pair programming
+ *
+ * Runs a simulation from the command line without starting JavaFX, so patterns can be evolved on machines without a display.
+ * Loads a pattern with the PatternParser, or decodes RLE and Life 1.06 files straight onto the board,
+ * evolves it a number of generations on the chosen game board and number of threads,
+ * and writes the statistics of every generation, the timings of every phase and the final pattern in the RLE format.
+ *
+ * Usage: HeadlessMain pattern [options], where pattern is a file or a URL, and the options are
+ * -g generations (100), -e engine (dynamic), -s width x height of static and packed boards (1000x1000),
+ * -t threads (0 for one per processor), -r rule (the rule of the pattern),
+ * -o RLE file for the final pattern (standard output) and -c CSV file for the statistics of every generation (none).
+ */
+public class HeadlessMain {
+
+    private static final String USAGE = "Usage: HeadlessMain <pattern file or URL> [-g generations] "
+            + "[-e static|packed|dynamic|sparse|hashlife] [-s <width>x<height>] [-t threads] [-r rule] "
+            + "[-o final.rle] [-c statistics.csv]";
+
+    private String pattern;
+    private long generations = 100;
+    private String engine = "dynamic";
+    private int width = 1000;
+    private int height = 1000;
+    private int threads = 0;
+    private String rule;
+    private String outputFile;
+    private String statisticsFile;
+
+    // statistics of the last evolved generation, collected by the evolving thread
+    private GenerationStatistics lastStatistics;
+
+    /**
+     * Runs the simulation given by the arguments
+     *
+     * @param args The pattern and the options
+     */
+    public static void main(String[] args) {
+
+        HeadlessMain main = new HeadlessMain();
+
+        try {
+            main.parseArguments(args);
+            main.run();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Could not load or write pattern: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            WorkerPool.shutdown();
+        }
+    }
+
+    //region arguments
+
+    /**
+     * Reads the pattern and the options from the command line arguments
+     *
+     * @param args The command line arguments
+     * @throws IllegalArgumentException if an argument is unknown or invalid
+     */
+    private void parseArguments(String[] args) {
+
+        for (int i = 0; i < args.length; i++) {
+
+            if (!args[i].startsWith("-")) {
+
+                if (pattern != null)
+                    throw new IllegalArgumentException("More than one pattern given: " + args[i]);
+                pattern = args[i];
+                continue;
+            }
+
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+
+            String value = args[++i];
+
+            switch (args[i - 1]) {
+                case "-g":
+                    generations = parseNumber(value, "generations");
+                    break;
+                case "-e":
+                    engine = value.toLowerCase();
+                    break;
+                case "-s":
+                    String[] size = value.toLowerCase().split("x");
+                    if (size.length != 2)
+                        throw new IllegalArgumentException("Size must be given as <width>x<height>: " + value);
+                    width = (int) parseNumber(size[0], "width");
+                    height = (int) parseNumber(size[1], "height");
+                    break;
+                case "-t":
+                    threads = (int) parseNumber(value, "threads");
+                    break;
+                case "-r":
+                    rule = value;
+                    break;
+                case "-o":
+                    outputFile = value;
+                    break;
+                case "-c":
+                    statisticsFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i - 1]);
+            }
+        }
+
+        if (pattern == null)
+            throw new IllegalArgumentException("No pattern given");
+    }
+
+    /**
+     * Parses a number argument that can not be negative
+     */
+    private static long parseNumber(String value, String name) {
+
+        try {
+            long number = Long.parseLong(value);
+            if (number >= 0)
+                return number;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid number of " + name + ": " + value);
+    }
+
+    //endregion
+
+    /**
+     * Loads the pattern, evolves it and writes the results
+     *
+     * @throws IOException if the pattern could not be loaded or the results could not be written
+     */
+    private void run() throws IOException {
+
+        WorkerPool.setParallelism(threads);
+
+        // load the pattern
+        long loadStart = System.nanoTime();
+
+        GameOfLife gol = createGameOfLife();
+
+        if (pattern.contains("://") || !decodePattern(gol))
+            readPattern(gol);
+
+        long loadTime = System.nanoTime() - loadStart;
+
+        // evolve, writing the statistics of every generation if asked to
+        long evolveStart = System.nanoTime();
+        long evolved;
+
+        if (statisticsFile != null) {
+            try (PrintStream statistics = new PrintStream(statisticsFile, "UTF-8")) {
+                evolved = evolveWithStatistics(gol, statistics);
+            }
+        } else {
+            gol.nextGenerations(generations);
+            evolved = generations;
+        }
+
+        long evolveTime = System.nanoTime() - evolveStart;
+
+        // write the timings, and the final pattern
+        System.out.println("Engine: " + engine + ", threads: " + WorkerPool.getInstance().getParallelism()
+                + ", rule: " + gol.getRule());
+        System.out.println("Generations: " + evolved + ", live cells: " + gol.getCellCount());
+        System.out.printf("Load time: %.3f ms%n", loadTime / 1e6);
+        System.out.printf("Evolve time: %.3f ms, %.1f generations per second%n",
+                evolveTime / 1e6, (evolveTime > 0) ? evolved * 1e9 / evolveTime : 0.0);
+
+        // timings of the phases that were run
+        GenerationMetrics metrics = GenerationMetrics.getInstance();
+        for (GenerationMetrics.Phase phase : GenerationMetrics.Phase.values()) {
+
+            if (metrics.getHistogram(phase).getCount() > 0)
+                System.out.println(phase + ": " + metrics.getTimings(phase));
+        }
+
+        writeFinalPattern(gol);
+    }
+
+    /**
+     * Streams the final pattern in the RLE format to the output file, or else to standard output
+     *
+     * @param gol The game board
+     * @throws IOException if the pattern could not be written
+     */
+    private void writeFinalPattern(GameOfLife gol) throws IOException {
+
+        if (outputFile == null) {
+            PatternOutput output = new PatternOutput(Channels.newChannel(System.out));
+            RleWriter.write(gol, gol.getRule().toString(), output);
+            output.flush();
+            System.out.flush();
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(outputFile),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            PatternOutput output = new PatternOutput(channel);
+            RleWriter.write(gol, gol.getRule().toString(), output);
+            output.flush();
+        }
+    }
+
+    /**
+     * Creates the chosen game board
+     *
+     * @return The new game board
+     * @throws IllegalArgumentException if the engine is unknown
+     */
+    private GameOfLife createGameOfLife() {
+
+        switch (engine) {
+            case "static":
+                return new StaticGameOfLife(width, height);
+            case "packed":
+                return new PackedGameOfLife(width, height);
+            case "dynamic":
+                return new DynamicGameOfLife();
+            case "sparse":
+                return new SparseGameOfLife();
+            case "hashlife":
+                return new HashLifeGameOfLife();
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    /**
+     * Decodes a large RLE or Life 1.06 file straight onto the game board from a memory-mapped buffer,
+     * one run of live cells at a time, so large patterns are never held in memory as a whole.
+     * Files smaller than the size the PatternParser maps are left to it.
+     *
+     * @param gol The game board
+     * @return True if the pattern was decoded, false if the file is small or in another format
+     * @throws IOException if the file could not be read or the format is violated
+     */
+    private boolean decodePattern(GameOfLife gol) throws IOException {
+
+        if (!PatternParser.isMappedSize(new File(pattern)))
+            return false;
+
+        MappedPatternReader reader = new MappedPatternReader(Paths.get(pattern));
+        if (!reader.isSupported())
+            return false;
+
+        reader.readHeader();
+
+        setRule(gol, reader.getRule());
+        reader.decode(gol, getLeft(gol, reader.getWidth()), getTop(gol, reader.getHeight()));
+        return true;
+    }
+
+    /**
+     * Reads the pattern with the PatternParser, and places it on the game board
+     *
+     * @param gol The game board
+     * @throws IOException if the pattern could not be read
+     */
+    private void readPattern(GameOfLife gol) throws IOException {
+
+        PatternParser parser = new PatternParser();
+        ParseResult result = pattern.contains("://") ? parser.parseUrl(pattern) : parser.parse(new File(pattern));
+        if (result == null)
+            throw new PatternFormatException("No pattern found in " + pattern);
+
+        setRule(gol, result.getRule());
+        placePattern(gol, result);
+    }
+
+    /**
+     * Sets the rule given as an option, or else the rule of the pattern if it has one
+     */
+    private void setRule(GameOfLife gol, String patternRule) {
+
+        if (rule == null)
+            rule = patternRule;
+
+        if (rule != null)
+            gol.setRule(rule);
+    }
+
+    /**
+     * Gets the column where a pattern is placed in the middle of the game board, or 0 if the board is too small
+     */
+    private static int getLeft(GameOfLife gol, int patternWidth) {
+        return Math.max(0, (gol.getGridWidth() - patternWidth) / 2);
+    }
+
+    /**
+     * Gets the row where a pattern is placed in the middle of the game board, or 0 if the board is too small
+     */
+    private static int getTop(GameOfLife gol, int patternHeight) {
+        return Math.max(0, (gol.getGridHeight() - patternHeight) / 2);
+    }
+
+    /**
+     * Places the pattern in the middle of the game board, or in the top left corner of boards smaller than the pattern
+     *
+     * @param gol The game board
+     * @param pattern The parsed pattern
+     */
+    private static void placePattern(GameOfLife gol, ParseResult pattern) {
+
+        int patternWidth = pattern.getWidth();
+        int patternHeight = pattern.getHeight();
+
+        int left = getLeft(gol, patternWidth);
+        int top = getTop(gol, patternHeight);
+
+        for (int x = 0; x < patternWidth; x++) {
+            for (int y = 0; y < patternHeight; y++) {
+
+                if (pattern.isCellAlive(x, y))
+                    gol.setCellAlive(left + x, top + y);
+            }
+        }
+    }
+
+    /**
+     * Evolves the game board one generation at a time, writing the statistics of every generation as CSV.
+     * Coordinates are relative to where the top left corner of the board was when the pattern was placed.
+     * Births and deaths are -1 on game boards that do not count them.
+     *
+     * @param gol The game board
+     * @param statistics Stream the statistics are written to
+     * @return Number of generations evolved
+     */
+    private long evolveWithStatistics(GameOfLife gol, PrintStream statistics) {
+
+        statistics.println("generation,liveCells,births,deaths,minX,maxX,minY,maxY");
+
+        StatisticsCollector collector = generationStatistics -> lastStatistics = generationStatistics;
+        gol.addStatisticsCollector(collector);
+
+        long evolved = gol.nextGenerations(generations, (board, generation) -> {
+
+            GenerationStatistics s = lastStatistics;
+            statistics.println(generation + "," + s.getLiveCells() + "," + s.getBirths() + "," + s.getDeaths() + ","
+                    + s.getMinX() + "," + s.getMaxX() + "," + s.getMinY() + "," + s.getMaxY());
+            return true;
+        });
+
+        gol.removeStatisticsCollector(collector);
+        return evolved;
+    }
+}
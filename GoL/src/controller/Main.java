@@ -4,6 +4,9 @@ import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
+import model.WorkerPool;
+import tools.MessageBox;
+import tools.Messages;
 
 import java.io.IOException;
 
@@ -18,6 +21,9 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) throws Exception{
 
+        // show messages from the model in dialogs
+        Messages.setHandler(MessageBox::alert);
+
         // load main fxml view
         FXMLLoader loader = new FXMLLoader(
                 getClass().getResource("../view/MainView.fxml"));
@@ -41,6 +47,14 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Stops the worker threads shared by the game boards when the application closes
+     */
+    @Override
+    public void stop() {
+        WorkerPool.shutdown();
+    }
+
     /**
      * launches the application
      * @param args
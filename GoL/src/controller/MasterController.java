@@ -1,16 +1,25 @@
 package controller;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
+import javafx.scene.layout.GridPane;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import model.Configuration;
+import model.Parser.PatternLibrary;
 import model.Parser.PatternParser;
 import model.PatternFormatException;
+import model.WorkerPool;
 import s305061.gif.GifController;
 import s305061.statistics.StatController;
 import s305080.Statistics.Stats;
@@ -19,6 +28,8 @@ import tools.MessageBox;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,6 +42,9 @@ public class MasterController {
     private Scene scene;
 
     private FileChooser patternChooser = new FileChooser();
+    private PatternParser patternParser = new PatternParser();
+    private PatternLibrary patternLibrary = new PatternLibrary(
+            Paths.get("../GoL/Patterns"), Paths.get("../GoL/resources/pattern-library.index"));
 
     @FXML private CanvasController canvasController;
     @FXML private MenuController menuController;
@@ -58,6 +72,9 @@ public class MasterController {
         // read and loads game of life configurations from file
         configuration = new Configuration("../GoL/resources/config.properties");
 
+        // sets the number of threads shared by the game boards
+        WorkerPool.setParallelism(configuration.getGameThreads());
+
         // set stage to field
         this.stage = stage;
 
@@ -176,7 +193,7 @@ public class MasterController {
 
             try {
                 // set pattern to canvas
-                canvasController.setClipBoardPattern(PatternParser.read(file));
+                canvasController.setClipBoardPattern(patternParser.parse(file));
             }
             catch (PatternFormatException e) {
                 MessageBox.alert(e.getMessage());
@@ -186,6 +203,106 @@ public class MasterController {
         }
     }
 
+    /**
+     * Opens the pattern library, where the user can find a pattern by rule, size and population, and import it.
+     * The library is scanned on a background thread, and shown when the scan is done.
+     */
+    public void choosePatternFromLibrary(){
+
+        Task<List<PatternLibrary.Entry>> scan = new Task<List<PatternLibrary.Entry>>() {
+            @Override
+            protected List<PatternLibrary.Entry> call() throws Exception {
+                return patternLibrary.scan();
+            }
+        };
+
+        scan.setOnSucceeded(event -> showPatternLibrary());
+        scan.setOnFailed(event -> MessageBox.alert("Could not read the pattern library"));
+
+        Thread thread = new Thread(scan);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Shows the patterns of the library in a dialog with filters, and imports the chosen pattern
+     */
+    private void showPatternLibrary(){
+
+        // filters, where empty fields match every pattern
+        TextField ruleField = new TextField();
+        TextField maxWidthField = new TextField();
+        TextField maxHeightField = new TextField();
+        TextField minPopulationField = new TextField();
+        TextField maxPopulationField = new TextField();
+        ruleField.setPromptText("Any rule");
+
+        ListView<PatternLibrary.Entry> patterns = new ListView<>();
+        patterns.getItems().setAll(patternLibrary.getEntries());
+        patterns.setPrefSize(500, 400);
+
+        Runnable filter = () -> patterns.getItems().setAll(patternLibrary.filter(
+                ruleField.getText().trim().isEmpty() ? null : ruleField.getText(),
+                (int) parseLimit(maxWidthField.getText(), Integer.MAX_VALUE),
+                (int) parseLimit(maxHeightField.getText(), Integer.MAX_VALUE),
+                parseLimit(minPopulationField.getText(), 0),
+                parseLimit(maxPopulationField.getText(), Long.MAX_VALUE)));
+
+        for (TextField field : new TextField[]{ruleField, maxWidthField, maxHeightField, minPopulationField, maxPopulationField})
+            field.textProperty().addListener((observable, oldValue, newValue) -> filter.run());
+
+        GridPane filters = new GridPane();
+        filters.setHgap(10);
+        filters.setVgap(5);
+        filters.addRow(0, new Label("Rule"), ruleField);
+        filters.addRow(1, new Label("Max width"), maxWidthField, new Label("Max height"), maxHeightField);
+        filters.addRow(2, new Label("Min population"), minPopulationField, new Label("Max population"), maxPopulationField);
+        filters.add(patterns, 0, 3, 4, 1);
+
+        Dialog<PatternLibrary.Entry> dialog = new Dialog<>();
+        dialog.setTitle("Pattern library");
+        dialog.setHeaderText("Choose a pattern to import");
+        dialog.getDialogPane().setContent(filters);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> (button == ButtonType.OK) ? patterns.getSelectionModel().getSelectedItem() : null);
+
+        // lock canvas control
+        canvasController.setInteraction(true);
+
+        Optional<PatternLibrary.Entry> result = dialog.showAndWait();
+
+        // release canvas control
+        canvasController.setInteraction(false);
+
+        result.ifPresent(entry -> {
+            try {
+                // set pattern to canvas
+                canvasController.setClipBoardPattern(patternLibrary.load(entry));
+            }
+            catch (PatternFormatException e) {
+                MessageBox.alert(e.getMessage());
+            } catch (IOException e) {
+                MessageBox.alert("Could not read " + entry.getLocation());
+            }
+        });
+    }
+
+    /**
+     * Parses a limit of a library filter
+     * @param text The text of the filter field
+     * @param noLimit The limit used when the field is empty or not a number
+     * @return The limit
+     */
+    private static long parseLimit(String text, long noLimit){
+
+        try {
+            return Long.parseLong(text.trim());
+        }
+        catch (NumberFormatException ignored){
+            return noLimit;
+        }
+    }
+
     public CanvasController getCanvasController(){
         return canvasController;
     }
@@ -268,7 +385,7 @@ public class MasterController {
 
         result.ifPresent(name -> {
             try {
-                canvasController.setClipBoardPattern(PatternParser.readUrl(result.get()));
+                canvasController.setClipBoardPattern(patternParser.parseUrl(result.get()));
             }
             catch (PatternFormatException e){
                 MessageBox.alert(e.getMessage());
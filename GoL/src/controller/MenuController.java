@@ -25,7 +25,7 @@ import java.util.Optional;
  * */
 public class MenuController {
 
-    public RadioMenuItem staticButton, dynamicButton;
+    public RadioMenuItem staticButton, dynamicButton, packedButton, sparseButton, hashLifeButton;
     private MasterController masterController;
     
     @FXML private RadioMenuItem theStripS305080, statsS305080, markupS305080;
@@ -47,6 +47,14 @@ public class MenuController {
         masterController.choosePattern();
     }
 
+    /**
+     * Launch pattern library for finding and importing patterns by rule, size and population.
+     */
+    public void openPatternLibrary(){
+
+        masterController.choosePatternFromLibrary();
+    }
+
     /**
      * Save to pattern file.
      */
@@ -286,6 +294,9 @@ public class MenuController {
         }
         else{
             dynamicButton.setSelected(false);
+            packedButton.setSelected(false);
+            sparseButton.setSelected(false);
+            hashLifeButton.setSelected(false);
             masterController.getCanvasController().changeToStatic();
         }
     }
@@ -296,10 +307,58 @@ public class MenuController {
         }
         else{
             staticButton.setSelected(false);
+            packedButton.setSelected(false);
+            sparseButton.setSelected(false);
+            hashLifeButton.setSelected(false);
             masterController.getCanvasController().changeToDynamic();
         }
     }
 
+    public void changeToPackedBoard() {
+        if (!packedButton.isSelected()){
+            packedButton.setSelected(true);
+        }
+        else if (masterController.getCanvasController().changeToPacked()){
+            staticButton.setSelected(false);
+            dynamicButton.setSelected(false);
+            sparseButton.setSelected(false);
+            hashLifeButton.setSelected(false);
+        }
+        else{
+            packedButton.setSelected(false);
+        }
+    }
+
+    public void changeToSparseBoard() {
+        if (!sparseButton.isSelected()){
+            sparseButton.setSelected(true);
+        }
+        else if (masterController.getCanvasController().changeToSparse()){
+            staticButton.setSelected(false);
+            dynamicButton.setSelected(false);
+            packedButton.setSelected(false);
+            hashLifeButton.setSelected(false);
+        }
+        else{
+            sparseButton.setSelected(false);
+        }
+    }
+
+    public void changeToHashLifeBoard() {
+        if (!hashLifeButton.isSelected()){
+            hashLifeButton.setSelected(true);
+        }
+        else if (masterController.getCanvasController().changeToHashLife()){
+            staticButton.setSelected(false);
+            dynamicButton.setSelected(false);
+            packedButton.setSelected(false);
+            sparseButton.setSelected(false);
+        }
+        else{
+            hashLifeButton.setSelected(false);
+        }
+    }
+
     public void openTips() {
         MessageBox.alert("Move around wit right-click + drag\n" +
                 "Draw cells with left-click\n" +
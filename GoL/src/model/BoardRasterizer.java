@@ -0,0 +1,243 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * @author Pair programming
+ *
+ * Draws the visible part of a game board into a buffer of ARGB pixels, so the whole board
+ * can be put on the canvas as one image instead of one rectangle per live cell.
+ * Cells of a pixel or larger are drawn as rectangles of pixels, with the spacing between them.
+ * When cells are smaller than a pixel, every pixel shows the share of live cells in the block of cells it covers,
+ * found from at most SAMPLES by SAMPLES cells, so the work per frame depends on the size of the canvas and not on the zoom.
+ */
+public class BoardRasterizer {
+
+    // max number of cells sampled in each direction for a pixel covering many cells
+    private static final int SAMPLES = 4;
+
+    private int[] pixels = new int[0];
+    private int width;
+    private int height;
+
+    // first and last pixel of every visible cell column and row, or first and last cells sampled for every pixel
+    private int[] columnStart = new int[0];
+    private int[] columnStop = new int[0];
+    private int[] rowStart = new int[0];
+    private int[] rowStop = new int[0];
+
+    // colors for every number of live cells among the sampled cells of a pixel
+    private int[] densityColors = new int[SAMPLES * SAMPLES + 1];
+
+    /**
+     * Draws the visible part of the game board into the pixel buffer.
+     * The buffer is reused between calls with the same size, and must not be changed by the caller.
+     *
+     * @param board The game board to draw
+     * @param offsetX Horizontal pixel position of the left edge of the canvas, relative to the left edge of the board
+     * @param offsetY Vertical pixel position of the top edge of the canvas, relative to the top edge of the board
+     * @param cellSize Size of a cell in pixels
+     * @param spacing Pixels between cells
+     * @param liveColor ARGB color of live cells
+     * @param deadColor ARGB color of dead cells
+     * @param width Width of the canvas in pixels
+     * @param height Height of the canvas in pixels
+     * @return The pixel buffer, row by row
+     */
+    public int[] rasterize(BoardView board, double offsetX, double offsetY, double cellSize, double spacing,
+                           int liveColor, int deadColor, int width, int height) {
+
+        if (pixels.length != width * height)
+            pixels = new int[width * height];
+
+        this.width = width;
+        this.height = height;
+
+        Arrays.fill(pixels, deadColor);
+
+        if (cellSize >= 1)
+            drawCells(board, offsetX, offsetY, cellSize, spacing, liveColor);
+        else
+            drawDensity(board, offsetX, offsetY, cellSize, liveColor, deadColor);
+
+        return pixels;
+    }
+
+    //region cells of a pixel or larger
+
+    /**
+     * Draws every visible live cell as a rectangle of pixels
+     */
+    private void drawCells(BoardView board, double offsetX, double offsetY, double cellSize, double spacing, int liveColor) {
+
+        // the visible cells
+        int minX = Math.max(0, (int) Math.floor(offsetX / cellSize));
+        int maxX = Math.min(board.getGridWidth() - 1, (int) Math.floor((offsetX + width - 1) / cellSize));
+        int minY = Math.max(0, (int) Math.floor(offsetY / cellSize));
+        int maxY = Math.min(board.getGridHeight() - 1, (int) Math.floor((offsetY + height - 1) / cellSize));
+
+        if (minX > maxX || minY > maxY)
+            return;
+
+        int columns = findCellSpans(minX, maxX, offsetX, cellSize, spacing, width, true);
+        int rows = findCellSpans(minY, maxY, offsetY, cellSize, spacing, height, false);
+
+        for (int i = 0; i < columns; i++) {
+
+            // only the spacing of the cell is visible
+            if (columnStart[i] > columnStop[i])
+                continue;
+
+            for (int j = 0; j < rows; j++) {
+
+                if (rowStart[j] <= rowStop[j] && board.isCellAlive(minX + i, minY + j))
+                    fillRect(columnStart[i], columnStop[i], rowStart[j], rowStop[j], liveColor);
+            }
+        }
+    }
+
+    /**
+     * Finds the first and last pixel covered by every cell from min to max in one direction,
+     * leaving out the spacing, and at least one pixel for every cell.
+     * A cell where only the spacing is on the canvas gets a first pixel after its last pixel.
+     *
+     * @return Number of cells
+     */
+    private int findCellSpans(int min, int max, double offset, double cellSize, double spacing, int pixelCount, boolean columns) {
+
+        int count = max - min + 1;
+        int[] start = ensureCapacity(columns ? columnStart : rowStart, count);
+        int[] stop = ensureCapacity(columns ? columnStop : rowStop, count);
+
+        for (int i = 0; i < count; i++) {
+
+            double position = (min + i) * cellSize - offset;
+
+            int first = (int) Math.floor(position);
+            int last = Math.max(first, (int) Math.ceil(position + cellSize - spacing) - 1);
+
+            start[i] = Math.max(first, 0);
+            stop[i] = Math.min(last, pixelCount - 1);
+        }
+
+        if (columns) {
+            columnStart = start;
+            columnStop = stop;
+        } else {
+            rowStart = start;
+            rowStop = stop;
+        }
+        return count;
+    }
+
+    /**
+     * Fills a rectangle of pixels, from and including the first to and including the last pixel
+     */
+    private void fillRect(int firstX, int lastX, int firstY, int lastY, int color) {
+
+        for (int y = firstY; y <= lastY; y++)
+            Arrays.fill(pixels, y * width + firstX, y * width + lastX + 1, color);
+    }
+
+    //endregion
+
+    //region cells smaller than a pixel
+
+    /**
+     * Colors every pixel by the share of live cells in the block of cells it covers
+     */
+    private void drawDensity(BoardView board, double offsetX, double offsetY, double cellSize, int liveColor, int deadColor) {
+
+        findDensityColors(liveColor, deadColor);
+
+        int stepX = findSampledCells(board.getGridWidth(), offsetX, cellSize, width, true);
+        int stepY = findSampledCells(board.getGridHeight(), offsetY, cellSize, height, false);
+
+        for (int py = 0; py < height; py++) {
+
+            if (rowStart[py] > rowStop[py])
+                continue;
+
+            for (int px = 0; px < width; px++) {
+
+                if (columnStart[px] > columnStop[px])
+                    continue;
+
+                int liveCells = 0;
+                int sampledCells = 0;
+
+                for (int x = columnStart[px]; x <= columnStop[px]; x += stepX) {
+                    for (int y = rowStart[py]; y <= rowStop[py]; y += stepY) {
+
+                        if (board.isCellAlive(x, y))
+                            liveCells++;
+                        sampledCells++;
+                    }
+                }
+
+                if (liveCells > 0)
+                    pixels[py * width + px] = densityColors[liveCells * SAMPLES * SAMPLES / sampledCells];
+            }
+        }
+    }
+
+    /**
+     * Finds the first and last cell on the board covered by every pixel in one direction.
+     * A pixel outside the board gets a first cell after its last cell.
+     *
+     * @return Number of cells between the sampled cells
+     */
+    private int findSampledCells(int cellCount, double offset, double cellSize, int pixelCount, boolean columns) {
+
+        int[] start = ensureCapacity(columns ? columnStart : rowStart, pixelCount);
+        int[] stop = ensureCapacity(columns ? columnStop : rowStop, pixelCount);
+
+        int cellsPerPixel = (int) Math.ceil(1 / cellSize);
+
+        for (int i = 0; i < pixelCount; i++) {
+
+            start[i] = Math.max(0, (int) Math.floor((offset + i) / cellSize));
+            stop[i] = Math.min(cellCount - 1, (int) Math.ceil((offset + i + 1) / cellSize) - 1);
+        }
+
+        if (columns) {
+            columnStart = start;
+            columnStop = stop;
+        } else {
+            rowStart = start;
+            rowStop = stop;
+        }
+        return Math.max(1, (cellsPerPixel + SAMPLES - 1) / SAMPLES);
+    }
+
+    /**
+     * Blends the live and dead colors for every number of sampled live cells
+     */
+    private void findDensityColors(int liveColor, int deadColor) {
+
+        int cells = SAMPLES * SAMPLES;
+
+        for (int i = 0; i <= cells; i++) {
+
+            int color = 0xFF000000;
+
+            for (int shift = 0; shift < 24; shift += 8) {
+
+                int live = (liveColor >> shift) & 0xFF;
+                int dead = (deadColor >> shift) & 0xFF;
+
+                color |= (dead + (live - dead) * i / cells) << shift;
+            }
+            densityColors[i] = color;
+        }
+    }
+
+    //endregion
+
+    /**
+     * Gets an array with room for a number of elements, reusing the given one if it is large enough
+     */
+    private static int[] ensureCapacity(int[] array, int length) {
+        return (array.length >= length) ? array : new int[length];
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Read-only view of a game board, with what is needed to draw it.
+ * Implemented by the game boards themselves, and by the snapshots they publish for drawing from other threads.
+ */
+public interface BoardView {
+
+    /**
+     * Gets the grid width, or number of columns.
+     *
+     * @return Width of the grid
+     */
+    int getGridWidth();
+
+    /**
+     * Gets the grid height, or number of rows
+     *
+     * @return Height of the grid
+     */
+    int getGridHeight();
+
+    /**
+     * Gets the game board's horizontal offset from origin
+     *
+     * @return X offset
+     */
+    int getOffsetX();
+
+    /**
+     * Gets the game board's vertical offset from origin
+     *
+     * @return Y offset
+     */
+    int getOffsetY();
+
+    /**
+     * Checks if a cell at (x,y) is alive
+     *
+     * @param x X coordinate at grid.
+     * @param y Y coordinate at grid.
+     * @return True if cell is alive
+     */
+    boolean isCellAlive(int x, int y);
+
+    /**
+     * Gets the number of live cells at game board
+     *
+     * @return Number of live cells
+     */
+    int getCellCount();
+}
@@ -16,7 +16,7 @@ public class CameraView {
     /**
      * Updates the fields that contains the grid minimum and maximum x and y values displayed on the canvas
      */
-    public void updateView(GameOfLife gol, double cellSize, int ... dimensions) {
+    public void updateView(BoardView gol, double cellSize, int ... dimensions) {
 
         // finds minimum x coordinate visible on canvas
         currViewMinX = (int) (getCommonOffsetX(gol, cellSize) / cellSize);
@@ -46,7 +46,7 @@ public class CameraView {
      * Calculates the x offset for the board with the offset inside the GameOfLife
      * @return the common offset for the x coordinate
      */
-    public double getCommonOffsetX(GameOfLife gol, double cellSize){
+    public double getCommonOffsetX(BoardView gol, double cellSize){
         return  (boardOffsetX + gol.getOffsetX() * cellSize);
     }
 
@@ -54,7 +54,7 @@ public class CameraView {
      * Calculates the y offset for the board with the offset inside the GameOfLife
      * @return the common offset for the y coordinate
      */
-    public double getCommonOffsetY(GameOfLife gol, double cellSize){
+    public double getCommonOffsetY(BoardView gol, double cellSize){
         return  (boardOffsetY + gol.getOffsetY() * cellSize);
     }
 
@@ -30,6 +30,7 @@ public class Configuration {
     private String canvasGrid;
     private String gameHeight;
     private String gameWidth;
+    private String gameThreads;
     //endregion
 
     /**
@@ -138,6 +139,16 @@ public class Configuration {
         return Integer.parseInt(this.gameSpeed);
     }
 
+    /**
+     * gets the number of threads used to evolve the game from the config file
+     * @return the number of threads, or 0 to use one thread per available processor
+     */
+    public int getGameThreads() {
+        if (gameThreads == null)
+            return 0;
+        return Integer.parseInt(gameThreads.trim());
+    }
+
     /**
      * Returns true if the grid lines should be displayed
      * @return true if the grid lines should be displayed
@@ -161,6 +172,8 @@ public class Configuration {
                                     "game.speed = 20\n" +
                                     "game.width = 1000\n" +
                                     "game.height = 1000\n" +
+                                    "# Number of threads evolving the game, 0 uses all processors\n" +
+                                    "game.threads = 0\n" +
                                     "# Set cell properties\n" +
                                     "cell.color = black\n" +
                                     "cell.size = 10\n" +
@@ -212,6 +225,7 @@ public class Configuration {
         this.gameHeight = properties.getProperty("game.height");
         this.gameWidth = properties.getProperty("game.width");
         this.canvasGrid = properties.getProperty("canvas.grid");
+        this.gameThreads = properties.getProperty("game.threads");
     }
     //endregion
 
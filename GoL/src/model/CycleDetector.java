@@ -0,0 +1,275 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Pair programming
+ *
+ * Finds the period and displacement of oscillators and spaceships, by keeping the pattern hash of every generation
+ * together with the generation each hash was first seen in and where the pattern was.
+ * When a hash is seen again, the pattern has probably repeated, and the difference in generations is the period.
+ * As the pattern hash is kept up to date while the board evolves, recording a generation does not look at the cells,
+ * and no cells are kept. A repeat is only taken as a cycle once a clone of the board, evolved the period,
+ * has the same cells moved the same distance, so a hash collision is never taken as a cycle.
+ * Later repeats that fit a confirmed cycle are trusted without evolving a clone again.
+ * As the hash does not depend on the position of the pattern, moving patterns are found too.
+ * Can be passed to GameOfLife.nextGenerations() as a listener, to record every generation and stop when a cycle is found.
+ */
+public class CycleDetector implements GenerationListener {
+
+    // the distinct patterns seen, by their hash
+    private final Map<Long, SeenPattern> patternsByHash = new HashMap<>();
+
+    // the hash of every recorded generation, from the first recorded generation
+    private long[] hashes = new long[64];
+    private long firstGeneration = -1;
+    private int recorded;
+
+    // generations whose hash was seen before, but whose cells did not repeat
+    private final Set<Long> unconfirmedGenerations = new HashSet<>();
+
+    private final boolean stopOnCycle;
+
+    private boolean cycleFound;
+    private long cycleStart;
+    private long period;
+    private int displacementX;
+    private int displacementY;
+
+    // the last confirmed cycle, which later repeats are checked against
+    private SeenPattern lastCycle;
+    private long lastPeriod;
+    private long lastDisplacementX;
+    private long lastDisplacementY;
+
+    /**
+     * A pattern seen in one or more generations
+     */
+    private static final class SeenPattern {
+
+        // generation and top left corner of the pattern when it was first seen
+        final long generation;
+        final long x;
+        final long y;
+
+        int occurrences = 1;
+
+        // true once a repeat of the pattern has been checked against the cells
+        boolean confirmed;
+
+        SeenPattern(long generation, long x, long y) {
+
+            this.generation = generation;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * CycleDetector Constructor
+     *
+     * @param stopOnCycle True to stop nextGenerations() when a cycle is found
+     */
+    public CycleDetector(boolean stopOnCycle) {
+        this.stopOnCycle = stopOnCycle;
+    }
+
+    /**
+     * Records a generation. Every generation must be recorded in order, starting with the one before evolving.
+     * Once a cycle is found, it is kept, and later generations are only recorded.
+     *
+     * @param gol The game board, holding the generation
+     * @param generation Number of the generation
+     * @return True if a cycle has been found
+     */
+    public boolean record(GameOfLife gol, long generation) {
+
+        long hash = gol.getPatternHash();
+        addHash(generation, hash);
+
+        // the top left corner relative to the origin, so the displacement is right on boards that move their offset
+        boolean empty = gol.getCellCount() == 0;
+        int[] box = gol.getBoundingBox();
+        long x = empty ? 0 : box[0] - gol.getOffsetX();
+        long y = empty ? 0 : box[2] - gol.getOffsetY();
+
+        SeenPattern pattern = patternsByHash.get(hash);
+
+        if (pattern == null) {
+            patternsByHash.put(hash, new SeenPattern(generation, x, y));
+            return cycleFound;
+        }
+
+        long repeatPeriod = generation - pattern.generation;
+        long dx = x - pattern.x;
+        long dy = y - pattern.y;
+
+        if (!pattern.confirmed && !fitsLastCycle(pattern, repeatPeriod, dx, dy)) {
+
+            if (!repeatsAfter(gol, repeatPeriod, dx, dy)) {
+                unconfirmedGenerations.add(generation);
+                return cycleFound;
+            }
+
+            lastCycle = pattern;
+            lastPeriod = repeatPeriod;
+            lastDisplacementX = dx;
+            lastDisplacementY = dy;
+        }
+
+        pattern.confirmed = true;
+        pattern.occurrences++;
+
+        if (!cycleFound) {
+
+            cycleFound = true;
+            cycleStart = pattern.generation;
+            period = repeatPeriod;
+            displacementX = (int) dx;
+            displacementY = (int) dy;
+        }
+        return cycleFound;
+    }
+
+    /**
+     * Keeps the hash of a generation
+     */
+    private void addHash(long generation, long hash) {
+
+        if (firstGeneration < 0)
+            firstGeneration = generation;
+
+        if (recorded == hashes.length)
+            hashes = Arrays.copyOf(hashes, recorded * 2);
+
+        hashes[recorded++] = hash;
+    }
+
+    /**
+     * Checks if a repeat belongs to the last confirmed cycle: the pattern was first seen after the cycle started,
+     * and it repeats after a number of periods, moved the same number of displacements
+     */
+    private boolean fitsLastCycle(SeenPattern pattern, long repeatPeriod, long dx, long dy) {
+
+        if (lastCycle == null || pattern.generation < lastCycle.generation || repeatPeriod % lastPeriod != 0)
+            return false;
+
+        long periods = repeatPeriod / lastPeriod;
+        return dx == periods * lastDisplacementX && dy == periods * lastDisplacementY;
+    }
+
+    /**
+     * Checks if the cells of the board repeat after a number of generations, moved by a given distance,
+     * by evolving a clone of the board and comparing the cells of the bounding boxes row by row
+     */
+    private static boolean repeatsAfter(GameOfLife gol, long generations, long dx, long dy) {
+
+        GameOfLife clone = gol.clone();
+        clone.nextGenerations(generations);
+
+        if (clone.getCellCount() != gol.getCellCount() || clone.getPatternHash() != gol.getPatternHash())
+            return false;
+
+        if (gol.getCellCount() == 0)
+            return true;
+
+        int[] box = gol.getBoundingBox();
+        int[] cloneBox = clone.getBoundingBox();
+        int width = box[1] - box[0] + 1;
+        int height = box[3] - box[2] + 1;
+
+        if (cloneBox[1] - cloneBox[0] + 1 != width || cloneBox[3] - cloneBox[2] + 1 != height)
+            return false;
+
+        if (cloneBox[0] - clone.getOffsetX() - (box[0] - gol.getOffsetX()) != dx
+                || cloneBox[2] - clone.getOffsetY() - (box[2] - gol.getOffsetY()) != dy)
+            return false;
+
+        long[] row = new long[(width + 63) / 64];
+        long[] cloneRow = new long[row.length];
+
+        for (int y = 0; y < height; y++) {
+
+            gol.getRowWords(box[0], box[2] + y, width, row);
+            clone.getRowWords(cloneBox[0], cloneBox[2] + y, width, cloneRow);
+
+            if (!Arrays.equals(row, cloneRow))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records the generation, and stops the batch when a cycle is found if asked to
+     */
+    @Override
+    public boolean onGeneration(GameOfLife gol, long generation) {
+        return !record(gol, generation) || !stopOnCycle;
+    }
+
+    //region getters
+
+    public boolean isCycleFound() {
+        return cycleFound;
+    }
+
+    /**
+     * Checks if the same pattern as in a generation is seen in another recorded generation.
+     * Only generations whose pattern really occurs again are repeated, so generations after a cycle has ended are not.
+     *
+     * @param generation Number of the generation
+     * @return True if the pattern of the generation is repeated among the recorded generations
+     */
+    public boolean isRepeated(long generation) {
+
+        long index = generation - firstGeneration;
+
+        if (firstGeneration < 0 || index < 0 || index >= recorded || unconfirmedGenerations.contains(generation))
+            return false;
+
+        SeenPattern pattern = patternsByHash.get(hashes[(int) index]);
+        return pattern != null && pattern.occurrences > 1;
+    }
+
+    /**
+     * Gets the first generation of the cycle
+     *
+     * @return The first generation of the cycle
+     */
+    public long getCycleStart() {
+        return cycleStart;
+    }
+
+    /**
+     * Gets the number of generations before the pattern repeats. A still life has period 1.
+     *
+     * @return The period, or 0 if no cycle has been found
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Gets the number of cells the pattern moves to the right every period
+     *
+     * @return The horizontal displacement, 0 for oscillators
+     */
+    public int getDisplacementX() {
+        return displacementX;
+    }
+
+    /**
+     * Gets the number of cells the pattern moves down every period
+     *
+     * @return The vertical displacement, 0 for oscillators
+     */
+    public int getDisplacementY() {
+        return displacementY;
+    }
+
+    //endregion
+}
@@ -0,0 +1,116 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Pair programming
+ *
+ * Game board that can also be evolved double-buffered.
+ * The next generation is computed from the current board into a back buffer in a single pass,
+ * by a number of tasks run by the shared WorkerPool, then the buffers are swapped.
+ * Is abstract and needs to be extended by StaticGameOfLife or DynamicGameOfLife,
+ * which keep the back buffer and evolve the cells into it.
+ */
+public abstract class DoubleBufferedGameOfLife extends GameOfLife {
+
+    // tasks and results of double-buffered evolution, created once and reused every generation
+    private List<Runnable> doubleBufferedTasks = new ArrayList<>();
+    private EvolveResult[] doubleBufferedResults = new EvolveResult[0];
+
+    //region next generation
+
+    /**
+     * Evolves the game board one generation.
+     * In two-phase mode, it will use a number of tasks to count neighbours first,
+     * then use a number of tasks to evolve the cells.
+     * In double-buffered mode, it will use a number of tasks to evolve the cells
+     * into the back buffer, then swap the buffers.
+     * The time of every phase is recorded in the generation metrics,
+     * together with the cells visited, which in two-phase mode is the whole board.
+     */
+    @Override
+    public void nextGeneration() {
+
+        if (evolutionMode != EvolutionMode.DOUBLE_BUFFERED) {
+            super.nextGeneration();
+            return;
+        }
+
+        long start = metrics.startTiming();
+        reclaimRetiredSnapshots();
+
+        long visitedCells = nextGenerationDoubleBuffered();
+        metrics.record(GenerationMetrics.Phase.EVOLVE, start);
+        metrics.recordGenerations(start, 1, visitedCells, cellCount.get());
+    }
+
+    /**
+     * Evolves the game board one generation in a single pass,
+     * reading the current generation and writing the next generation to the back buffer.
+     * The tasks are only created again if the parallelism of the worker pool has changed,
+     * as each task finds its columns from the width of the board when it runs.
+     *
+     * @return Number of cells visited by the tasks, as tasks may skip parts of the board
+     */
+    private long nextGenerationDoubleBuffered() {
+
+        int parallelism = WorkerPool.getInstance().getParallelism();
+
+        if (doubleBufferedResults.length != parallelism) {
+
+            EvolveResult[] results = new EvolveResult[parallelism];
+            List<Runnable> doubleBufferedTasks = new ArrayList<>();
+
+            for (int i = 0; i < parallelism; i++) {
+                final int finalI = i;
+
+                doubleBufferedTasks.add(() -> results[finalI] = evolveIntoBackBuffer(
+                        finalI * getGridWidth()/ parallelism, (finalI + 1) * getGridWidth()/ parallelism));
+            }
+
+            this.doubleBufferedTasks = doubleBufferedTasks;
+            doubleBufferedResults = results;
+        }
+
+        EvolveResult[] results = doubleBufferedResults;
+        Arrays.fill(results, null);
+
+        try {
+            WorkerPool.getInstance().invokeAll(doubleBufferedTasks);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            return 0;
+        }
+
+        setEvolveResult(results);
+        swapBuffers();
+        return countVisitedCells(results);
+    }
+
+    /**
+     * Computes the next generation of the columns from startColumn to stopColumn,
+     * and writes it to the back buffer without changing the current generation.
+     *
+     * @param startColumn First column from the left
+     * @param stopColumn Column to stop at, not included
+     * @return Number of live cells in the evolved columns, and the bounding box around them
+     */
+    protected abstract EvolveResult evolveIntoBackBuffer(int startColumn, int stopColumn);
+
+    /**
+     * Makes the back buffer the current generation
+     */
+    protected abstract void swapBuffers();
+
+    //endregion
+
+    /**
+     * Both evolution modes are supported
+     */
+    @Override
+    public boolean supportsEvolutionMode(EvolutionMode evolutionMode) {
+        return true;
+    }
+}
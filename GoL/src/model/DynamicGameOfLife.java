@@ -1,22 +1,45 @@
 package model;
 
+import model.rules.Rule;
 import model.rules.RuleParser;
 
-import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * @author Pair programming
  *
  * Game class with a game board with dynamic size.
- * The game board will expand or shrink to fit around the pattern
+ * The game board will expand or shrink to fit around the pattern.
+ * The cells are stored column by column in one flat array, with room to spare on all four sides of the board.
+ * Growing into the spare room or shrinking only moves the edges of the board, and when the room runs out,
+ * the board is copied to an array twice the size it needs, so growth in any direction costs amortized constant time per cell.
+ * Evolves double-buffered by default, like the static game board.
+ * Clones share the cells with the original game board until either of them writes to them.
  */
-public class DynamicGameOfLife extends GameOfLife{
+public class DynamicGameOfLife extends DoubleBufferedGameOfLife {
 
-    // game board
-    private ArrayList<ArrayList<AtomicBoolean>> grid;
-    private ArrayList<ArrayList<AtomicInteger>> neighbours;
+    private static final int MIN_CAPACITY = 16;
+
+    // game board, and the buffer the next generation is written to, both with room for capacityWidth * capacityHeight cells
+    private boolean[] cells;
+    private boolean[] nextCells;
+    private volatile AtomicIntegerArray neighbours;
+
+    // the cells may be shared with a clone or a snapshot, and must be copied before they are written to
+    private boolean cellsShared;
+
+    // the snapshot the cells were last handed over to, and cells a snapshot has given back, used as the next buffer
+    private SnapshotCells lentCells;
+    private boolean[] spareCells;
+
+    private int capacityWidth;
+    private int capacityHeight;
+
+    // position of the top left cell of the board in the arrays, and the size of the board
+    private int left;
+    private int top;
+    private int width;
+    private int height;
 
     //region start up
 
@@ -26,8 +49,7 @@ public class DynamicGameOfLife extends GameOfLife{
      */
     public DynamicGameOfLife() {
 
-        createGameBoard();
-        setRule(RuleParser.CLASSIC_RULESTRING);
+        this(RuleParser.CLASSIC_RULESTRING);
     }
 
     /**
@@ -38,21 +60,61 @@ public class DynamicGameOfLife extends GameOfLife{
 
         createGameBoard();
         setRule(rulestring);
+        evolutionMode = EvolutionMode.DOUBLE_BUFFERED;
     }
 
     /**
-     * Creates the boolean 2D Array to keep track of dead and live cells, and the 2D byte-
-     * array to keep track of the neighbour count to the corresponding cells in the other array
+     * DynamicGameOfLife copy constructor, used by clone().
+     * The cells are shared with the copied game board instead of being copied,
+     * and the buffer and the neighbour counts are created when they are first needed.
+     *
+     * @param gameOfLife The game board to copy
+     */
+    private DynamicGameOfLife(DynamicGameOfLife gameOfLife) {
+
+        copyGameState(gameOfLife);
+        resetOffset();
+
+        capacityWidth = gameOfLife.capacityWidth;
+        capacityHeight = gameOfLife.capacityHeight;
+        left = gameOfLife.left;
+        top = gameOfLife.top;
+        width = gameOfLife.width;
+        height = gameOfLife.height;
+
+        cells = gameOfLife.cells;
+        cellsShared = true;
+        gameOfLife.cellsShared = true;
+        gameOfLife.shareLentCells();
+    }
+
+    /**
+     * Creates a game board of one dead cell, in the middle of the arrays
      */
     private void createGameBoard() {
 
-        grid = new ArrayList<>();
-        neighbours = new ArrayList<>();
+        createArrays(MIN_CAPACITY, MIN_CAPACITY);
 
-        grid.add(new ArrayList<>());
-        neighbours.add(new ArrayList<>());
-        grid.get(0).add(new AtomicBoolean(false));
-        neighbours.get(0).add(new AtomicInteger(0));
+        left = MIN_CAPACITY / 2;
+        top = MIN_CAPACITY / 2;
+        width = 1;
+        height = 1;
+    }
+
+    /**
+     * Creates the arrays for the cells and the next generation.
+     * The neighbour counts are only used in two-phase mode, and are created when they are first needed.
+     */
+    private void createArrays(int capacityWidth, int capacityHeight) {
+
+        this.capacityWidth = capacityWidth;
+        this.capacityHeight = capacityHeight;
+
+        cells = new boolean[capacityWidth * capacityHeight];
+        nextCells = new boolean[capacityWidth * capacityHeight];
+        neighbours = null;
+        cellsShared = false;
+        spareCells = null;
     }
     //endregion
 
@@ -61,12 +123,24 @@ public class DynamicGameOfLife extends GameOfLife{
     @Override
     public void nextGeneration() {
 
+        long start = metrics.startTiming();
+        reclaimRetiredSnapshots();
         fitBoardToPattern();
+        metrics.record(GenerationMetrics.Phase.FIT_BOARD, start);
+
+        // the buffer is written before it is read, so a new one is enough after cloning.
+        // two-phase evolution writes to the cells from many tasks, so they are copied here and not on the first write
+        if (nextCells == null)
+            nextCells = new boolean[capacityWidth * capacityHeight];
+        if (evolutionMode == EvolutionMode.TWO_PHASE)
+            getWritableCells();
+
         super.nextGeneration();
     }
 
     /**
-     * Will expand or shrink the game board to fit around the pattern
+     * Will expand or shrink the game board to fit around the pattern.
+     * Uses the bounding box found in the last generation, so the board is not searched for live cells.
      */
     public void fitBoardToPattern() {
 
@@ -79,10 +153,10 @@ public class DynamicGameOfLife extends GameOfLife{
             increaseXLeft(1);
             bBox[1] += 1;
         }
-        if (bBox[1] < grid.size() - 2){
-            decreaseXRight(grid.size() - bBox[1] - 2);
+        if (bBox[1] < width - 2){
+            decreaseXRight(width - bBox[1] - 2);
         }
-        else if(bBox[1] == grid.size() - 1){
+        else if(bBox[1] == width - 1){
             increaseXRight(1);
         }
 
@@ -94,14 +168,90 @@ public class DynamicGameOfLife extends GameOfLife{
             increaseYTop(1);
             bBox[3] += 1;
         }
-        if (bBox[3] < grid.get(0).size() - 2){
-            decreaseYBottom(grid.get(0).size() - bBox[3] - 2);
+        if (bBox[3] < height - 2){
+            decreaseYBottom(height - bBox[3] - 2);
         }
-        else if(bBox[3] == grid.get(0).size() - 1){
+        else if(bBox[3] == height - 1){
             increaseYBottom(1);
         }
     }
 
+    /**
+     * Evolves the columns from startColumn to stopColumn into the next generation buffer.
+     * As the board always has a border of dead cells after being fitted to the pattern,
+     * cells outside the board are never counted as neighbours.
+     */
+    @Override
+    protected EvolveResult evolveIntoBackBuffer(int startColumn, int stopColumn) {
+
+        EvolveResult result = new EvolveResult();
+        int transitionTable = rule.getTransitionTable();
+
+        for (int x = startColumn; x < stopColumn; x++) {
+
+            int column = index(x, 0);
+
+            // the columns to the left and right, if they are on the board
+            int leftColumn = (x > 0) ? column - capacityHeight : -1;
+            int rightColumn = (x < width - 1) ? column + capacityHeight : -1;
+
+            for (int y = 0; y < height; y++) {
+
+                int neighbourCount = 0;
+
+                int above = Math.max(y - 1, 0);
+                int below = Math.min(y + 1, height - 1);
+
+                for (int b = above; b <= below; b++) {
+
+                    if (leftColumn >= 0 && cells[leftColumn + b])
+                        neighbourCount++;
+                    if (b != y && cells[column + b])
+                        neighbourCount++;
+                    if (rightColumn >= 0 && cells[rightColumn + b])
+                        neighbourCount++;
+                }
+
+                boolean wasAlive = cells[column + y];
+                boolean alive = Rule.isAlive(transitionTable, wasAlive, neighbourCount);
+                nextCells[column + y] = alive;
+
+                if (alive)
+                    result.addLiveCell(x, y);
+                if (alive != wasAlive) {
+                    result.addChanges(alive ? 1 : 0, alive ? 0 : 1);
+                    result.addHashChange(alive ? PatternHash.cellKey(x, y) : -PatternHash.cellKey(x, y));
+                }
+            }
+        }
+        result.addVisitedCells((long) (stopColumn - startColumn) * height);
+        return result;
+    }
+
+    @Override
+    protected void swapBuffers() {
+
+        boolean[] temp = cells;
+        cells = nextCells;
+
+        // cells shared with a clone or a snapshot can not be used as the next buffer, but cells given back can
+        nextCells = cellsShared ? takeSpareCells() : temp;
+        cellsShared = false;
+    }
+
+    /**
+     * Gets the cells given back by a snapshot, if they fit the arrays of the board
+     *
+     * @return The cells, or null if there are none
+     */
+    private boolean[] takeSpareCells() {
+
+        boolean[] spare = spareCells;
+        spareCells = null;
+
+        return (spare != null && spare.length == capacityWidth * capacityHeight) ? spare : null;
+    }
+
     //endregion
 
     //region dynamic board handling
@@ -113,17 +263,10 @@ public class DynamicGameOfLife extends GameOfLife{
      */
     private void increaseXRight(int diffX) {
 
-        for (int i = 0; i < diffX; i++){
+        reserveColumns(0, diffX);
 
-            grid.add(new ArrayList<>());
-            neighbours.add(new ArrayList<>());
-
-            for (int j = 0; j < grid.get(0).size(); j++) {
-
-                grid.get(grid.size() - 1).add(new AtomicBoolean(false));
-                neighbours.get(grid.size() - 1).add(new AtomicInteger(0));
-            }
-        }
+        width += diffX;
+        clearColumns(width - diffX, width);
     }
 
     /**
@@ -133,13 +276,10 @@ public class DynamicGameOfLife extends GameOfLife{
      */
     private void increaseYBottom(int diffY){
 
-        for (int i = 0; i < grid.size(); i++) {
-            for (int j = 0; j < diffY; j++){
+        reserveRows(0, diffY);
 
-                grid.get(i).add(new AtomicBoolean(false));
-                neighbours.get(i).add(new AtomicInteger(0));
-            }
-        }
+        height += diffY;
+        clearRows(height - diffY, height);
     }
 
     /**
@@ -147,21 +287,16 @@ public class DynamicGameOfLife extends GameOfLife{
      *
      * @param diffX Number of columns
      */
+    @Override
     public void increaseXLeft(int diffX) {
 
         cellOffsetX += diffX;
 
-        for (int i = 0; i < diffX; i++){
-
-            grid.add(0, new ArrayList<>());
-            neighbours.add(0, new ArrayList<>());
-
-            for (int j = 0; j < grid.get(1).size(); j++) {
+        reserveColumns(diffX, 0);
 
-                grid.get(0).add(new AtomicBoolean(false));
-                neighbours.get(0).add(new AtomicInteger(0));
-            }
-        }
+        left -= diffX;
+        width += diffX;
+        clearColumns(0, diffX);
     }
 
     /**
@@ -169,17 +304,16 @@ public class DynamicGameOfLife extends GameOfLife{
      *
      * @param diffY Number of rows
      */
+    @Override
     public void increaseYTop(int diffY){
 
         cellOffsetY += diffY;
 
-        for (int i = 0; i < grid.size(); i++) {
-            for (int j = 0; j < diffY; j++){
+        reserveRows(diffY, 0);
 
-                grid.get(i).add(0, new AtomicBoolean(false));
-                neighbours.get(i).add(0, new AtomicInteger(0));
-            }
-        }
+        top -= diffY;
+        height += diffY;
+        clearRows(0, diffY);
     }
 
     /**
@@ -188,12 +322,7 @@ public class DynamicGameOfLife extends GameOfLife{
      * @param diffX Number of columns
      */
     private void decreaseXRight(int diffX) {
-
-        for (int i = 0; i < diffX; i++){
-
-            grid.remove(grid.size() - 1);
-            neighbours.remove(neighbours.size() - 1);
-        }
+        width -= diffX;
     }
 
     /**
@@ -202,14 +331,7 @@ public class DynamicGameOfLife extends GameOfLife{
      * @param diffY Number of rows
      */
     private void decreaseYBottom(int diffY){
-
-        for (int i = 0; i < grid.size(); i++) {
-            for (int j = 0; j < diffY; j++){
-
-                grid.get(i).remove(grid.get(i).size() - 1);
-                neighbours.get(i).remove(neighbours.get(i).size() - 1);
-            }
-        }
+        height -= diffY;
     }
 
     /**
@@ -221,11 +343,8 @@ public class DynamicGameOfLife extends GameOfLife{
 
         cellOffsetX -= diffX;
 
-        for (int i = 0; i < diffX; i++){
-
-            grid.remove(0);
-            neighbours.remove(0);
-        }
+        left += diffX;
+        width -= diffX;
     }
 
     /**
@@ -236,168 +355,328 @@ public class DynamicGameOfLife extends GameOfLife{
 
         cellOffsetY -= diffY;
 
-        for (int i = 0; i < grid.size(); i++) {
-            for (int j = 0; j < diffY; j++){
+        top += diffY;
+        height -= diffY;
+    }
 
-                grid.get(i).remove(0);
-                neighbours.get(i).remove(0);
-            }
+    /**
+     * Makes sure there is room for a number of new columns on each side of the board.
+     * If not, the board is copied to the middle of new arrays twice as wide as needed.
+     *
+     * @param leftColumns Number of columns needed to the left
+     * @param rightColumns Number of columns needed to the right
+     */
+    private void reserveColumns(int leftColumns, int rightColumns) {
+
+        if (left >= leftColumns && capacityWidth - left - width >= rightColumns)
+            return;
+
+        int neededWidth = width + leftColumns + rightColumns;
+        int newCapacityWidth = Math.max(2 * neededWidth, MIN_CAPACITY);
+
+        moveBoard(newCapacityWidth, capacityHeight, leftColumns + (newCapacityWidth - neededWidth) / 2, top);
+    }
+
+    /**
+     * Makes sure there is room for a number of new rows above and below the board.
+     * If not, the board is copied to the middle of new arrays twice as high as needed.
+     *
+     * @param topRows Number of rows needed above
+     * @param bottomRows Number of rows needed below
+     */
+    private void reserveRows(int topRows, int bottomRows) {
+
+        if (top >= topRows && capacityHeight - top - height >= bottomRows)
+            return;
+
+        int neededHeight = height + topRows + bottomRows;
+        int newCapacityHeight = Math.max(2 * neededHeight, MIN_CAPACITY);
+
+        moveBoard(capacityWidth, newCapacityHeight, left, topRows + (newCapacityHeight - neededHeight) / 2);
+    }
+
+    /**
+     * Copies the board to new arrays. Only the current generation is copied,
+     * as the next generation buffer is written before it is read, and the neighbour counts are 0 between generations.
+     */
+    private void moveBoard(int newCapacityWidth, int newCapacityHeight, int newLeft, int newTop) {
+
+        boolean[] oldCells = cells;
+        int oldCapacityHeight = capacityHeight;
+
+        createArrays(newCapacityWidth, newCapacityHeight);
+
+        for (int x = 0; x < width; x++) {
+            System.arraycopy(oldCells, (left + x) * oldCapacityHeight + top,
+                    cells, (newLeft + x) * newCapacityHeight + newTop, height);
         }
+
+        left = newLeft;
+        top = newTop;
     }
 
-    //endregion
+    /**
+     * Kills the cells in the columns from startColumn to stopColumn,
+     * which may hold cells left over from when the board was larger
+     */
+    private void clearColumns(int startColumn, int stopColumn) {
 
-    //region getters
+        getWritableCells();
+
+        for (int x = startColumn; x < stopColumn; x++)
+            clearCells(x, 0, height);
+    }
 
     /**
-     * Getter for neighbour-2D-array
-     *
-     * @return The neighbour-2D-array
+     * Kills the cells in the rows from startRow to stopRow,
+     * which may hold cells left over from when the board was larger
      */
-    public ArrayList<ArrayList<AtomicInteger>> getNeighbours() {
-        return neighbours;
+    private void clearRows(int startRow, int stopRow) {
+
+        getWritableCells();
+
+        for (int x = 0; x < width; x++)
+            clearCells(x, startRow, stopRow);
     }
 
     /**
-     * Getter for the cell-2D-array
-     *
-     * @return The cell-2D-array
+     * Kills the cells in a column from startRow to stopRow, and resets their neighbour counts
+     */
+    private void clearCells(int x, int startRow, int stopRow) {
+
+        AtomicIntegerArray neighbourCounts = neighbours;
+
+        for (int i = index(x, startRow); i < index(x, stopRow); i++) {
+            cells[i] = false;
+
+            if (neighbourCounts != null)
+                neighbourCounts.set(i, 0);
+        }
+    }
+
+    /**
+     * Gets the cells for writing, copying them first if they are shared with a clone
+     */
+    private boolean[] getWritableCells() {
+
+        if (cellsShared) {
+            cells = cells.clone();
+            cellsShared = false;
+        }
+        return cells;
+    }
+
+    /**
+     * Gets the neighbour counts, creating them the first time they are needed
      */
-    public ArrayList<ArrayList<AtomicBoolean>> getGrid() {
-        return grid;
+    private AtomicIntegerArray getNeighbourCounts() {
+
+        AtomicIntegerArray neighbourCounts = neighbours;
+
+        if (neighbourCounts == null) {
+            synchronized (this) {
+
+                neighbourCounts = neighbours;
+
+                if (neighbourCounts == null) {
+                    neighbourCounts = new AtomicIntegerArray(capacityWidth * capacityHeight);
+                    neighbours = neighbourCounts;
+                }
+            }
+        }
+        return neighbourCounts;
     }
 
+    /**
+     * Gets the index of the cell at (x,y) in the arrays
+     */
+    private int index(int x, int y) {
+        return (left + x) * capacityHeight + top + y;
+    }
+
+    //endregion
+
+    //region getters
+
     @Override
-    public int getGridWidth(){ return grid.size(); }
+    public int getGridWidth(){ return width; }
 
     @Override
-    public int getGridHeight(){ return grid.get(0).size(); }
+    public int getGridHeight(){ return height; }
 
     @Override
     public int getNeighboursAt(int x, int y){
-        return neighbours.get(x).get(y).get();
+        return getNeighbourCounts().get(index(x, y));
     }
 
     @Override
     public boolean isCellAlive(int x, int y){
 
-        if(grid == null)
+        if (x < 0 || x >= width || y < 0 || y >= height)
             return false;
 
-        try{
-            return  grid.get(x).get(y).get();
-        }
-        catch(IndexOutOfBoundsException e){
-            return false;
-        }
+        return cells[index(x, y)];
     }
 
     /**
-     * Clones the DynamicGameOfLife object
-     * @return the cloned DynamicGameOfLife object
+     * Hands the cells over to the snapshot without copying them. The snapshot can only give them back
+     * if nothing else shares them, so not if they are shared with a clone or handed over to another snapshot.
      */
     @Override
-    public DynamicGameOfLife clone() {
+    GenerationSnapshot.Cells createSnapshotCells() {
+
+        boolean owned = !cellsShared;
+        shareLentCells();
 
-        DynamicGameOfLife gameOfLife = new DynamicGameOfLife(getRule().toString());
-        gameOfLife.deepCopyOnSet(grid);
-        gameOfLife.setCellCount(cellCount.get());
+        lentCells = new SnapshotCells(this, owned);
+        cellsShared = true;
 
-        return gameOfLife;
+        return lentCells;
     }
 
     /**
-     * Deep copies the grid and sets it.
-     * @param grid the grid to be deep copied and set.
+     * Keeps the cells given back by a snapshot, to be used as the next buffer
      */
-    private void deepCopyOnSet(ArrayList<ArrayList<AtomicBoolean>> grid) {
+    @Override
+    void reclaimSnapshotCells(GenerationSnapshot.Cells cells) {
 
-        neighbours.clear();
-        cellOffsetX = 0;
-        cellOffsetY = 0;
-        this.grid.clear();
+        SnapshotCells snapshotCells = (SnapshotCells) cells;
 
-        for (int x = 0; x < grid.size(); x++) {
+        if (snapshotCells.owned != null && snapshotCells.owned != this.cells)
+            spareCells = snapshotCells.owned;
 
-            this.grid.add(new ArrayList<>());
-            neighbours.add(new ArrayList<>());
+        if (lentCells == snapshotCells)
+            lentCells = null;
+    }
 
-            for (int y = 0; y < grid.get(x).size(); y++) {
+    /**
+     * Stops the snapshot the cells were last handed over to from giving them back,
+     * if they are still the cells of the board, for when they are shared with a clone or handed over to another snapshot
+     */
+    private void shareLentCells() {
 
-                this.grid.get(x).add(new AtomicBoolean(grid.get(x).get(y).get()));
-                neighbours.get(x).add(new AtomicInteger(0));
-            }
-        }
+        if (lentCells != null && lentCells.owned == cells)
+            lentCells.owned = null;
+    }
+
+    /**
+     * Clones the DynamicGameOfLife object.
+     * The clone shares the cells with this object, so cloning does not copy any cells.
+     * The offset of the clone is reset, so its top left cell is at the origin.
+     * @return the cloned DynamicGameOfLife object
+     */
+    @Override
+    public DynamicGameOfLife clone() {
+        return new DynamicGameOfLife(this);
     }
     //endregion
 
     //region setters
 
     /**
-     * Sets the cell grid to be used
+     * Sets a cell at (x,y) alive. The board grows to the right and downwards to fit the cell.
      *
-     * @param grid Cell grid
+     * @throws IndexOutOfBoundsException Thrown if x or y is negative
      */
-    public void setGrid(ArrayList<ArrayList<AtomicBoolean>> grid) {
-        this.grid = grid;
-    }
-
     @Override
     public void setCellAlive(int x, int y) {
 
-        if(!isCellAlive(x,y)) {
+        if (x < 0 || y < 0)
+            throw new IndexOutOfBoundsException("Cell (" + x + "," + y + ") is left of or above the board");
 
-            try {
-                grid.get(x).get(y).set(true);
-            }
-            catch (IndexOutOfBoundsException e) {
+        if(!isCellAlive(x,y)) {
 
-                int diffX = x - getGridWidth() + 1;
-                if(diffX > 0)
-                    increaseXRight(diffX);
+            int diffX = x - getGridWidth() + 1;
+            if(diffX > 0)
+                increaseXRight(diffX);
 
-                int diffY = y - getGridHeight() + 1;
-                if(diffY > 0)
-                    increaseYBottom(diffY);
+            int diffY = y - getGridHeight() + 1;
+            if(diffY > 0)
+                increaseYBottom(diffY);
 
-                grid.get(x).get(y).set(true);
-            }
+            getWritableCells()[index(x, y)] = true;
 
             cellCount.incrementAndGet();
+            invalidateBoundingBox();
         }
     }
 
+    /**
+     * Sets a run of cells alive. The last cell is set first, so the board is expanded once for the whole run.
+     */
+    @Override
+    public void setRowAlive(int x, int y, int length) {
+
+        if (length <= 0)
+            return;
+
+        setCellAlive(x + length - 1, y);
+        super.setRowAlive(x, y, length - 1);
+    }
+
     @Override
     public void setCellDead(int x, int y) {
 
         if(isCellAlive(x,y)) {
 
-            grid.get(x).get(y).set(false);
+            getWritableCells()[index(x, y)] = false;
             cellCount.decrementAndGet();
+            invalidateBoundingBox();
         }
     }
 
     @Override
     public void clearGrid() {
 
-        grid.clear();
-        neighbours.clear();
-
-        grid.add(new ArrayList<>());
-        neighbours.add(new ArrayList<>());
-
-        grid.get(0).add(new AtomicBoolean(false));
-        neighbours.get(0).add(new AtomicInteger(0));
+        createGameBoard();
 
         cellCount.set(0);
+        invalidateBoundingBox();
     }
 
     @Override
-    protected void incrementNeighboursAt(int x, int y){ neighbours.get(x).get(y).incrementAndGet(); }
+    protected void incrementNeighboursAt(int x, int y){ getNeighbourCounts().incrementAndGet(index(x, y)); }
 
     @Override
     public void resetNeighboursAt(int x, int y){
-        neighbours.get(x).get(y).set(0);
+        getNeighbourCounts().set(index(x, y), 0);
     }
     //endregion
+
+    /**
+     * The cells of a generation handed over to a snapshot, with the part of the arrays that is the board
+     */
+    private static final class SnapshotCells implements GenerationSnapshot.Cells {
+
+        private final boolean[] cells;
+        private final int capacityHeight;
+        private final int left;
+        private final int top;
+        private final int width;
+        private final int height;
+
+        // the cells, if the snapshot can give them back to the board. Only used by the thread publishing snapshots
+        private boolean[] owned;
+
+        SnapshotCells(DynamicGameOfLife gol, boolean owned) {
+
+            cells = gol.cells;
+            capacityHeight = gol.capacityHeight;
+            left = gol.left;
+            top = gol.top;
+            width = gol.width;
+            height = gol.height;
+
+            this.owned = owned ? cells : null;
+        }
+
+        @Override
+        public boolean isCellAlive(int x, int y) {
+
+            if (x < 0 || x >= width || y < 0 || y >= height)
+                return false;
+
+            return cells[(left + x) * capacityHeight + top + y];
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Number of live cells and the bounding box around them, found as a by-product of evolving a part of the game board,
+ * together with the births, deaths, the sums of the coordinates of the live cells, the number of cells visited
+ * and the change to the pattern hash.
+ * Every task fills its own result, and the results are merged when all tasks are done,
+ * so the tasks never write to shared state while evolving.
+ */
+public class EvolveResult {
+
+    private int liveCells;
+    private int births;
+    private int deaths;
+
+    // cells the rule was applied to, which is less than the area when parts of the board are skipped
+    private long visitedCells;
+
+    // keys of the cells that came alive minus the keys of the cells that died, see PatternHash
+    private long hashChange;
+
+    private long sumX;
+    private long sumY;
+
+    private int minX = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+
+    //region setters
+
+    /**
+     * Adds a live cell at (x,y)
+     *
+     * @param x X coordinate at grid.
+     * @param y Y coordinate at grid.
+     */
+    public void addLiveCell(int x, int y) {
+
+        liveCells++;
+        sumX += x;
+        sumY += y;
+
+        if (x < minX)
+            minX = x;
+        if (x > maxX)
+            maxX = x;
+        if (y < minY)
+            minY = y;
+        if (y > maxY)
+            maxY = y;
+    }
+
+    /**
+     * Adds a number of live cells inside a known box, like the cells of a tile that was not evolved.
+     * Nothing is added if the number is 0.
+     *
+     * @param count Number of live cells
+     * @param sumX Sum of the x coordinates of the live cells
+     * @param sumY Sum of the y coordinates of the live cells
+     * @param minX Min x of the live cells
+     * @param maxX Max x of the live cells
+     * @param minY Min y of the live cells
+     * @param maxY Max y of the live cells
+     */
+    public void addLiveCells(int count, long sumX, long sumY, int minX, int maxX, int minY, int maxY) {
+
+        if (count == 0)
+            return;
+
+        liveCells += count;
+        this.sumX += sumX;
+        this.sumY += sumY;
+
+        this.minX = Math.min(this.minX, minX);
+        this.maxX = Math.max(this.maxX, maxX);
+        this.minY = Math.min(this.minY, minY);
+        this.maxY = Math.max(this.maxY, maxY);
+    }
+
+    /**
+     * Adds the live cells of another result, like the result of another task
+     *
+     * @param other The other result
+     */
+    public void merge(EvolveResult other) {
+
+        addLiveCells(other.liveCells, other.sumX, other.sumY, other.minX, other.maxX, other.minY, other.maxY);
+        addChanges(other.births, other.deaths);
+        addVisitedCells(other.visitedCells);
+        addHashChange(other.hashChange);
+    }
+
+    /**
+     * Adds cells that came alive or died in the evolved part of the game board
+     *
+     * @param births Number of dead cells that came alive
+     * @param deaths Number of live cells that died
+     */
+    public void addChanges(int births, int deaths) {
+
+        this.births += births;
+        this.deaths += deaths;
+    }
+
+    /**
+     * Adds cells the rule was applied to, whether they changed or not
+     *
+     * @param count Number of cells
+     */
+    public void addVisitedCells(long count) {
+        visitedCells += count;
+    }
+
+    /**
+     * Adds the keys of cells that came alive and subtracts the keys of cells that died
+     *
+     * @param change Sum of the keys of the births minus the sum of the keys of the deaths, in coordinates at grid
+     */
+    public void addHashChange(long change) {
+        hashChange += change;
+    }
+
+    //endregion
+
+    //region getters
+
+    /**
+     * Gets the number of live cells
+     *
+     * @return Number of live cells
+     */
+    public int getLiveCells() {
+        return liveCells;
+    }
+
+    public int getBirths() {
+        return births;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    public long getVisitedCells() {
+        return visitedCells;
+    }
+
+    public long getHashChange() {
+        return hashChange;
+    }
+
+    public long getSumX() {
+        return sumX;
+    }
+
+    public long getSumY() {
+        return sumY;
+    }
+
+    /**
+     * Checks if there are no live cells, in which case the bounding box is undefined
+     *
+     * @return True if there are no live cells
+     */
+    public boolean isEmpty() {
+        return liveCells == 0;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    //endregion
+}
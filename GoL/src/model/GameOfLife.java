@@ -1,11 +1,17 @@
 package model;
 
 import model.rules.*;
-import tools.MessageBox;
+import tools.Messages;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Pair programming
@@ -14,12 +20,26 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Handles logic related to Game of Life. Contains a game board of cells,
  * and evolves these cells according to a specific rule.
  * Is abstract and needs to be extended by StaticGameOfLife or DynamicGameOfLife.
- * Supports concurrent programming
+ * Supports concurrent programming, the work is split into tasks run by the shared WorkerPool.
+ * The thread evolving the board can publish snapshots of it, which other threads can draw without locking.
  */
-public abstract class GameOfLife {
+public abstract class GameOfLife implements BoardView {
 
-    private int availableProcessors = Runtime.getRuntime().availableProcessors();
-    private List<Thread> threads = new ArrayList<>();
+    /**
+     * The ways a game board can be evolved one generation
+     */
+    public enum EvolutionMode {
+
+        // neighbours are counted into a shared neighbour grid, then the rule evolves the board in place
+        TWO_PHASE,
+
+        // the next generation is computed from the current board into a second buffer in a single pass
+        DOUBLE_BUFFERED
+    }
+
+    private List<Runnable> tasks = new ArrayList<>();
+
+    protected EvolutionMode evolutionMode = EvolutionMode.TWO_PHASE;
 
     protected AtomicInteger cellCount = new AtomicInteger(0);
     protected Rule rule;
@@ -28,27 +48,179 @@ public abstract class GameOfLife {
     protected int cellOffsetX = 0;
     protected int cellOffsetY = 0;
 
+    // bounding box around the live cells relative to the origin, so it stays valid when the offset changes.
+    // an empty array if there are no live cells, and null if the board has been edited since it was found
+    private volatile int[] patternBounds;
+
+    // sum of the keys of the live cells relative to the origin, kept up to date from the births and deaths
+    // while evolving. Only known if patternHashKnown is set, and found again after the board has been edited
+    private volatile long patternHashSum;
+    private volatile boolean patternHashKnown;
+
+    // the last published snapshot, handed over to the drawing thread
+    private final AtomicReference<GenerationSnapshot> snapshot = new AtomicReference<>();
+
+    // the snapshot the drawing thread took last, whose cells are not taken back while it may be drawn
+    private final AtomicReference<GenerationSnapshot> drawnSnapshot = new AtomicReference<>();
+
+    // snapshots replaced by newer ones, whose cells are taken back once they are not drawn.
+    // Only used by the thread publishing the snapshots
+    private static final int MAX_RETIRED_SNAPSHOTS = 2;
+    private final Deque<GenerationSnapshot> retiredSnapshots = new ArrayDeque<>();
+
+    // collectors fed with the statistics of every generation
+    private final List<StatisticsCollector> statisticsCollectors = new CopyOnWriteArrayList<>();
+
+    // timings of the phases of every generation
+    protected final GenerationMetrics metrics = GenerationMetrics.getInstance();
+
     //region next generation
 
     /**
-     * Evolves the game board one generation.
-     * Will use a number of threads to count neighbours first,
-     * then use a number of threads to evolve the cells
+     * Evolves the game board one generation in two phases.
+     * It will use a number of tasks to count neighbours first, then use a number of tasks to evolve the cells.
+     * Game boards supporting other evolution modes override it.
+     * The time of every phase is recorded in the generation metrics,
+     * together with the cells visited, which is the whole board.
      */
     public void nextGeneration() {
 
-        createCountingThreads();
+        long start = metrics.startTiming();
+        reclaimRetiredSnapshots();
+
+        createCountingTasks();
         try {
-            runThreads();
+            runTasks();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
-        createEvolveThreads();
+        long counted = metrics.record(GenerationMetrics.Phase.COUNT_NEIGHBOURS, start);
+
+        // the rule may set the cells through the setters, which forget the pattern hash,
+        // but the births and deaths are added to it from the results
+        boolean hashKnown = patternHashKnown;
+
+        EvolveResult[] results = createEvolveTasks();
         try {
-            runThreads();
+            runTasks();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        metrics.record(GenerationMetrics.Phase.EVOLVE, counted);
+
+        patternHashKnown = hashKnown;
+        setEvolveResult(results);
+        metrics.recordGenerations(start, 1, (long) getGridWidth() * getGridHeight(), cellCount.get());
+    }
+
+    /**
+     * Evolves the game board a number of generations in one batch.
+     * Game boards that can jump ahead several generations at once override it.
+     *
+     * @param generations Number of generations to evolve
+     */
+    public void nextGenerations(long generations) {
+        nextGenerations(generations, null);
+    }
+
+    /**
+     * Evolves the game board a number of generations in one batch, calling a listener after every generation.
+     * The listener is called by the evolving thread, and can stop the batch early.
+     *
+     * @param generations Number of generations to evolve
+     * @param listener Listener called after every generation, or null
+     * @return Number of generations evolved
+     */
+    public long nextGenerations(long generations, GenerationListener listener) {
+
+        for (long generation = 1; generation <= generations; generation++) {
+
+            nextGeneration();
+
+            if (listener != null && !listener.onGeneration(this, generation))
+                return generation;
+        }
+        return generations;
+    }
+
+    /**
+     * Counts the cells visited by the tasks of a generation. Tasks that failed are not counted.
+     *
+     * @param results The result of every task
+     * @return Number of cells visited
+     */
+    protected static long countVisitedCells(EvolveResult[] results) {
+
+        long visitedCells = 0;
+        for (EvolveResult result : results) {
+            if (result != null)
+                visitedCells += result.getVisitedCells();
+        }
+        return visitedCells;
+    }
+
+    /**
+     * Merges the results of the tasks of a generation, and sets the cell count and bounding box from them.
+     * If a task failed, the bounding box is found again the next time it is asked for.
+     *
+     * @param results The result of every task
+     */
+    protected void setEvolveResult(EvolveResult[] results) {
+
+        EvolveResult total = new EvolveResult();
+
+        for (EvolveResult result : results) {
+
+            if (result == null) {
+                invalidateBoundingBox();
+                return;
+            }
+            total.merge(result);
+        }
+        setEvolveResult(total);
+    }
+
+    /**
+     * Sets the cell count and bounding box from the result of evolving the whole game board,
+     * and adds the births and deaths to the sum of the pattern hash, if it is known
+     *
+     * @param result The result, in coordinates at grid
+     */
+    protected void setEvolveResult(EvolveResult result) {
+
+        cellCount.set(result.getLiveCells());
+        setPatternBounds(result);
+
+        if (patternHashKnown)
+            patternHashSum += PatternHash.move(result.getHashChange(), -cellOffsetX, -cellOffsetY);
+
+        publishStatistics(result, true);
+    }
+
+    /**
+     * Feeds the statistics of a generation to the collectors
+     *
+     * @param result Merged result of evolving the whole game board, in coordinates at grid
+     * @param changesCounted False if the game board does not count births and deaths
+     */
+    protected void publishStatistics(EvolveResult result, boolean changesCounted) {
+
+        if (statisticsCollectors.isEmpty())
+            return;
+
+        GenerationStatistics statistics = new GenerationStatistics(result, cellOffsetX, cellOffsetY, changesCounted);
+
+        for (StatisticsCollector collector : statisticsCollectors)
+            collector.collect(statistics);
+    }
+
+    /**
+     * Checks if any collectors are fed with statistics
+     *
+     * @return True if there are statistics collectors
+     */
+    protected boolean hasStatisticsCollectors() {
+        return !statisticsCollectors.isEmpty();
     }
 
     /**
@@ -78,65 +250,213 @@ public abstract class GameOfLife {
     }
     //endregion
 
+    //region statistics
+
+    /**
+     * Adds a collector, fed with the statistics of every generation from now on.
+     * The statistics are counted by the tasks while evolving, so the game board is not scanned again.
+     * Not copied to clones.
+     *
+     * @param collector The collector
+     */
+    public void addStatisticsCollector(StatisticsCollector collector) {
+        statisticsCollectors.add(collector);
+    }
+
+    /**
+     * Removes a collector
+     *
+     * @param collector The collector
+     */
+    public void removeStatisticsCollector(StatisticsCollector collector) {
+        statisticsCollectors.remove(collector);
+    }
+
+    //endregion
+
+    //region snapshots
+
+    /**
+     * Publishes a snapshot of the current generation, replacing the last one.
+     * Must be called by the thread evolving and editing the game board, between generations.
+     * The cells are handed over to the snapshot instead of being copied, and the cells of older snapshots
+     * that are not drawn are taken back. The returned snapshot may therefore change once a newer one is published,
+     * and should only be drawn when taken with getSnapshot().
+     *
+     * @return The published snapshot
+     */
+    public GenerationSnapshot publishSnapshot() {
+
+        GenerationSnapshot generationSnapshot = new GenerationSnapshot(this, createSnapshotCells());
+        GenerationSnapshot replaced = snapshot.getAndSet(generationSnapshot);
+
+        if (replaced != null) {
+            retiredSnapshots.addLast(replaced);
+
+            // the cells of a snapshot that is dropped are never taken back, and stay shared
+            if (retiredSnapshots.size() > MAX_RETIRED_SNAPSHOTS)
+                retiredSnapshots.removeFirst();
+        }
+
+        reclaimRetiredSnapshots();
+        return generationSnapshot;
+    }
+
+    /**
+     * Takes back the cells of the retired snapshots that are not drawn.
+     * Called when a snapshot is published, and by the game boards before they write the next generation,
+     * as the drawing thread has usually taken a newer snapshot by then.
+     */
+    protected void reclaimRetiredSnapshots() {
+
+        if (retiredSnapshots.isEmpty())
+            return;
+
+        // a retired snapshot can not be taken by the drawing thread any more, so it is safe once another one is drawn
+        GenerationSnapshot drawn = drawnSnapshot.get();
+        Iterator<GenerationSnapshot> retired = retiredSnapshots.iterator();
+
+        while (retired.hasNext()) {
+            GenerationSnapshot retiredSnapshot = retired.next();
+
+            if (retiredSnapshot != drawn) {
+                retired.remove();
+                reclaimSnapshotCells(retiredSnapshot.getCells());
+            }
+        }
+    }
+
+    /**
+     * Gets the last published snapshot for drawing, and never waits for evolution.
+     * Must only be called by the drawing thread, as the cells of the snapshot are kept from the game board
+     * until the drawing thread takes another snapshot.
+     *
+     * @return The last published snapshot, or null if none has been published
+     */
+    public GenerationSnapshot getSnapshot() {
+
+        GenerationSnapshot published;
+
+        // the snapshot is marked as drawn before it is checked to still be published,
+        // so the publishing thread either sees it drawn or has not retired it yet
+        do {
+            published = snapshot.get();
+            drawnSnapshot.set(published);
+        } while (snapshot.get() != published);
+
+        return published;
+    }
+
+    /**
+     * Hands the cells of the current generation over to a snapshot.
+     * The game board must not write to them until they are taken back with reclaimSnapshotCells().
+     * By default the board is cloned, game boards that can hand over their cells without copying override it.
+     *
+     * @return The cells of the current generation
+     */
+    GenerationSnapshot.Cells createSnapshotCells() {
+        return clone()::isCellAlive;
+    }
+
+    /**
+     * Takes back the cells of a snapshot that is no longer published or drawn, so they can be reused.
+     * By default the cells are left to the garbage collector.
+     *
+     * @param cells The cells of the snapshot
+     */
+    void reclaimSnapshotCells(GenerationSnapshot.Cells cells) {
+    }
+
+    //endregion
+
     //region concurrency
 
     /**
-     * Creates threads for counting neighbours.
-     * Each thread is assigned a number of columns to count neighbours for.
+     * Creates tasks for counting neighbours.
+     * Each task is assigned a number of columns to count neighbours for.
      */
-    private void createCountingThreads() {
+    private void createCountingTasks() {
+
+        int parallelism = WorkerPool.getInstance().getParallelism();
 
-        for (int i = 0; i < availableProcessors; i++) {
+        for (int i = 0; i < parallelism; i++) {
             final int finalI = i;
 
-            threads.add(new Thread(() -> {
+            tasks.add(() -> {
 
-                int start = finalI * getGridWidth()/ availableProcessors;
-                int stop = (finalI + 1) * getGridWidth()/ availableProcessors;
+                int start = finalI * getGridWidth()/ parallelism;
+                int stop = (finalI + 1) * getGridWidth()/ parallelism;
 
                 start = (start == 0)? 1: start;
                 stop = (stop == getGridWidth())?getGridWidth() - 1 : stop;
 
                 aggregateNeighbours(start, stop);
-            }));
+            });
         }
     }
 
     /**
-     * Creates threads for evolving cells.
-     * Each thread is assigned a number of columns to evolve.
+     * Creates tasks for evolving cells.
+     * Each task is assigned a number of columns to evolve.
+     *
+     * @return Array the tasks write their results to
      */
-    private void createEvolveThreads() {
+    private EvolveResult[] createEvolveTasks() {
+
+        int parallelism = WorkerPool.getInstance().getParallelism();
+        EvolveResult[] results = new EvolveResult[parallelism];
 
-        for (int i = 0; i < availableProcessors; i++) {
+        for (int i = 0; i < parallelism; i++) {
             final int finalI = i;
 
-            threads.add(new Thread(() -> {
+            tasks.add(() -> {
                 try {
-                    rule.evolve(finalI * getGridWidth()/ availableProcessors, (finalI + 1) * getGridWidth()/ availableProcessors);
+                    results[finalI] = evolveColumns(finalI * getGridWidth()/ parallelism, (finalI + 1) * getGridWidth()/ parallelism);
                 } catch (EvolveException e) {
-                    MessageBox.alert(e.getMessage());
+                    Messages.alert(e.getMessage());
                     e.printStackTrace();
                 }
-            }));
+            });
         }
+        return results;
     }
 
     /**
-     * Runs all active threads, waits for them to complete their task,
-     * and joins them before clearing the thread list.
+     * Evolves the columns from start to stop in two-phase mode, using the counted neighbours.
+     * By default the rule evolves the cells through the game board's getters and setters,
+     * game boards with direct access to their cells can override it to apply the rule's transition table themselves.
      *
-     * @throws InterruptedException Thrown if a thread is interrupted
+     * @param start First column from the left side to be evolved
+     * @param stop Column to stop at, not included
+     * @return Number of live cells in the evolved columns, and the bounding box around them
+     * @throws EvolveException Thrown if a cell has an impossible number of neighbours
      */
-    private void runThreads() throws InterruptedException {
+    protected EvolveResult evolveColumns(int start, int stop) throws EvolveException {
+        return rule.evolve(start, stop);
+    }
 
-        threads.forEach(Thread::start);
+    /**
+     * Runs all created tasks on the shared worker pool, waits for them to complete,
+     * and clears the task list.
+     *
+     * @throws InterruptedException Thrown if the waiting thread is interrupted
+     */
+    protected void runTasks() throws InterruptedException {
 
-        // wait for all the threads to finish before joining
-        for (Thread t : threads) {
-            t.join();
+        try {
+            WorkerPool.getInstance().invokeAll(tasks);
+        } finally {
+            tasks.clear();
         }
-        threads.clear();
+    }
+
+    /**
+     * Adds a task to be run in parallel with the other tasks on the next call to runTasks()
+     *
+     * @param task The task to add
+     */
+    protected void addTask(Runnable task) {
+        tasks.add(task);
     }
 
     //endregion
@@ -147,42 +467,105 @@ public abstract class GameOfLife {
      * Gets the smallest possible bounding box around the pattern.
      * The bounding box is an int array containing min row, max row,
      * min column and max column for the active cells in game board.
+     * The bounding box is found while evolving, so it is only searched for if the board has been edited
+     * since the last generation.
      *
      * @return Min row (left), max row (right), min column (top), max column (bottom)
      */
     public int[] getBoundingBox() {
 
-        int[] boundingBox = new int[4];
+        int[] bounds = patternBounds;
+
+        if (bounds == null) {
+            setPatternBounds(findLiveCells());
+            bounds = patternBounds;
+        }
+
+        if (bounds.length == 0)
+            return new int[]{1, 1, 1, 1};
+
+        return new int[]{
+                bounds[0] + cellOffsetX, bounds[1] + cellOffsetX,
+                bounds[2] + cellOffsetY, bounds[3] + cellOffsetY};
+    }
+
+    /**
+     * Gets a hash of the pattern that does not depend on where the pattern is on the board.
+     * The hash is found from the sum of the keys of the live cells, which is kept up to date while evolving,
+     * so reading it every generation does not look at the cells. The board is only searched after it has been edited.
+     * Different patterns only get the same hash by chance.
+     *
+     * @return Hash of the pattern, 0 if there are no live cells
+     */
+    public long getPatternHash() {
+
+        if (getCellCount() == 0)
+            return 0;
+
+        if (!patternHashKnown) {
+            patternHashSum = sumCellKeys();
+            patternHashKnown = true;
+        }
+
+        int[] box = getBoundingBox();
+        return PatternHash.hash(patternHashSum, box[0] - cellOffsetX, box[2] - cellOffsetY);
+    }
+
+    /**
+     * Sums the keys of the live cells relative to the origin, by searching the bounding box.
+     * Game boards that can find their live cells without looking at every cell in the bounding box should override it.
+     *
+     * @return Sum of the keys of the live cells
+     */
+    protected long sumCellKeys() {
+
+        int[] box = getBoundingBox();
+        long sum = 0;
 
-        boundingBox[0] = getGridWidth();
-        boundingBox[1] = 0;
-        boundingBox[2] = getGridHeight();
-        boundingBox[3] = 0;
+        for (int x = box[0]; x <= box[1]; x++) {
+
+            long columnKey = PatternHash.columnKey(x - cellOffsetX);
+
+            for (int y = box[2]; y <= box[3]; y++) {
+                if (isCellAlive(x, y))
+                    sum += columnKey * PatternHash.rowKey(y - cellOffsetY);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Searches the whole game board for live cells.
+     * Game boards that can find their live cells without looking at every cell should override it.
+     *
+     * @return Number of live cells, and the bounding box around them in coordinates at grid
+     */
+    protected EvolveResult findLiveCells() {
+
+        EvolveResult result = new EvolveResult();
 
         for (int i = 0; i < getGridWidth(); i++) {
             for (int j = 0; j < getGridHeight(); j++) {
-                if (!isCellAlive(i,j)) continue;
-                if (i < boundingBox[0]) {
-                    boundingBox[0] = i;
-                }
-                if (i > boundingBox[1]) {
-                    boundingBox[1] = i;
-                }
-                if (j < boundingBox[2]) {
-                    boundingBox[2] = j;
-                }
-                if (j > boundingBox[3]) {
-                    boundingBox[3] = j;
-                }
+                if (isCellAlive(i,j))
+                    result.addLiveCell(i, j);
             }
         }
-        if (boundingBox[1] < boundingBox[0]){
-            boundingBox[0] = 1;
-            boundingBox[1] = 1;
-            boundingBox[2] = 1;
-            boundingBox[3] = 1;
+        return result;
+    }
+
+    /**
+     * Stores the bounding box of a result relative to the origin
+     */
+    private void setPatternBounds(EvolveResult result) {
+
+        if (result.isEmpty()) {
+            patternBounds = new int[0];
+            return;
         }
-        return boundingBox;
+
+        patternBounds = new int[]{
+                result.getMinX() - cellOffsetX, result.getMaxX() - cellOffsetX,
+                result.getMinY() - cellOffsetY, result.getMaxY() - cellOffsetY};
     }
 
     /**
@@ -250,6 +633,26 @@ public abstract class GameOfLife {
         return cellCount.get();
     }
 
+    /**
+     * Gets the way the game board is evolved
+     *
+     * @return The evolution mode
+     */
+    public EvolutionMode getEvolutionMode() {
+        return evolutionMode;
+    }
+
+    /**
+     * Checks if the game board can be evolved in a given evolution mode.
+     * All game boards support the two-phase mode by default.
+     *
+     * @param evolutionMode The evolution mode
+     * @return True if the mode is supported
+     */
+    public boolean supportsEvolutionMode(EvolutionMode evolutionMode) {
+        return evolutionMode == EvolutionMode.TWO_PHASE;
+    }
+
     /**
      * Returns the rule used for evolution
      *
@@ -279,6 +682,40 @@ public abstract class GameOfLife {
      */
     public abstract void setCellDead(int x, int y);
 
+    /**
+     * Sets a run of cells in a row alive, starting at the given cell and going right.
+     * Game boards that can set many cells at once override it, and pattern decoders use it to insert whole runs.
+     *
+     * @param x X coordinate at grid of the first cell.
+     * @param y Y coordinate at grid.
+     * @param length Number of cells in the run.
+     */
+    public void setRowAlive(int x, int y, int length) {
+
+        for (int i = 0; i < length; i++)
+            setCellAlive(x + i, y);
+    }
+
+    /**
+     * Gets the states of a run of cells in a row as packed words, where bit i of word i / 64 is the cell at x + i.
+     * Game boards that keep their rows in words override it, and pattern writers use it to find runs of cells
+     * a word at a time. Bits after the run in the last word are cleared.
+     *
+     * @param x X coordinate at grid of the first cell.
+     * @param y Y coordinate at grid.
+     * @param length Number of cells in the run.
+     * @param words Array of at least (length + 63) / 64 words the cells are written to.
+     */
+    public void getRowWords(int x, int y, int length, long[] words) {
+
+        Arrays.fill(words, 0, (length + 63) / 64, 0L);
+
+        for (int i = 0; i < length; i++) {
+            if (isCellAlive(x + i, y))
+                words[i >>> 6] |= 1L << i;
+        }
+    }
+
     /**
      * Changes the state of a cell based on the grid coordinate.
      *
@@ -302,6 +739,56 @@ public abstract class GameOfLife {
         rule = RuleParser.createRule(this, ruleText);
     }
 
+    /**
+     * Creates a rule for a game board without edges. A rule where dead cells with no neighbours are born (B0)
+     * would make every cell of an endless board alive, so such rules can not be evolved on these boards.
+     *
+     * @param ruleText The rule text
+     * @return The rule
+     * @throws IllegalArgumentException Thrown if the rule has B0
+     */
+    protected Rule createUnboundedRule(String ruleText) {
+
+        Rule newRule = RuleParser.createRule(this, ruleText);
+
+        if (Rule.isAlive(newRule.getTransitionTable(), false, 0))
+            throw new IllegalArgumentException("Rules with B0 can not be used on an unbounded board: " + newRule);
+
+        return newRule;
+    }
+
+    /**
+     * Sets the way the game board is evolved
+     *
+     * @param evolutionMode The evolution mode
+     * @throws IllegalArgumentException Thrown if the game board does not support the evolution mode
+     */
+    public void setEvolutionMode(EvolutionMode evolutionMode) {
+
+        if (!supportsEvolutionMode(evolutionMode))
+            throw new IllegalArgumentException(getClass().getSimpleName() + " does not support " + evolutionMode);
+
+        this.evolutionMode = evolutionMode;
+    }
+
+    /**
+     * Will add a number of columns to the left side of the game board, for game boards that can grow.
+     * Game boards with a fixed size ignore it.
+     *
+     * @param diffX Number of columns
+     */
+    public void increaseXLeft(int diffX) {
+    }
+
+    /**
+     * Will add a number of rows to the top side of the game board, for game boards that can grow.
+     * Game boards with a fixed size ignore it.
+     *
+     * @param diffY Number of rows
+     */
+    public void increaseYTop(int diffY) {
+    }
+
     /**
      * Sets the cell count
      *
@@ -311,6 +798,56 @@ public abstract class GameOfLife {
         this.cellCount.set(cellCount);
     }
 
+    /**
+     * Copies the rule, evolution mode, cell count, offset, bounding box and pattern hash of another game board,
+     * for use in clone().
+     * The rule is copied without parsing its rulestring again.
+     *
+     * @param gameOfLife The game board to copy from
+     */
+    protected void copyGameState(GameOfLife gameOfLife) {
+
+        rule = gameOfLife.rule.copyFor(this);
+        evolutionMode = gameOfLife.evolutionMode;
+        cellCount.set(gameOfLife.cellCount.get());
+
+        cellOffsetX = gameOfLife.cellOffsetX;
+        cellOffsetY = gameOfLife.cellOffsetY;
+        patternBounds = gameOfLife.patternBounds;
+        patternHashSum = gameOfLife.patternHashSum;
+        patternHashKnown = gameOfLife.patternHashKnown;
+    }
+
+    /**
+     * Moves the origin to the top left corner of the game board,
+     * keeping the bounding box and the pattern hash found in the last generation
+     */
+    protected void resetOffset() {
+
+        int[] bounds = patternBounds;
+
+        if (bounds != null && bounds.length > 0) {
+            patternBounds = new int[]{
+                    bounds[0] + cellOffsetX, bounds[1] + cellOffsetX,
+                    bounds[2] + cellOffsetY, bounds[3] + cellOffsetY};
+        }
+
+        if (patternHashKnown)
+            patternHashSum = PatternHash.move(patternHashSum, cellOffsetX, cellOffsetY);
+
+        cellOffsetX = 0;
+        cellOffsetY = 0;
+    }
+
+    /**
+     * Forgets the bounding box and the pattern hash found in the last generation.
+     * Must be called by game boards whenever cells are changed outside of evolution.
+     */
+    protected void invalidateBoundingBox() {
+        patternBounds = null;
+        patternHashKnown = false;
+    }
+
     /**
      * Clears the game board of live cells
      */
@@ -334,9 +871,9 @@ public abstract class GameOfLife {
 
     public String getAggregatedNeighbours() throws InterruptedException {
 
-        createCountingThreads();
+        createCountingTasks();
 
-        runThreads();
+        runTasks();
 
         StringBuilder neighbours = new StringBuilder();
 
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Callback for batch evolution with GameOfLife.nextGenerations().
+ * Called by the evolving thread after every generation, so collectors can read the game board
+ * between generations without evolving it themselves.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /**
+     * Called after a generation has been evolved
+     *
+     * @param gol The game board, holding the new generation
+     * @param generation Number of generations evolved so far in this batch, starting at 1
+     * @return True to continue evolving, false to stop the batch after this generation
+     */
+    boolean onGeneration(GameOfLife gol, long generation);
+}
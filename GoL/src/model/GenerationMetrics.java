@@ -0,0 +1,282 @@
+package model;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Pair programming
+ *
+ * Timings of the phases of evolving and drawing generations, with the generations per second,
+ * cells processed per second and population, shared by every game board.
+ * Every phase is timed with System.nanoTime() into a lock-free histogram, so the metrics can stay on in production.
+ * The metrics can be pulled from the getters, or read live through JMX, where they are registered as an MXBean.
+ */
+public class GenerationMetrics implements GenerationMetricsMXBean {
+
+    /**
+     * The timed phases
+     */
+    public enum Phase {
+
+        // the dynamic or sparse game board is expanded or shrunk to fit around the pattern
+        FIT_BOARD,
+
+        // neighbours are counted in two-phase mode
+        COUNT_NEIGHBOURS,
+
+        // the rule evolves the cells, or the next generation is computed into the back buffer
+        EVOLVE,
+
+        // a whole call evolving one generation, or jumping many on the HashLife board.
+        // fitting the dynamic game board happens before, and fitting the sparse game board after, and is not included
+        GENERATION,
+
+        // the board is drawn on the canvas
+        RENDER
+    }
+
+    public static final String OBJECT_NAME = "model:type=GenerationMetrics";
+
+    // shortest time the rates are measured over
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private static GenerationMetrics sharedMetrics;
+
+    private volatile boolean enabled = true;
+
+    private final TimingHistogram[] histograms = new TimingHistogram[Phase.values().length];
+
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong cellsProcessed = new AtomicLong();
+    private volatile int population;
+
+    // start of the window the rates are measured over, and the counts when it started
+    private long windowStart = System.nanoTime();
+    private long windowGenerations;
+    private long windowCellsProcessed;
+
+    private volatile double generationsPerSecond;
+    private volatile double cellsProcessedPerSecond;
+
+    /**
+     * GenerationMetrics constructor
+     */
+    GenerationMetrics() {
+
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new TimingHistogram();
+    }
+
+    /**
+     * Gets the metrics shared by all game boards.
+     * The metrics are registered in the platform MBean server on first use.
+     *
+     * @return The shared metrics
+     */
+    public static synchronized GenerationMetrics getInstance() {
+
+        if (sharedMetrics == null) {
+            sharedMetrics = new GenerationMetrics();
+
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(sharedMetrics, new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                e.printStackTrace();
+            }
+        }
+        return sharedMetrics;
+    }
+
+    //region recording
+
+    /**
+     * Starts timing a phase
+     *
+     * @return The start time to pass to record(), or 0 if the metrics are disabled
+     */
+    public long startTiming() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since the start of a phase.
+     * The returned time can be passed on as the start of the next phase.
+     *
+     * @param phase The timed phase
+     * @param start Start time from startTiming(), or 0 to record nothing
+     * @return The end time of the phase, or 0 if nothing was recorded
+     */
+    public long record(Phase phase, long start) {
+
+        if (start == 0)
+            return 0;
+
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - start);
+        return now;
+    }
+
+    /**
+     * Records a call evolving one or more generations, timed as the GENERATION phase
+     *
+     * @param start Start time from startTiming(), or 0 to record nothing
+     * @param generationCount Number of generations evolved
+     * @param cellCount Number of cells looked at while evolving, leaving out skipped parts of the board,
+     *                  or 0 if not known
+     * @param populationCount Number of live cells after evolving
+     * @return The end time of the call, or 0 if nothing was recorded
+     */
+    public long recordGenerations(long start, long generationCount, long cellCount, int populationCount) {
+
+        long now = record(Phase.GENERATION, start);
+        if (now == 0)
+            return 0;
+
+        generations.addAndGet(generationCount);
+        cellsProcessed.addAndGet(cellCount);
+        population = populationCount;
+
+        updateRates(now);
+        return now;
+    }
+
+    /**
+     * Finds the rates again if the current window has lasted at least RATE_WINDOW_NANOS, and starts a new window
+     *
+     * @param now The current time
+     */
+    private synchronized void updateRates(long now) {
+
+        long elapsed = now - windowStart;
+        if (elapsed < RATE_WINDOW_NANOS)
+            return;
+
+        long currentGenerations = generations.get();
+        long currentCellsProcessed = cellsProcessed.get();
+
+        generationsPerSecond = (currentGenerations - windowGenerations) * 1e9 / elapsed;
+        cellsProcessedPerSecond = (currentCellsProcessed - windowCellsProcessed) * 1e9 / elapsed;
+
+        windowStart = now;
+        windowGenerations = currentGenerations;
+        windowCellsProcessed = currentCellsProcessed;
+    }
+
+    //endregion
+
+    //region getters
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public long getGenerations() {
+        return generations.get();
+    }
+
+    @Override
+    public long getCellsProcessed() {
+        return cellsProcessed.get();
+    }
+
+    @Override
+    public int getPopulation() {
+        return population;
+    }
+
+    /**
+     * Gets the generations per second, measured over at least the last second
+     */
+    @Override
+    public double getGenerationsPerSecond() {
+
+        updateRates(System.nanoTime());
+        return generationsPerSecond;
+    }
+
+    /**
+     * Gets the cells processed per second, measured over at least the last second
+     */
+    @Override
+    public double getCellsProcessedPerSecond() {
+
+        updateRates(System.nanoTime());
+        return cellsProcessedPerSecond;
+    }
+
+    /**
+     * Gets the histogram of a phase, to read percentiles other than the ones in the summary
+     *
+     * @param phase The timed phase
+     * @return The histogram of the phase
+     */
+    public TimingHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Gets a summary of the timings of a phase
+     *
+     * @param phase The timed phase
+     * @return The summary of the timings
+     */
+    public PhaseTimings getTimings(Phase phase) {
+        return new PhaseTimings(getHistogram(phase));
+    }
+
+    @Override
+    public PhaseTimings getFitBoardTimings() {
+        return getTimings(Phase.FIT_BOARD);
+    }
+
+    @Override
+    public PhaseTimings getCountNeighboursTimings() {
+        return getTimings(Phase.COUNT_NEIGHBOURS);
+    }
+
+    @Override
+    public PhaseTimings getEvolveTimings() {
+        return getTimings(Phase.EVOLVE);
+    }
+
+    @Override
+    public PhaseTimings getGenerationTimings() {
+        return getTimings(Phase.GENERATION);
+    }
+
+    @Override
+    public PhaseTimings getRenderTimings() {
+        return getTimings(Phase.RENDER);
+    }
+
+    //endregion
+
+    /**
+     * Removes all recorded timings and counts
+     */
+    @Override
+    public synchronized void reset() {
+
+        for (TimingHistogram histogram : histograms)
+            histogram.reset();
+
+        generations.set(0);
+        cellsProcessed.set(0);
+        population = 0;
+
+        windowStart = System.nanoTime();
+        windowGenerations = 0;
+        windowCellsProcessed = 0;
+        generationsPerSecond = 0;
+        cellsProcessedPerSecond = 0;
+    }
+}
@@ -0,0 +1,36 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Management interface of the GenerationMetrics, so the timings can be read live with JConsole or another JMX client.
+ * Registered as model:type=GenerationMetrics in the platform MBean server.
+ */
+public interface GenerationMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getGenerations();
+
+    long getCellsProcessed();
+
+    int getPopulation();
+
+    double getGenerationsPerSecond();
+
+    double getCellsProcessedPerSecond();
+
+    PhaseTimings getFitBoardTimings();
+
+    PhaseTimings getCountNeighboursTimings();
+
+    PhaseTimings getEvolveTimings();
+
+    PhaseTimings getGenerationTimings();
+
+    PhaseTimings getRenderTimings();
+
+    void reset();
+}
@@ -0,0 +1,107 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Unchangeable copy of one generation of a game board, published by the thread evolving the board
+ * so other threads can draw a whole generation while the next one is evolved.
+ * The game board hands over the cells of the generation instead of copying them, and does not write to them
+ * until the snapshot is no longer published or drawn. The board may then take them back as its next buffer.
+ */
+public final class GenerationSnapshot implements BoardView {
+
+    /**
+     * The cells of a snapshot, handed over by the game board
+     */
+    interface Cells {
+
+        /**
+         * Checks if a cell at (x,y) is alive
+         *
+         * @param x X coordinate at grid.
+         * @param y Y coordinate at grid.
+         * @return True if cell is alive
+         */
+        boolean isCellAlive(int x, int y);
+    }
+
+    private final Cells cells;
+
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int offsetX;
+    private final int offsetY;
+    private final int cellCount;
+    private final int[] boundingBox;
+
+    /**
+     * GenerationSnapshot Constructor.
+     * Must be called by the thread that evolves and edits the game board, between generations.
+     *
+     * @param gol The game board
+     * @param cells The cells of the current generation, handed over by the game board
+     */
+    GenerationSnapshot(GameOfLife gol, Cells cells) {
+
+        this.cells = cells;
+
+        gridWidth = gol.getGridWidth();
+        gridHeight = gol.getGridHeight();
+        offsetX = gol.getOffsetX();
+        offsetY = gol.getOffsetY();
+        cellCount = gol.getCellCount();
+        boundingBox = gol.getBoundingBox();
+    }
+
+    //region getters
+
+    /**
+     * Gets the cells handed over by the game board, so it can take them back
+     *
+     * @return The cells of the snapshot
+     */
+    Cells getCells() {
+        return cells;
+    }
+
+    @Override
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    @Override
+    public int getOffsetX() {
+        return offsetX;
+    }
+
+    @Override
+    public int getOffsetY() {
+        return offsetY;
+    }
+
+    @Override
+    public boolean isCellAlive(int x, int y) {
+        return cells.isCellAlive(x, y);
+    }
+
+    @Override
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Gets the bounding box around the live cells of the generation
+     *
+     * @return Array of min x, max x, min y and max y of the live cells
+     */
+    public int[] getBoundingBox() {
+        return boundingBox.clone();
+    }
+
+    //endregion
+}
@@ -0,0 +1,118 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Statistics of one generation, merged from the results of the tasks that evolved it.
+ * All coordinates are relative to the origin, so they do not change when a dynamic game board moves its offset.
+ */
+public final class GenerationStatistics {
+
+    private final int liveCells;
+    private final int births;
+    private final int deaths;
+
+    private final long sumX;
+    private final long sumY;
+
+    private final int minX;
+    private final int maxX;
+    private final int minY;
+    private final int maxY;
+
+    /**
+     * GenerationStatistics Constructor
+     *
+     * @param result Merged result of evolving the whole game board, in coordinates at grid
+     * @param offsetX Horizontal offset of the game board when it was evolved
+     * @param offsetY Vertical offset of the game board when it was evolved
+     * @param changesCounted False if the game board does not count births and deaths
+     */
+    GenerationStatistics(EvolveResult result, int offsetX, int offsetY, boolean changesCounted) {
+
+        liveCells = result.getLiveCells();
+        births = changesCounted ? result.getBirths() : -1;
+        deaths = changesCounted ? result.getDeaths() : -1;
+
+        sumX = result.getSumX() - (long) offsetX * liveCells;
+        sumY = result.getSumY() - (long) offsetY * liveCells;
+
+        if (result.isEmpty()) {
+            minX = maxX = minY = maxY = 0;
+        } else {
+            minX = result.getMinX() - offsetX;
+            maxX = result.getMaxX() - offsetX;
+            minY = result.getMinY() - offsetY;
+            maxY = result.getMaxY() - offsetY;
+        }
+    }
+
+    //region getters
+
+    public int getLiveCells() {
+        return liveCells;
+    }
+
+    /**
+     * Gets the number of dead cells that came alive
+     *
+     * @return Number of births, or -1 if the game board does not count them
+     */
+    public int getBirths() {
+        return births;
+    }
+
+    /**
+     * Gets the number of live cells that died
+     *
+     * @return Number of deaths, or -1 if the game board does not count them
+     */
+    public int getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * Gets the sum of the x coordinates of the live cells
+     *
+     * @return Sum of x coordinates
+     */
+    public long getSumX() {
+        return sumX;
+    }
+
+    /**
+     * Gets the sum of the y coordinates of the live cells
+     *
+     * @return Sum of y coordinates
+     */
+    public long getSumY() {
+        return sumY;
+    }
+
+    /**
+     * Checks if there are no live cells, in which case the bounding box is all 0
+     *
+     * @return True if there are no live cells
+     */
+    public boolean isEmpty() {
+        return liveCells == 0;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    //endregion
+}
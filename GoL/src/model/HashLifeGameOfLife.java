@@ -0,0 +1,1024 @@
+package model;
+
+import model.rules.Rule;
+import model.rules.RuleParser;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * @author Pair programming
+ *
+ * Game class with an unbounded game board, evolved with Gosper's HashLife algorithm.
+ * The board is a quadtree, where equal sub-trees are stored only once in a hash table of canonical nodes,
+ * and the future of every node is memoized. Patterns with regularity, like guns and breeders,
+ * can then be advanced by a large number of generations in logarithmic time with nextGenerations(long).
+ * The table is cleaned up when it grows past a maximum number of nodes, keeping only the current board.
+ * Like the dynamic game board, the board reports a width, height and offset fitting around the pattern.
+ * Rules where dead cells with no neighbours are born are not supported, as empty space stays empty.
+ */
+public class HashLifeGameOfLife extends GameOfLife {
+
+    private static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    // number of empty cells between the pattern and the edge of the reported board
+    private static final int MARGIN = 1;
+
+    // the smallest root, and the largest root possible with long coordinates
+    private static final int MIN_ROOT_LEVEL = 3;
+    private static final int MAX_LEVEL = 62;
+
+    private static final Node DEAD = new Node(0);
+    private static final Node ALIVE = new Node(1);
+
+    // hash table of canonical nodes, using open addressing with linear probing
+    private Node[] table = new Node[1 << 10];
+    private int nodeCount = 0;
+    private final int maxNodes;
+
+    // canonical empty nodes, indexed by level
+    private final Node[] emptyNodes = new Node[MAX_LEVEL + 1];
+
+    // the memoized results of the nodes advance 2^stepLog generations, or less for small nodes
+    private int stepLog = 0;
+
+    // the board, and the coordinates of its upper left corner relative to the board origin
+    private volatile Node root;
+    private long rootX;
+    private long rootY;
+
+    // true while the quadtree is shared with the board this board was cloned from, until either board is changed here
+    private boolean nodesShared;
+
+    private int width = 1;
+    private int height = 1;
+
+    //region start-up
+
+    /**
+     * HashLifeGameOfLife Constructor.
+     * Sets the classic Conway rule (B3/S23) as default rule.
+     */
+    public HashLifeGameOfLife() {
+
+        this(RuleParser.CLASSIC_RULESTRING);
+    }
+
+    /**
+     * HashLifeGameOfLife Constructor.
+     * Sets the rule based on the parameter rulestring.
+     *
+     * @param rulestring Rulestring of the rule
+     */
+    public HashLifeGameOfLife(String rulestring) {
+
+        this(rulestring, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * HashLifeGameOfLife Constructor.
+     * Sets the rule based on the parameter rulestring, and the number of nodes kept before the table is cleaned up.
+     *
+     * @param rulestring Rulestring of the rule
+     * @param maxNodes Number of canonical nodes kept before unused nodes are evicted
+     * @throws IllegalArgumentException Thrown if the rule has B0, which can not be evolved on an unbounded board
+     */
+    public HashLifeGameOfLife(String rulestring, int maxNodes) {
+
+        this.maxNodes = maxNodes;
+
+        createGameBoard();
+        setRule(rulestring);
+        evolutionMode = EvolutionMode.DOUBLE_BUFFERED;
+    }
+
+    /**
+     * Creates an empty root, centered around the board origin
+     */
+    private void createGameBoard() {
+
+        root = getEmptyNode(MIN_ROOT_LEVEL);
+        nodesShared = false;
+        rootX = -(1L << (MIN_ROOT_LEVEL - 1));
+        rootY = -(1L << (MIN_ROOT_LEVEL - 1));
+    }
+
+    //endregion
+
+    //region next generation
+
+    @Override
+    public void nextGeneration() {
+        nextGenerations(1);
+    }
+
+    /**
+     * Advances the game board a number of generations.
+     * The number is split into powers of two, and the board is advanced by each power of two in one step,
+     * so the time spent depends on the logarithm of the number of generations for regular patterns.
+     *
+     * @param generations Number of generations to advance
+     */
+    @Override
+    public void nextGenerations(long generations) {
+
+        long start = metrics.startTiming();
+
+        for (int log = 0; log < Long.SIZE - 1 && (generations >> log) != 0; log++) {
+
+            if (((generations >> log) & 1) != 0)
+                step(log);
+        }
+
+        cellCount.set((int) Math.min(root.population, Integer.MAX_VALUE));
+
+        // the bounding box is found once from the new quadtree, and kept until the board is edited
+        invalidateBoundingBox();
+        fitBoardToPattern();
+
+        // the quadtree does not tell which cells were born or died, only the live cells after the jump
+        if (hasStatisticsCollectors())
+            publishStatistics(findLiveCells(), false);
+
+        // the quadtree skips the cells, so only the generations are counted
+        metrics.recordGenerations(start, generations, 0, cellCount.get());
+    }
+
+    /**
+     * Advances the game board a number of generations. Without a listener, the generations are jumped over
+     * in powers of two, otherwise the board is advanced one generation at a time so the listener sees every generation.
+     */
+    @Override
+    public long nextGenerations(long generations, GenerationListener listener) {
+
+        if (listener != null)
+            return super.nextGenerations(generations, listener);
+
+        nextGenerations(generations);
+        return generations;
+    }
+
+    /**
+     * Advances the game board 2^log generations
+     *
+     * @param log Logarithm of the number of generations
+     */
+    private void step(int log) {
+
+        ownNodes();
+
+        if (nodeCount > maxNodes)
+            collectGarbage();
+
+        setStepLog(log);
+
+        // the pattern must be far enough from the edges that it can not grow out of the result
+        while (root.level < log + 3 || !isPadded(root))
+            expandRoot();
+
+        Node node = root;
+        long quarter = 1L << (node.level - 2);
+
+        Node result = getSuccessor(node);
+        rootX += quarter;
+        rootY += quarter;
+        root = result;
+
+        shrinkRoot();
+        while (root.level < MIN_ROOT_LEVEL)
+            expandRoot();
+    }
+
+    /**
+     * Gets the centre half of a node advanced 2^stepLog generations,
+     * or 2^(level - 2) generations if that is less. The result is memoized in the node.
+     *
+     * @param node Node at level 2 or above
+     * @return Node at one level below, with the advanced centre
+     */
+    private Node getSuccessor(Node node) {
+
+        if (node.result != null)
+            return node.result;
+
+        Node result;
+
+        if (node.population == 0)
+            result = getEmptyNode(node.level - 1);
+
+        else if (node.level == 2)
+            result = evolveBase(node);
+
+        else {
+
+            // the nine overlapping sub-nodes at one level below, making up a 3x3 grid
+            Node n00 = node.nw;
+            Node n01 = join(node.nw.ne, node.ne.nw, node.nw.se, node.ne.sw);
+            Node n02 = node.ne;
+            Node n10 = join(node.nw.sw, node.nw.se, node.sw.nw, node.sw.ne);
+            Node n11 = join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+            Node n12 = join(node.ne.sw, node.ne.se, node.se.nw, node.se.ne);
+            Node n20 = node.sw;
+            Node n21 = join(node.sw.ne, node.se.nw, node.sw.se, node.se.sw);
+            Node n22 = node.se;
+
+            // at full speed both halves of the step advance the board, else only the second half does
+            boolean fullStep = stepLog >= node.level - 2;
+
+            Node r00 = fullStep ? getSuccessor(n00) : getCentre(n00);
+            Node r01 = fullStep ? getSuccessor(n01) : getCentre(n01);
+            Node r02 = fullStep ? getSuccessor(n02) : getCentre(n02);
+            Node r10 = fullStep ? getSuccessor(n10) : getCentre(n10);
+            Node r11 = fullStep ? getSuccessor(n11) : getCentre(n11);
+            Node r12 = fullStep ? getSuccessor(n12) : getCentre(n12);
+            Node r20 = fullStep ? getSuccessor(n20) : getCentre(n20);
+            Node r21 = fullStep ? getSuccessor(n21) : getCentre(n21);
+            Node r22 = fullStep ? getSuccessor(n22) : getCentre(n22);
+
+            result = join(
+                    getSuccessor(join(r00, r01, r10, r11)),
+                    getSuccessor(join(r01, r02, r11, r12)),
+                    getSuccessor(join(r10, r11, r20, r21)),
+                    getSuccessor(join(r11, r12, r21, r22)));
+        }
+
+        node.result = result;
+        return result;
+    }
+
+    /**
+     * Evolves the centre 2x2 cells of a 4x4 node one generation with the rule
+     *
+     * @param node Node at level 2
+     * @return Node at level 1
+     */
+    private Node evolveBase(Node node) {
+
+        // reads the 16 cells into a bit mask, with bit (y * 4 + x) for the cell at (x,y)
+        int cells = 0;
+
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                if (isAlive(node, x, y))
+                    cells |= 1 << (y * 4 + x);
+            }
+        }
+
+        return join(evolveCell(cells, 1, 1), evolveCell(cells, 2, 1), evolveCell(cells, 1, 2), evolveCell(cells, 2, 2));
+    }
+
+    /**
+     * Gets the next generation of a cell inside a 4x4 bit mask
+     */
+    private Node evolveCell(int cells, int x, int y) {
+
+        int neighbourCount = 0;
+
+        for (int a = x - 1; a <= x + 1; a++) {
+            for (int b = y - 1; b <= y + 1; b++) {
+                if ((a != x || b != y) && ((cells >> (b * 4 + a)) & 1) != 0)
+                    neighbourCount++;
+            }
+        }
+
+        boolean alive = ((cells >> (y * 4 + x)) & 1) != 0;
+
+        return Rule.isAlive(rule.getTransitionTable(), alive, neighbourCount) ? ALIVE : DEAD;
+    }
+
+    /**
+     * Sets the number of generations the memoized results advance. Changing it discards all results.
+     */
+    private void setStepLog(int log) {
+
+        if (log != stepLog) {
+            stepLog = log;
+            clearResults();
+        }
+    }
+
+    /**
+     * Sets the width, height and offset of the board to fit around the pattern, with a margin of empty cells
+     */
+    public void fitBoardToPattern() {
+
+        if (root.population == 0)
+            return;
+
+        int[] boundingBox = getBoundingBox();
+
+        cellOffsetX += MARGIN - boundingBox[0];
+        cellOffsetY += MARGIN - boundingBox[2];
+        width = boundingBox[1] - boundingBox[0] + 1 + 2 * MARGIN;
+        height = boundingBox[3] - boundingBox[2] + 1 + 2 * MARGIN;
+    }
+
+    //endregion
+
+    //region quadtree handling
+
+    /**
+     * Gets the canonical node with the given children, creating it if it does not exist
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se) {
+
+        int hash = Node.hash(nw, ne, sw, se);
+        int mask = table.length - 1;
+        int i = hash & mask;
+
+        Node node;
+        while ((node = table[i]) != null) {
+
+            if (node.hash == hash && node.nw == nw && node.ne == ne && node.sw == sw && node.se == se)
+                return node;
+
+            i = (i + 1) & mask;
+        }
+
+        node = new Node(nw, ne, sw, se, hash);
+        table[i] = node;
+        nodeCount++;
+
+        // keeps the table at most half full, so probe sequences stay short
+        if (nodeCount * 2 > table.length)
+            resizeTable(table.length * 2);
+
+        return node;
+    }
+
+    /**
+     * Gets the canonical empty node at a level
+     */
+    private Node getEmptyNode(int level) {
+
+        if (emptyNodes[level] == null) {
+
+            if (level == 0)
+                emptyNodes[level] = DEAD;
+            else {
+                Node empty = getEmptyNode(level - 1);
+                emptyNodes[level] = join(empty, empty, empty, empty);
+            }
+        }
+        return emptyNodes[level];
+    }
+
+    /**
+     * Gets the centre half of a node, without advancing it
+     */
+    private Node getCentre(Node node) {
+        return join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+    }
+
+    /**
+     * Checks if all live cells of the root are inside its centre quarter
+     */
+    private static boolean isPadded(Node node) {
+
+        return node.nw.population == node.nw.se.se.population
+                && node.ne.population == node.ne.sw.sw.population
+                && node.sw.population == node.sw.ne.ne.population
+                && node.se.population == node.se.nw.nw.population;
+    }
+
+    /**
+     * Doubles the size of the root, keeping the old root in the centre
+     */
+    private void expandRoot() {
+
+        if (root.level >= MAX_LEVEL)
+            throw new IllegalStateException("The pattern has grown too large");
+
+        Node empty = getEmptyNode(root.level - 1);
+        long half = 1L << (root.level - 1);
+
+        root = join(
+                join(empty, empty, empty, root.nw),
+                join(empty, empty, root.ne, empty),
+                join(empty, root.sw, empty, empty),
+                join(root.se, empty, empty, empty));
+
+        rootX -= half;
+        rootY -= half;
+    }
+
+    /**
+     * Halves the size of the root as long as all live cells are inside the centre
+     */
+    private void shrinkRoot() {
+
+        while (root.level > MIN_ROOT_LEVEL && getCentre(root).population == root.population) {
+
+            long quarter = 1L << (root.level - 2);
+
+            root = getCentre(root);
+            rootX += quarter;
+            rootY += quarter;
+        }
+    }
+
+    /**
+     * Checks if a cell at (x,y) inside a node is alive
+     *
+     * @param node The node
+     * @param x X coordinate relative to the node
+     * @param y Y coordinate relative to the node
+     * @return True if the cell is alive
+     */
+    private static boolean isAlive(Node node, long x, long y) {
+
+        while (node.level > 0) {
+
+            if (node.population == 0)
+                return false;
+
+            long half = 1L << (node.level - 1);
+
+            if (x < half) {
+                if (y < half)
+                    node = node.nw;
+                else {
+                    node = node.sw;
+                    y -= half;
+                }
+            }
+            else {
+                x -= half;
+                if (y < half)
+                    node = node.ne;
+                else {
+                    node = node.se;
+                    y -= half;
+                }
+            }
+        }
+        return node.population != 0;
+    }
+
+    /**
+     * Creates a node equal to another node, but with the cell at (x,y) set to a state
+     *
+     * @param node The node
+     * @param x X coordinate relative to the node
+     * @param y Y coordinate relative to the node
+     * @param alive The new state of the cell
+     * @return The new node
+     */
+    private Node setCell(Node node, long x, long y, boolean alive) {
+
+        if (node.level == 0)
+            return alive ? ALIVE : DEAD;
+
+        long half = 1L << (node.level - 1);
+
+        if (x < half) {
+            if (y < half)
+                return join(setCell(node.nw, x, y, alive), node.ne, node.sw, node.se);
+            else
+                return join(node.nw, node.ne, setCell(node.sw, x, y - half, alive), node.se);
+        }
+        else {
+            if (y < half)
+                return join(node.nw, setCell(node.ne, x - half, y, alive), node.sw, node.se);
+            else
+                return join(node.nw, node.ne, node.sw, setCell(node.se, x - half, y - half, alive));
+        }
+    }
+
+    /**
+     * Finds the smallest box around the live cells inside a node.
+     * Nodes completely inside the box found so far are skipped.
+     *
+     * @param node The node
+     * @param x X coordinate of the node relative to the board origin
+     * @param y Y coordinate of the node relative to the board origin
+     * @param bounds Min x, max x, min y and max y found so far
+     */
+    private static void findBounds(Node node, long x, long y, long[] bounds) {
+
+        if (node.population == 0)
+            return;
+
+        long size = 1L << node.level;
+
+        if (x >= bounds[0] && x + size - 1 <= bounds[1] && y >= bounds[2] && y + size - 1 <= bounds[3])
+            return;
+
+        if (node.level == 0) {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.max(bounds[1], x);
+            bounds[2] = Math.min(bounds[2], y);
+            bounds[3] = Math.max(bounds[3], y);
+            return;
+        }
+
+        long half = size >> 1;
+
+        findBounds(node.nw, x, y, bounds);
+        findBounds(node.ne, x + half, y, bounds);
+        findBounds(node.sw, x, y + half, bounds);
+        findBounds(node.se, x + half, y + half, bounds);
+    }
+
+    /**
+     * Finds the smallest box around the live cells, relative to the board origin
+     *
+     * @return Min x, max x, min y and max y of the live cells
+     */
+    private long[] getPatternBounds() {
+
+        long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        findBounds(root, rootX, rootY, bounds);
+
+        return bounds;
+    }
+
+    //endregion
+
+    //region node table
+
+    /**
+     * Moves all nodes to a new table
+     *
+     * @param tableSize Size of the new table, a power of two
+     */
+    private void resizeTable(int tableSize) {
+
+        Node[] oldTable = table;
+        table = new Node[tableSize];
+
+        for (Node node : oldTable) {
+            if (node != null)
+                insert(node);
+        }
+    }
+
+    /**
+     * Puts an existing node into the table, if no equal node is there
+     *
+     * @return True if the node was put into the table
+     */
+    private boolean insert(Node node) {
+
+        int mask = table.length - 1;
+        int i = node.hash & mask;
+
+        while (table[i] != null) {
+            if (table[i] == node)
+                return false;
+            i = (i + 1) & mask;
+        }
+
+        table[i] = node;
+        return true;
+    }
+
+    /**
+     * Evicts every node that is not part of the current board, and forgets all memoized results
+     */
+    private void collectGarbage() {
+
+        table = new Node[table.length];
+        nodeCount = 0;
+        Arrays.fill(emptyNodes, null);
+
+        keepNode(root);
+
+        // the table may be far too big for the nodes that are left
+        int tableSize = 1 << 10;
+        while (tableSize < nodeCount * 4)
+            tableSize <<= 1;
+
+        resizeTable(tableSize);
+    }
+
+    /**
+     * Puts a node and all nodes below it back into the table
+     */
+    private void keepNode(Node node) {
+
+        if (node.level == 0)
+            return;
+
+        node.result = null;
+
+        if (insert(node)) {
+            nodeCount++;
+
+            keepNode(node.nw);
+            keepNode(node.ne);
+            keepNode(node.sw);
+            keepNode(node.se);
+        }
+    }
+
+    /**
+     * Forgets the memoized results of all nodes
+     */
+    private void clearResults() {
+
+        for (Node node : table) {
+            if (node != null)
+                node.result = null;
+        }
+    }
+
+    //endregion
+
+    //region dynamic board handling
+
+    @Override
+    public void increaseXLeft(int diffX) {
+
+        cellOffsetX += diffX;
+        width += diffX;
+    }
+
+    @Override
+    public void increaseYTop(int diffY) {
+
+        cellOffsetY += diffY;
+        height += diffY;
+    }
+
+    //endregion
+
+    //region getters
+
+    @Override
+    public int getGridWidth() {
+        return width;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of live cells, which can be larger than the cell count for huge patterns
+     *
+     * @return Number of live cells
+     */
+    public long getPopulation() {
+        return root.population;
+    }
+
+    /**
+     * Finds the bounding box and coordinate sums from the quadtree, skipping empty nodes,
+     * instead of scanning the whole board
+     */
+    @Override
+    protected EvolveResult findLiveCells() {
+
+        EvolveResult result = new EvolveResult();
+
+        if (root.population == 0)
+            return result;
+
+        long[] bounds = getPatternBounds();
+        long[] sums = sumCoordinates(root, new IdentityHashMap<>());
+
+        result.addLiveCells((int) Math.min(root.population, Integer.MAX_VALUE),
+                sums[0] + root.population * (rootX + cellOffsetX), sums[1] + root.population * (rootY + cellOffsetY),
+                (int) bounds[0] + cellOffsetX, (int) bounds[1] + cellOffsetX,
+                (int) bounds[2] + cellOffsetY, (int) bounds[3] + cellOffsetY);
+
+        return result;
+    }
+
+    /**
+     * Sums the x and y coordinates of the live cells in a node, relative to the top left corner of the node.
+     * The sums of every distinct node are only found once, as a node can be used many times in the quadtree.
+     *
+     * @param node The node
+     * @param sums Sums of the nodes already visited
+     * @return Sum of x and sum of y coordinates
+     */
+    private static long[] sumCoordinates(Node node, Map<Node, long[]> sums) {
+
+        if (node.population == 0 || node.level == 0)
+            return new long[]{0, 0};
+
+        long[] nodeSums = sums.get(node);
+
+        if (nodeSums == null) {
+
+            long half = 1L << (node.level - 1);
+
+            long[] nw = sumCoordinates(node.nw, sums);
+            long[] ne = sumCoordinates(node.ne, sums);
+            long[] sw = sumCoordinates(node.sw, sums);
+            long[] se = sumCoordinates(node.se, sums);
+
+            nodeSums = new long[]{
+                    nw[0] + ne[0] + sw[0] + se[0] + (node.ne.population + node.se.population) * half,
+                    nw[1] + ne[1] + sw[1] + se[1] + (node.sw.population + node.se.population) * half};
+
+            sums.put(node, nodeSums);
+        }
+        return nodeSums;
+    }
+
+    /**
+     * Sums the keys of the live cells from the quadtree. The sum of a node is kept in the node,
+     * so only the nodes created since the last time are visited.
+     */
+    @Override
+    protected long sumCellKeys() {
+        return sumCellKeys(root) * PatternHash.cellKey(rootX, rootY);
+    }
+
+    /**
+     * Sums the pattern hash keys of the live cells in a node, relative to the top left corner of the node
+     *
+     * @param node The node
+     * @return Sum of the keys of the live cells
+     */
+    private static long sumCellKeys(Node node) {
+
+        if (node.population == 0 || node.level == 0)
+            return node.population;
+
+        if (!node.keySumKnown) {
+
+            long half = 1L << (node.level - 1);
+
+            node.keySum = sumCellKeys(node.nw)
+                    + sumCellKeys(node.ne) * PatternHash.columnKey(half)
+                    + sumCellKeys(node.sw) * PatternHash.rowKey(half)
+                    + sumCellKeys(node.se) * PatternHash.cellKey(half, half);
+            node.keySumKnown = true;
+        }
+        return node.keySum;
+    }
+
+    /**
+     * Counts the neighbours of a cell at (x,y) directly from the quadtree,
+     * as the HashLife board does not keep a neighbour grid.
+     */
+    @Override
+    public int getNeighboursAt(int x, int y) {
+
+        int neighbours = 0;
+
+        for (int a = x - 1; a <= x + 1; a++) {
+            for (int b = y - 1; b <= y + 1; b++) {
+                if ((a != x || b != y) && isCellAlive(a, b))
+                    neighbours++;
+            }
+        }
+        return neighbours;
+    }
+
+    @Override
+    public boolean isCellAlive(int x, int y) {
+
+        // reads the root once, as it may be replaced by a generation running at the same time
+        Node node = root;
+        long nodeX = (long) x - cellOffsetX - rootX;
+        long nodeY = (long) y - cellOffsetY - rootY;
+        long size = 1L << node.level;
+
+        if (nodeX < 0 || nodeX >= size || nodeY < 0 || nodeY >= size)
+            return false;
+
+        return isAlive(node, nodeX, nodeY);
+    }
+
+    /**
+     * The HashLife board always computes the next generation as a new quadtree
+     */
+    @Override
+    public boolean supportsEvolutionMode(EvolutionMode evolutionMode) {
+        return evolutionMode == EvolutionMode.DOUBLE_BUFFERED;
+    }
+
+    /**
+     * Hands the root over to the snapshot, as the nodes are never changed.
+     * A new generation is a new root, so nothing has to be taken back.
+     */
+    @Override
+    GenerationSnapshot.Cells createSnapshotCells() {
+
+        Node node = root;
+        long nodeX = rootX + cellOffsetX;
+        long nodeY = rootY + cellOffsetY;
+        long size = 1L << node.level;
+
+        return (x, y) -> x - nodeX >= 0 && x - nodeX < size && y - nodeY >= 0 && y - nodeY < size
+                && isAlive(node, x - nodeX, y - nodeY);
+    }
+
+    /**
+     * Clones the HashLifeGameOfLife object. The clone shares the quadtree, as the nodes are never changed,
+     * and only copies it into its own node table when it is first changed or evolved.
+     *
+     * @return the cloned HashLifeGameOfLife object
+     */
+    @Override
+    public HashLifeGameOfLife clone() {
+
+        HashLifeGameOfLife hashLifeGameOfLife = new HashLifeGameOfLife(getRule().toString(), maxNodes);
+
+        hashLifeGameOfLife.root = root;
+        hashLifeGameOfLife.nodesShared = true;
+        hashLifeGameOfLife.rootX = rootX;
+        hashLifeGameOfLife.rootY = rootY;
+        hashLifeGameOfLife.cellOffsetX = cellOffsetX;
+        hashLifeGameOfLife.cellOffsetY = cellOffsetY;
+        hashLifeGameOfLife.width = width;
+        hashLifeGameOfLife.height = height;
+        hashLifeGameOfLife.setCellCount(cellCount.get());
+
+        return hashLifeGameOfLife;
+    }
+
+    /**
+     * Copies the quadtree shared with another board into the node table of this board, if it is shared.
+     * The nodes of the other board are not put in the table, as their memoized results belong to the other board.
+     */
+    private void ownNodes() {
+
+        if (nodesShared) {
+            root = copyNode(root, new IdentityHashMap<>());
+            nodesShared = false;
+        }
+    }
+
+    /**
+     * Copies a node from another board into the node table of this board
+     *
+     * @param node The node to copy
+     * @param copies The nodes already copied
+     * @return The canonical copy of the node
+     */
+    private Node copyNode(Node node, Map<Node, Node> copies) {
+
+        if (node.level == 0)
+            return node;
+
+        Node copy = copies.get(node);
+
+        if (copy == null) {
+            copy = join(copyNode(node.nw, copies), copyNode(node.ne, copies),
+                    copyNode(node.sw, copies), copyNode(node.se, copies));
+            copies.put(node, copy);
+        }
+        return copy;
+    }
+
+    //endregion
+
+    //region setters
+
+    /**
+     * Sets a specific rule to be used. The memoized results are forgotten, as they depend on the rule.
+     * Rules with B0 are rejected, as the board is unbounded, and the rule and results are kept.
+     *
+     * @param ruleText The rule text
+     * @throws IllegalArgumentException Thrown if the rule has B0
+     */
+    @Override
+    public void setRule(String ruleText) {
+
+        rule = createUnboundedRule(ruleText);
+        clearResults();
+    }
+
+    /**
+     * Sets a cell at (x,y) alive. The board grows to the right and downwards to fit the cell.
+     */
+    @Override
+    public void setCellAlive(int x, int y) {
+
+        if (isCellAlive(x, y))
+            return;
+
+        setCell(x, y, true);
+        cellCount.incrementAndGet();
+
+        if (x >= width)
+            width = x + 1;
+        if (y >= height)
+            height = y + 1;
+    }
+
+    @Override
+    public void setCellDead(int x, int y) {
+
+        if (!isCellAlive(x, y))
+            return;
+
+        setCell(x, y, false);
+        cellCount.decrementAndGet();
+    }
+
+    /**
+     * Sets the state of a cell at (x,y), expanding the root until it covers the cell
+     */
+    private void setCell(int x, int y, boolean alive) {
+
+        ownNodes();
+
+        long cellX = (long) x - cellOffsetX;
+        long cellY = (long) y - cellOffsetY;
+
+        while (cellX < rootX || cellX >= rootX + (1L << root.level)
+                || cellY < rootY || cellY >= rootY + (1L << root.level))
+            expandRoot();
+
+        root = setCell(root, cellX - rootX, cellY - rootY, alive);
+        invalidateBoundingBox();
+    }
+
+    @Override
+    public void clearGrid() {
+
+        createGameBoard();
+        cellCount.set(0);
+
+        cellOffsetX = 0;
+        cellOffsetY = 0;
+        width = 1;
+        height = 1;
+        invalidateBoundingBox();
+    }
+
+    /**
+     * Not used, as the HashLife board counts neighbours inside the 4x4 nodes during evolution
+     */
+    @Override
+    protected void incrementNeighboursAt(int x, int y) {
+    }
+
+    /**
+     * Not used, as the HashLife board does not keep a neighbour grid
+     */
+    @Override
+    public void resetNeighboursAt(int x, int y) {
+    }
+
+    //endregion
+
+    /**
+     * A square of 2^level by 2^level cells in the quadtree.
+     * Nodes are never changed after creation, apart from the memoized result.
+     */
+    private static final class Node {
+
+        private final int level;
+        private final Node nw, ne, sw, se;
+        private final long population;
+        private final int hash;
+
+        // the centre of the node advanced in time, or null if not computed yet
+        private Node result;
+
+        // sum of the pattern hash keys of the live cells relative to the top left corner, if keySumKnown is set
+        private long keySum;
+        private boolean keySumKnown;
+
+        /**
+         * Creates a single cell
+         *
+         * @param population 1 if the cell is alive, 0 if dead
+         */
+        private Node(long population) {
+
+            this.level = 0;
+            this.nw = this.ne = this.sw = this.se = null;
+            this.population = population;
+            this.hash = (int) population;
+        }
+
+        /**
+         * Creates a node from four children at one level below
+         */
+        private Node(Node nw, Node ne, Node sw, Node se, int hash) {
+
+            this.level = nw.level + 1;
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.population = nw.population + ne.population + sw.population + se.population;
+            this.hash = hash;
+        }
+
+        /**
+         * Combines the hashes of four canonical children
+         */
+        private static int hash(Node nw, Node ne, Node sw, Node se) {
+
+            int h = nw.level * 0x632BE5AB;
+            h = (h + nw.hash) * 0x9E3779B1;
+            h = (h + ne.hash) * 0x9E3779B1;
+            h = (h + sw.hash) * 0x9E3779B1;
+            h = (h + se.hash) * 0x9E3779B1;
+
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * @author Pair programming
+ *
+ * Set of primitive long values, using open addressing with linear probing.
+ * Stores the values directly in a long array, instead of boxing every value as a HashSet of Long would.
+ */
+class LongHashSet {
+
+    // marks an empty slot in the table, the value itself is tracked by a separate flag
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int size;
+    private boolean containsEmptyKey;
+
+    //region start-up
+
+    /**
+     * LongHashSet constructor. Creates an empty set.
+     */
+    LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * LongHashSet constructor. Creates an empty set with room for a number of values before it must grow.
+     *
+     * @param expectedSize Number of values expected to be stored
+     */
+    LongHashSet(int expectedSize) {
+        keys = new long[tableSizeFor(expectedSize)];
+    }
+
+    /**
+     * LongHashSet copy constructor.
+     *
+     * @param set The set to copy
+     */
+    LongHashSet(LongHashSet set) {
+
+        keys = set.keys.clone();
+        size = set.size;
+        containsEmptyKey = set.containsEmptyKey;
+    }
+
+    //endregion
+
+    //region getters
+
+    /**
+     * Checks if the set contains a value
+     *
+     * @param key The value
+     * @return True if the value is in the set
+     */
+    boolean contains(long key) {
+
+        if (key == EMPTY)
+            return containsEmptyKey;
+
+        // reads the table once, so a concurrent reader never mixes two tables
+        long[] table = keys;
+        int mask = table.length - 1;
+
+        for (int i = hash(key) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == key)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of values in the set
+     *
+     * @return Number of values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Performs an action for every value in the set
+     *
+     * @param action The action to perform
+     */
+    void forEach(LongConsumer action) {
+
+        if (containsEmptyKey)
+            action.accept(EMPTY);
+
+        for (long key : keys) {
+            if (key != EMPTY)
+                action.accept(key);
+        }
+    }
+
+    //endregion
+
+    //region setters
+
+    /**
+     * Adds a value to the set
+     *
+     * @param key The value
+     * @return True if the value was not already in the set
+     */
+    boolean add(long key) {
+
+        if (key == EMPTY) {
+            if (containsEmptyKey)
+                return false;
+
+            containsEmptyKey = true;
+            size++;
+            return true;
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key)
+                return false;
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        size++;
+
+        // keeps the table at most half full, so probe sequences stay short
+        if (size * 2 > keys.length)
+            rehash(keys.length * 2);
+
+        return true;
+    }
+
+    /**
+     * Removes a value from the set
+     *
+     * @param key The value
+     * @return True if the value was in the set
+     */
+    boolean remove(long key) {
+
+        if (key == EMPTY) {
+            if (!containsEmptyKey)
+                return false;
+
+            containsEmptyKey = false;
+            size--;
+            return true;
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY)
+                return false;
+            i = (i + 1) & mask;
+        }
+
+        // moves later values in the probe sequence back, so no value is cut off from its slot
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+
+            int slot = hash(keys[j]) & mask;
+
+            if (((j - slot) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                gap = j;
+            }
+        }
+
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all values from the set
+     */
+    void clear() {
+
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsEmptyKey = false;
+    }
+
+    //endregion
+
+    //region hashing
+
+    /**
+     * Moves all values to a new table
+     *
+     * @param tableSize Size of the new table, a power of two
+     */
+    private void rehash(int tableSize) {
+
+        long[] oldKeys = keys;
+        long[] newKeys = new long[tableSize];
+        int mask = tableSize - 1;
+
+        for (long key : oldKeys) {
+
+            if (key == EMPTY)
+                continue;
+
+            int i = hash(key) & mask;
+            while (newKeys[i] != EMPTY)
+                i = (i + 1) & mask;
+
+            newKeys[i] = key;
+        }
+        keys = newKeys;
+    }
+
+    /**
+     * Spreads the bits of a value, so nearby coordinates end up in different slots
+     */
+    static int hash(long key) {
+
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Gets the smallest power of two table keeping the expected number of values at most half full
+     */
+    static int tableSizeFor(int expectedSize) {
+
+        int tableSize = 16;
+        while (tableSize < expectedSize * 2 && tableSize < (1 << 30))
+            tableSize <<= 1;
+
+        return tableSize;
+    }
+
+    //endregion
+}
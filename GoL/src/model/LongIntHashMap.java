@@ -0,0 +1,171 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * @author Pair programming
+ *
+ * Map from primitive long keys to int values, using open addressing with linear probing.
+ * Used for counting, so there is no removal of single keys, only clearing of the whole map.
+ */
+class LongIntHashMap {
+
+    // marks an empty slot in the table, the key itself is tracked by a separate flag
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    private boolean containsEmptyKey;
+    private int emptyKeyValue;
+
+    /**
+     * Action performed on every entry of the map
+     */
+    interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    //region start-up
+
+    /**
+     * LongIntHashMap constructor. Creates an empty map.
+     */
+    LongIntHashMap() {
+
+        keys = new long[16];
+        values = new int[16];
+    }
+
+    //endregion
+
+    //region getters
+
+    /**
+     * Gets the value of a key
+     *
+     * @param key The key
+     * @return The value, or 0 if the key is not in the map
+     */
+    int get(long key) {
+
+        if (key == EMPTY)
+            return containsEmptyKey ? emptyKeyValue : 0;
+
+        int mask = keys.length - 1;
+
+        for (int i = LongHashSet.hash(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return values[i];
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of keys in the map
+     *
+     * @return Number of keys
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Performs an action for every entry in the map
+     *
+     * @param action The action to perform
+     */
+    void forEach(EntryConsumer action) {
+
+        if (containsEmptyKey)
+            action.accept(EMPTY, emptyKeyValue);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY)
+                action.accept(keys[i], values[i]);
+        }
+    }
+
+    //endregion
+
+    //region setters
+
+    /**
+     * Adds a number to the value of a key. A missing key is added with the value 0 first.
+     *
+     * @param key The key
+     * @param delta The number to add
+     */
+    void addTo(long key, int delta) {
+
+        if (key == EMPTY) {
+            if (!containsEmptyKey) {
+                containsEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue += delta;
+            return;
+        }
+
+        int mask = keys.length - 1;
+        int i = LongHashSet.hash(key) & mask;
+
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] += delta;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = delta;
+        size++;
+
+        // keeps the table at most half full, so probe sequences stay short
+        if (size * 2 > keys.length)
+            rehash(keys.length * 2);
+    }
+
+    /**
+     * Removes all entries from the map, but keeps the table for reuse
+     */
+    void clear() {
+
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsEmptyKey = false;
+        emptyKeyValue = 0;
+    }
+
+    //endregion
+
+    /**
+     * Moves all entries to a new table
+     *
+     * @param tableSize Size of the new table, a power of two
+     */
+    private void rehash(int tableSize) {
+
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        int mask = tableSize - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+
+            if (oldKeys[j] == EMPTY)
+                continue;
+
+            int i = LongHashSet.hash(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY)
+                i = (i + 1) & mask;
+
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,793 @@
+package model;
+
+import model.rules.Rule;
+import model.rules.RuleParser;
+
+import java.util.Arrays;
+
+/**
+ * @author Pair programming
+ *
+ * Game class with a game board with static size, where the cells are packed as bits in long words.
+ * Every row of the board is stored as a sequence of 64 bit words, one bit per cell,
+ * and a whole generation is computed with word-wide bit operations, 64 cells at a time.
+ * Any B/S rule is applied to the bit-sliced neighbour counts without looking at single cells.
+ * The board is split into tiles of one word by 64 rows, and tiles where nothing around them
+ * changed in the last generation are skipped.
+ * Clones share the words of the board with the original game board until either of them writes to it.
+ */
+public class PackedGameOfLife extends GameOfLife {
+
+    private static final int WORD_SIZE = 64;
+    private static final int TILE_HEIGHT = 64;
+
+    // masks of the bits in a word where bit b of the bit index is set, used to sum the indices of the set bits
+    private static final long[] INDEX_BIT_MASKS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L};
+
+    private int width;
+    private int height;
+    private int wordsPerRow;
+
+    // mask for the bits in the last word of a row that are inside the board
+    private long lastWordMask;
+
+    // game board, and the buffer the next generation is written to
+    private long[] cells;
+    private long[] nextCells;
+
+    // the board and the buffer may be shared with a clone or a snapshot, and must be copied before they are written to
+    private boolean cellsShared;
+    private boolean nextCellsShared;
+
+    // the snapshot the words were last handed over to
+    private SnapshotCells lentCells;
+
+    // tiles that changed in the last generation, and in the generation being computed
+    private int tileRows;
+    private boolean[] changedTiles;
+    private boolean[] nextChangedTiles;
+    private int[] tilePopulation;
+
+    // min x, max x, min y and max y of the live cells in every tile, and the sums of their x and y coordinates,
+    // kept for tiles that are skipped
+    private int[] tileBounds;
+    private long[] tileSums;
+
+    // transition table of the rule
+    private int transitionTable;
+    private boolean classicRule;
+
+    //region start-up
+
+    /**
+     * PackedGameOfLife Constructor. Sets the classic Conway rule (B3/S23) as default rule.
+     *
+     * @param width Width of the game board
+     * @param height Height of the game board
+     */
+    public PackedGameOfLife(int width, int height) {
+
+        this(width, height, RuleParser.CLASSIC_RULESTRING);
+    }
+
+    /**
+     * PackedGameOfLife Constructor.
+     * Sets the rule based on the parameter rulestring.
+     *
+     * @param width Width of the game board
+     * @param height Height of the game board
+     * @param rulestring Rulestring of the rule
+     */
+    public PackedGameOfLife(int width, int height, String rulestring) {
+
+        createGameBoard(width, height);
+        setRule(rulestring);
+        evolutionMode = EvolutionMode.DOUBLE_BUFFERED;
+    }
+
+    /**
+     * PackedGameOfLife copy constructor, used by clone().
+     * The words of the board are shared with the copied game board instead of being copied.
+     *
+     * @param gameOfLife The game board to copy
+     */
+    private PackedGameOfLife(PackedGameOfLife gameOfLife) {
+
+        copyGameState(gameOfLife);
+
+        width = gameOfLife.width;
+        height = gameOfLife.height;
+        wordsPerRow = gameOfLife.wordsPerRow;
+        lastWordMask = gameOfLife.lastWordMask;
+
+        cells = gameOfLife.cells;
+        nextCells = gameOfLife.cells;
+        cellsShared = true;
+        nextCellsShared = true;
+        gameOfLife.cellsShared = true;
+        gameOfLife.shareLentCells();
+
+        transitionTable = gameOfLife.transitionTable;
+        classicRule = gameOfLife.classicRule;
+
+        createTiles();
+    }
+
+    /**
+     * Creates the word arrays holding the cells of the current and the next generation
+     */
+    private void createGameBoard(int width, int height) {
+
+        this.width = width;
+        this.height = height;
+
+        wordsPerRow = (width + WORD_SIZE - 1) / WORD_SIZE;
+
+        int bitsInLastWord = width % WORD_SIZE;
+        lastWordMask = (bitsInLastWord == 0) ? -1L : (1L << bitsInLastWord) - 1;
+
+        cells = new long[wordsPerRow * height];
+        nextCells = new long[wordsPerRow * height];
+
+        createTiles();
+    }
+
+    /**
+     * Creates the tiles of the board, all marked as changed
+     */
+    private void createTiles() {
+
+        // all tiles are marked as changed, so the whole board is evolved in the next generation
+        tileRows = (height + TILE_HEIGHT - 1) / TILE_HEIGHT;
+        changedTiles = new boolean[tileRows * wordsPerRow];
+        nextChangedTiles = new boolean[tileRows * wordsPerRow];
+        tilePopulation = new int[tileRows * wordsPerRow];
+        tileBounds = new int[tileRows * wordsPerRow * 4];
+        tileSums = new long[tileRows * wordsPerRow * 2];
+        Arrays.fill(changedTiles, true);
+    }
+
+    //endregion
+
+    //region next generation
+
+    /**
+     * Evolves the game board one generation.
+     * Neighbours are counted for 64 cells at a time with bit-sliced adders,
+     * then the rule is applied to the whole word before the buffers are swapped.
+     * The rows are split between the tasks of the shared worker pool.
+     * The time of the generation and the cells visited are recorded in the generation metrics.
+     */
+    @Override
+    public void nextGeneration() {
+
+        long start = metrics.startTiming();
+        reclaimRetiredSnapshots();
+
+        // the buffer is copied, not just created, as skipped tiles rely on it holding the previous generation
+        if (nextCellsShared) {
+            nextCells = nextCells.clone();
+            nextCellsShared = false;
+        }
+
+        // never more tasks than bands of tiles, tiny boards are evolved by the calling thread alone
+        int taskCount = Math.max(1, Math.min(WorkerPool.getInstance().getParallelism(), tileRows));
+        EvolveResult[] results = new EvolveResult[taskCount];
+
+        for (int i = 0; i < taskCount; i++) {
+            final int finalI = i;
+
+            addTask(() -> results[finalI] = evolveRows(
+                    finalI * height / taskCount, (finalI + 1) * height / taskCount));
+        }
+
+        try {
+            runTasks();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        setEvolveResult(results);
+        swapBuffers();
+        metrics.record(GenerationMetrics.Phase.EVOLVE, start);
+        metrics.recordGenerations(start, 1, countVisitedCells(results), cellCount.get());
+    }
+
+    /**
+     * Evolves the tiles starting in the rows from startRow to stopRow into the next generation buffer.
+     * A tile is skipped if neither it nor any of the eight tiles around it changed in the last generation,
+     * as it will then stay the same. The next generation buffer already holds the same words for a skipped tile,
+     * since it holds the previous generation, which was equal to the current one.
+     *
+     * @param startRow First row to evolve
+     * @param stopRow Row to stop at, not included
+     * @return Number of live cells in the evolved rows, and the bounding box around them
+     */
+    private EvolveResult evolveRows(int startRow, int stopRow) {
+
+        EvolveResult result = new EvolveResult();
+
+        // each band of tiles is evolved by the task that holds its first row
+        int startTile = (startRow + TILE_HEIGHT - 1) / TILE_HEIGHT;
+        int stopTile = Math.min((stopRow + TILE_HEIGHT - 1) / TILE_HEIGHT, tileRows);
+
+        for (int tileY = startTile; tileY < stopTile; tileY++) {
+            for (int i = 0; i < wordsPerRow; i++) {
+
+                int tile = tileY * wordsPerRow + i;
+
+                if (isNeighbourhoodChanged(i, tileY)) {
+                    evolveTile(i, tileY, result);
+                } else {
+                    nextChangedTiles[tile] = false;
+                }
+
+                int bounds = tile * 4;
+                result.addLiveCells(tilePopulation[tile], tileSums[tile * 2], tileSums[tile * 2 + 1],
+                        tileBounds[bounds], tileBounds[bounds + 1], tileBounds[bounds + 2], tileBounds[bounds + 3]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evolves one tile, a column of words in a band of rows, into the next generation buffer.
+     * The bounding box and the coordinate sums of the live cells in the tile are found from the evolved words,
+     * and the births and deaths are added to the result of the task.
+     *
+     * @param i Index of the word in the row
+     * @param tileY Index of the band of rows
+     * @param result Result of the task
+     */
+    private void evolveTile(int i, int tileY, EvolveResult result) {
+
+        int startRow = tileY * TILE_HEIGHT;
+        int stopRow = Math.min(startRow + TILE_HEIGHT, height);
+
+        int liveCells = 0;
+        int births = 0;
+        int deaths = 0;
+        long hashChange = 0;
+        long sumX = 0;
+        long sumY = 0;
+
+        // every column with a live cell in the tile, and the first and last row with a live cell
+        long liveColumns = 0;
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (int y = startRow; y < stopRow; y++) {
+
+            int row = y * wordsPerRow;
+            int rowAbove = row - wordsPerRow;
+            int rowBelow = row + wordsPerRow;
+
+            long word = evolveWord(
+                    getWord(rowAbove, y - 1, i), getWord(row, y, i), getWord(rowBelow, y + 1, i),
+                    getWord(rowAbove, y - 1, i - 1), getWord(row, y, i - 1), getWord(rowBelow, y + 1, i - 1),
+                    getWord(rowAbove, y - 1, i + 1), getWord(row, y, i + 1), getWord(rowBelow, y + 1, i + 1));
+
+            // cells outside the right edge of the board should never come alive
+            if (i == wordsPerRow - 1)
+                word &= lastWordMask;
+
+            long oldWord = cells[row + i];
+            long born = word & ~oldWord;
+            long died = oldWord & ~word;
+            births += Long.bitCount(born);
+            deaths += Long.bitCount(died);
+
+            if ((born | died) != 0)
+                hashChange += (sumColumnKeys(born, i) - sumColumnKeys(died, i)) * PatternHash.rowKey(y);
+
+            nextCells[row + i] = word;
+
+            int wordCells = Long.bitCount(word);
+            liveCells += wordCells;
+
+            if (word != 0) {
+                sumX += (long) i * WORD_SIZE * wordCells + sumBitIndices(word);
+                sumY += (long) y * wordCells;
+
+                liveColumns |= word;
+                minY = Math.min(minY, y);
+                maxY = y;
+            }
+        }
+
+        result.addChanges(births, deaths);
+        result.addHashChange(hashChange);
+        result.addVisitedCells((long) Math.min(WORD_SIZE, width - i * WORD_SIZE) * (stopRow - startRow));
+
+        int tile = tileY * wordsPerRow + i;
+        tilePopulation[tile] = liveCells;
+        nextChangedTiles[tile] = births + deaths > 0;
+        tileSums[tile * 2] = sumX;
+        tileSums[tile * 2 + 1] = sumY;
+
+        int bounds = tile * 4;
+        tileBounds[bounds] = i * WORD_SIZE + Long.numberOfTrailingZeros(liveColumns);
+        tileBounds[bounds + 1] = i * WORD_SIZE + WORD_SIZE - 1 - Long.numberOfLeadingZeros(liveColumns);
+        tileBounds[bounds + 2] = minY;
+        tileBounds[bounds + 3] = maxY;
+    }
+
+    /**
+     * Sums the indices of the set bits in a word, one bit of the indices at a time
+     */
+    private static long sumBitIndices(long word) {
+
+        long sum = 0;
+
+        for (int b = 0; b < INDEX_BIT_MASKS.length; b++)
+            sum += (long) Long.bitCount(word & INDEX_BIT_MASKS[b]) << b;
+
+        return sum;
+    }
+
+    /**
+     * Sums the column keys of the pattern hash of the set bits in a word
+     *
+     * @param word The cells, one bit each
+     * @param i Index of the word in the row
+     * @return Sum of the column keys of the cells
+     */
+    private static long sumColumnKeys(long word, int i) {
+
+        long sum = 0;
+
+        while (word != 0) {
+            sum += PatternHash.columnKey((long) i * WORD_SIZE + Long.numberOfTrailingZeros(word));
+            word &= word - 1;
+        }
+        return sum;
+    }
+
+    /**
+     * Checks if a tile or any of the eight tiles around it changed in the last generation
+     */
+    private boolean isNeighbourhoodChanged(int i, int tileY) {
+
+        for (int b = Math.max(tileY - 1, 0); b <= Math.min(tileY + 1, tileRows - 1); b++) {
+            for (int a = Math.max(i - 1, 0); a <= Math.min(i + 1, wordsPerRow - 1); a++) {
+                if (changedTiles[b * wordsPerRow + a])
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the tile holding the cell at (x,y) as changed, so it is evolved in the next generation
+     */
+    private void markTileChanged(int x, int y) {
+        changedTiles[(y / TILE_HEIGHT) * wordsPerRow + x / WORD_SIZE] = true;
+    }
+
+    /**
+     * Evolves 64 cells at once.
+     * The three words above, at, and below the cells are given together with their left and right neighbour words.
+     *
+     * @return The next generation of the word in the middle
+     */
+    private long evolveWord(long above, long middle, long below,
+                            long aboveLeft, long middleLeft, long belowLeft,
+                            long aboveRight, long middleRight, long belowRight) {
+
+        long northWest = westOf(above, aboveLeft);
+        long northEast = eastOf(above, aboveRight);
+        long west = westOf(middle, middleLeft);
+        long east = eastOf(middle, middleRight);
+        long southWest = westOf(below, belowLeft);
+        long southEast = eastOf(below, belowRight);
+
+        // bit-sliced neighbour count, bit n of s0, s1, s2 and s3 makes up the count for cell n.
+        // the eight neighbours are summed with a tree of full and half adders
+        long sumA = northWest ^ above ^ northEast;
+        long carryA = (northWest & above) | (northEast & (northWest ^ above));
+        long sumB = west ^ east ^ southWest;
+        long carryB = (west & east) | (southWest & (west ^ east));
+        long sumC = below ^ southEast;
+        long carryC = below & southEast;
+
+        long s0 = sumA ^ sumB ^ sumC;
+        long carryD = (sumA & sumB) | (sumC & (sumA ^ sumB));
+
+        long twos = carryA ^ carryB ^ carryC;
+        long foursA = (carryA & carryB) | (carryC & (carryA ^ carryB));
+        long s1 = twos ^ carryD;
+        long foursB = twos & carryD;
+
+        long s2 = foursA ^ foursB;
+        long s3 = foursA & foursB;
+
+        // B3/S23: exactly three neighbours, or exactly two neighbours and alive
+        if (classicRule)
+            return s1 & ~s2 & ~s3 & (s0 | middle);
+
+        // any other rule is applied as a boolean function over the count bits, one term per count in the rule
+        long born = 0;
+        long survive = 0;
+
+        for (int neighbourCount = 0; neighbourCount <= 8; neighbourCount++) {
+
+            boolean birth = Rule.isAlive(transitionTable, false, neighbourCount);
+            boolean survival = Rule.isAlive(transitionTable, true, neighbourCount);
+
+            if (!birth && !survival)
+                continue;
+
+            long hasCount = countEquals(neighbourCount, s0, s1, s2, s3);
+
+            if (birth)
+                born |= hasCount;
+            if (survival)
+                survive |= hasCount;
+        }
+        return (born & ~middle) | (survive & middle);
+    }
+
+    /**
+     * Gets the word where each bit is set if the bit-sliced neighbour count of the corresponding cell
+     * equals neighbourCount
+     *
+     * @param neighbourCount The count to compare with, from 0 to 8
+     * @param s0 Bit 0 of the counts
+     * @param s1 Bit 1 of the counts
+     * @param s2 Bit 2 of the counts
+     * @param s3 Bit 3 of the counts
+     * @return The word of cells with the given count
+     */
+    private static long countEquals(int neighbourCount, long s0, long s1, long s2, long s3) {
+
+        return ((neighbourCount & 1) != 0 ? s0 : ~s0)
+                & ((neighbourCount & 2) != 0 ? s1 : ~s1)
+                & ((neighbourCount & 4) != 0 ? s2 : ~s2)
+                & ((neighbourCount & 8) != 0 ? s3 : ~s3);
+    }
+
+    /**
+     * Gets the word where each bit holds the state of the cell to the left of the corresponding cell
+     */
+    private static long westOf(long word, long leftWord) {
+        return (word << 1) | (leftWord >>> (WORD_SIZE - 1));
+    }
+
+    /**
+     * Gets the word where each bit holds the state of the cell to the right of the corresponding cell
+     */
+    private static long eastOf(long word, long rightWord) {
+        return (word >>> 1) | (rightWord << (WORD_SIZE - 1));
+    }
+
+    /**
+     * Gets a word from the current generation. Words outside the board are empty.
+     *
+     * @param row Index of the first word in the row
+     * @param y Y coordinate of the row
+     * @param i Index of the word in the row
+     * @return The word
+     */
+    private long getWord(int row, int y, int i) {
+
+        if (y < 0 || y >= height || i < 0 || i >= wordsPerRow)
+            return 0;
+
+        return cells[row + i];
+    }
+
+    /**
+     * Makes the next generation buffer the current board
+     */
+    private void swapBuffers() {
+
+        long[] temp = cells;
+        cells = nextCells;
+        nextCells = temp;
+
+        boolean tempShared = cellsShared;
+        cellsShared = nextCellsShared;
+        nextCellsShared = tempShared;
+
+        boolean[] tempTiles = changedTiles;
+        changedTiles = nextChangedTiles;
+        nextChangedTiles = tempTiles;
+    }
+
+    //endregion
+
+    //region getters
+
+    @Override
+    public int getGridWidth() {
+        return width;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return height;
+    }
+
+    /**
+     * Counts the neighbours of a cell at (x,y) directly from the board,
+     * as the packed board does not keep a neighbour grid.
+     */
+    @Override
+    public int getNeighboursAt(int x, int y) {
+
+        int neighbours = 0;
+
+        for (int a = x - 1; a <= x + 1; a++) {
+            for (int b = y - 1; b <= y + 1; b++) {
+                if ((a != x || b != y) && isCellAlive(a, b))
+                    neighbours++;
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * The packed board is always evolved double-buffered, word by word
+     */
+    @Override
+    public boolean supportsEvolutionMode(EvolutionMode evolutionMode) {
+        return evolutionMode == EvolutionMode.DOUBLE_BUFFERED;
+    }
+
+    @Override
+    public boolean isCellAlive(int x, int y) {
+
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            return false;
+
+        return (cells[y * wordsPerRow + x / WORD_SIZE] & (1L << x)) != 0;
+    }
+
+    /**
+     * Hands the words over to the snapshot without copying them. The snapshot can only give them back
+     * if nothing else shares them, so not if they are shared with a clone or handed over to another snapshot.
+     */
+    @Override
+    GenerationSnapshot.Cells createSnapshotCells() {
+
+        boolean owned = !cellsShared;
+        shareLentCells();
+
+        lentCells = new SnapshotCells(this, owned);
+        cellsShared = true;
+
+        return lentCells;
+    }
+
+    /**
+     * Takes back the words given back by a snapshot if they are still the buffer,
+     * so the next generation is written to them instead of to a copy
+     */
+    @Override
+    void reclaimSnapshotCells(GenerationSnapshot.Cells cells) {
+
+        SnapshotCells snapshotCells = (SnapshotCells) cells;
+
+        if (snapshotCells.owned != null && snapshotCells.owned == nextCells)
+            nextCellsShared = false;
+
+        if (lentCells == snapshotCells)
+            lentCells = null;
+    }
+
+    /**
+     * Stops the snapshot the words were last handed over to from giving them back,
+     * if they are still the words of the board, for when they are shared with a clone or handed over to another snapshot
+     */
+    private void shareLentCells() {
+
+        if (lentCells != null && lentCells.owned == cells)
+            lentCells.owned = null;
+    }
+
+    /**
+     * Clones the PackedGameOfLife object.
+     * The clone shares the words of the board with this object, so cloning does not copy any cells.
+     *
+     * @return the cloned PackedGameOfLife object
+     */
+    @Override
+    public PackedGameOfLife clone() {
+        return new PackedGameOfLife(this);
+    }
+
+    //endregion
+
+    //region setters
+
+    /**
+     * Sets a specific rule to be used, and reads its transition table.
+     *
+     * @param ruleText The rule text
+     */
+    @Override
+    public void setRule(String ruleText) {
+
+        super.setRule(ruleText);
+
+        transitionTable = rule.getTransitionTable();
+        classicRule = rule.toString().equals(RuleParser.CLASSIC_RULESTRING);
+
+        // every tile must be evolved with the new rule
+        if (changedTiles != null)
+            Arrays.fill(changedTiles, true);
+    }
+
+    @Override
+    public void setCellAlive(int x, int y) {
+
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            return;
+
+        if (!isCellAlive(x, y)) {
+            getWritableCells()[y * wordsPerRow + x / WORD_SIZE] |= 1L << x;
+            markTileChanged(x, y);
+            cellCount.incrementAndGet();
+            invalidateBoundingBox();
+        }
+    }
+
+    /**
+     * Sets a run of cells alive a word at a time. Cells outside the board are left out, like in setCellAlive().
+     */
+    @Override
+    public void setRowAlive(int x, int y, int length) {
+
+        int start = Math.max(x, 0);
+        int stop = (int) Math.min((long) x + length, width);
+
+        if (y < 0 || y >= height || start >= stop)
+            return;
+
+        long[] writableCells = getWritableCells();
+        int added = 0;
+
+        for (int word = start / WORD_SIZE; word <= (stop - 1) / WORD_SIZE; word++) {
+
+            // the cells of the run in this word
+            int first = Math.max(start, word * WORD_SIZE);
+            int count = Math.min(stop, (word + 1) * WORD_SIZE) - first;
+            long mask = ((count == WORD_SIZE) ? -1L : (1L << count) - 1) << first;
+
+            int index = y * wordsPerRow + word;
+            long newCells = mask & ~writableCells[index];
+
+            if (newCells != 0) {
+                writableCells[index] |= newCells;
+                added += Long.bitCount(newCells);
+                markTileChanged(first, y);
+            }
+        }
+
+        if (added > 0) {
+            cellCount.addAndGet(added);
+            invalidateBoundingBox();
+        }
+    }
+
+    /**
+     * Gets the cells of a run as words, shifting whole words of the row instead of reading every cell.
+     * Runs reaching outside the board are read cell by cell.
+     */
+    @Override
+    public void getRowWords(int x, int y, int length, long[] words) {
+
+        if (x < 0 || y < 0 || y >= height || (long) x + length > width) {
+            super.getRowWords(x, y, length, words);
+            return;
+        }
+
+        int count = (length + WORD_SIZE - 1) / WORD_SIZE;
+        int first = y * wordsPerRow + x / WORD_SIZE;
+        int last = (y + 1) * wordsPerRow - 1;
+        int shift = x % WORD_SIZE;
+
+        for (int i = 0; i < count; i++) {
+
+            int index = first + i;
+            long low = cells[index] >>> shift;
+            long high = (shift != 0 && index < last) ? cells[index + 1] << (WORD_SIZE - shift) : 0;
+            words[i] = low | high;
+        }
+
+        // clear the cells after the run
+        int rest = length % WORD_SIZE;
+        if (rest != 0)
+            words[count - 1] &= (1L << rest) - 1;
+    }
+
+    @Override
+    public void setCellDead(int x, int y) {
+
+        if (isCellAlive(x, y)) {
+            getWritableCells()[y * wordsPerRow + x / WORD_SIZE] &= ~(1L << x);
+            markTileChanged(x, y);
+            cellCount.decrementAndGet();
+            invalidateBoundingBox();
+        }
+    }
+
+    @Override
+    public void clearGrid() {
+
+        // a shared board is replaced instead of cleared
+        if (cellsShared) {
+            cells = new long[cells.length];
+            cellsShared = false;
+        } else {
+            Arrays.fill(cells, 0);
+        }
+        Arrays.fill(changedTiles, true);
+        cellCount.set(0);
+        invalidateBoundingBox();
+    }
+
+    /**
+     * Gets the words of the board for writing, copying them first if they are shared with a clone
+     */
+    private long[] getWritableCells() {
+
+        if (cellsShared) {
+            cells = cells.clone();
+            cellsShared = false;
+        }
+        return cells;
+    }
+
+    /**
+     * Not used, as the packed board counts neighbours word by word during evolution
+     */
+    @Override
+    protected void incrementNeighboursAt(int x, int y) {
+    }
+
+    /**
+     * Not used, as the packed board does not keep a neighbour grid
+     */
+    @Override
+    public void resetNeighboursAt(int x, int y) {
+    }
+
+    //endregion
+
+    /**
+     * The words of a generation handed over to a snapshot
+     */
+    private static final class SnapshotCells implements GenerationSnapshot.Cells {
+
+        private final long[] cells;
+        private final int width;
+        private final int height;
+        private final int wordsPerRow;
+
+        // the words, if the snapshot can give them back to the board. Only used by the thread publishing snapshots
+        private long[] owned;
+
+        SnapshotCells(PackedGameOfLife gol, boolean owned) {
+
+            cells = gol.cells;
+            width = gol.width;
+            height = gol.height;
+            wordsPerRow = gol.wordsPerRow;
+
+            this.owned = owned ? cells : null;
+        }
+
+        @Override
+        public boolean isCellAlive(int x, int y) {
+
+            if (x < 0 || x >= width || y < 0 || y >= height)
+                return false;
+
+            return (cells[y * wordsPerRow + x / WORD_SIZE] & (1L << x)) != 0;
+        }
+    }
+}
@@ -2,75 +2,95 @@ package model.Parser;
 
 import model.PatternFormatException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Created by Truls on 12/04/16.
  */
-public class Life05Parser extends PatternParser {
+public class Life05Parser {
 
-    private static int startPosX;
-    private static int startPosY;
-    private static int offSetX;
-    private static int offSetY;
-    private static int startOfSubPattern;
+    private static final Pattern PATTERN_PARAMETERS = Pattern.compile("#P (.+) (.+)");
+
+    private final List<String> fileContentList;
+    private final List<String> metaData = new ArrayList<>();
+    private List<String> cellLines;
+
+    private String importedRule;
+    private int patternWidth;
+    private int patternHeight;
+    private int startPosX;
+    private int startPosY;
+    private int offSetX;
+    private int offSetY;
+    private int startOfSubPattern;
 
     /**
-     * reads the string content from a Life 1.05 file
-     * @return the boolean array produced from the list
+     * Life05Parser constructor
+     * @param fileContentList the lines of the file
      */
-    static boolean[][] parseLife05() throws PatternFormatException {
+    Life05Parser(List<String> fileContentList) {
+        this.fileContentList = fileContentList;
+    }
 
-        patternWidth = 0;
-        patternHeight = 0;
-        startPosX = 0;
-        startPosY = 0;
-        offSetX = 0;
-        offSetY = 0;
-        startOfSubPattern = 0;
-        patternParameters = Pattern.compile("#P (.+) (.+)");
+    /**
+     * reads the string content from a Life 1.05 file
+     * @return the pattern, rule and meta data produced from the list
+     * @throws PatternFormatException if the format is violated
+     */
+    ParseResult parseLife05() throws PatternFormatException {
 
         extractRulesFromMetaData();
         findUpperLeftCellCoordinates();
         getGridProperties();
-        buildPatternArray();
 
-        return patternArray;
+        return new ParseResult(buildPatternArray(), importedRule, metaData);
     }
 
+    private void extractRulesFromMetaData() throws PatternFormatException {
+
+        int firstLine = 0;
 
+        while (firstLine < fileContentList.size() && !fileContentList.get(firstLine).startsWith("#P")){
 
-    private static void extractRulesFromMetaData() throws PatternFormatException {
+            String currentLine = fileContentList.get(firstLine);
 
-        while (!fileContentList.get(FIRST_LINE).startsWith("#P")){
-            if(fileContentList.get(FIRST_LINE).startsWith("#R")){
-                extractRules();
+            if(currentLine.startsWith("#R")){
+                extractRules(currentLine);
             }
 
-            else if(fileContentList.get(FIRST_LINE).startsWith("#N")) {
-                if (lastImportedRule != null)
+            else if(currentLine.startsWith("#N")) {
+                if (importedRule != null)
                     throw new PatternFormatException("Multiple rules present");
-                lastImportedRule = "23/3"; // Conway's default rule
+                importedRule = "23/3"; // Conway's default rule
             }
 
-            fileContentList.remove(FIRST_LINE);
+            metaData.add(currentLine);
+            firstLine++;
         }
+
+        if (firstLine == fileContentList.size())
+            throw new PatternFormatException("Couldn't find any cell blocks in Life 1.05 file");
+
+        cellLines = fileContentList.subList(firstLine, fileContentList.size());
     }
 
-    private static void extractRules() throws PatternFormatException {
+    private void extractRules(String currentLine) throws PatternFormatException {
 
-        if(lastImportedRule != null) {
+        if(importedRule != null) {
             throw new PatternFormatException("Multiple rules present");
         }
-        lastImportedRule = fileContentList.get(FIRST_LINE).replaceAll("[^1-9/1-9]", "");
+        importedRule = currentLine.replaceAll("[^1-9/1-9]", "");
     }
 
-    private static void findUpperLeftCellCoordinates() {
+    private void findUpperLeftCellCoordinates() {
 
-        for (String currentLine : fileContentList) {
+        for (String currentLine : cellLines) {
 
             if (currentLine.startsWith("#P")) {
-                patternMatcher = patternParameters.matcher(currentLine);
+                Matcher patternMatcher = PATTERN_PARAMETERS.matcher(currentLine);
 
                 if (patternMatcher.matches()) {
 
@@ -86,12 +106,12 @@ public class Life05Parser extends PatternParser {
         }
     }
 
-    private static void getGridProperties() {
+    private void getGridProperties() {
 
-        for(int i = 0; i < fileContentList.size(); i++){
+        for(int i = 0; i < cellLines.size(); i++){
 
-            if(fileContentList.get(i).startsWith("#P")){
-                patternMatcher = patternParameters.matcher(fileContentList.get(i));
+            if(cellLines.get(i).startsWith("#P")){
+                Matcher patternMatcher = PATTERN_PARAMETERS.matcher(cellLines.get(i));
 
                 if(patternMatcher.matches()){
                     offSetX = Integer.parseInt(patternMatcher.group(1));
@@ -101,8 +121,8 @@ public class Life05Parser extends PatternParser {
                 startOfSubPattern = i;
             }
 
-            if(fileContentList.get(i).length() - startPosX + offSetX > patternWidth){
-                patternWidth = fileContentList.get(i).length() - startPosX + offSetX;
+            if(cellLines.get(i).length() - startPosX + offSetX > patternWidth){
+                patternWidth = cellLines.get(i).length() - startPosX + offSetX;
             }
 
             if((i- startOfSubPattern) - startPosY + offSetY > patternHeight){
@@ -111,15 +131,15 @@ public class Life05Parser extends PatternParser {
         }
     }
 
-    private static void buildPatternArray() throws PatternFormatException {
+    private boolean[][] buildPatternArray() {
 
         int x = 0;
         int y = 0;
-        patternArray = new boolean[patternWidth][patternHeight];
+        boolean[][] patternArray = new boolean[patternWidth][patternHeight];
 
-        for (String currentLine : fileContentList) {
+        for (String currentLine : cellLines) {
             if (currentLine.startsWith("#P")) {
-                patternMatcher = patternParameters.matcher(currentLine);
+                Matcher patternMatcher = PATTERN_PARAMETERS.matcher(currentLine);
                 if (patternMatcher.matches()) {
                     offSetX = Integer.parseInt(patternMatcher.group(1));
                     offSetY = Integer.parseInt(patternMatcher.group(2));
@@ -128,10 +148,9 @@ public class Life05Parser extends PatternParser {
                 }
             } else {
                 for (int j = 0; j < currentLine.length(); j++) {
-                    currentCharacter = currentLine.charAt(j);
+                    char currentCharacter = currentLine.charAt(j);
 
                     if (currentCharacter == '.') {
-                        patternArray[x][y] = false;
                         x++;
                     } else if (currentCharacter == '*') {
                         patternArray[x][y] = true;
@@ -142,5 +161,6 @@ public class Life05Parser extends PatternParser {
                 x = offSetX - startPosX;
             }
         }
+        return patternArray;
     }
 }
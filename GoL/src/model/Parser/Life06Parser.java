@@ -2,73 +2,87 @@ package model.Parser;
 
 import model.PatternFormatException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Created by Truls on 12/04/16.
  */
-public class Life06Parser extends PatternParser {
+public class Life06Parser {
+
+    private static final Pattern PATTERN_PARAMETERS = Pattern.compile("(.+) (.+)");
+
+    private final List<String> fileContentList;
+
+    /**
+     * Life06Parser constructor
+     * @param fileContentList the lines of the file
+     */
+    Life06Parser(List<String> fileContentList) {
+        this.fileContentList = fileContentList;
+    }
+
     /**
      * reads the string content from a Life 1.06 file
-     * @return the boolean array produced from the list
+     * @return the pattern and meta data produced from the list
+     * @throws PatternFormatException if a line is not a pair of coordinates
      */
-    static boolean[][] parseLife06() throws PatternFormatException {
+    ParseResult parseLife06() throws PatternFormatException {
 
-        while(fileContentList.get(FIRST_LINE).startsWith("#")){
-            fileContentList.remove(FIRST_LINE);
+        List<String> metaData = new ArrayList<>();
+        int firstLine = 0;
+        while(firstLine < fileContentList.size() && fileContentList.get(firstLine).startsWith("#")){
+            metaData.add(fileContentList.get(firstLine));
+            firstLine++;
         }
-        patternParameters = Pattern.compile("(.+) (.+)");
 
-        patternMatcher = patternParameters.matcher(fileContentList.get(FIRST_LINE));
+        // one cell on every line, blank lines are left out
+        List<String> cellLines = new ArrayList<>();
+        for (String line : fileContentList.subList(firstLine, fileContentList.size())) {
+            if (!line.trim().isEmpty())
+                cellLines.add(line);
+        }
 
-        if(!patternMatcher.matches()){
+        if(cellLines.isEmpty()){
             throw new PatternFormatException("Couldn't parse Life 1.06 file");
         }
 
-        int startPosX = Integer.parseInt(patternMatcher.group(1));
-        int startPosY = Integer.parseInt(patternMatcher.group(2));
-
-        int possibleHeight;
-        int possibleWidth;
+        int[] cellX = new int[cellLines.size()];
+        int[] cellY = new int[cellLines.size()];
 
-        patternWidth = startPosX;
-        possibleHeight = startPosY;
+        int startPosX = Integer.MAX_VALUE;
+        int startPosY = Integer.MAX_VALUE;
+        int endPosX = Integer.MIN_VALUE;
+        int endPosY = Integer.MIN_VALUE;
 
-        for(int i = 0; i < fileContentList.size(); i++){
-            patternMatcher = patternParameters.matcher(fileContentList.get(i));
+        // finds the coordinates of every cell, and the smallest rectangle around them
+        for(int i = 0; i < cellLines.size(); i++){
+            Matcher patternMatcher = PATTERN_PARAMETERS.matcher(cellLines.get(i));
 
             if(!patternMatcher.matches()){
-                return null;
+                throw new PatternFormatException("Couldn't parse Life 1.06 file");
             }
-            possibleWidth = Integer.parseInt(patternMatcher.group(1));
-            possibleHeight = Integer.parseInt(patternMatcher.group(2));
 
-            if(possibleHeight > patternHeight){
-                patternHeight = possibleHeight;
+            try {
+                cellX[i] = Integer.parseInt(patternMatcher.group(1).trim());
+                cellY[i] = Integer.parseInt(patternMatcher.group(2).trim());
+            } catch (NumberFormatException e) {
+                throw new PatternFormatException("Couldn't parse Life 1.06 file");
             }
 
-            if(possibleWidth > patternWidth){
-                patternWidth = possibleWidth;
-            }
-            else if(possibleWidth < startPosX){
-                startPosX = possibleWidth;
-            }
+            startPosX = Math.min(startPosX, cellX[i]);
+            startPosY = Math.min(startPosY, cellY[i]);
+            endPosX = Math.max(endPosX, cellX[i]);
+            endPosY = Math.max(endPosY, cellY[i]);
         }
 
-        patternWidth -= startPosX;
-        possibleHeight-=startPosY;
-
-        patternArray = new boolean[patternWidth + 1][possibleHeight + 1];
+        boolean[][] patternArray = new boolean[endPosX - startPosX + 1][endPosY - startPosY + 1];
 
-        for(int i = 0; i < fileContentList.size(); i++){
-            patternMatcher = patternParameters.matcher(fileContentList.get(i));
-
-            if(!patternMatcher.matches()){
-                throw new PatternFormatException("Couldn't parse Life 1.06 file");
-            }
-            patternArray[Integer.parseInt(patternMatcher.group(1)) - startPosX][Integer.parseInt(patternMatcher.group(2)) - startPosY] = true;
+        for(int i = 0; i < cellLines.size(); i++){
+            patternArray[cellX[i] - startPosX][cellY[i] - startPosY] = true;
         }
-        lastImportedRule = null;
-        return patternArray;
+        return new ParseResult(patternArray, null, metaData);
     }
 }
@@ -0,0 +1,385 @@
+package model.Parser;
+
+import model.GameOfLife;
+import model.PatternFormatException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Pair programming
+ *
+ * Reads very large RLE and Life 1.06 files from a memory-mapped buffer, tokenising the bytes in place.
+ * Only the comment and header lines become strings, the cells are read byte by byte without decoding characters,
+ * so the time and garbage of importing a pattern grow with the size of the file by a small constant.
+ * RLE files are read by an RleDecoder over the mapped bytes. Life 1.06 files are read twice,
+ * first to find the bounding box of the cells, and then to pass the cells on relative to its top left corner.
+ */
+public class MappedPatternReader {
+
+    private static final String LIFE_06_HEADER = "#Life 1.06";
+    private static final String LIFE_06_ERROR = "Couldn't parse Life 1.06 file";
+
+    private enum Format {RLE, LIFE_06}
+
+    private final MappedByteBuffer mapped;
+    private final Format format;
+
+    // the RLE decoder, or null for Life 1.06 files
+    private final RleDecoder rleDecoder;
+
+    // header of Life 1.06 files
+    private boolean headerRead;
+    private final List<String> comments = new ArrayList<>();
+    private int cellsStart;
+    private long cellCount;
+    private int minX, minY;
+    private int width, height;
+
+    /**
+     * MappedPatternReader Constructor. Maps the whole file read-only, and finds its format from the name and first line.
+     * The file is closed at once, the mapping is valid until the reader is garbage collected.
+     *
+     * @param file The pattern file
+     * @throws IOException if the file could not be mapped, or is larger than 2 GB
+     */
+    public MappedPatternReader(Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new PatternFormatException("Pattern file too large to read: " + file);
+
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        String name = file.getFileName().toString().toLowerCase();
+
+        if (name.endsWith(".rle"))
+            format = Format.RLE;
+        else if ((name.endsWith(".lif") || name.endsWith(".life")) && startsWith(LIFE_06_HEADER))
+            format = Format.LIFE_06;
+        else
+            format = null;
+
+        rleDecoder = (format == Format.RLE) ? new RleDecoder(mapped.duplicate()) : null;
+    }
+
+    /**
+     * Checks if the file is a RLE or Life 1.06 file, which are the formats read by this reader
+     *
+     * @return True if the file can be read
+     */
+    public boolean isSupported() {
+        return format != null;
+    }
+
+    //region parsing
+
+    /**
+     * Reads the whole pattern into a parse result
+     *
+     * @return the pattern, rule and meta data of the file, or null if the format is not supported
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated
+     */
+    public ParseResult parse() throws IOException {
+
+        if (format == null)
+            return null;
+
+        readHeader();
+
+        boolean[][] patternArray = new boolean[getWidth()][getHeight()];
+
+        decode((x, y, length) -> {
+            for (int i = 0; i < length; i++)
+                patternArray[x + i][y] = true;
+        });
+
+        return new ParseResult(patternArray, getRule(), getComments());
+    }
+
+    /**
+     * Reads the comment lines and the size of the pattern.
+     * For Life 1.06 files, this reads every cell to find the bounding box.
+     * Does nothing if the header has been read.
+     *
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated, or not supported
+     */
+    public void readHeader() throws IOException {
+
+        if (format == null)
+            throw new PatternFormatException("File is not in supported format");
+
+        if (rleDecoder != null) {
+            rleDecoder.readHeader();
+            return;
+        }
+
+        if (headerRead)
+            return;
+
+        ByteBuffer bytes = mapped.duplicate();
+        readComments(bytes);
+        cellsStart = bytes.position();
+
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+
+        // the first pass only finds the bounding box, no cells are kept
+        while (skipBlankLines(bytes)) {
+
+            int x = readCoordinate(bytes);
+            int y = readCoordinate(bytes);
+            endLine(bytes);
+
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            cellCount++;
+        }
+
+        if (cellCount == 0 || (long) maxX - minX + 1 > Integer.MAX_VALUE || (long) maxY - minY + 1 > Integer.MAX_VALUE)
+            throw new PatternFormatException(LIFE_06_ERROR);
+
+        width = maxX - minX + 1;
+        height = maxY - minY + 1;
+        headerRead = true;
+    }
+
+    /**
+     * Places the live cells of the pattern on a game board, one run of cells at a time with setRowAlive().
+     * The header is read first if it has not been.
+     *
+     * @param gol The game board
+     * @param left Column of the board where the left edge of the pattern is placed
+     * @param top Row of the board where the top of the pattern is placed
+     * @return Number of live cells in the pattern
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated
+     */
+    public long decode(GameOfLife gol, int left, int top) throws IOException {
+        return decode((x, y, length) -> gol.setRowAlive(left + x, top + y, length));
+    }
+
+    /**
+     * Reads the cells of the pattern, and passes them to a consumer, relative to the top left corner of the pattern.
+     * Cells of Life 1.06 files are passed as runs of one cell, in the order of the file.
+     * The header is read first if it has not been.
+     *
+     * @param consumer Consumer of the runs of live cells
+     * @return Number of live cells in the pattern
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated
+     */
+    public long decode(RleDecoder.RunConsumer consumer) throws IOException {
+
+        readHeader();
+
+        if (rleDecoder != null)
+            return rleDecoder.decode(consumer);
+
+        ByteBuffer bytes = mapped.duplicate();
+        bytes.position(cellsStart);
+
+        while (skipBlankLines(bytes)) {
+
+            int x = readCoordinate(bytes);
+            int y = readCoordinate(bytes);
+            endLine(bytes);
+
+            consumer.addRun(x - minX, y - minY, 1);
+        }
+        return cellCount;
+    }
+
+    //endregion
+
+    //region tokenising
+
+    /**
+     * Checks if the file starts with the bytes of an ASCII text
+     */
+    private boolean startsWith(String text) {
+
+        if (mapped.limit() < text.length())
+            return false;
+
+        for (int i = 0; i < text.length(); i++) {
+            if (mapped.get(i) != text.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the lines starting with # at the top of the file as comments, decoded as UTF-8
+     */
+    private void readComments(ByteBuffer bytes) {
+
+        while (bytes.hasRemaining() && bytes.get(bytes.position()) == '#')
+            comments.add(readLine(bytes));
+    }
+
+    /**
+     * Reads bytes up to the end of the line, and decodes them as UTF-8.
+     * Shared with the RleDecoder, which reads the header of mapped RLE files with it.
+     *
+     * @param bytes The buffer, positioned at the start of the line, and left after the line break
+     * @return The line without the line break, or null at the end of the buffer
+     */
+    static String readLine(ByteBuffer bytes) {
+
+        if (!bytes.hasRemaining())
+            return null;
+
+        int start = bytes.position();
+        int end = start;
+
+        while (end < bytes.limit() && bytes.get(end) != '\n')
+            end++;
+
+        bytes.position(Math.min(end + 1, bytes.limit()));
+
+        if (end > start && bytes.get(end - 1) == '\r')
+            end--;
+
+        byte[] line = new byte[end - start];
+        for (int i = 0; i < line.length; i++)
+            line[i] = bytes.get(start + i);
+
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips whitespace and empty lines up to the next cell
+     *
+     * @return True if there is another cell, false at the end of the file
+     */
+    private static boolean skipBlankLines(ByteBuffer bytes) {
+
+        while (bytes.hasRemaining()) {
+
+            byte b = bytes.get(bytes.position());
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n')
+                return true;
+
+            bytes.get();
+        }
+        return false;
+    }
+
+    /**
+     * Reads a coordinate and the spaces or tabs in front of it, without leaving the line
+     *
+     * @return The coordinate
+     * @throws PatternFormatException if there is no coordinate, or it does not fit in an int
+     */
+    private static int readCoordinate(ByteBuffer bytes) throws PatternFormatException {
+
+        while (bytes.hasRemaining() && (bytes.get(bytes.position()) == ' ' || bytes.get(bytes.position()) == '\t'))
+            bytes.get();
+
+        boolean negative = false;
+        if (bytes.hasRemaining() && (bytes.get(bytes.position()) == '-' || bytes.get(bytes.position()) == '+'))
+            negative = bytes.get() == '-';
+
+        long value = 0;
+        int digits = 0;
+
+        while (bytes.hasRemaining()) {
+
+            int digit = bytes.get(bytes.position()) - '0';
+            if (digit < 0 || digit > 9)
+                break;
+
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1)
+                throw new PatternFormatException(LIFE_06_ERROR);
+
+            bytes.get();
+            digits++;
+        }
+
+        if (negative)
+            value = -value;
+
+        if (digits == 0 || value > Integer.MAX_VALUE)
+            throw new PatternFormatException(LIFE_06_ERROR);
+
+        return (int) value;
+    }
+
+    /**
+     * Skips the spaces at the end of a line, and the line break
+     *
+     * @throws PatternFormatException if the line has more than a pair of coordinates
+     */
+    private static void endLine(ByteBuffer bytes) throws PatternFormatException {
+
+        while (bytes.hasRemaining()) {
+
+            byte b = bytes.get();
+            if (b == '\n')
+                return;
+
+            if (b != ' ' && b != '\t' && b != '\r')
+                throw new PatternFormatException(LIFE_06_ERROR);
+        }
+    }
+
+    //endregion
+
+    //region getters
+
+    /**
+     * Gets the width of the pattern, after the header is read
+     *
+     * @return The width of the bounding box, or of the RLE header
+     */
+    public int getWidth() {
+        return (rleDecoder != null) ? rleDecoder.getWidth() : width;
+    }
+
+    /**
+     * Gets the height of the pattern, after the header is read
+     *
+     * @return The height of the bounding box, or of the RLE header
+     */
+    public int getHeight() {
+        return (rleDecoder != null) ? rleDecoder.getHeight() : height;
+    }
+
+    /**
+     * Gets the rule of the pattern, from the RLE header or an XLife #r line
+     *
+     * @return The rule, or null if the file has none, as Life 1.06 files never do
+     */
+    public String getRule() {
+        return (rleDecoder != null) ? rleDecoder.getRule() : null;
+    }
+
+    /**
+     * Gets the comment lines before the header, or before the cells of Life 1.06 files
+     *
+     * @return The comment lines, including the #
+     */
+    public List<String> getComments() {
+        return (rleDecoder != null) ? rleDecoder.getComments() : Collections.unmodifiableList(comments);
+    }
+
+    //endregion
+}
@@ -0,0 +1,90 @@
+package model.Parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Pair programming
+ *
+ * The result of parsing a pattern file: the cells of the pattern, the rule and the meta data lines.
+ * Is immutable, so results can be handed between threads, and many files can be parsed in parallel.
+ */
+public final class ParseResult {
+
+    // the cells, indexed by column and row. Never changed after construction, and only copied out
+    final boolean[][] pattern;
+
+    private final String rule;
+    private final List<String> metaData;
+
+    /**
+     * ParseResult Constructor. The pattern array is kept, and must not be changed by the parser afterwards.
+     *
+     * @param pattern The cells of the pattern, indexed by column and row
+     * @param rule The rule of the pattern, or null if the file has none
+     * @param metaData The meta data lines of the file
+     */
+    ParseResult(boolean[][] pattern, String rule, List<String> metaData) {
+
+        this.pattern = pattern;
+        this.rule = rule;
+        this.metaData = Collections.unmodifiableList(new ArrayList<>(metaData));
+    }
+
+    //region getters
+
+    /**
+     * Gets a copy of the cells of the pattern
+     *
+     * @return The cells, indexed by column and row
+     */
+    public boolean[][] getPattern() {
+
+        boolean[][] copy = new boolean[pattern.length][];
+
+        for (int x = 0; x < pattern.length; x++)
+            copy[x] = pattern[x].clone();
+
+        return copy;
+    }
+
+    public int getWidth() {
+        return pattern.length;
+    }
+
+    public int getHeight() {
+        return (pattern.length > 0) ? pattern[0].length : 0;
+    }
+
+    /**
+     * Checks if a cell of the pattern is alive
+     *
+     * @param x Column of the cell
+     * @param y Row of the cell
+     * @return True if the cell is alive
+     */
+    public boolean isCellAlive(int x, int y) {
+        return pattern[x][y];
+    }
+
+    /**
+     * Gets the rule of the pattern
+     *
+     * @return The rule as written in the file, or null if the file has none
+     */
+    public String getRule() {
+        return rule;
+    }
+
+    /**
+     * Gets the meta data lines of the file, like the name, author and comments
+     *
+     * @return The meta data lines, which can not be changed
+     */
+    public List<String> getMetaData() {
+        return metaData;
+    }
+
+    //endregion
+}
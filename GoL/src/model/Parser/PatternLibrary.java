@@ -0,0 +1,562 @@
+package model.Parser;
+
+import model.PatternFormatException;
+import model.rules.RuleFormatException;
+import model.rules.RuleParser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * @author Pair programming
+ *
+ * An index of the pattern files in a directory, including the patterns inside zip archives.
+ * The headers and cells of every file are read in parallel on threads of the scan, to find the rule, bounding box
+ * and population of every pattern, so patterns can be found by rule, size and population without opening them.
+ * The reading threads are kept apart from the WorkerPool, so a scan never blocks the evolving of generations.
+ * The index is kept in a compact binary cache file, and only files changed since the last scan are read again.
+ * Files that can not be parsed are kept in the cache too, so they are only read again when they are changed.
+ */
+public class PatternLibrary {
+
+    // "GOLI", and the version of the cache file format
+    private static final int CACHE_MAGIC = 0x474F4C49;
+    private static final int CACHE_VERSION = 2;
+
+    // separates the path of a zip archive from the name of the entry in locations
+    private static final String ARCHIVE_SEPARATOR = "!/";
+
+    private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    private final Path root;
+    private final Path cacheFile;
+    private final PatternParser parser = new PatternParser();
+
+    private volatile List<Entry> entries = Collections.emptyList();
+
+    /**
+     * A pattern of the library. Is immutable.
+     */
+    public static final class Entry {
+
+        private final String location;
+        private final long lastModified;
+        private final String name;
+        private final String rule;
+        private final int width;
+        private final int height;
+        private final long population;
+
+        // false for files that could not be parsed, which are only kept in the cache
+        private final boolean parsed;
+
+        /**
+         * Entry Constructor
+         *
+         * @param location Path of the file relative to the library, with the entry name after !/ for zip archives
+         * @param lastModified Modification time of the file or archive in milliseconds
+         * @param name Name of the pattern, from the file or else the file name
+         * @param rule The rule of the pattern, in the B/S notation when it is a life-like rule
+         * @param width Width of the bounding box
+         * @param height Height of the bounding box
+         * @param population Number of live cells
+         */
+        Entry(String location, long lastModified, String name, String rule, int width, int height, long population) {
+
+            this(location, lastModified, name, rule, width, height, population, true);
+        }
+
+        private Entry(String location, long lastModified, String name, String rule, int width, int height,
+                      long population, boolean parsed) {
+
+            this.location = location;
+            this.lastModified = lastModified;
+            this.name = name;
+            this.rule = rule;
+            this.width = width;
+            this.height = height;
+            this.population = population;
+            this.parsed = parsed;
+        }
+
+        /**
+         * Creates the entry of a file that could not be parsed, so it is not read again until it is changed
+         *
+         * @param location Path of the file relative to the library
+         * @param lastModified Modification time of the file or archive in milliseconds
+         * @return The entry, which is never part of the patterns of the library
+         */
+        static Entry unparsed(String location, long lastModified) {
+            return new Entry(location, lastModified, "", "", 0, 0, 0, false);
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public long getPopulation() {
+            return population;
+        }
+
+        /**
+         * Checks if the pattern is inside a zip archive
+         *
+         * @return True if the location names an entry of an archive
+         */
+        public boolean isInArchive() {
+            return location.contains(ARCHIVE_SEPARATOR);
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + width + "x" + height + ", " + population + " cells, " + rule + ")";
+        }
+    }
+
+    /**
+     * PatternLibrary Constructor. The library is empty until it is scanned.
+     *
+     * @param root The directory of the pattern files
+     * @param cacheFile The file the index is kept in between scans
+     */
+    public PatternLibrary(Path root, Path cacheFile) {
+
+        this.root = root;
+        this.cacheFile = cacheFile;
+    }
+
+    //region scanning
+
+    /**
+     * Finds every pattern file in the directory and its subdirectories, and in the zip archives found there.
+     * Files that are unchanged since they were indexed are taken from the cache, the others are read in parallel,
+     * and the cache is written again if anything changed. Files that can not be parsed are left out,
+     * but are cached, so they are not read again until they are changed.
+     *
+     * @return The patterns of the library, sorted by location
+     * @throws IOException if the directory could not be read, or the scan was interrupted
+     */
+    public List<Entry> scan() throws IOException {
+
+        List<Source> sources = findSources();
+        Map<String, Entry> cached = readCache();
+
+        Entry[] scanned = new Entry[sources.size()];
+        List<Integer> changed = new ArrayList<>();
+
+        for (int i = 0; i < sources.size(); i++) {
+
+            Entry entry = cached.get(sources.get(i).location);
+
+            if (entry != null && entry.lastModified == sources.get(i).lastModified)
+                scanned[i] = entry;
+            else
+                changed.add(i);
+        }
+
+        readInParallel(sources, changed, scanned);
+
+        // files that could not be parsed are only kept in the cache
+        List<Entry> indexed = new ArrayList<>(scanned.length);
+        List<Entry> result = new ArrayList<>(scanned.length);
+
+        for (Entry entry : scanned) {
+            if (entry != null) {
+                indexed.add(entry);
+                if (entry.parsed)
+                    result.add(entry);
+            }
+        }
+
+        entries = Collections.unmodifiableList(result);
+
+        // write the cache if files were read, or files were removed
+        if (!changed.isEmpty() || cached.size() != indexed.size())
+            writeCache(indexed);
+
+        return entries;
+    }
+
+    /**
+     * A pattern file, or a pattern in a zip archive, found in the directory
+     */
+    private static final class Source {
+
+        final String location;
+        final Path file;
+        final String archiveEntry;
+        final long lastModified;
+
+        Source(String location, Path file, String archiveEntry, long lastModified) {
+
+            this.location = location;
+            this.file = file;
+            this.archiveEntry = archiveEntry;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Walks the directory, listing the pattern files and the patterns of every zip archive
+     *
+     * @return The patterns found, sorted by location
+     * @throws IOException if the directory could not be read
+     */
+    private List<Source> findSources() throws IOException {
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        List<Source> sources = new ArrayList<>();
+
+        for (Path file : files) {
+
+            String name = file.getFileName().toString().toLowerCase();
+            String location = root.relativize(file).toString().replace(File.separatorChar, '/');
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+            if (PatternParser.isSupported(name)) {
+                sources.add(new Source(location, file, null, lastModified));
+            } else if (name.endsWith(".zip")) {
+                // the entries are listed from the central directory, without reading the patterns
+                try (ZipFile zip = new ZipFile(file.toFile())) {
+                    for (ZipEntry zipEntry : Collections.list(zip.entries())) {
+
+                        String entryName = zipEntry.getName();
+                        if (!zipEntry.isDirectory() && !entryName.startsWith("__MACOSX/")
+                                && PatternParser.isSupported(entryName.toLowerCase()))
+                            sources.add(new Source(location + ARCHIVE_SEPARATOR + entryName, file, entryName, lastModified));
+                    }
+                } catch (IOException ignored) {
+                    // not a readable archive, so it has no patterns
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Reads the changed patterns in parallel, on threads of their own that are stopped when the scan is done.
+     * The reading blocks on the files, so it is kept off the WorkerPool, where it would hold up the generations.
+     * Every worker takes the next unread pattern until all are read, so a few large files do not hold up the others.
+     *
+     * @param sources All patterns found
+     * @param changed Positions of the patterns to read
+     * @param scanned Entries of the patterns, filled in at the same positions
+     * @throws IOException if the scan was interrupted
+     */
+    private void readInParallel(List<Source> sources, List<Integer> changed, Entry[] scanned) throws IOException {
+
+        if (changed.isEmpty())
+            return;
+
+        AtomicInteger next = new AtomicInteger();
+
+        Callable<Object> worker = Executors.callable(() -> {
+            for (int i = next.getAndIncrement(); i < changed.size(); i = next.getAndIncrement()) {
+
+                int position = changed.get(i);
+                scanned[position] = readEntry(sources.get(position));
+            }
+        });
+
+        int workers = Math.min(changed.size(), Runtime.getRuntime().availableProcessors());
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "GoL-library-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            executor.invokeAll(Collections.nCopies(workers, worker));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Scanning of the pattern library was interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads a pattern, finding its name, rule, bounding box and population
+     *
+     * @param source The pattern
+     * @return The entry of the pattern, or an unparsed entry if it can not be read or parsed
+     */
+    private Entry readEntry(Source source) {
+
+        String fileName = source.location.substring(source.location.lastIndexOf('/') + 1);
+
+        try (InputStream input = open(source.file, source.archiveEntry)) {
+
+            // RLE files are counted run by run, without building the cells of the pattern
+            if (fileName.toLowerCase().endsWith(".rle")) {
+
+                RleDecoder decoder = new RleDecoder(new InputStreamReader(new BufferedInputStream(input), StandardCharsets.UTF_8));
+                decoder.readHeader();
+                long population = decoder.decode((x, y, length) -> { });
+
+                return new Entry(source.location, source.lastModified, findName(decoder.getComments(), "#N", fileName),
+                        normalizeRule(decoder.getRule()), decoder.getWidth(), decoder.getHeight(), population);
+            }
+
+            ParseResult result = parser.parse(fileName.toLowerCase(), new BufferedInputStream(input));
+            if (result == null)
+                return Entry.unparsed(source.location, source.lastModified);
+
+            long population = 0;
+            for (int x = 0; x < result.getWidth(); x++) {
+                for (int y = 0; y < result.getHeight(); y++) {
+                    if (result.isCellAlive(x, y))
+                        population++;
+                }
+            }
+
+            return new Entry(source.location, source.lastModified, findName(result.getMetaData(), "!Name:", fileName),
+                    normalizeRule(result.getRule()), result.getWidth(), result.getHeight(), population);
+        } catch (IOException | RuntimeException e) {
+            // PatternFormatException is an IOException, and malformed files are left out of the library
+            return Entry.unparsed(source.location, source.lastModified);
+        }
+    }
+
+    /**
+     * Finds the name of a pattern in its comment lines
+     *
+     * @param comments The comment or meta data lines of the file
+     * @param prefix The start of the line with the name
+     * @param fileName Name of the file, used if there is no name line
+     * @return The name of the pattern
+     */
+    private static String findName(List<String> comments, String prefix, String fileName) {
+
+        for (String comment : comments) {
+
+            String line = comment.trim();
+            if (line.startsWith(prefix) && line.length() > prefix.length())
+                return line.substring(prefix.length()).trim();
+        }
+        return fileName;
+    }
+
+    /**
+     * Writes a rule in the B/S notation, so rules written in different ways are found by the same filter.
+     * Patterns without a rule are for Conway's rule, and rules that are not life-like are kept as they are.
+     *
+     * @param rule The rule of a pattern file, or null
+     * @return The rule in the B/S notation, or the rule as it is
+     */
+    static String normalizeRule(String rule) {
+
+        if (rule == null || rule.trim().isEmpty())
+            return RuleParser.CLASSIC_RULESTRING;
+
+        try {
+            return RuleParser.formatRuleText(rule.trim());
+        } catch (RuleFormatException ignored) {
+            return rule.trim();
+        }
+    }
+
+    //endregion
+
+    //region cache
+
+    /**
+     * Reads the entries of the cache file. A missing, outdated or damaged cache gives an empty index,
+     * so every pattern is read again.
+     *
+     * @return The cached entries by location
+     */
+    private Map<String, Entry> readCache() {
+
+        Map<String, Entry> cached = new HashMap<>();
+
+        if (cacheFile == null || !Files.isRegularFile(cacheFile))
+            return cached;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+
+            if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION)
+                return cached;
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+
+                Entry entry = new Entry(in.readUTF(), in.readLong(), in.readUTF(), in.readUTF(),
+                        in.readInt(), in.readInt(), in.readLong(), in.readBoolean());
+                cached.put(entry.location, entry);
+            }
+        } catch (IOException e) {
+            cached.clear();
+        }
+        return cached;
+    }
+
+    /**
+     * Writes the entries to the cache file. The cache is written to a temporary file first and moved in place,
+     * so a scan that stops halfway never leaves a damaged cache.
+     * A cache that can not be written is left out, as the library is only slower to scan without it.
+     *
+     * @param entries The entries to write, including the files that could not be parsed
+     */
+    private void writeCache(List<Entry> entries) {
+
+        if (cacheFile == null)
+            return;
+
+        Path temporary = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+
+                out.writeInt(CACHE_MAGIC);
+                out.writeInt(CACHE_VERSION);
+                out.writeInt(entries.size());
+
+                for (Entry entry : entries) {
+                    out.writeUTF(entry.location);
+                    out.writeLong(entry.lastModified);
+                    out.writeUTF(entry.name);
+                    out.writeUTF(entry.rule);
+                    out.writeInt(entry.width);
+                    out.writeInt(entry.height);
+                    out.writeLong(entry.population);
+                    out.writeBoolean(entry.parsed);
+                }
+            }
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ignored) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException alsoIgnored) {
+                // nothing more to clean up
+            }
+        }
+    }
+
+    //endregion
+
+    //region finding and loading
+
+    /**
+     * Gets the patterns found by the last scan
+     *
+     * @return The patterns, sorted by location
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Finds the patterns of the last scan with a rule, that fit in a size, and have a population in a range
+     *
+     * @param rule The rule in any notation, or null for any rule
+     * @param maxWidth Largest width of the bounding box
+     * @param maxHeight Largest height of the bounding box
+     * @param minPopulation Smallest number of live cells
+     * @param maxPopulation Largest number of live cells
+     * @return The matching patterns, sorted by location
+     */
+    public List<Entry> filter(String rule, int maxWidth, int maxHeight, long minPopulation, long maxPopulation) {
+
+        String normalizedRule = (rule == null) ? null : normalizeRule(rule);
+
+        return entries.stream()
+                .filter(entry -> normalizedRule == null || entry.rule.equalsIgnoreCase(normalizedRule))
+                .filter(entry -> entry.width <= maxWidth && entry.height <= maxHeight)
+                .filter(entry -> entry.population >= minPopulation && entry.population <= maxPopulation)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the pattern of an entry, from its file or zip archive
+     *
+     * @param entry The entry of a pattern in the library
+     * @return The pattern, rule and meta data of the file, or null if the format is not supported
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated
+     */
+    public ParseResult load(Entry entry) throws IOException {
+
+        String location = entry.location;
+        int separator = location.indexOf(ARCHIVE_SEPARATOR);
+
+        if (separator < 0)
+            return parser.parse(root.resolve(location).toFile());
+
+        String archiveEntry = location.substring(separator + ARCHIVE_SEPARATOR.length());
+
+        try (InputStream input = open(root.resolve(location.substring(0, separator)), archiveEntry)) {
+            return parser.parse(archiveEntry.toLowerCase(), new BufferedInputStream(input));
+        }
+    }
+
+    /**
+     * Opens a pattern file, or an entry of a zip archive. Closing the stream closes the archive.
+     *
+     * @param file The pattern file or zip archive
+     * @param archiveEntry Name of the entry in the archive, or null for pattern files
+     * @return Stream of the pattern
+     * @throws IOException if the file or entry could not be opened
+     */
+    private static InputStream open(Path file, String archiveEntry) throws IOException {
+
+        if (archiveEntry == null)
+            return Files.newInputStream(file);
+
+        ZipFile zip = new ZipFile(file.toFile());
+        ZipEntry zipEntry = zip.getEntry(archiveEntry);
+
+        if (zipEntry == null) {
+            zip.close();
+            throw new FileNotFoundException(archiveEntry + " not found in " + file);
+        }
+
+        return new FilterInputStream(zip.getInputStream(zipEntry)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    zip.close();
+                }
+            }
+        };
+    }
+
+    //endregion
+}
@@ -0,0 +1,188 @@
+package model.Parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Pair programming
+ *
+ * Buffered output of pattern files to a channel. Cells, counts and tags are put into the buffer as ASCII bytes,
+ * without building strings, and the buffer is written to the channel whenever it is full.
+ * Keeps track of the column of the current line, so writers can wrap long lines.
+ */
+public final class PatternOutput {
+
+    /**
+     * Writes the content of a file to an output
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(PatternOutput output) throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] digits = new byte[10];
+    private int column;
+
+    /**
+     * PatternOutput Constructor
+     *
+     * @param channel The channel to write to, which is not closed by the output
+     */
+    public PatternOutput(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Writes a line of text, such as a comment, as UTF-8 followed by a line break
+     *
+     * @param line The line without the line break
+     * @throws IOException if the channel could not be written to
+     */
+    public void writeLine(String line) throws IOException {
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+
+        for (int offset = 0; offset < bytes.length; ) {
+
+            if (!buffer.hasRemaining())
+                flush();
+
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+        newLine();
+    }
+
+    /**
+     * Writes an ASCII character
+     *
+     * @param c The character
+     * @throws IOException if the channel could not be written to
+     */
+    public void write(char c) throws IOException {
+
+        if (!buffer.hasRemaining())
+            flush();
+
+        buffer.put((byte) c);
+        column = (c == '\n') ? 0 : column + 1;
+    }
+
+    /**
+     * Writes the same ASCII character a number of times
+     *
+     * @param c The character
+     * @param count Number of times to write it
+     * @throws IOException if the channel could not be written to
+     */
+    public void write(char c, int count) throws IOException {
+
+        for (int i = 0; i < count; i++)
+            write(c);
+    }
+
+    /**
+     * Writes a number that is not negative in decimal digits
+     *
+     * @param number The number
+     * @throws IOException if the channel could not be written to
+     */
+    public void writeNumber(int number) throws IOException {
+
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+
+        while (length > 0)
+            write((char) digits[--length]);
+    }
+
+    /**
+     * Ends the current line
+     *
+     * @throws IOException if the channel could not be written to
+     */
+    public void newLine() throws IOException {
+        write('\n');
+    }
+
+    /**
+     * Gets the number of characters written on the current line
+     *
+     * @return The column of the next character
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel
+     *
+     * @throws IOException if the channel could not be written to
+     */
+    public void flush() throws IOException {
+
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the content of a file to memory, and splits it into lines
+     *
+     * @param content The content of the file
+     * @return The lines of the file, without line breaks
+     */
+    static List<String> writeLines(Content content) {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PatternOutput output = new PatternOutput(Channels.newChannel(bytes));
+
+        try {
+            content.writeTo(output);
+            output.flush();
+        } catch (IOException e) {
+            // never thrown when writing to memory
+            throw new UncheckedIOException(e);
+        }
+
+        String text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        if (text.isEmpty())
+            return new ArrayList<>();
+
+        // every line ends with a line break, so the text is split without the last one
+        return new ArrayList<>(Arrays.asList(text.substring(0, text.length() - 1).split("\n", -1)));
+    }
+
+    /**
+     * Gets the number of decimal digits of a number that is not negative
+     *
+     * @param number The number
+     * @return Number of digits
+     */
+    static int digitCount(int number) {
+
+        int count = 1;
+        while (number >= 10) {
+            number /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -5,111 +5,199 @@ package model.Parser;
  */
 
 import model.PatternFormatException;
-import tools.MessageBox;
+import tools.Messages;
 
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
+/**
+ * Parses Game of Life pattern files in the plain text, RLE, Life 1.05 and Life 1.06 formats.
+ * All parsing state is kept by the parser of each file, so one PatternParser can parse many files at once,
+ * from any number of threads, and every call returns its own immutable ParseResult.
+ */
 public class PatternParser {
 
     static final byte FIRST_LINE = 0;
-    static Pattern patternParameters;
-    static Matcher patternMatcher;
-    static int patternHeight;
-    static int patternWidth;
-    static boolean[][] patternArray;
-    static List<String> fileContentList;
-    static List<String> metaData;
-    static char currentCharacter;
-    static String lastImportedRule;
-    private static URL url;
+
+    // size from which RLE and Life 1.06 files are memory-mapped and tokenised in place, rather than read as lines
+    static final long MAPPED_FILE_SIZE = 1 << 20;
+
+    // rule of the pattern last read by the static read() and readUrl(), used by the user interface
+    private static volatile String lastImportedRule;
+
+    //region parsing
 
     /**
-     * Reads a Game of Life pattern file and returns an array of the pattern
+     * Parses a Game of Life pattern file. Is thread-safe.
      * @param patternFile the file to read from
-     * @return the boolean array produced from the file
-     * @throws IOException if the file could not be red
+     * @return the pattern, rule and meta data of the file, or null if the format is not supported
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated
      */
-    static public boolean[][] read(File patternFile) throws IOException {
+    public ParseResult parse(File patternFile) throws IOException {
 
-        lastImportedRule = null;
-
-        fileContentList = readLinesFromFile(patternFile);
+        String name = patternFile.toString();
 
-        if(patternFile.toString().endsWith(".cells")){
-            return PlainTextParser.parsePlainText();
+        // large RLE and Life 1.06 files are read from a memory-mapped buffer, without a string for every line
+        if(isMappedSize(patternFile)){
+            MappedPatternReader mappedReader = new MappedPatternReader(patternFile.toPath());
+            if(mappedReader.isSupported()){
+                return mappedReader.parse();
+            }
         }
-        else if(patternFile.toString().endsWith(".rle")){
-            return RleParser.parseRle();
+
+        // RLE files are decoded while they are read, without reading all lines first
+        if(name.endsWith(".rle")){
+            try (Reader reader = Files.newBufferedReader(patternFile.toPath())) {
+                return new RleParser(reader).parseRle();
+            }
         }
-        else if(patternFile.toString().endsWith(".lif") || patternFile.toString().endsWith(".life")){
-            return checkLifeFormat();
+
+        if(!isLineFormat(name)){
+            Messages.alert("File is not in supported format");
+            return null;
         }
 
-        MessageBox.alert("File is not in supported format");
-        return null;
+        return parseLines(name, readLinesFromFile(patternFile));
     }
 
     /**
-     * Reads a Game of Life pattern file from the web and returns an array of the pattern
+     * Parses a Game of Life pattern file from the web. Is thread-safe.
      * @param pattern The web file to read from
-     * @return The boolean array produced from the file
-     * @throws IOException if the url could not be red
+     * @return the pattern, rule and meta data of the file, or null if the URL or format is not supported
+     * @throws IOException if the url could not be read
+     * @throws PatternFormatException if the format is violated
      */
-    static public boolean[][] readUrl(String pattern) throws IOException {
-
-        lastImportedRule = null;
+    public ParseResult parseUrl(String pattern) throws IOException {
 
-        fileContentList = new ArrayList<>();
+        URL url;
         try {
             url = new URL(pattern);
         }
         catch (MalformedURLException ignored){
-            MessageBox.alert("Invalid URL");
+            Messages.alert("Invalid URL");
+            return null;
+        }
+
+        if(pattern.endsWith(".rle")){
+            try (Reader reader = new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)) {
+                return new RleParser(reader).parseRle();
+            }
+        }
+
+        if(!isLineFormat(pattern)){
+            Messages.alert("Could not find supported format");
             return null;
         }
 
-        Scanner s = new Scanner(url.openStream());
+        List<String> fileContentList = new ArrayList<>();
 
-        while (s.hasNext()){
-            fileContentList.add(s.nextLine());
+        try (Scanner s = new Scanner(url.openStream())) {
+            while (s.hasNext()){
+                fileContentList.add(s.nextLine());
+            }
         }
 
-        if(pattern.endsWith(".cells")){
-            return PlainTextParser.parsePlainText();
+        return parseLines(pattern, fileContentList);
+    }
+
+    /**
+     * Parses a Game of Life pattern from a stream, such as an entry of a zip archive. Is thread-safe.
+     * @param name The name of the pattern file, telling its format
+     * @param input The stream to read from, which is not closed
+     * @return the pattern, rule and meta data of the file, or null if the format is not supported
+     * @throws IOException if the stream could not be read
+     * @throws PatternFormatException if the format is violated
+     */
+    ParseResult parse(String name, InputStream input) throws IOException {
+
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+
+        if(name.endsWith(".rle")){
+            return new RleParser(reader).parseRle();
         }
-        else if(pattern.endsWith(".rle")){
-            return RleParser.parseRle();
+
+        if(!isLineFormat(name)){
+            return null;
         }
-        else if(pattern.endsWith(".lif") || pattern.endsWith(".life")){
-            return checkLifeFormat();
+
+        List<String> fileContentList = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+
+        for(String line = lines.readLine(); line != null; line = lines.readLine()){
+            fileContentList.add(line);
         }
 
-        MessageBox.alert("Could not find supported format");
-        return null;
+        return parseLines(name, fileContentList);
+    }
+
+    /**
+     * Checks if a file is large enough to be read from a memory-mapped buffer, if it is in the RLE or Life 1.06 format.
+     * Smaller files are read faster as a stream, as mapping a file has a fixed cost.
+     * @param patternFile The file
+     * @return True if the file is at least MAPPED_FILE_SIZE bytes
+     */
+    public static boolean isMappedSize(File patternFile) {
+        return patternFile.length() >= MAPPED_FILE_SIZE;
+    }
+
+    /**
+     * Checks if a file is in one of the formats read by the parser
+     * @param name The name of the file
+     * @return True for RLE, plain text, Life 1.05 and Life 1.06 files
+     */
+    static boolean isSupported(String name) {
+        return name.endsWith(".rle") || isLineFormat(name);
+    }
+
+    /**
+     * Checks if a file is in one of the formats parsed from its lines
+     * @param name The name of the file
+     * @return True for plain text, Life 1.05 and Life 1.06 files
+     */
+    private static boolean isLineFormat(String name) {
+        return name.endsWith(".cells") || name.endsWith(".lif") || name.endsWith(".life");
+    }
+
+    /**
+     * Parses the lines of a plain text, Life 1.05 or Life 1.06 file with the parser for its format
+     * @param name The name of the file
+     * @param fileContentList The lines of the file
+     * @return the parse result, or null if the format is not supported
+     * @throws PatternFormatException if the format is violated
+     */
+    private static ParseResult parseLines(String name, List<String> fileContentList) throws PatternFormatException {
+
+        if(name.endsWith(".cells")){
+            return new PlainTextParser(fileContentList).parsePlainText();
+        }
+        return checkLifeFormat(fileContentList);
     }
 
     /**
      * Checks if a file with .lif or .life file types, is either Life 1.05 or Life 1.06,
      * then parses the file with the appropriate parser
-     * @return The boolean array produced from the file
+     * @param fileContentList The lines of the file
+     * @return the parse result, or null if the file is neither
      * @throws PatternFormatException if the format is violated
      */
-    private static boolean[][] checkLifeFormat() throws PatternFormatException {
+    private static ParseResult checkLifeFormat(List<String> fileContentList) throws PatternFormatException {
 
-        if(fileContentList.get(FIRST_LINE).contains("Life 1.05")){
-            return Life05Parser.parseLife05();
+        if(fileContentList.isEmpty()){
+            return null;
+        }
+        else if(fileContentList.get(FIRST_LINE).contains("Life 1.05")){
+            return new Life05Parser(fileContentList).parseLife05();
         }
         else if(fileContentList.get(FIRST_LINE).contains("Life 1.06")) {
-            return Life06Parser.parseLife06();
+            return new Life06Parser(fileContentList).parseLife06();
         }
         return null;
     }
@@ -124,6 +212,52 @@ public class PatternParser {
         return Files.readAllLines(patternFile.toPath());
     }
 
+    //endregion
+
+    //region user interface
+
+    /**
+     * Reads a Game of Life pattern file and returns an array of the pattern.
+     * Remembers the rule of the pattern for getLastImportedRule(), so parse() should be used from other threads.
+     * @param patternFile the file to read from
+     * @return the boolean array produced from the file
+     * @throws IOException if the file could not be red
+     */
+    static public boolean[][] read(File patternFile) throws IOException {
+
+        lastImportedRule = null;
+        return remember(new PatternParser().parse(patternFile));
+    }
+
+    /**
+     * Reads a Game of Life pattern file from the web and returns an array of the pattern.
+     * Remembers the rule of the pattern for getLastImportedRule(), so parseUrl() should be used from other threads.
+     * @param pattern The web file to read from
+     * @return The boolean array produced from the file
+     * @throws IOException if the url could not be red
+     */
+    static public boolean[][] readUrl(String pattern) throws IOException {
+
+        lastImportedRule = null;
+        return remember(new PatternParser().parseUrl(pattern));
+    }
+
+    /**
+     * Remembers the rule of a parse result, and gets its pattern
+     * @param result The parse result, or null
+     * @return The pattern of the result, or null
+     */
+    private static boolean[][] remember(ParseResult result) {
+
+        if(result == null){
+            return null;
+        }
+        lastImportedRule = result.getRule();
+
+        // the result is not kept, so its array is handed out without copying
+        return result.pattern;
+    }
+
     /**
      * Gets the last imported rule
      * @return The last imported rule
@@ -132,6 +266,5 @@ public class PatternParser {
         return lastImportedRule;
     }
 
-
-
+    //endregion
 }
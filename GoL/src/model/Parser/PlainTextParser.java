@@ -1,47 +1,61 @@
 package model.Parser;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Created by Truls on 12/04/16.
  */
-public class PlainTextParser extends PatternParser {
+public class PlainTextParser {
+
+    private final List<String> fileContentList;
+
     /**
-     * Reads a .cells / plain text file
-     * @return the boolean array produced from the file
+     * PlainTextParser constructor
+     * @param fileContentList the lines of the file
      */
-    static boolean[][] parsePlainText(){
+    PlainTextParser(List<String> fileContentList) {
+        this.fileContentList = fileContentList;
+    }
 
-        // removes meta data
-        while(fileContentList.get(FIRST_LINE).startsWith("!")){
-            fileContentList.remove(FIRST_LINE);
+    /**
+     * Reads a .cells / plain text file
+     * @return the pattern and meta data produced from the file
+     */
+    ParseResult parsePlainText(){
+
+        // skips meta data
+        List<String> metaData = new ArrayList<>();
+        int firstLine = 0;
+        while(firstLine < fileContentList.size() && fileContentList.get(firstLine).startsWith("!")){
+            metaData.add(fileContentList.get(firstLine));
+            firstLine++;
         }
 
+        List<String> lines = fileContentList.subList(firstLine, fileContentList.size());
 
-        patternHeight = fileContentList.size();
+        int patternHeight = lines.size();
 
-        patternWidth = 0;
+        int patternWidth = 0;
 
         // finds the width of the pattern
-        for(int x = 0; x < fileContentList.size(); x++){
-            if(fileContentList.get(x).length() > patternWidth){
-                patternWidth = fileContentList.get(x).length();
+        for (String line : lines) {
+            if (line.length() > patternWidth) {
+                patternWidth = line.length();
             }
         }
 
-        patternArray = new boolean[patternWidth][patternHeight];
+        boolean[][] patternArray = new boolean[patternWidth][patternHeight];
 
         // runs through the text and generates pattern
         for(int y = 0; y < patternHeight; y++){
-            for(int x = 0; x < fileContentList.get(y).length(); x++){
+            for(int x = 0; x < lines.get(y).length(); x++){
 
-                if(fileContentList.get(y).charAt(x) == 'O'){
+                if(lines.get(y).charAt(x) == 'O'){
                     patternArray[x][y] = true;
                 }
-                else{
-                    patternArray[x][y] = false;
-                }
             }
         }
-        lastImportedRule = null;
-        return patternArray;
+        return new ParseResult(patternArray, null, metaData);
     }
 }
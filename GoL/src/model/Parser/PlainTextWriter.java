@@ -0,0 +1,66 @@
+package model.Parser;
+
+import model.GameOfLife;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @author Pair programming
+ *
+ * Writes the pattern on a game board in the plain text format, without needing JavaFX.
+ * Every row of the bounding box is written as one line, with O for live cells and . for dead cells.
+ * The runs of every row are found a word of cells at a time, and streamed to a PatternOutput.
+ */
+public class PlainTextWriter {
+
+    private PlainTextWriter() {
+    }
+
+    /**
+     * Writes the pattern inside the bounding box of the game board as lines of a plain text file.
+     * Builds the whole file in memory, so large patterns should be streamed with write(gol, output).
+     *
+     * @param gol The game board holding the pattern
+     * @return The rows of the pattern, from the top
+     */
+    public static List<String> write(GameOfLife gol) {
+
+        return PatternOutput.writeLines(output -> write(gol, output));
+    }
+
+    /**
+     * Writes the pattern inside the bounding box of the game board in the plain text format.
+     * Nothing is written for an empty board. The output is not flushed.
+     *
+     * @param gol The game board holding the pattern
+     * @param output The output to write to
+     * @throws IOException if the output could not be written
+     */
+    public static void write(GameOfLife gol, PatternOutput output) throws IOException {
+
+        if (gol.getCellCount() == 0)
+            return;
+
+        int[] boundingBox = gol.getBoundingBox();
+        int width = boundingBox[1] - boundingBox[0] + 1;
+
+        RowRuns runs = new RowRuns(gol, boundingBox[0], width);
+
+        for (int y = boundingBox[2]; y <= boundingBox[3]; y++) {
+
+            runs.readRow(y);
+
+            for (int x = 0; x < width; ) {
+
+                int alive = runs.nextAlive(x);
+                output.write('.', alive - x);
+
+                int dead = runs.nextDead(alive);
+                output.write('O', dead - alive);
+                x = dead;
+            }
+            output.newLine();
+        }
+    }
+}
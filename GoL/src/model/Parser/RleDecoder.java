@@ -0,0 +1,314 @@
+package model.Parser;
+
+import model.GameOfLife;
+import model.PatternFormatException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author Pair programming
+ *
+ * Streaming decoder for the RLE format, reading one buffer of characters at a time.
+ * The header is read first, so the size and rule of the pattern are known before any cells are placed.
+ * Every run of live cells is then passed on as it is read, either straight into a game board with setRowAlive(),
+ * or to a RunConsumer, so large patterns never need the whole file or a full array of cells in memory.
+ * The decoder can also read the bytes of a buffer in place, such as a memory-mapped file,
+ * without decoding the cells into characters first.
+ */
+public class RleDecoder {
+
+    /**
+     * Receives the runs of live cells of a pattern
+     */
+    @FunctionalInterface
+    public interface RunConsumer {
+
+        /**
+         * Called for every run of live cells in a row
+         *
+         * @param x Column of the first cell of the run, relative to the left edge of the pattern
+         * @param y Row of the run, relative to the top of the pattern
+         * @param length Number of live cells in the run
+         */
+        void addRun(int x, int y, int length) throws PatternFormatException;
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Pattern HEADER = Pattern.compile(
+            "^x\\s*=\\s*([0-9]+)\\s*,\\s*y\\s*=\\s*([0-9]+)\\s*(?:,\\s*[^=]*=\\s*(.+?))?\\s*$");
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final ByteBuffer bytes;
+    private int position;
+    private int limit;
+
+    private boolean headerRead;
+    private int width;
+    private int height;
+    private String rule;
+    private final List<String> comments = new ArrayList<>();
+
+    /**
+     * RleDecoder Constructor
+     *
+     * @param reader Reader of the RLE file, which is read from its current position, and not closed by the decoder
+     */
+    public RleDecoder(Reader reader) {
+
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.bytes = null;
+    }
+
+    /**
+     * RleDecoder Constructor, reading the RLE file as UTF-8 from a channel
+     *
+     * @param channel Channel of the RLE file
+     */
+    public RleDecoder(ReadableByteChannel channel) {
+        this(Channels.newReader(channel, "UTF-8"));
+    }
+
+    /**
+     * RleDecoder Constructor, reading the bytes of a RLE file in place.
+     * The cells are read byte by byte, and only the comment and header lines are decoded as UTF-8.
+     *
+     * @param bytes The bytes of the RLE file, read from the current position to the limit
+     */
+    public RleDecoder(ByteBuffer bytes) {
+
+        this.reader = null;
+        this.buffer = null;
+        this.bytes = bytes;
+    }
+
+    //region header
+
+    /**
+     * Reads the comment lines and the header line with the size and rule of the pattern.
+     * Lines starting with # are kept as comments, and a rule in an XLife #r line is used if the header has none.
+     * A file with a rule in both is rejected, as it is not known which one is meant.
+     * Does nothing if the header has been read.
+     *
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the header is missing or invalid
+     */
+    public void readHeader() throws IOException {
+
+        if (headerRead)
+            return;
+
+        String line;
+        while ((line = readLine()) != null) {
+
+            if (line.startsWith("#")) {
+                comments.add(line);
+                continue;
+            }
+
+            if (line.trim().isEmpty())
+                continue;
+
+            Matcher matcher = HEADER.matcher(line.trim());
+            if (!matcher.matches())
+                break;
+
+            width = Integer.parseInt(matcher.group(1));
+            height = Integer.parseInt(matcher.group(2));
+
+            String xLifeRule = findXLifeRule();
+            if (matcher.group(3) != null && xLifeRule != null)
+                throw new PatternFormatException("Multiple rules present");
+
+            rule = (matcher.group(3) != null) ? matcher.group(3) : xLifeRule;
+
+            headerRead = true;
+            return;
+        }
+        throw new PatternFormatException("Couldn't extract grid properties from RLE file");
+    }
+
+    /**
+     * Finds the rule in an XLife #r comment line
+     *
+     * @return The rule, or null if there is no #r line
+     */
+    private String findXLifeRule() {
+
+        for (String comment : comments)
+            if (comment.startsWith("#r"))
+                return comment.replaceAll("[^1-9/1-9]", "");
+
+        return null;
+    }
+
+    /**
+     * Reads characters up to the end of the line
+     *
+     * @return The line without the line break, or null at the end of the file
+     */
+    private String readLine() throws IOException {
+
+        if (bytes != null)
+            return MappedPatternReader.readLine(bytes);
+
+        int c = read();
+        if (c == -1)
+            return null;
+
+        StringBuilder line = new StringBuilder();
+
+        while (c != -1 && c != '\n') {
+            if (c != '\r')
+                line.append((char) c);
+            c = read();
+        }
+        return line.toString();
+    }
+
+    //endregion
+
+    //region cells
+
+    /**
+     * Places the live cells of the pattern on a game board, one run of cells at a time with setRowAlive().
+     * The header is read first if it has not been.
+     *
+     * @param gol The game board
+     * @param left Column of the board where the left edge of the pattern is placed
+     * @param top Row of the board where the top of the pattern is placed
+     * @return Number of live cells in the pattern
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated
+     */
+    public long decode(GameOfLife gol, int left, int top) throws IOException {
+        return decode((x, y, length) -> gol.setRowAlive(left + x, top + y, length));
+    }
+
+    /**
+     * Reads the cells of the pattern, and passes every run of live cells to a consumer.
+     * The header is read first if it has not been.
+     * Any tag other than b, $ and ! is a live cell, so the states of multi-state patterns are read as alive.
+     *
+     * @param consumer Consumer of the runs of live cells
+     * @return Number of live cells in the pattern
+     * @throws IOException if the file could not be read
+     * @throws PatternFormatException if the format is violated, or the cells do not fit in the size of the header
+     */
+    public long decode(RunConsumer consumer) throws IOException {
+
+        readHeader();
+
+        int x = 0;
+        int y = 0;
+        int count = 0;
+        long liveCells = 0;
+
+        int c;
+        while ((c = read()) != -1) {
+
+            if (c >= '0' && c <= '9') {
+
+                // checked before multiplying, as an overflow may wrap around to a positive count
+                int digit = c - '0';
+                if (count > (Integer.MAX_VALUE - digit) / 10)
+                    throw new PatternFormatException("Run length too large");
+
+                count = count * 10 + digit;
+                continue;
+            }
+
+            if (Character.isWhitespace(c))
+                continue;
+
+            int run = (count == 0) ? 1 : count;
+            count = 0;
+
+            if (c == 'b' || c == '.') {
+                x += run;
+            } else if (c == '$') {
+                y += run;
+                x = 0;
+            } else if (c == '!') {
+                return liveCells;
+            } else if (Character.isLetter(c)) {
+
+                if (x + run > width || y >= height)
+                    throw new PatternFormatException("Pattern properties too small");
+
+                consumer.addRun(x, y, run);
+                x += run;
+                liveCells += run;
+            } else {
+                throw new PatternFormatException("Unexpected character in RLE file: " + (char) c);
+            }
+        }
+        throw new PatternFormatException("Missing exclamation mark");
+    }
+
+    /**
+     * Reads the next character, filling the buffer when it is empty, or the next byte of a byte buffer
+     *
+     * @return The character, or -1 at the end of the file
+     */
+    private int read() throws IOException {
+
+        if (bytes != null)
+            return bytes.hasRemaining() ? (bytes.get() & 0xFF) : -1;
+
+        if (position == limit) {
+
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    //endregion
+
+    //region getters
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the rule of the pattern, from the header or an XLife #r line
+     *
+     * @return The rule, or null if the file has none
+     */
+    public String getRule() {
+        return rule;
+    }
+
+    /**
+     * Gets the comment lines before the header
+     *
+     * @return The comment lines, including the #
+     */
+    public List<String> getComments() {
+        return Collections.unmodifiableList(comments);
+    }
+
+    //endregion
+}
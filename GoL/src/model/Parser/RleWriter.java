@@ -0,0 +1,101 @@
+package model.Parser;
+
+import model.GameOfLife;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @author Pair programming
+ *
+ * Writes the pattern on a game board in the RLE format, without needing JavaFX.
+ * Runs of equal cells are written as a count and a tag, dead cells at the end of a row are left out,
+ * and empty rows are merged into the count of the end of row tag, as read by the RleParser.
+ * The runs are found a word of cells at a time, and streamed to a PatternOutput, so no lines are kept in memory.
+ */
+public class RleWriter {
+
+    // max number of characters on a line of cells, as recommended by the format
+    static final int MAX_LINE_LENGTH = 70;
+
+    private RleWriter() {
+    }
+
+    /**
+     * Writes the pattern inside the bounding box of the game board as lines of a RLE file.
+     * Builds the whole file in memory, so large patterns should be streamed with write(gol, rule, output).
+     *
+     * @param gol The game board holding the pattern
+     * @param rule Rulestring written in the header, or null to leave it out
+     * @return The lines of the RLE file, starting with the header
+     */
+    public static List<String> write(GameOfLife gol, String rule) {
+
+        return PatternOutput.writeLines(output -> write(gol, rule, output));
+    }
+
+    /**
+     * Writes the pattern inside the bounding box of the game board in the RLE format, starting with the header.
+     * The output is not flushed.
+     *
+     * @param gol The game board holding the pattern
+     * @param rule Rulestring written in the header, or null to leave it out
+     * @param output The output to write to
+     * @throws IOException if the output could not be written
+     */
+    public static void write(GameOfLife gol, String rule, PatternOutput output) throws IOException {
+
+        int[] boundingBox = gol.getBoundingBox();
+        boolean empty = gol.getCellCount() == 0;
+
+        int width = empty ? 0 : boundingBox[1] - boundingBox[0] + 1;
+        int height = empty ? 0 : boundingBox[3] - boundingBox[2] + 1;
+
+        output.writeLine("x = " + width + ", y = " + height + ((rule == null) ? "" : ", rule = " + rule));
+
+        RowRuns runs = new RowRuns(gol, boundingBox[0], width);
+
+        // end of row tags not yet written, as they are left out after the last row with live cells
+        int pendingRows = 0;
+
+        for (int y = 0; y < height; y++) {
+
+            runs.readRow(boundingBox[2] + y);
+
+            // trailing dead cells are left out, as the search for the next live cell ends the row
+            for (int x = runs.nextAlive(0), end = 0; x < width; x = runs.nextAlive(end)) {
+
+                if (pendingRows > 0) {
+                    appendTag(output, pendingRows, '$');
+                    pendingRows = 0;
+                }
+
+                if (x > end)
+                    appendTag(output, x - end, 'b');
+
+                end = runs.nextDead(x);
+                appendTag(output, end - x, 'o');
+            }
+
+            pendingRows++;
+        }
+
+        appendTag(output, 1, '!');
+        output.newLine();
+    }
+
+    /**
+     * Appends a count and a tag, starting a new line first if the line would get longer than MAX_LINE_LENGTH
+     */
+    private static void appendTag(PatternOutput output, int count, char tag) throws IOException {
+
+        int length = (count == 1) ? 1 : PatternOutput.digitCount(count) + 1;
+
+        if (output.getColumn() > 0 && output.getColumn() + length > MAX_LINE_LENGTH)
+            output.newLine();
+
+        if (count > 1)
+            output.writeNumber(count);
+        output.write(tag);
+    }
+}
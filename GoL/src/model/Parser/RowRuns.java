@@ -0,0 +1,86 @@
+package model.Parser;
+
+import model.GameOfLife;
+
+/**
+ * @author Pair programming
+ *
+ * Finds the runs of live and dead cells in the rows of a game board, a word of 64 cells at a time.
+ * A row is read as packed words with getRowWords(), and the start of the next run is found
+ * by counting the trailing zeros of the words, so long runs are skipped without looking at every cell.
+ */
+final class RowRuns {
+
+    private final GameOfLife gol;
+    private final int left;
+    private final int width;
+    private final long[] words;
+
+    /**
+     * RowRuns Constructor
+     *
+     * @param gol The game board
+     * @param left Column of the board where the rows start
+     * @param width Number of cells in a row
+     */
+    RowRuns(GameOfLife gol, int left, int width) {
+
+        this.gol = gol;
+        this.left = left;
+        this.width = width;
+        this.words = new long[(width + 63) / 64];
+    }
+
+    /**
+     * Reads the cells of a row of the board
+     *
+     * @param y Row of the board
+     */
+    void readRow(int y) {
+        gol.getRowWords(left, y, width, words);
+    }
+
+    /**
+     * Finds the next live cell of the row
+     *
+     * @param from Position in the row to search from
+     * @return Position of the next live cell, or the width if there are no more
+     */
+    int nextAlive(int from) {
+
+        if (from >= width)
+            return width;
+
+        int index = from >>> 6;
+        long word = words[index] & (-1L << from);
+
+        while (word == 0) {
+            if (++index == words.length)
+                return width;
+            word = words[index];
+        }
+        return index * 64 + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Finds the next dead cell of the row
+     *
+     * @param from Position in the row to search from
+     * @return Position of the next dead cell, or the width if there are no more
+     */
+    int nextDead(int from) {
+
+        if (from >= width)
+            return width;
+
+        int index = from >>> 6;
+        long word = ~words[index] & (-1L << from);
+
+        while (word == 0) {
+            if (++index == words.length)
+                return width;
+            word = ~words[index];
+        }
+        return Math.min(width, index * 64 + Long.numberOfTrailingZeros(word));
+    }
+}
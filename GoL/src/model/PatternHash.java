@@ -0,0 +1,130 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Keys of live cells for the pattern hash, which can be kept up to date while a game board evolves.
+ * A cell at (x,y) has the key A^x * B^y, with two odd 64 bit numbers A and B, so the sum of the keys of a pattern
+ * is multiplied by A^dx * B^dy when the pattern moves by (dx,dy). The sum is kept relative to the origin,
+ * a birth adds the key of the cell and a death subtracts it, and the sum is moved to the top left corner
+ * of the bounding box when the hash is read, so the hash does not depend on where the pattern is.
+ * As odd numbers have an inverse modulo 2^64, keys of negative coordinates are found from the inverses.
+ */
+public final class PatternHash {
+
+    private static final long A = 0x9E3779B97F4A7C15L;
+    private static final long B = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long A_INVERSE = inverse(A);
+    private static final long B_INVERSE = inverse(B);
+
+    // keys of the first columns and rows, so the keys of cells on most boards are looked up instead of computed
+    private static final int TABLE_SIZE = 1 << 12;
+    private static final long[] COLUMN_KEYS = powers(A);
+    private static final long[] ROW_KEYS = powers(B);
+
+    private PatternHash() {
+    }
+
+    /**
+     * Gets the part of the key of a cell that depends on its column
+     *
+     * @param x X coordinate of the cell
+     * @return A^x
+     */
+    public static long columnKey(long x) {
+        return (x >= 0 && x < TABLE_SIZE) ? COLUMN_KEYS[(int) x] : power(A, A_INVERSE, x);
+    }
+
+    /**
+     * Gets the part of the key of a cell that depends on its row
+     *
+     * @param y Y coordinate of the cell
+     * @return B^y
+     */
+    public static long rowKey(long y) {
+        return (y >= 0 && y < TABLE_SIZE) ? ROW_KEYS[(int) y] : power(B, B_INVERSE, y);
+    }
+
+    /**
+     * Gets the key of a live cell
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return A^x * B^y
+     */
+    public static long cellKey(long x, long y) {
+        return columnKey(x) * rowKey(y);
+    }
+
+    /**
+     * Moves a sum of cell keys, as if every cell of the pattern was moved
+     *
+     * @param sum Sum of the keys of the cells
+     * @param dx Number of cells to move to the right
+     * @param dy Number of cells to move down
+     * @return The sum of the keys of the moved cells
+     */
+    public static long move(long sum, long dx, long dy) {
+        return sum * columnKey(dx) * rowKey(dy);
+    }
+
+    /**
+     * Finds the hash of a pattern from the sum of its cell keys, relative to the top left corner of its bounding box.
+     * The sum is mixed (SplitMix64), so patterns that differ in few cells get hashes that differ in many bits.
+     *
+     * @param sum Sum of the keys of the live cells
+     * @param minX Left edge of the bounding box, in the coordinates of the sum
+     * @param minY Top edge of the bounding box, in the coordinates of the sum
+     * @return Hash of the pattern
+     */
+    static long hash(long sum, long minX, long minY) {
+
+        long key = move(sum, -minX, -minY);
+
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * Raises a base to a power by squaring, using the inverse for negative powers
+     */
+    private static long power(long base, long inverse, long exponent) {
+
+        long factor = (exponent < 0) ? inverse : base;
+        long remaining = (exponent < 0) ? -exponent : exponent;
+        long result = 1;
+
+        while (remaining != 0) {
+            if ((remaining & 1) != 0)
+                result *= factor;
+            factor *= factor;
+            remaining >>>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the inverse of an odd number modulo 2^64 with Newton's method, doubling the correct bits every step
+     */
+    private static long inverse(long odd) {
+
+        long inverse = odd;
+        for (int i = 0; i < 5; i++)
+            inverse *= 2 - odd * inverse;
+        return inverse;
+    }
+
+    /**
+     * Lists the first powers of a base
+     */
+    private static long[] powers(long base) {
+
+        long[] powers = new long[TABLE_SIZE];
+        powers[0] = 1;
+        for (int i = 1; i < TABLE_SIZE; i++)
+            powers[i] = powers[i - 1] * base;
+        return powers;
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * @author Pair programming
+ *
+ * Summary of the timings of one phase of evolving or drawing a generation, read from its histogram.
+ * Is shown as a composite attribute of the GenerationMetrics MXBean,
+ * and is built again from the attribute by MXBean proxies through the constructor taking every value.
+ */
+public final class PhaseTimings {
+
+    private final long count;
+    private final double meanNanos;
+    private final long medianNanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    /**
+     * PhaseTimings Constructor
+     *
+     * @param histogram The timings of the phase
+     */
+    PhaseTimings(TimingHistogram histogram) {
+
+        this(histogram.getCount(), histogram.getMean(), histogram.getPercentile(50),
+                histogram.getPercentile(90), histogram.getPercentile(99), histogram.getMax());
+    }
+
+    /**
+     * PhaseTimings Constructor, used by MXBean proxies to read the timings from JMX
+     *
+     * @param count Number of timings
+     * @param meanNanos Mean of the timings
+     * @param medianNanos Median of the timings
+     * @param p90Nanos 90th percentile of the timings
+     * @param p99Nanos 99th percentile of the timings
+     * @param maxNanos Longest timing
+     */
+    @ConstructorProperties({"count", "meanNanos", "medianNanos", "p90Nanos", "p99Nanos", "maxNanos"})
+    public PhaseTimings(long count, double meanNanos, long medianNanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.medianNanos = medianNanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    //region getters
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    //endregion
+
+    @Override
+    public String toString() {
+        return String.format("count: %d, mean: %.0f ns, median: %d ns, p90: %d ns, p99: %d ns, max: %d ns",
+                count, meanNanos, medianNanos, p90Nanos, p99Nanos, maxNanos);
+    }
+}
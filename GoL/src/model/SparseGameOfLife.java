@@ -0,0 +1,388 @@
+package model;
+
+import model.rules.Rule;
+import model.rules.RuleParser;
+
+/**
+ * @author Pair programming
+ *
+ * Game class with an unbounded game board, where only the live cells are stored.
+ * The live cells are kept in a hash set of packed coordinates, so the work per generation
+ * depends on the number of live cells, not the area around the pattern.
+ * Like the dynamic game board, the board reports a width, height and offset fitting around the pattern.
+ */
+public class SparseGameOfLife extends GameOfLife {
+
+    // number of empty cells between the pattern and the edge of the reported board
+    private static final int MARGIN = 1;
+
+    // live cells, stored at their coordinates relative to the board origin
+    private LongHashSet liveCells = new LongHashSet();
+
+    // the live cells may be shared with a clone, and must be copied before they are changed
+    private boolean liveCellsShared;
+
+    // neighbour counts, reused every generation
+    private final LongIntHashMap neighbourCounts = new LongIntHashMap();
+
+    private int width = 1;
+    private int height = 1;
+
+    //region start-up
+
+    /**
+     * SparseGameOfLife Constructor.
+     * Sets the classic Conway rule (B3/S23) as default rule.
+     */
+    public SparseGameOfLife() {
+
+        this(RuleParser.CLASSIC_RULESTRING);
+    }
+
+    /**
+     * SparseGameOfLife Constructor.
+     * Sets the rule based on the parameter rulestring.
+     *
+     * @param rulestring Rulestring of the rule
+     * @throws IllegalArgumentException Thrown if the rule has B0, which can not be evolved on an unbounded board
+     */
+    public SparseGameOfLife(String rulestring) {
+
+        setRule(rulestring);
+        evolutionMode = EvolutionMode.DOUBLE_BUFFERED;
+    }
+
+    /**
+     * SparseGameOfLife copy constructor, used by clone().
+     * The live cells are shared with the copied game board instead of being copied.
+     *
+     * @param gameOfLife The game board to copy
+     */
+    private SparseGameOfLife(SparseGameOfLife gameOfLife) {
+
+        copyGameState(gameOfLife);
+
+        width = gameOfLife.width;
+        height = gameOfLife.height;
+
+        liveCells = gameOfLife.liveCells;
+        liveCellsShared = true;
+        gameOfLife.liveCellsShared = true;
+    }
+
+    //endregion
+
+    //region next generation
+
+    /**
+     * Evolves the game board one generation.
+     * Every live cell adds one to the neighbour count of the eight cells around it,
+     * then the rule is applied to every counted cell, and the survivors and births make up the next generation.
+     * Cells that are neither alive nor next to a live cell are never visited.
+     * The bounding box of the next generation is found while the rule is applied.
+     */
+    @Override
+    public void nextGeneration() {
+
+        long start = metrics.startTiming();
+
+        neighbourCounts.clear();
+
+        liveCells.forEach(key -> {
+
+            int x = getX(key);
+            int y = getY(key);
+
+            // live cells without neighbours must be counted too, so they can die
+            neighbourCounts.addTo(key, 0);
+
+            for (int a = x - 1; a <= x + 1; a++) {
+                for (int b = y - 1; b <= y + 1; b++) {
+
+                    if (a != x || b != y)
+                        neighbourCounts.addTo(toKey(a, b), 1);
+                }
+            }
+        });
+
+        long counted = metrics.record(GenerationMetrics.Phase.COUNT_NEIGHBOURS, start);
+
+        // the next generation gets its own set, so the current one can still be read while evolving
+        LongHashSet nextLiveCells = new LongHashSet(liveCells.size());
+
+        EvolveResult result = new EvolveResult();
+        int transitionTable = rule.getTransitionTable();
+
+        neighbourCounts.forEach((key, neighbourCount) -> {
+
+            boolean alive = liveCells.contains(key);
+
+            if (Rule.isAlive(transitionTable, alive, neighbourCount)) {
+                nextLiveCells.add(key);
+                result.addLiveCell(getX(key) + cellOffsetX, getY(key) + cellOffsetY);
+
+                if (!alive) {
+                    result.addChanges(1, 0);
+                    result.addHashChange(PatternHash.cellKey(getX(key) + cellOffsetX, getY(key) + cellOffsetY));
+                }
+            }
+            else if (alive) {
+                result.addChanges(0, 1);
+                result.addHashChange(-PatternHash.cellKey(getX(key) + cellOffsetX, getY(key) + cellOffsetY));
+            }
+        });
+
+        liveCells = nextLiveCells;
+        liveCellsShared = false;
+        setEvolveResult(result);
+        metrics.record(GenerationMetrics.Phase.EVOLVE, counted);
+        long evolved = metrics.recordGenerations(start, 1, neighbourCounts.size(), cellCount.get());
+
+        // fitting the board is timed on its own, as on the dynamic game board
+        fitBoardToPattern();
+        metrics.record(GenerationMetrics.Phase.FIT_BOARD, evolved);
+    }
+
+    /**
+     * Sets the width, height and offset of the board to fit around the pattern, with a margin of empty cells
+     */
+    public void fitBoardToPattern() {
+
+        if (liveCells.size() == 0)
+            return;
+
+        int[] boundingBox = getBoundingBox();
+
+        cellOffsetX += MARGIN - boundingBox[0];
+        cellOffsetY += MARGIN - boundingBox[2];
+        width = boundingBox[1] - boundingBox[0] + 1 + 2 * MARGIN;
+        height = boundingBox[3] - boundingBox[2] + 1 + 2 * MARGIN;
+    }
+
+    //endregion
+
+    //region coordinates
+
+    /**
+     * Packs the coordinates of a cell, relative to the board origin, into one key
+     *
+     * @param x X coordinate relative to origin
+     * @param y Y coordinate relative to origin
+     * @return The key
+     */
+    private static long toKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the x coordinate, relative to the board origin, from a key
+     */
+    private static int getX(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Gets the y coordinate, relative to the board origin, from a key
+     */
+    private static int getY(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Gets the key of the cell at (x,y) on the board
+     */
+    private long keyAt(int x, int y) {
+        return toKey(x - cellOffsetX, y - cellOffsetY);
+    }
+
+    //endregion
+
+    //region dynamic board handling
+
+    @Override
+    public void increaseXLeft(int diffX) {
+
+        cellOffsetX += diffX;
+        width += diffX;
+    }
+
+    @Override
+    public void increaseYTop(int diffY) {
+
+        cellOffsetY += diffY;
+        height += diffY;
+    }
+
+    //endregion
+
+    //region getters
+
+    @Override
+    public int getGridWidth() {
+        return width;
+    }
+
+    @Override
+    public int getGridHeight() {
+        return height;
+    }
+
+    /**
+     * Finds the live cells from the hash set, instead of scanning the whole board
+     */
+    @Override
+    protected EvolveResult findLiveCells() {
+
+        EvolveResult result = new EvolveResult();
+
+        liveCells.forEach(key -> result.addLiveCell(getX(key) + cellOffsetX, getY(key) + cellOffsetY));
+
+        return result;
+    }
+
+    /**
+     * Sums the keys of the live cells from the hash set, without looking at the dead cells in the bounding box
+     */
+    @Override
+    protected long sumCellKeys() {
+
+        long[] sum = new long[1];
+        liveCells.forEach(key -> sum[0] += PatternHash.cellKey(getX(key), getY(key)));
+
+        return sum[0];
+    }
+
+    /**
+     * Counts the neighbours of a cell at (x,y) directly from the live cells,
+     * as the sparse board does not keep a neighbour grid.
+     */
+    @Override
+    public int getNeighboursAt(int x, int y) {
+
+        int neighbours = 0;
+
+        for (int a = x - 1; a <= x + 1; a++) {
+            for (int b = y - 1; b <= y + 1; b++) {
+                if ((a != x || b != y) && isCellAlive(a, b))
+                    neighbours++;
+            }
+        }
+        return neighbours;
+    }
+
+    @Override
+    public boolean isCellAlive(int x, int y) {
+        return liveCells.contains(keyAt(x, y));
+    }
+
+    /**
+     * The sparse board always computes the next generation into a new set
+     */
+    @Override
+    public boolean supportsEvolutionMode(EvolutionMode evolutionMode) {
+        return evolutionMode == EvolutionMode.DOUBLE_BUFFERED;
+    }
+
+    /**
+     * Clones the SparseGameOfLife object.
+     * The clone shares the live cells with this object, so cloning does not copy any cells.
+     *
+     * @return the cloned SparseGameOfLife object
+     */
+    @Override
+    public SparseGameOfLife clone() {
+        return new SparseGameOfLife(this);
+    }
+
+    //endregion
+
+    //region setters
+
+    /**
+     * Sets the rule. Rules with B0 are rejected, as every cell of the unbounded board would be born.
+     *
+     * @param ruleText The rule text
+     * @throws IllegalArgumentException Thrown if the rule has B0
+     */
+    @Override
+    public void setRule(String ruleText) {
+        rule = createUnboundedRule(ruleText);
+    }
+
+    /**
+     * Sets a cell at (x,y) alive. The board grows to the right and downwards to fit the cell.
+     */
+    @Override
+    public void setCellAlive(int x, int y) {
+
+        long key = keyAt(x, y);
+
+        if (!liveCells.contains(key)) {
+
+            getWritableLiveCells().add(key);
+
+            cellCount.incrementAndGet();
+            invalidateBoundingBox();
+
+            if (x >= width)
+                width = x + 1;
+            if (y >= height)
+                height = y + 1;
+        }
+    }
+
+    @Override
+    public void setCellDead(int x, int y) {
+
+        long key = keyAt(x, y);
+
+        if (liveCells.contains(key)) {
+
+            getWritableLiveCells().remove(key);
+            cellCount.decrementAndGet();
+            invalidateBoundingBox();
+        }
+    }
+
+    @Override
+    public void clearGrid() {
+
+        liveCells = new LongHashSet();
+        liveCellsShared = false;
+        cellCount.set(0);
+
+        cellOffsetX = 0;
+        cellOffsetY = 0;
+        width = 1;
+        height = 1;
+        invalidateBoundingBox();
+    }
+
+    /**
+     * Gets the live cells for changing, copying them first if they are shared with a clone
+     */
+    private LongHashSet getWritableLiveCells() {
+
+        if (liveCellsShared) {
+            liveCells = new LongHashSet(liveCells);
+            liveCellsShared = false;
+        }
+        return liveCells;
+    }
+
+    /**
+     * Not used, as the sparse board counts neighbours in a hash map during evolution
+     */
+    @Override
+    protected void incrementNeighboursAt(int x, int y) {
+    }
+
+    /**
+     * Not used, as the sparse board does not keep a neighbour grid
+     */
+    @Override
+    public void resetNeighboursAt(int x, int y) {
+    }
+
+    //endregion
+}
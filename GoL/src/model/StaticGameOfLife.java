@@ -1,20 +1,51 @@
 package model;
 
+import model.rules.Rule;
 import model.rules.RuleParser;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Pair programming
  *
  * Game class with a game board with static size.
+ * Evolves double-buffered by default: the next generation is computed from the current board
+ * into a second grid in a single pass, and the grids are swapped.
+ * The board is split into tiles, and tiles where nothing around them changed in the last generation are skipped.
+ * The neighbour grid is only used when the board is evolved in two-phase mode, and is created the first time it is needed.
+ * Clones share the columns of the grid with the original game board, and a column is copied the first time
+ * either of them writes to it.
  */
-public class StaticGameOfLife extends GameOfLife{
+public class StaticGameOfLife extends DoubleBufferedGameOfLife {
 
-    // game board
-    private AtomicBoolean[][] grid;
-    private AtomicInteger[][] neighbours;
+    private static final int TILE_SIZE = 32;
+
+    // game board, and the buffer the next generation is written to
+    private boolean[][] grid;
+    private boolean[][] nextGrid;
+    private volatile AtomicInteger[][] neighbours;
+
+    // columns of the game board and the buffer that are shared with a clone or a snapshot,
+    // and must be copied before they are written to
+    private boolean[] sharedColumns;
+    private boolean[] sharedNextColumns;
+
+    // the snapshot each column of the game board and the buffer was handed over to, if nothing else shares it
+    private SnapshotCells[] columnOwners;
+    private SnapshotCells[] nextColumnOwners;
+
+    // tiles that changed in the last generation, and in the generation being computed
+    private int tileColumns;
+    private int tileRows;
+    private boolean[] changedTiles;
+    private boolean[] nextChangedTiles;
+    private int[] tilePopulation;
+
+    // min x, max x, min y and max y of the live cells in every tile, and the sums of their x and y coordinates,
+    // kept for tiles that are skipped
+    private int[] tileBounds;
+    private long[] tileSums;
 
     //region start-up
 
@@ -37,24 +68,353 @@ public class StaticGameOfLife extends GameOfLife{
 
         createGameBoard(width, height);
         setRule(rulestring);
+        evolutionMode = EvolutionMode.DOUBLE_BUFFERED;
     }
 
     /**
-     * Creates the boolean 2D Array to keep track of dead and live cells, and the 2D byte-
-     * array to keep track of the neighbour count to the corresponding cells in the other array
+     * StaticGameOfLife copy constructor, used by clone().
+     * The columns of the grid are shared with the copied game board instead of being copied.
+     *
+     * @param gameOfLife The game board to copy
+     */
+    private StaticGameOfLife(StaticGameOfLife gameOfLife) {
+
+        copyGameState(gameOfLife);
+
+        int width = gameOfLife.getGridWidth();
+        int height = gameOfLife.getGridHeight();
+
+        // every tile is evolved in the first generation, so the buffer can start out as the same columns
+        grid = gameOfLife.grid.clone();
+        nextGrid = gameOfLife.grid.clone();
+
+        sharedColumns = new boolean[width];
+        sharedNextColumns = new boolean[width];
+        Arrays.fill(sharedColumns, true);
+        Arrays.fill(sharedNextColumns, true);
+        Arrays.fill(gameOfLife.sharedColumns, true);
+
+        columnOwners = new SnapshotCells[width];
+        nextColumnOwners = new SnapshotCells[width];
+
+        for (int x = 0; x < width; x++)
+            gameOfLife.shareLentColumn(x);
+
+        createTiles(width, height);
+    }
+
+    /**
+     * Creates the boolean 2D Arrays to keep track of dead and live cells.
+     * The 2D integer-array to keep track of the neighbour count is created when it is first needed.
      */
     private void createGameBoard(int width, int height) {
 
-        grid = new AtomicBoolean[width][height];
-        neighbours = new AtomicInteger[width][height];
+        grid = new boolean[width][height];
+        nextGrid = new boolean[width][height];
+        neighbours = null;
+
+        sharedColumns = new boolean[width];
+        sharedNextColumns = new boolean[width];
+        columnOwners = new SnapshotCells[width];
+        nextColumnOwners = new SnapshotCells[width];
+
+        createTiles(width, height);
+    }
+
+    /**
+     * Splits the board into tiles, all marked as changed so the whole board is evolved in the next generation
+     */
+    private void createTiles(int width, int height) {
+
+        tileColumns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        tileRows = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+        changedTiles = new boolean[tileColumns * tileRows];
+        nextChangedTiles = new boolean[tileColumns * tileRows];
+        tilePopulation = new int[tileColumns * tileRows];
+        tileBounds = new int[tileColumns * tileRows * 4];
+        tileSums = new long[tileColumns * tileRows * 2];
+
+        markAllTilesChanged();
+    }
+
+    //endregion
+
+    //region next generation
+
+    /**
+     * Evolves the tiles starting in the columns from startColumn to stopColumn into the back buffer.
+     * A tile is skipped if neither it nor any of the eight tiles around it changed in the last generation,
+     * as it will then stay the same. The back buffer already holds the same cells for a skipped tile,
+     * since it holds the previous generation, which was equal to the current one.
+     */
+    @Override
+    protected EvolveResult evolveIntoBackBuffer(int startColumn, int stopColumn) {
+
+        EvolveResult result = new EvolveResult();
+
+        // each tile column is evolved by the task that holds its first column
+        int startTile = (startColumn + TILE_SIZE - 1) / TILE_SIZE;
+        int stopTile = Math.min((stopColumn + TILE_SIZE - 1) / TILE_SIZE, tileColumns);
+
+        for (int tileX = startTile; tileX < stopTile; tileX++) {
+            for (int tileY = 0; tileY < tileRows; tileY++) {
+
+                int tile = tileX * tileRows + tileY;
+
+                if (isNeighbourhoodChanged(tileX, tileY)) {
+                    evolveTile(tileX, tileY, result);
+                } else {
+                    nextChangedTiles[tile] = false;
+                }
+
+                int bounds = tile * 4;
+                result.addLiveCells(tilePopulation[tile], tileSums[tile * 2], tileSums[tile * 2 + 1],
+                        tileBounds[bounds], tileBounds[bounds + 1], tileBounds[bounds + 2], tileBounds[bounds + 3]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the neighbours of every cell in a tile and applies the rule in the same pass.
+     * As in two-phase mode, only cells inside the outer border of the board are counted as neighbours.
+     * The bounding box of the live cells in the tile is found in the same pass,
+     * and the births and deaths are added to the result of the task.
+     */
+    private void evolveTile(int tileX, int tileY, EvolveResult result) {
+
+        int width = getGridWidth();
+        int height = getGridHeight();
+
+        int startX = tileX * TILE_SIZE;
+        int stopX = Math.min(startX + TILE_SIZE, width);
+        int startY = tileY * TILE_SIZE;
+        int stopY = Math.min(startY + TILE_SIZE, height);
+
+        int transitionTable = rule.getTransitionTable();
+
+        int liveCells = 0;
+        int births = 0;
+        int deaths = 0;
+        long hashChange = 0;
+        long sumX = 0;
+        long sumY = 0;
+
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (int x = startX; x < stopX; x++) {
+
+            // columns at the left and right border never contribute to the neighbour count
+            boolean[] left = (x - 1 >= 1) ? grid[x - 1] : null;
+            boolean[] middle = (x >= 1 && x < width - 1) ? grid[x] : null;
+            boolean[] right = (x + 1 < width - 1) ? grid[x + 1] : null;
+
+            boolean[] column = grid[x];
+            boolean[] nextColumn = getWritableNextColumn(x);
+            long columnKey = PatternHash.columnKey(x);
+
+            for (int y = startY; y < stopY; y++) {
+
+                int neighbourCount = 0;
+
+                // rows at the top and bottom border never contribute to the neighbour count
+                int top = Math.max(y - 1, 1);
+                int bottom = Math.min(y + 1, height - 2);
+
+                for (int b = top; b <= bottom; b++) {
+
+                    if (left != null && left[b])
+                        neighbourCount++;
+                    if (middle != null && b != y && middle[b])
+                        neighbourCount++;
+                    if (right != null && right[b])
+                        neighbourCount++;
+                }
+
+                boolean alive = Rule.isAlive(transitionTable, column[y], neighbourCount);
+                nextColumn[y] = alive;
+
+                if (alive) {
+                    liveCells++;
+                    sumX += x;
+                    sumY += y;
+
+                    // x only grows, while y starts over in every column
+                    minX = Math.min(minX, x);
+                    maxX = x;
+                    minY = Math.min(minY, y);
+                    maxY = Math.max(maxY, y);
+                }
+                if (alive != column[y]) {
+                    if (alive) {
+                        births++;
+                        hashChange += columnKey * PatternHash.rowKey(y);
+                    }
+                    else {
+                        deaths++;
+                        hashChange -= columnKey * PatternHash.rowKey(y);
+                    }
+                }
+            }
+        }
+
+        result.addChanges(births, deaths);
+        result.addHashChange(hashChange);
+        result.addVisitedCells((long) (stopX - startX) * (stopY - startY));
+
+        int tile = tileX * tileRows + tileY;
+        tilePopulation[tile] = liveCells;
+        nextChangedTiles[tile] = births + deaths > 0;
+        tileSums[tile * 2] = sumX;
+        tileSums[tile * 2 + 1] = sumY;
+
+        int bounds = tile * 4;
+        tileBounds[bounds] = minX;
+        tileBounds[bounds + 1] = maxX;
+        tileBounds[bounds + 2] = minY;
+        tileBounds[bounds + 3] = maxY;
+    }
+
+    /**
+     * Evolves the columns in two-phase mode, applying the transition table of the rule
+     * directly to the grid and the counted neighbours.
+     */
+    @Override
+    protected EvolveResult evolveColumns(int start, int stop) {
+
+        EvolveResult result = new EvolveResult();
+        int transitionTable = rule.getTransitionTable();
+
+        for (int x = start; x < stop; x++) {
+
+            boolean[] column = grid[x];
+            AtomicInteger[] neighbourColumn = getNeighbourGrid()[x];
+
+            for (int y = 0; y < column.length; y++) {
+
+                boolean alive = Rule.isAlive(transitionTable, column[y], neighbourColumn[y].get());
+
+                if (alive != column[y]) {
+                    column = getWritableColumn(x);
+                    column[y] = alive;
+                    markTileChanged(x, y);
+                    result.addChanges(alive ? 1 : 0, alive ? 0 : 1);
+                    result.addHashChange(alive ? PatternHash.cellKey(x, y) : -PatternHash.cellKey(x, y));
+                }
+
+                if (alive)
+                    result.addLiveCell(x, y);
+
+                // reset neighbour count for this cell
+                neighbourColumn[y].set(0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a tile or any of the eight tiles around it changed in the last generation
+     */
+    private boolean isNeighbourhoodChanged(int tileX, int tileY) {
+
+        for (int a = Math.max(tileX - 1, 0); a <= Math.min(tileX + 1, tileColumns - 1); a++) {
+            for (int b = Math.max(tileY - 1, 0); b <= Math.min(tileY + 1, tileRows - 1); b++) {
+                if (changedTiles[a * tileRows + b])
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks the tile holding the cell at (x,y) as changed, so it is evolved in the next generation
+     */
+    private void markTileChanged(int x, int y) {
+        changedTiles[(x / TILE_SIZE) * tileRows + y / TILE_SIZE] = true;
+    }
+
+    /**
+     * Marks every tile as changed, for when the board has been changed outside of double-buffered evolution
+     */
+    private void markAllTilesChanged() {
+        Arrays.fill(changedTiles, true);
+    }
+
+    @Override
+    protected void swapBuffers() {
+
+        boolean[][] temp = grid;
+        grid = nextGrid;
+        nextGrid = temp;
+
+        boolean[] tempTiles = changedTiles;
+        changedTiles = nextChangedTiles;
+        nextChangedTiles = tempTiles;
+
+        boolean[] tempShared = sharedColumns;
+        sharedColumns = sharedNextColumns;
+        sharedNextColumns = tempShared;
+
+        SnapshotCells[] tempOwners = columnOwners;
+        columnOwners = nextColumnOwners;
+        nextColumnOwners = tempOwners;
+    }
+
+    /**
+     * Gets a column of the game board that can be written to, copying it first if it is shared with a clone
+     */
+    private boolean[] getWritableColumn(int x) {
+
+        if (sharedColumns[x]) {
+            grid[x] = grid[x].clone();
+            sharedColumns[x] = false;
+        }
+        return grid[x];
+    }
+
+    /**
+     * Gets a column of the buffer that can be written to, copying it first if it is shared with a clone.
+     * The column is copied, not just created, as skipped tiles rely on the buffer holding the previous generation.
+     */
+    private boolean[] getWritableNextColumn(int x) {
+
+        if (sharedNextColumns[x]) {
+            nextGrid[x] = nextGrid[x].clone();
+            sharedNextColumns[x] = false;
+        }
+        return nextGrid[x];
+    }
+
+    /**
+     * Gets the neighbour grid, creating it the first time it is needed
+     */
+    private AtomicInteger[][] getNeighbourGrid() {
 
-        for (int x = 0; x < width; x++){
+        AtomicInteger[][] neighbourGrid = neighbours;
 
-            for (int y = 0; y < height; y++){
-                grid[x][y] = new AtomicBoolean(false);
-                neighbours[x][y] = new AtomicInteger(0);
+        if (neighbourGrid == null) {
+            synchronized (this) {
+
+                neighbourGrid = neighbours;
+
+                if (neighbourGrid == null) {
+
+                    neighbourGrid = new AtomicInteger[getGridWidth()][getGridHeight()];
+
+                    for (int x = 0; x < getGridWidth(); x++) {
+                        for (int y = 0; y < getGridHeight(); y++) {
+                            neighbourGrid[x][y] = new AtomicInteger(0);
+                        }
+                    }
+                    neighbours = neighbourGrid;
+                }
             }
         }
+        return neighbourGrid;
     }
 
     //endregion
@@ -67,15 +427,16 @@ public class StaticGameOfLife extends GameOfLife{
      * @return The neighbour-2D-array
      */
     public AtomicInteger[][] getNeighbours() {
-        return neighbours;
+        return getNeighbourGrid();
     }
 
     /**
-     * Getter for the cell-2D-array
+     * Getter for the cell-2D-array.
+     * The array must not be written to, as its columns may be shared with clones.
      *
      * @return The cell-2D-array
      */
-    public AtomicBoolean[][] getGrid() {
+    public boolean[][] getGrid() {
         return grid;
     }
 
@@ -91,32 +452,92 @@ public class StaticGameOfLife extends GameOfLife{
 
     @Override
     public int getNeighboursAt(int x, int y) {
-        return neighbours[x][y].get();
+        return getNeighbourGrid()[x][y].get();
     }
 
     @Override
     public boolean isCellAlive(int x, int y) {
         try {
-            return grid[x][y].get();
+            return grid[x][y];
         } catch (ArrayIndexOutOfBoundsException e){
             return false;
         }
     }
 
     /**
-     * Clones the StaticGameOfLife object
+     * Hands the columns over to the snapshot without copying them. The snapshot can only give a column back
+     * if nothing else shares it, so not if it is shared with a clone or handed over to another snapshot.
+     * A column that is not written in a generation comes back to the board unchanged, and may be handed over again,
+     * so the snapshot owning each column is kept with the board.
+     */
+    @Override
+    GenerationSnapshot.Cells createSnapshotCells() {
+
+        SnapshotCells snapshotCells = new SnapshotCells(grid.clone());
+
+        for (int x = 0; x < grid.length; x++) {
+
+            if (!sharedColumns[x]) {
+                snapshotCells.owned[x] = grid[x];
+                columnOwners[x] = snapshotCells;
+            }
+            else {
+                shareLentColumn(x);
+            }
+        }
+        Arrays.fill(sharedColumns, true);
+
+        return snapshotCells;
+    }
+
+    /**
+     * Takes back the columns given back by a snapshot that are still in the game board or the buffer,
+     * so they are written to instead of copied
+     */
+    @Override
+    void reclaimSnapshotCells(GenerationSnapshot.Cells cells) {
+
+        SnapshotCells snapshotCells = (SnapshotCells) cells;
+        int width = Math.min(snapshotCells.owned.length, grid.length);
+
+        for (int x = 0; x < width; x++) {
+
+            boolean[] column = snapshotCells.owned[x];
+
+            if (column != null && column == nextGrid[x] && nextColumnOwners[x] == snapshotCells) {
+                sharedNextColumns[x] = false;
+                nextColumnOwners[x] = null;
+            }
+            else if (column != null && column == grid[x] && columnOwners[x] == snapshotCells) {
+                sharedColumns[x] = false;
+                columnOwners[x] = null;
+            }
+        }
+    }
+
+    /**
+     * Stops the snapshot a column of the game board was handed over to from giving it back,
+     * for when it is shared with a clone or handed over to another snapshot
+     */
+    private void shareLentColumn(int x) {
+
+        SnapshotCells owner = columnOwners[x];
+
+        if (owner != null && owner.owned[x] == grid[x])
+            owner.owned[x] = null;
+
+        columnOwners[x] = null;
+    }
+
+    /**
+     * Clones the StaticGameOfLife object.
+     * The clone shares the columns of the grid with this object, so cloning does not copy any cells.
      *
      * @return the cloned StaticGameOfLife object
      */
     @Override
     public StaticGameOfLife clone() {
-
-        StaticGameOfLife staticGameOfLife = new StaticGameOfLife(
-                getGridWidth(), getGridHeight(), getRule().toString());
-        staticGameOfLife.deepCopyOnSet(grid);
-        staticGameOfLife.setCellCount(cellCount.get());
-
-        return staticGameOfLife;
+        return new StaticGameOfLife(this);
     }
 
     /**
@@ -124,24 +545,31 @@ public class StaticGameOfLife extends GameOfLife{
      *
      * @param grid the grid to be deep copied and set.
      */
-    public void deepCopyOnSet(AtomicBoolean[][] grid) {
+    public void deepCopyOnSet(boolean[][] grid) {
 
-        AtomicBoolean[][] copiedBoard = new AtomicBoolean[grid.length][grid[0].length];
-        neighbours = new AtomicInteger[grid.length][grid[0].length];
+        boolean[][] copiedBoard = new boolean[grid.length][grid[0].length];
+        nextGrid = new boolean[grid.length][grid[0].length];
+        neighbours = null;
         cellCount.set(0);
 
         for (int x = 0; x < grid.length; x++) {
-            for (int y = 0; y < grid[0].length; y++) {
 
-                copiedBoard[x][y] = new AtomicBoolean(grid[x][y].get());
-                neighbours[x][y] = new AtomicInteger(0);
+            System.arraycopy(grid[x], 0, copiedBoard[x], 0, grid[x].length);
 
-                if(grid[x][y].get()) {
+            for (int y = 0; y < grid[0].length; y++) {
+
+                if(grid[x][y]) {
                     cellCount.incrementAndGet();
                 }
             }
         }
         this.grid = copiedBoard;
+        sharedColumns = new boolean[grid.length];
+        sharedNextColumns = new boolean[grid.length];
+        columnOwners = new SnapshotCells[grid.length];
+        nextColumnOwners = new SnapshotCells[grid.length];
+        createTiles(grid.length, grid[0].length);
+        invalidateBoundingBox();
     }
 
     //endregion
@@ -153,8 +581,16 @@ public class StaticGameOfLife extends GameOfLife{
      *
      * @param grid Cell grid
      */
-    public void setGrid(AtomicBoolean[][] grid) {
+    public void setGrid(boolean[][] grid) {
         this.grid = grid;
+        this.nextGrid = new boolean[grid.length][grid[0].length];
+        neighbours = null;
+        sharedColumns = new boolean[grid.length];
+        sharedNextColumns = new boolean[grid.length];
+        columnOwners = new SnapshotCells[grid.length];
+        nextColumnOwners = new SnapshotCells[grid.length];
+        createTiles(grid.length, grid[0].length);
+        invalidateBoundingBox();
     }
 
     @Override
@@ -163,8 +599,10 @@ public class StaticGameOfLife extends GameOfLife{
         if(!isCellAlive(x,y)){
 
             try {
-                grid[x][y].set(true);
+                getWritableColumn(x)[y] = true;
+                markTileChanged(x, y);
                 cellCount.incrementAndGet();
+                invalidateBoundingBox();
             } catch (IndexOutOfBoundsException ignored){
             }
         }
@@ -175,31 +613,98 @@ public class StaticGameOfLife extends GameOfLife{
 
         if(isCellAlive(x,y)) {
 
-            grid[x][y].set(false);
+            getWritableColumn(x)[y] = false;
+            markTileChanged(x, y);
             cellCount.decrementAndGet();
+            invalidateBoundingBox();
         }
     }
 
     @Override
     public void clearGrid() {
 
+        AtomicInteger[][] neighbourGrid = neighbours;
+
         for (int x = 0; x < getGridWidth(); x++) {
-            for (int y = 0; y < getGridHeight(); y++) {
-                grid[x][y].set(false);
-                neighbours[x][y].set(0);
+
+            // a shared column is replaced instead of cleared
+            if (sharedColumns[x]) {
+                grid[x] = new boolean[getGridHeight()];
+                sharedColumns[x] = false;
+            } else {
+                Arrays.fill(grid[x], false);
+            }
+
+            if (neighbourGrid != null) {
+                for (int y = 0; y < getGridHeight(); y++)
+                    neighbourGrid[x][y].set(0);
             }
         }
 
         cellCount.set(0);
+        markAllTilesChanged();
+        invalidateBoundingBox();
     }
 
+    /**
+     * Sets the evolution mode. Every tile is evolved in the next double-buffered generation,
+     * as two-phase evolution does not keep the back buffer up to date.
+     */
     @Override
-    protected void incrementNeighboursAt(int x, int y){ neighbours[x][y].incrementAndGet();}
+    public void setEvolutionMode(EvolutionMode evolutionMode) {
+
+        super.setEvolutionMode(evolutionMode);
+        markAllTilesChanged();
+    }
+
+    /**
+     * Sets a specific rule to be used. Every tile is evolved in the next generation, as the rule has changed.
+     *
+     * @param ruleText The rule text
+     */
+    @Override
+    public void setRule(String ruleText) {
+
+        super.setRule(ruleText);
+
+        if (changedTiles != null)
+            markAllTilesChanged();
+    }
+
+    @Override
+    protected void incrementNeighboursAt(int x, int y){ getNeighbourGrid()[x][y].incrementAndGet();}
 
     @Override
     public void resetNeighboursAt(int x, int y) {
-        neighbours[x][y].set(0);
+        getNeighbourGrid()[x][y].set(0);
     }
 
     //endregion
-}
\ No newline at end of file
+
+    /**
+     * The columns of a generation handed over to a snapshot
+     */
+    private static final class SnapshotCells implements GenerationSnapshot.Cells {
+
+        private final boolean[][] columns;
+
+        // the columns the snapshot can give back to the board, null for columns shared with a clone.
+        // Only used by the thread publishing snapshots
+        private final boolean[][] owned;
+
+        SnapshotCells(boolean[][] columns) {
+
+            this.columns = columns;
+            owned = new boolean[columns.length][];
+        }
+
+        @Override
+        public boolean isCellAlive(int x, int y) {
+
+            if (x < 0 || x >= columns.length || y < 0 || y >= columns[x].length)
+                return false;
+
+            return columns[x][y];
+        }
+    }
+}
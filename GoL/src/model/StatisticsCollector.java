@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * @author Pair programming
+ *
+ * Receives the statistics of every generation, counted by the tasks while evolving the game board
+ * and merged once per generation. Added to a game board with GameOfLife.addStatisticsCollector().
+ * Called by the evolving thread, so the collector must not evolve or edit the game board.
+ */
+@FunctionalInterface
+public interface StatisticsCollector {
+
+    /**
+     * Called when a generation has been evolved
+     *
+     * @param statistics Statistics of the new generation
+     */
+    void collect(GenerationStatistics statistics);
+}
@@ -0,0 +1,146 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author Pair programming
+ *
+ * Histogram of timings in nanoseconds, which can be recorded from many threads without locking.
+ * Every power of two is split into SUB_BUCKETS buckets, so a percentile is off by at most a quarter,
+ * while a timing is recorded with a few atomic increments and no allocation.
+ */
+public class TimingHistogram {
+
+    // buckets per power of two, must be a power of two itself
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // enough buckets for any positive long
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a timing
+     *
+     * @param nanos The timing in nanoseconds, negative timings are recorded as 0
+     */
+    public void record(long nanos) {
+
+        nanos = Math.max(nanos, 0);
+
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Removes all recorded timings.
+     * Timings recorded while resetting may be partly kept.
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.set(i, 0);
+
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    //region getters
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded timings
+     *
+     * @return The mean in nanoseconds, or 0 if nothing is recorded
+     */
+    public double getMean() {
+
+        long n = count.get();
+        return (n == 0) ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Gets the timing that a share of the recorded timings are below or equal to.
+     * The largest timing in the bucket of the percentile is returned, but never more than the max.
+     *
+     * @param percentile Share of the timings in percent, from 0 to 100
+     * @return The timing in nanoseconds, or 0 if nothing is recorded
+     */
+    public long getPercentile(double percentile) {
+
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            total += buckets.get(i);
+
+        if (total == 0)
+            return 0;
+
+        // number of timings that must be at or below the returned timing, at least one
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+
+            seen += buckets.get(i);
+            if (seen >= rank)
+                return Math.min(upperBoundOf(i), getMax());
+        }
+        return getMax();
+    }
+
+    //endregion
+
+    //region buckets
+
+    /**
+     * Finds the bucket of a timing. Timings below SUB_BUCKETS get a bucket each,
+     * and larger timings are found from the highest bit and the SUB_BUCKET_BITS bits below it.
+     *
+     * @param nanos A timing, not negative
+     * @return Index of the bucket
+     */
+    static int bucketOf(long nanos) {
+
+        if (nanos < SUB_BUCKETS)
+            return (int) nanos;
+
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int shift = highestBit - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Finds the largest timing in a bucket
+     *
+     * @param bucket Index of the bucket
+     * @return The largest timing in nanoseconds put in the bucket
+     */
+    static long upperBoundOf(int bucket) {
+
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    //endregion
+}
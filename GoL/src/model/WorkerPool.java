@@ -0,0 +1,176 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Pair programming
+ *
+ * Pool of long-lived worker threads shared by every GameOfLife instance.
+ * Generations are split into tasks that are handed to the same workers every time,
+ * instead of creating and starting new threads for every generation.
+ * The number of workers is configurable, and the pool is shut down when the program exits.
+ */
+public class WorkerPool {
+
+    private static WorkerPool sharedPool;
+    private static int configuredParallelism = Runtime.getRuntime().availableProcessors();
+    private static boolean shutdownHookAdded = false;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    /**
+     * WorkerPool constructor. Starts a fixed number of daemon worker threads.
+     *
+     * @param parallelism Number of tasks that can run at the same time
+     */
+    private WorkerPool(int parallelism) {
+
+        this.parallelism = parallelism;
+
+        // the calling thread runs one of the tasks itself, so one worker less is needed
+        executor = (parallelism > 1) ? Executors.newFixedThreadPool(parallelism - 1, new WorkerThreadFactory()) : null;
+    }
+
+    //region shared pool
+
+    /**
+     * Gets the pool shared by all game boards. The pool is started on first use.
+     *
+     * @return The shared worker pool
+     */
+    public static synchronized WorkerPool getInstance() {
+
+        if (sharedPool == null) {
+            sharedPool = new WorkerPool(configuredParallelism);
+
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(WorkerPool::shutdown));
+                shutdownHookAdded = true;
+            }
+        }
+        return sharedPool;
+    }
+
+    /**
+     * Sets the number of tasks a generation is split into and run in parallel.
+     * A running pool is replaced by a new pool with the given parallelism.
+     *
+     * @param parallelism Number of parallel tasks, or 0 or less to use one per available processor
+     */
+    public static synchronized void setParallelism(int parallelism) {
+
+        if (parallelism <= 0)
+            parallelism = Runtime.getRuntime().availableProcessors();
+
+        if (parallelism == configuredParallelism && sharedPool != null)
+            return;
+
+        configuredParallelism = parallelism;
+        shutdown();
+    }
+
+    /**
+     * Stops the worker threads of the shared pool. A new pool is started if it is used again.
+     */
+    public static synchronized void shutdown() {
+
+        if (sharedPool != null) {
+
+            if (sharedPool.executor != null)
+                sharedPool.executor.shutdown();
+
+            sharedPool = null;
+        }
+    }
+
+    //endregion
+
+    //region running tasks
+
+    /**
+     * Runs all tasks in parallel, and waits for every one of them to complete.
+     * The last task is run by the calling thread while the workers run the others.
+     *
+     * @param tasks The tasks to run
+     * @throws InterruptedException Thrown if the calling thread is interrupted while waiting
+     */
+    public void invokeAll(List<Runnable> tasks) throws InterruptedException {
+
+        if (tasks.isEmpty())
+            return;
+
+        if (executor == null || tasks.size() == 1) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(tasks.size() - 1);
+
+        for (int i = 0; i < tasks.size() - 1; i++) {
+            try {
+                futures.add(executor.submit(tasks.get(i)));
+            } catch (RejectedExecutionException e) {
+                // the pool was replaced while this generation was running
+                tasks.get(i).run();
+            }
+        }
+
+        RuntimeException exception = null;
+
+        try {
+            tasks.get(tasks.size() - 1).run();
+        } catch (RuntimeException e) {
+            exception = e;
+        }
+
+        // wait for the workers to finish before returning, even if a task failed
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (exception == null)
+                    exception = (e.getCause() instanceof RuntimeException) ?
+                            (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+            }
+        }
+
+        if (exception != null)
+            throw exception;
+    }
+
+    /**
+     * Gets the number of tasks that can run at the same time
+     *
+     * @return Parallelism of the pool
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    //endregion
+
+    /**
+     * Creates named daemon threads, so the workers never keep the program alive
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, "GoL-worker-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package model.rules;
 
-import model.EvolveException;
 import model.GameOfLife;
 
 /**
@@ -16,31 +15,18 @@ public class ClassicRule extends Rule {
         super(gol);
 
         rulestring = RuleParser.CLASSIC_RULESTRING;
+        transitionTable = RuleParser.compileTransitionTable(rulestring);
     }
 
-    @Override
-    public void evolve(int start, int stop) throws EvolveException {
-
-        for(int x = start; x < stop; x++){
-            for(int y = 0; y < gol.getGridHeight(); y++){
-
-                int neighbourCount = gol.getNeighboursAt(x,y);
-
-                // if a cell has an impossible number of neighbours, throw EvolveException
-                if (neighbourCount < 0 || neighbourCount > 8)
-                    throw new EvolveException("Tried setting " + neighbourCount + " neighbours");
-
-                // if a cell has 3 neighbours, it wil become alive or stay alive independent whether it's alive or dead
-                else if (neighbourCount == 3)
-                    gol.setCellAlive(x,y);
-
-                // if a cell has 2 neighbours, it should either stay alive or stay dead, else it should die.
-                else if (neighbourCount != 2)
-                    gol.setCellDead(x,y);
+    /**
+     * ClassicRule copy constructor
+     */
+    private ClassicRule(GameOfLife gol, ClassicRule rule) {
+        super(gol, rule);
+    }
 
-                // reset neighbour count for this cell
-                gol.resetNeighboursAt(x,y);
-            }
-        }
+    @Override
+    public Rule copyFor(GameOfLife gol) {
+        return new ClassicRule(gol, this);
     }
 }
@@ -1,18 +1,13 @@
 package model.rules;
 
-import model.DynamicGameOfLife;
-import model.EvolveException;
 import model.GameOfLife;
-import tools.MessageBox;
+import tools.Messages;
 
 /**
  * A custom rule based on a rulestring input from user.
  */
 public class CustomRule extends Rule {
 
-    private boolean[] shouldBeBorn;
-    private boolean[] shouldSurvive;
-
     /**
      * CustomRule constructor.
      *
@@ -27,44 +22,24 @@ public class CustomRule extends Rule {
             rulestring = RuleParser.formatRuleText(rawRuleText);
         } catch (RuleFormatException e){
             rulestring = "B3/S23";
-            MessageBox.alert(e.getMessage());
+            Messages.alert(e.getMessage());
         }
 
-        // parse the rulestring to the two boolean arrays shouldBeBorn and shouldSurvive
-        shouldBeBorn = RuleParser.parseDigitsAfterChar(rulestring, 'B');
-        shouldSurvive = RuleParser.parseDigitsAfterChar(rulestring, 'S');
+        // compile the rulestring to the transition table used for evolution
+        transitionTable = RuleParser.compileTransitionTable(rulestring);
 
         System.out.println("Parsed: " + rulestring);
     }
 
     /**
-     * Evolves the grid one generation. The evolution rules are based on the
-     * shouldBeBorn and shouldSurvive arrays which again are based on a custom rulestring
+     * CustomRule copy constructor
      */
-    @Override
-    public void evolve(int start, int stop) throws EvolveException {
-
-        for(int x = start; x < stop; x++) {
-            for (int y = 0; y < gol.getGridHeight(); y++) {
-
-                int neighbourCount = gol.getNeighboursAt(x,y);
-
-                // if a cell has an impossible number of neighbours, throw EvolveException
-                if (neighbourCount < 0 || neighbourCount > 8)
-                    throw new EvolveException("Tried setting " + neighbourCount + " neighbours");
-
-                if(gol.isCellAlive(x,y)){                   // If cell is alive and
-                    if(!shouldSurvive[neighbourCount])      // the cell isn't supposed to survive,
-                        gol.setCellDead(x,y);               // the cell would die
-                }
-                else {                                      // If cell is dead and
-                    if(shouldBeBorn[neighbourCount])        // the cell is supposed to be born,
-                        gol.setCellAlive(x,y);              // the cell should be born
-                }
+    private CustomRule(GameOfLife gol, CustomRule rule) {
+        super(gol, rule);
+    }
 
-                //resets number of neighbours
-                gol.resetNeighboursAt(x,y);
-            }
-        }
+    @Override
+    public Rule copyFor(GameOfLife gol) {
+        return new CustomRule(gol, this);
     }
-}
\ No newline at end of file
+}
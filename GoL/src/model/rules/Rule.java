@@ -1,15 +1,22 @@
 package model.rules;
 
 import model.EvolveException;
+import model.EvolveResult;
+import model.PatternHash;
 import model.GameOfLife;
 
 /**
- * An abstract base class for all game rules
+ * An abstract base class for all game rules.
+ * Every rule is compiled to a transition table by RuleParser, which game boards can apply directly in their inner loops.
  */
 public abstract class Rule {
 
+    // bit index in the transition table of the first survival condition, the birth conditions start at bit 0
+    public static final int SURVIVAL_OFFSET = 9;
+
     protected GameOfLife gol;
     protected String rulestring = "";
+    protected int transitionTable;
 
     /**
      * Default constructor.
@@ -20,16 +27,102 @@ public abstract class Rule {
         this.gol = gol;
     }
 
+    /**
+     * Copy constructor.
+     * Sets a reference to another GameOfLife object to evolve, and copies the rulestring and transition table
+     * without parsing the rulestring again.
+     *
+     * @param gol GameOfLife object to evolve
+     * @param rule The rule to copy
+     */
+    protected Rule(GameOfLife gol, Rule rule){
+
+        this.gol = gol;
+        this.rulestring = rule.rulestring;
+        this.transitionTable = rule.transitionTable;
+    }
+
+    /**
+     * Copies this rule for another game board, as a rule holds a reference to the game board it evolves
+     *
+     * @param gol GameOfLife object to evolve
+     * @return The copied rule
+     */
+    public abstract Rule copyFor(GameOfLife gol);
+
     /**
      * Evolves the board one generation, based on the number of neighbours per cell.
      * The interval of columns to be evolved is specified through parameters,
      * to enable concurrent evolution of the game board.
+     * Used by game boards that do not apply the transition table to their cells directly.
      *
      * @param start First column from the left side to be evolved
      * @param stop Last column on the right side to be evolved
+     * @return Number of live cells in the evolved columns, and the bounding box around them
      * @throws EvolveException
      */
-    public abstract void evolve(int start, int stop) throws EvolveException;
+    public EvolveResult evolve(int start, int stop) throws EvolveException {
+
+        EvolveResult result = new EvolveResult();
+
+        for(int x = start; x < stop; x++){
+            for(int y = 0; y < gol.getGridHeight(); y++){
+
+                int neighbourCount = gol.getNeighboursAt(x,y);
+
+                // if a cell has an impossible number of neighbours, throw EvolveException
+                if (neighbourCount < 0 || neighbourCount > 8)
+                    throw new EvolveException("Tried setting " + neighbourCount + " neighbours");
+
+                boolean wasAlive = gol.isCellAlive(x,y);
+
+                if (isAlive(transitionTable, wasAlive, neighbourCount)) {
+                    gol.setCellAlive(x,y);
+                    result.addLiveCell(x,y);
+
+                    if (!wasAlive) {
+                        result.addChanges(1, 0);
+                        result.addHashChange(PatternHash.cellKey(x,y));
+                    }
+                }
+                else {
+                    gol.setCellDead(x,y);
+
+                    if (wasAlive) {
+                        result.addChanges(0, 1);
+                        result.addHashChange(-PatternHash.cellKey(x,y));
+                    }
+                }
+
+                // reset neighbour count for this cell
+                gol.resetNeighboursAt(x,y);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the state of a cell in the next generation in a transition table.
+     * Static, so game boards can call it from their inner loops without dispatching on the rule.
+     *
+     * @param transitionTable The transition table of the rule
+     * @param alive True if the cell is alive in the current generation
+     * @param neighbourCount Number of live neighbours, from 0 to 8
+     * @return True if the cell is alive in the next generation
+     */
+    public static boolean isAlive(int transitionTable, boolean alive, int neighbourCount) {
+        return ((transitionTable >>> (alive ? SURVIVAL_OFFSET + neighbourCount : neighbourCount)) & 1) != 0;
+    }
+
+    /**
+     * Returns the transition table of this rule. Bit n is set if a dead cell with n neighbours is born,
+     * and bit (SURVIVAL_OFFSET + n) is set if a live cell with n neighbours survives.
+     *
+     * @return Transition table
+     */
+    public int getTransitionTable() {
+        return transitionTable;
+    }
 
     /**
      * Returns the rulestring of this rule
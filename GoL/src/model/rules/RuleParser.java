@@ -1,7 +1,7 @@
 package model.rules;
 
 import model.GameOfLife;
-import tools.MessageBox;
+import tools.Messages;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,7 +31,7 @@ public class RuleParser {
         try {
             rulestring = formatRuleText(rulestring);
         } catch (RuleFormatException e) {
-            MessageBox.alert(e.getMessage());
+            Messages.alert(e.getMessage());
             return new ClassicRule(gol);
         }
 
@@ -45,6 +45,32 @@ public class RuleParser {
             return new CustomRule(gol, rulestring);
     }
 
+    /**
+     * Compiles a rulestring to a transition table, with one bit for every combination of cell state and neighbour count.
+     * Bit n is set if a dead cell with n neighbours is born,
+     * and bit (Rule.SURVIVAL_OFFSET + n) is set if a live cell with n neighbours survives.
+     *
+     * @param rulestring Rulestring in Bx/Sx notation
+     * @return Transition table of the rule
+     */
+    public static int compileTransitionTable(String rulestring){
+
+        boolean[] shouldBeBorn = parseDigitsAfterChar(rulestring, 'B');
+        boolean[] shouldSurvive = parseDigitsAfterChar(rulestring, 'S');
+
+        int transitionTable = 0;
+
+        for (int neighbourCount = 0; neighbourCount <= 8; neighbourCount++) {
+
+            if (shouldBeBorn[neighbourCount])
+                transitionTable |= 1 << neighbourCount;
+
+            if (shouldSurvive[neighbourCount])
+                transitionTable |= 1 << (Rule.SURVIVAL_OFFSET + neighbourCount);
+        }
+        return transitionTable;
+    }
+
     /**
      * Formats the rulestring to be in the right order, with the B-section (birth)
      * in front, followed by a "/", then the S-section (survival)
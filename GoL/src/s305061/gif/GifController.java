@@ -204,7 +204,7 @@ public class GifController {
     }
 
     /**
-     * Initiates the recursive GIF creation
+     * Initiates the GIF creation
      *
      * @param originalGol The game object to be cloned
      * @param iterations Number of iterations to evolve, also number of frames to be added to gif
@@ -220,60 +220,81 @@ public class GifController {
     }
 
     /**
-     * Recursive GIF creation. Every repetition will add a frame for the current generation,
-     * then recursively proceed to the next frame and generation.
+     * GIF creation. A frame is added for the current generation,
+     * then the game is evolved in one batch, adding a frame after every generation.
      *
      * @param writer GIFWriter from GIFLib
      * @param game The cloned game class to be animated
-     * @param counter Counter to determine when to stop recursive method. Initially set as number of generations/frames
+     * @param counter Number of generations/frames
      * @throws IOException IO expectedException, thrown by GIFLib
      */
     private void writeGoLSequenceToGIF(GIFWriter writer, GameOfLife game, int counter) throws IOException {
 
-        // condition to end recursion
-        if(counter <= 0){
-            writer.close();
-        } else {
+        if(counter > 0) {
 
-            // add new image (frame) to gif
-            writer.createNextImage();
+            writeGoLFrameToGIF(writer, game);
 
-            // converts javafx.scene.pain.Color to java.awt.Color
-            java.awt.Color awtColor = FxColorToAwtColor(color);
+            // the listener can not throw the exception itself, so it stops the batch and the exception is thrown after it
+            IOException[] exception = new IOException[1];
 
-            // these are 0 and 0 the first repetition (reset in clone() method),
-            // then they will increase according to the movement of the pattern (if dynamic game board)
-            int offsetX = game.getOffsetX();
-            int offsetY = game.getOffsetY();
+            game.nextGenerations(counter - 1, (evolvedGame, generation) -> {
+                try {
+                    writeGoLFrameToGIF(writer, evolvedGame);
+                    return true;
+                } catch (IOException e) {
+                    exception[0] = e;
+                    return false;
+                }
+            });
 
-            // draw current generation of the game board to current image in writer
-            for (int gameX = left + offsetX; gameX <= right + offsetX; gameX++)
-                for (int gameY = top + offsetY; gameY <= bottom + offsetY; gameY++){
+            if(exception[0] != null)
+                throw exception[0];
+        }
 
-                    if(game.isCellAlive(gameX, gameY)){
+        writer.close();
+    }
 
-                        int gifX = (gameX - left - offsetX) * scale;
-                        int gifY = (gameY - top - offsetY) * scale;
+    /**
+     * Adds a frame for the current generation of the game to the GIF
+     *
+     * @param writer GIFWriter from GIFLib
+     * @param game The cloned game class to be animated
+     * @throws IOException IO expectedException, thrown by GIFLib
+     */
+    private void writeGoLFrameToGIF(GIFWriter writer, GameOfLife game) throws IOException {
 
-                        int gifMaxX = gifX + scale - 1;
-                        int gifMaxY = gifY + scale - 1;
+        // add new image (frame) to gif
+        writer.createNextImage();
 
-                        try {
-                            writer.fillRect(gifX, gifMaxX, gifY, gifMaxY, awtColor);
-                        } catch (ArrayIndexOutOfBoundsException ignored){
-                        }
-                    }
-                }
+        // converts javafx.scene.pain.Color to java.awt.Color
+        java.awt.Color awtColor = FxColorToAwtColor(color);
 
-            // insert image to GIF sequence via writer
-            writer.insertCurrentImage();
+        // these are 0 and 0 the first repetition (reset in clone() method),
+        // then they will increase according to the movement of the pattern (if dynamic game board)
+        int offsetX = game.getOffsetX();
+        int offsetY = game.getOffsetY();
 
-            // nextGeneration call to game
-            game.nextGeneration();
+        // draw current generation of the game board to current image in writer
+        for (int gameX = left + offsetX; gameX <= right + offsetX; gameX++)
+            for (int gameY = top + offsetY; gameY <= bottom + offsetY; gameY++){
 
-            // recursive call to writeGoLSequenceToGIF
-            writeGoLSequenceToGIF(writer, game, --counter);
-        }
+                if(game.isCellAlive(gameX, gameY)){
+
+                    int gifX = (gameX - left - offsetX) * scale;
+                    int gifY = (gameY - top - offsetY) * scale;
+
+                    int gifMaxX = gifX + scale - 1;
+                    int gifMaxY = gifY + scale - 1;
+
+                    try {
+                        writer.fillRect(gifX, gifMaxX, gifY, gifMaxY, awtColor);
+                    } catch (ArrayIndexOutOfBoundsException ignored){
+                    }
+                }
+            }
+
+        // insert image to GIF sequence via writer
+        writer.insertCurrentImage();
     }
 
     //region getters
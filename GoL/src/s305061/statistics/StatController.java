@@ -9,7 +9,12 @@ import javafx.scene.chart.LineChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
+import model.CycleDetector;
 import model.GameOfLife;
+import model.GenerationStatistics;
+import tools.SimilarityMeasure;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Andreas s305061
@@ -24,6 +29,9 @@ public class StatController {
     private static final double BETA = 3.0f;
     private static final double GAMMA = 0.25f;
 
+    // exactly repeated iterations are only looked for in shorter runs, as the cycle detector keeps every distinct pattern
+    private static final int MAX_CYCLE_ITERATIONS = 100000;
+
     // gui components
     @FXML private LineChart<Double, Double> graph;
     @FXML private TextField textField;
@@ -85,84 +93,67 @@ public class StatController {
 
         GameOfLife clonedGol = gol.clone();
 
-        int previousLiving = 0;
-        double previousGeometricFactor = 0;
-
-        setProgress(0);
-
-        // for each iteration, add live cell count and cell growth to the array stats,
-        // then add the iteration's reduced representation to the array representations
-        for(int currentIteration = 0; currentIteration < totalIterations; currentIteration++){
-
-            int previousIteration = currentIteration - 1;
-            int lastIteration = totalIterations - 1;
-
-            int currentLiving = clonedGol.getCellCount();
-            int previousGrowth = currentLiving - previousLiving;
-            double currentGeometricFactor = getGeometricFactor(clonedGol);
+        // live cells for every iteration and the one after the last, and the geometric factor for every iteration
+        int[] living = new int[totalIterations + 1];
+        double[] geometricFactors = new double[totalIterations + 1];
 
-            stats[0][currentIteration] = currentLiving;
+        living[0] = clonedGol.getCellCount();
+        geometricFactors[0] = getGeometricFactor(clonedGol);
 
-            // if current is not first iteration, set previous iteration data
-            if(currentIteration > 0) {
+        // finds generations that are exactly repeated, wherever the pattern has moved,
+        // from the pattern hash kept up to date while evolving, so recording a generation does not scan the board
+        CycleDetector cycleDetector = (totalIterations <= MAX_CYCLE_ITERATIONS) ? new CycleDetector(false) : null;
+        if (cycleDetector != null)
+            cycleDetector.record(clonedGol, 0);
 
-                // set growth data for previous iteration
-                stats[1][previousIteration] = previousGrowth;
-
-                // set a reduced representation for previous iteration
-                representations[previousIteration] = getReducedRepresentation(
-                        previousLiving, previousGrowth, previousGeometricFactor);
-            }
+        // the statistics of every generation are counted while evolving, so the board is not scanned again
+        AtomicReference<GenerationStatistics> generationStatistics = new AtomicReference<>();
+        clonedGol.addStatisticsCollector(generationStatistics::set);
 
-            // next generation
-            clonedGol.nextGeneration();
+        setProgress(0);
 
-            // if current is the last iteration, set current iteration data.
-            // Needs to be after a nextGeneration() to get the current (not for the game, but for the loop) growth
-            if(currentIteration == lastIteration) {
+        // evolve all iterations in one batch, reading the statistics after each generation
+        clonedGol.nextGenerations(totalIterations, (game, generation) -> {
 
-                int currentGrowth = clonedGol.getCellCount() - currentLiving;
+            int iteration = (int) generation;
+            GenerationStatistics statistics = generationStatistics.getAndSet(null);
 
-                // set growth data for this last iteration
-                stats[1][lastIteration] = currentGrowth;
+            living[iteration] = (statistics != null) ? statistics.getLiveCells() : game.getCellCount();
 
-                // set a reduced representation for this last iteration
-                representations[lastIteration] = getReducedRepresentation(
-                        currentLiving, currentGrowth, currentGeometricFactor);
+            // the geometric factor and hash are not needed for the generation after the last iteration
+            if (iteration < totalIterations) {
+                geometricFactors[iteration] = (statistics != null)
+                        ? statistics.getSumX() + statistics.getSumY() : getGeometricFactor(game);
+                if (cycleDetector != null)
+                    cycleDetector.record(game, iteration);
             }
 
-            previousLiving = currentLiving;
-            previousGeometricFactor = currentGeometricFactor;
-
             // update progress bar
-            setProgress(0.9*((double)currentIteration/(double)totalIterations));
-        }
+            setProgress(0.9*((double)iteration/(double)totalIterations));
+            return true;
+        });
 
-        // compare all the reduced representations with each other, return the best match for each iteration
-        for(int repA = 0; repA < totalIterations; repA++) {
+        // for each iteration, add live cell count and cell growth to the array stats,
+        // then add the iteration's reduced representation to the array representations
+        for(int iteration = 0; iteration < totalIterations; iteration++){
 
-            int maxSimilarity = 0;
+            int growth = living[iteration + 1] - living[iteration];
 
-            for(int repB = 0; repB < totalIterations; repB++) {
+            stats[0][iteration] = living[iteration];
+            stats[1][iteration] = growth;
 
-                // don't compare a representation with itself
-                if(repA == repB)
-                    continue;
+            representations[iteration] = getReducedRepresentation(
+                    living[iteration], growth, geometricFactors[iteration]);
+        }
 
-                // get similarity between two representations in percent
-                int similarity = compareRepresentations(representations[repA], representations[repB]);
+        // find the best match of every reduced representation among the others, by sorting them
+        int[] similarities = SimilarityMeasure.getBestSimilarities(representations);
 
-                // this will get the true maximum similarity after sufficient iterations
-                if (similarity > maxSimilarity){
-                    maxSimilarity = similarity;
-                }
-            }
+        for(int iteration = 0; iteration < totalIterations; iteration++) {
 
-            // set the best match as the similarity measure for this iteration
-            stats[2][repA] = maxSimilarity;
-
-            // update progress bar
-            setProgress(0.9 + 0.1*((double)repA/(double)(totalIterations)));
+            // an iteration exactly repeated in another iteration is 100% similar
+            stats[2][iteration] = (cycleDetector != null && cycleDetector.isRepeated(iteration))
+                    ? 100 : similarities[iteration];
         }
 
         // update progress bar to 100%
@@ -172,27 +163,10 @@ public class StatController {
         return stats;
     }
 
-    /**
-     * Compares two reduced representations and calculate the similarity in percent
-     * @param repA A reduced representation of an iteration
-     * @param repB A reduced representation of another iteration
-     * @return Similarity of the two representations in percent
-     */
-    private int compareRepresentations(double repA, double repB) {
-
-        // the smallest of the representations
-        double min = Math.min(repA, repB);
-
-        // the biggest of the representations
-        double max = Math.max(repA, repB);
-
-        // similarity in percent
-        return (int)(100*min/max);
-    }
-
     /**
      * Sums the x and y coordinates of all the live cells on the grid.
-     * Used in calculation of the similarity measure, enables the position of patterns to be a factor
+     * Used in calculation of the similarity measure, enables the position of patterns to be a factor.
+     * Only used for the first iteration, and if the game board did not count the statistics of a generation
      * @param gol Reference to the DynamicGameOfLife object to gather information from
      * @return The geometric factor, the sum of x and y coordinates of live cells
      */
@@ -205,23 +205,20 @@ public class EditorController {
         cameraViewStrip.updateView(golStrip, stripCell.getSize(), width, (int)strip.getHeight());
 
         Affine form = new Affine();
-        double tx = 0;
 
-        for (int i = 0; i < 20; i++) {
-            form.setTx(tx);
-            gcStrip.setTransform(form);
+        // evolve 20 generations in one batch, rendering every generation next to the last one
+        golStrip.nextGenerations(20, (game, generation) -> {
 
-            // increment one generation
-            golStrip.nextGeneration();
+            // set transformation
+            form.setTx((generation - 1) * 400);
+            gcStrip.setTransform(form);
 
             clearStrip();
 
             // render strip with alive cells
             renderStrip();
-
-            // set transformation
-            tx += 400;
-        }
+            return true;
+        });
 
         // reset
         form.setTx(0.0);
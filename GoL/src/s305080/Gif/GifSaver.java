@@ -180,9 +180,7 @@ public class GifSaver {
         }
 
         // evolves game of life as far as the user wants to
-        for (int i = 0; i < gPerIteration; i++) {
-            gol.nextGeneration();
-        }
+        gol.nextGenerations(gPerIteration);
 
         // counting frames
         frameNr++;
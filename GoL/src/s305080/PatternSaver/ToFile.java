@@ -7,11 +7,15 @@ import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import model.GameOfLife;
+import model.Parser.PatternOutput;
+import model.Parser.PlainTextWriter;
+import model.Parser.RleWriter;
 import tools.MessageBox;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -73,119 +77,50 @@ public class ToFile {
 
     private  void writeRLE(File file) {
 
-        fileContent.addAll(getRleFormat(gol));
-
         if(!file.toString().endsWith(".rle")){
             file = new File(file.toString() + ".rle");
         }
 
-        try {
-            Files.write(file.toPath(), fileContent);
+        try (FileChannel channel = openChannel(file)) {
+            PatternOutput output = new PatternOutput(channel);
+            writeMetaData(output);
+            RleWriter.write(gol, ruleText, output);
+            output.flush();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private List <String> getRleFormat(GameOfLife gol) {
-
-        List<String> list = new ArrayList<>();
-
-        StringBuilder currentLine = new StringBuilder();
-
-        int [] boundingBox = gol.getBoundingBox();
-
-        currentLine.append("x = "+(boundingBox[1]-boundingBox[0]+1)+", y = "+(boundingBox[3]-boundingBox[2]+1) + ((ruleText == null)?"":", rule = " + ruleText));
-
-        list.add(currentLine.toString());
-
-        currentLine = new StringBuilder();
-        int counter = 0;
-        boolean lastBit = false;
-        boolean firstInLine = true;
-        for (int y = boundingBox[2]; y <= boundingBox[3]; y++) {
-
-            for (int x = boundingBox[0]; x <= boundingBox[1]; x++) {
-
-                if(firstInLine){
-                    counter++;
-                    firstInLine = false;
-                }
-                else if(lastBit == gol.isCellAlive(x, y)){
-                    counter ++;
-                    if (currentLine.length() > 40){
-                        list.add(currentLine.toString());
-                        currentLine = new StringBuilder();
-                    }
-                }
-                else{
-                    if (lastBit){
-                        currentLine.append((counter == 1) ? "" : counter).append("o");
-                    }
-                    else {
-                        currentLine.append((counter == 1) ? "" : counter).append("b");
-                    }
-                    counter = 1;
-                }
-                lastBit = gol.isCellAlive(x, y);
-
-            }
-
-            firstInLine = true;
-            if (lastBit){
-                currentLine.append((counter == 1) ? "" : counter).append("o");
-            }
-
-            if(y != boundingBox[3])
-                currentLine.append("$");
-
-            counter = 0;
-        }
-
-        currentLine.append("!");
-        list.add(currentLine.toString());
-
-        return list;
-
-    }
-
     private void writePlainText(File file) {
 
-        fileContent.addAll(getPlainTextFormat(gol));
-
-
         if(!file.toString().endsWith(".cells")){
             file = new File(file.toString() + ".cells");
         }
 
-        try {
-            Files.write(file.toPath(), fileContent);
+        try (FileChannel channel = openChannel(file)) {
+            PatternOutput output = new PatternOutput(channel);
+            writeMetaData(output);
+            PlainTextWriter.write(gol, output);
+            output.flush();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private List <String> getPlainTextFormat(GameOfLife gol) {
-        StringBuilder currentLine = new StringBuilder();
-
-        List <String> list = new ArrayList<>();
-
-        int [] boundingBox = gol.getBoundingBox();
-
-
-        for(int y = boundingBox[2]; y <= boundingBox[3]; y++){
-
-            for(int x = boundingBox[0]; x <= boundingBox[1]; x++){
+    /**
+     * Opens a file for writing, replacing its content
+     */
+    private static FileChannel openChannel(File file) throws IOException {
+        return FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
 
-                if(gol.isCellAlive(x, y)){
-                    currentLine.append('O');
-                }
-                else
-                    currentLine.append('.');
-            }
-            list.add(currentLine.toString());
-            currentLine = new StringBuilder();
-        }
-        return list;
+    /**
+     * Writes the meta data lines collected from the user, in front of the pattern
+     */
+    private void writeMetaData(PatternOutput output) throws IOException {
+        for (String line : fileContent)
+            output.writeLine(line);
     }
 
     private void collectMetaData(Stage primaryStage) throws IOException {
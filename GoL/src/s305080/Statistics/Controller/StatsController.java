@@ -8,12 +8,17 @@ import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.TextField;
 import javafx.scene.input.KeyEvent;
+import model.CycleDetector;
 import model.DynamicGameOfLife;
 import model.GameOfLife;
+import model.GenerationStatistics;
+import model.StatisticsCollector;
 import tools.MessageBox;
+import tools.SimilarityMeasure;
 
 import java.util.ArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -38,6 +43,9 @@ public class StatsController {
     private double gamma = 0.25;
     private final double maxIntervalLength = 15;
 
+    // exactly repeated iterations are only looked for in shorter runs, as the cycle detector keeps every distinct pattern
+    private static final int MAX_CYCLE_ITERATIONS = 100000;
+
     public void setGameOfLife(GameOfLife gameOfLife) {
         gol = gameOfLife;
 
@@ -72,8 +80,8 @@ public class StatsController {
         if(keyEvent.getCode().toString().equals("ENTER"))
             try {
                 iterations = Integer.parseInt(input.getText());
-                if(iterations > 1000)
-                    MessageBox.alert("To many iterations");
+                if(iterations > 1000000)
+                    MessageBox.alert("Too many iterations");
                 else
                     updateStats();
             }
@@ -100,37 +108,64 @@ public class StatsController {
     private int[][] getStats(GameOfLife gol, int iterations) {
         int [][] data = new int[3][iterations];
         double[] phies = new double[iterations];
-        for (int i = 0; i < iterations; i++) {
 
+        // finds iterations that are exactly repeated, wherever the pattern has moved,
+        // from the pattern hash kept up to date while evolving, so recording an iteration does not scan the board
+        CycleDetector cycleDetector = (iterations <= MAX_CYCLE_ITERATIONS) ? new CycleDetector(false) : null;
 
-            if(i > 0){
-                data[1][i] = gol.getCellCount() - data[0][i - 1];
-                phies[i]  = phi(gol, data[1][i]);
-            }
-            else{
-                phies[i] = phi(gol, 0);
-            }
-            data[0][i] = gol.getCellCount();
-            lastCellCount = data[0][i];
-            gol.nextGeneration();
+        if (iterations > 0) {
+            addIteration(gol.getCellCount(), g(gol), data, phies, 0);
+            if (cycleDetector != null)
+                cycleDetector.record(gol, 0);
         }
-        for (int i = 0; i < iterations; i++) {
 
-            for (int j = 0; j < iterations; j++) {
+        // the statistics of every generation are counted while evolving, so the board is not scanned again
+        AtomicReference<GenerationStatistics> generationStatistics = new AtomicReference<>();
+        StatisticsCollector collector = generationStatistics::set;
+        gol.addStatisticsCollector(collector);
+
+        // evolves all iterations in one batch, the generation after the last iteration is not added
+        gol.nextGenerations(iterations, (game, generation) -> {
+            GenerationStatistics statistics = generationStatistics.getAndSet(null);
 
-                if(i != j) {
-                    int currentComparing = (int) (100 * Math.min(phies[i], phies[j]) / Math.max(phies[i], phies[j]));
+            if (generation < iterations) {
+                if (statistics != null)
+                    addIteration(statistics.getLiveCells(), statistics.getSumX() + statistics.getSumY(),
+                            data, phies, (int) generation);
+                else
+                    addIteration(game.getCellCount(), g(game), data, phies, (int) generation);
 
-                    if (data[2][i] < currentComparing) {
-                        data[2][i] = currentComparing;
-                    }
-                }
+                if (cycleDetector != null)
+                    cycleDetector.record(game, generation);
             }
+            return true;
+        });
+        gol.removeStatisticsCollector(collector);
+
+        // best match of every iteration, found by sorting
+        int[] similarities = SimilarityMeasure.getBestSimilarities(phies);
+
+        for (int i = 0; i < iterations; i++) {
+
+            // exactly repeated iterations are 100% similar
+            data[2][i] = (cycleDetector != null && cycleDetector.isRepeated(i)) ? 100 : similarities[i];
         }
 
         return data;
     }
 
+    private void addIteration(int liveCells, long coordinateSum, int[][] data, double[] phies, int i) {
+        if(i > 0){
+            data[1][i] = liveCells - data[0][i - 1];
+            phies[i]  = phi(liveCells, coordinateSum, data[1][i]);
+        }
+        else{
+            phies[i] = phi(liveCells, coordinateSum, 0);
+        }
+        data[0][i] = liveCells;
+        lastCellCount = data[0][i];
+    }
+
     private void clearGraph() {
         lineChart.setAnimated(false);
         cellCount.getData().clear();
@@ -154,19 +189,22 @@ public class StatsController {
         System.out.println("\n");
     }
 
-    private double phi(GameOfLife gol, int difference) {
-        return alfa * gol.getCellCount()
+    private double phi(int liveCells, long coordinateSum, int difference) {
+        return alfa * liveCells
                 + beta * difference
-                + gamma * g(gol);
+                + gamma * coordinateSum;
     }
 
-    public int g(GameOfLife gol){
-        int count = 0;
+    /**
+     * Sums the coordinates of the live cells relative to the origin, for when the game board did not count them
+     */
+    public long g(GameOfLife gol){
+        long count = 0;
         int[] boundingBox = gol.getBoundingBox();
         for (int x = boundingBox[0]; x <= boundingBox[1]; x++) {
             for (int y = boundingBox[2]; y <= boundingBox[3]; y++) {
                 if(gol.isCellAlive(x, y))
-                    count += (x + y);
+                    count += (x - gol.getOffsetX() + y - gol.getOffsetY());
             }
         }
         return count;
@@ -70,22 +70,30 @@ public class TheStripController {
                                cController.getCanvas().getHeight());
 
         Affine xform = new Affine();
-        double tx = 0;
         gc.setTransform(xform);
 
         clearCanvasAndSetColors();
 
-        while (gc.getTransform().getTx() < canvas.getWidth()){
-            xform.setTx(tx);
-            gc.setTransform(xform);
+        renderFrame(xform, 0);
 
-            renderCanvas();
-            gol.nextGeneration();
+        // the first frame shows the current generation, so one generation less is evolved than frames fit the strip
+        long frames = (width > 0) ? (long) Math.ceil(canvas.getWidth() / width) : 1;
 
-            gc.strokeLine(0,0,0,canvas.getHeight());
-            tx += width;
-        }
+        // evolves in one batch, rendering each generation next to the last one until the strip is full
+        gol.nextGenerations(frames - 1, (game, generation) -> {
+            renderFrame(xform, (double) generation * width);
+            return true;
+        });
+
+    }
+
+    private void renderFrame(Affine xform, double tx) {
+        xform.setTx(tx);
+        gc.setTransform(xform);
+
+        renderCanvas();
 
+        gc.strokeLine(0,0,0,canvas.getHeight());
     }
 
     private void renderCanvas() {
@@ -0,0 +1,101 @@
+package test;
+
+import model.BoardRasterizer;
+import model.StaticGameOfLife;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for drawing game boards into pixel buffers.
+ */
+public class BoardRasterizerTest {
+
+    private static final int LIVE = 0xFF000000;
+    private static final int DEAD = 0xFFFFFFFF;
+
+    @Test
+    public void testRasterize_ifCellsLargerThanPixel_thenLiveCellsFilled() {
+        // instantiate gol with one live cell
+        StaticGameOfLife gol = new StaticGameOfLife(4, 4);
+        gol.setCellAlive(1, 1);
+
+        // draw with cells of three pixels and one pixel spacing
+        int[] pixels = new BoardRasterizer().rasterize(gol, 0, 0, 3, 1, LIVE, DEAD, 12, 12);
+
+        // assert the cell is two by two pixels, and the spacing is dead
+        assertEquals(LIVE, pixels[3 * 12 + 3]);
+        assertEquals(LIVE, pixels[4 * 12 + 4]);
+        assertEquals(DEAD, pixels[5 * 12 + 5]);
+        assertEquals(DEAD, pixels[2 * 12 + 2]);
+        assertEquals(4, countPixels(pixels, LIVE));
+    }
+
+    @Test
+    public void testRasterize_ifOnlySpacingOfCellVisible_thenCellLeftOut() {
+        // instantiate gol with a cell left of the canvas, and a cell at its left edge
+        StaticGameOfLife gol = new StaticGameOfLife(50, 50);
+        gol.setCellAlive(3, 3);
+        gol.setCellAlive(4, 4);
+
+        // draw with a fractional offset, so only the spacing right of the first cell is on the canvas
+        int[] pixels = new BoardRasterizer().rasterize(gol, 79.5, 60, 20, 2, LIVE, DEAD, 40, 40);
+
+        // assert the first cell is left out, and the second cell is drawn from the left edge
+        assertEquals(DEAD, pixels[0]);
+        assertEquals(LIVE, pixels[20 * 40]);
+        assertEquals(LIVE, pixels[37 * 40 + 18]);
+        assertEquals(DEAD, pixels[20 * 40 + 19]);
+        assertEquals(19 * 18, countPixels(pixels, LIVE));
+    }
+
+    @Test
+    public void testRasterize_ifCellsSmallerThanPixel_thenPixelsShowDensity() {
+        // instantiate gol, with a full block of two by two cells, and a half full block next to it
+        StaticGameOfLife gol = new StaticGameOfLife(4, 2);
+        gol.setCellAlive(0, 0);
+        gol.setCellAlive(1, 0);
+        gol.setCellAlive(0, 1);
+        gol.setCellAlive(1, 1);
+        gol.setCellAlive(2, 0);
+        gol.setCellAlive(3, 0);
+
+        // draw with two cells per pixel
+        int[] pixels = new BoardRasterizer().rasterize(gol, 0, 0, 0.5, 0, LIVE, DEAD, 3, 1);
+
+        // assert the full block is live, the half full block is grey, and the pixel outside the board is dead
+        assertEquals(LIVE, pixels[0]);
+        assertEquals(0xFF808080, pixels[1]);
+        assertEquals(DEAD, pixels[2]);
+    }
+
+    @Test
+    public void testRasterize_ifZoomedFarOut_thenWholeBoardDrawn() {
+        // instantiate gol with a line of cells along the top
+        StaticGameOfLife gol = new StaticGameOfLife(1000, 1000);
+        for (int x = 0; x < 1000; x++)
+            gol.setCellAlive(x, 0);
+
+        // draw with ten cells per pixel, so a pixel covers more cells than are sampled
+        int[] pixels = new BoardRasterizer().rasterize(gol, 0, 0, 0.1, 0, LIVE, DEAD, 100, 100);
+
+        // assert the top row of pixels shows the line, and the rest of the board is dead
+        for (int x = 0; x < 100; x++)
+            assertNotEquals(DEAD, pixels[x]);
+        assertEquals(100 * 99, countPixels(pixels, DEAD));
+    }
+
+    /**
+     * Counts the pixels of a color
+     */
+    private int countPixels(int[] pixels, int color) {
+
+        int count = 0;
+        for (int pixel : pixels)
+            if (pixel == color)
+                count++;
+        return count;
+    }
+}
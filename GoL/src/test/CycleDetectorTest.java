@@ -0,0 +1,173 @@
+package test;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for pattern hashes and finding cycles.
+ */
+public class CycleDetectorTest {
+
+    private static final int[][] GLIDER = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+    @Test
+    public void testGetPatternHash_ifSamePatternAtOtherPosition_thenSameHash() {
+        // instantiate boards
+        StaticGameOfLife staticGol = new StaticGameOfLife(30, 30);
+        SparseGameOfLife sparseGol = new SparseGameOfLife();
+
+        // create glider at different positions on the boards
+        for (int[] cell : GLIDER) {
+            staticGol.setCellAlive(cell[0] + 10, cell[1] + 20);
+            sparseGol.setCellAlive(cell[0] + 3, cell[1] + 1);
+        }
+
+        // assert same hash
+        assertEquals(staticGol.getPatternHash(), sparseGol.getPatternHash());
+
+        // change the pattern, and assert the hash differs
+        staticGol.setCellDead(10, 22);
+        assertNotEquals(staticGol.getPatternHash(), sparseGol.getPatternHash());
+    }
+
+    @Test
+    public void testGetPatternHash_ifEvolved_thenSameAsFromCells() {
+        // instantiate every kind of game board
+        List<GameOfLife> boards = new ArrayList<>();
+        boards.add(new StaticGameOfLife(150, 100));
+        StaticGameOfLife twoPhaseGol = new StaticGameOfLife(150, 100);
+        twoPhaseGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+        boards.add(twoPhaseGol);
+        boards.add(new PackedGameOfLife(150, 100));
+        boards.add(new DynamicGameOfLife());
+        DynamicGameOfLife twoPhaseDynamicGol = new DynamicGameOfLife();
+        twoPhaseDynamicGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+        boards.add(twoPhaseDynamicGol);
+        boards.add(new SparseGameOfLife());
+        boards.add(new HashLifeGameOfLife());
+
+        for (GameOfLife gol : boards) {
+            String name = gol.getClass().getSimpleName() + " " + gol.getEvolutionMode();
+
+            // create a pattern spread over several tiles, and hash it before evolving
+            for (int x = 40; x < 110; x++)
+                for (int y = 30; y < 70; y++)
+                    if ((x * 7 + y * 13) % 5 < 2)
+                        gol.setCellAlive(x, y);
+            gol.getPatternHash();
+
+            for (int i = 0; i < 5; i++) {
+                gol.nextGeneration();
+
+                // assert the hash kept while evolving equals the hash of a new board with the same cells
+                SparseGameOfLife copy = new SparseGameOfLife();
+                int[] box = gol.getBoundingBox();
+                for (int x = box[0]; x <= box[1]; x++)
+                    for (int y = box[2]; y <= box[3]; y++)
+                        if (gol.isCellAlive(x, y))
+                            copy.setCellAlive(x - box[0], y - box[2]);
+
+                assertEquals(name, copy.getPatternHash(), gol.getPatternHash());
+            }
+        }
+    }
+
+    @Test
+    public void testRecord_ifBlinker_thenPeriodTwoWithoutDisplacement() {
+        // instantiate gol with a blinker
+        StaticGameOfLife gol = new StaticGameOfLife(10, 10);
+        gol.setCellAlive(4, 3);
+        gol.setCellAlive(4, 4);
+        gol.setCellAlive(4, 5);
+
+        // record generations until a cycle is found
+        CycleDetector cycleDetector = new CycleDetector(true);
+        cycleDetector.record(gol, 0);
+        long generations = gol.nextGenerations(10, cycleDetector);
+
+        // assert the batch stopped at the repeated generation
+        assertEquals(2, generations);
+        assertTrue(cycleDetector.isCycleFound());
+        assertEquals(0, cycleDetector.getCycleStart());
+        assertEquals(2, cycleDetector.getPeriod());
+        assertEquals(0, cycleDetector.getDisplacementX());
+        assertEquals(0, cycleDetector.getDisplacementY());
+    }
+
+    @Test
+    public void testRecord_ifGliderOnDynamicBoard_thenPeriodFourMovingDownRight() {
+        // instantiate gol with a glider moving down and right
+        DynamicGameOfLife gol = new DynamicGameOfLife();
+        for (int[] cell : GLIDER)
+            gol.setCellAlive(cell[0], cell[1]);
+
+        // record generations until a cycle is found
+        CycleDetector cycleDetector = new CycleDetector(true);
+        cycleDetector.record(gol, 0);
+        gol.nextGenerations(20, cycleDetector);
+
+        // assert period and displacement, even though the board moves its offset
+        assertEquals(4, cycleDetector.getPeriod());
+        assertEquals(1, cycleDetector.getDisplacementX());
+        assertEquals(1, cycleDetector.getDisplacementY());
+
+        // assert the generations of the cycle are repeated, and the last one has not been seen twice yet
+        assertTrue(cycleDetector.isRepeated(0));
+        assertTrue(cycleDetector.isRepeated(4));
+        assertFalse(cycleDetector.isRepeated(3));
+    }
+
+    @Test
+    public void testIsRepeated_ifCycleEnds_thenLaterUniqueGenerationsNotRepeated() {
+        // instantiate a small bounded board with a glider, which moves until it hits the edge
+        StaticGameOfLife gol = new StaticGameOfLife(12, 12);
+        for (int[] cell : GLIDER)
+            gol.setCellAlive(cell[0] + 1, cell[1] + 1);
+
+        // record generations, and keep the cells of every generation relative to its bounding box
+        CycleDetector cycleDetector = new CycleDetector(false);
+        List<String> patterns = new ArrayList<>();
+        for (int generation = 0; generation <= 60; generation++) {
+            if (generation > 0)
+                gol.nextGeneration();
+            cycleDetector.record(gol, generation);
+            patterns.add(describe(gol));
+        }
+
+        // assert the glider cycle is found, and a generation after it starts is unique once the glider hits the edge
+        assertTrue(cycleDetector.isCycleFound());
+        assertEquals(4, cycleDetector.getPeriod());
+
+        boolean uniqueAfterCycle = false;
+        for (int generation = 0; generation <= 60; generation++) {
+            boolean repeated = Collections.frequency(patterns, patterns.get(generation)) > 1;
+            assertEquals("generation " + generation, repeated, cycleDetector.isRepeated(generation));
+
+            if (!repeated && generation > cycleDetector.getCycleStart())
+                uniqueAfterCycle = true;
+        }
+        assertTrue(uniqueAfterCycle);
+    }
+
+    private static String describe(StaticGameOfLife gol) {
+        if (gol.getCellCount() == 0)
+            return "";
+
+        int[] box = gol.getBoundingBox();
+        StringBuilder cells = new StringBuilder();
+        for (int y = box[2]; y <= box[3]; y++) {
+            for (int x = box[0]; x <= box[1]; x++)
+                cells.append(gol.isCellAlive(x, y) ? 'O' : '.');
+            cells.append('\n');
+        }
+        return cells.toString();
+    }
+}
@@ -1,6 +1,9 @@
 package test;
 
 import model.DynamicGameOfLife;
+import model.GameOfLife;
+import model.GenerationSnapshot;
+import model.SparseGameOfLife;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -175,4 +178,92 @@ public class DynamicGameOfLifeTest {
         // assert size changed
         assertEquals(3, gol.getGridWidth());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNextGeneration_ifGliderMovesUpLeft_thenSameAsSparseGameOfLife() {
+        for (GameOfLife.EvolutionMode mode : GameOfLife.EvolutionMode.values()) {
+            // instantiate both boards
+            gol = new DynamicGameOfLife();
+            gol.setEvolutionMode(mode);
+            SparseGameOfLife sparseGol = new SparseGameOfLife();
+
+            // create glider moving up and left on both boards
+            int[][] glider = {{0, 0}, {1, 0}, {2, 0}, {0, 1}, {1, 2}};
+            for (int[] cell : glider) {
+                gol.setCellAlive(cell[0], cell[1]);
+                sparseGol.setCellAlive(cell[0], cell[1]);
+            }
+
+            // evolve both boards, the dynamic board grows to the left and top every few generations
+            for (int i = 0; i < 400; i++) {
+                gol.nextGeneration();
+                sparseGol.nextGeneration();
+            }
+
+            // assert equal boards relative to the origin, and the dynamic board still fits tightly around the glider
+            assertEquals(5, gol.getCellCount());
+            assertEquals(5, gol.getGridWidth());
+            assertEquals(5, gol.getGridHeight());
+
+            for (int x = -110; x < 10; x++) {
+                for (int y = -110; y < 10; y++) {
+                    assertEquals(mode.toString(), sparseGol.isCellAlive(x + sparseGol.getOffsetX(), y + sparseGol.getOffsetY()),
+                            gol.isCellAlive(x + gol.getOffsetX(), y + gol.getOffsetY()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSetCellAlive_ifBoardGrowsAfterShrinking_thenNewCellsDead() {
+        // instantiate gol
+        gol = new DynamicGameOfLife();
+
+        // set a line of cells, and evolve it so both buffers hold live cells
+        for (int x = 0; x < 40; x++)
+            gol.setCellAlive(x, 1);
+        gol.nextGeneration();
+
+        // kill every cell, and let the board shrink around the empty pattern
+        for (int x = 0; x < gol.getGridWidth(); x++)
+            for (int y = 0; y < gol.getGridHeight(); y++)
+                gol.setCellDead(x, y);
+        gol.nextGeneration();
+
+        // grow the board to the right again
+        gol.setCellAlive(30, 2);
+
+        // assert only the new cell is alive
+        assertEquals(1, gol.getCellCount());
+        assertEquals(1, gol.toString().replaceAll("[^1]", "").length());
+    }
+
+    @Test
+    public void testPublishSnapshot_ifBoardEvolvedAfterPublishing_thenSnapshotUnchanged() {
+        // instantiate gol
+        gol = new DynamicGameOfLife();
+
+        // set alive cells (Blinker)
+        gol.setCellAlive(0, 0);
+        gol.setCellAlive(0, 1);
+        gol.setCellAlive(0, 2);
+
+        // publish snapshot
+        GenerationSnapshot snapshot = gol.publishSnapshot();
+        assertSame(snapshot, gol.getSnapshot());
+
+        // evolve and edit the board, which grows to the left and top
+        gol.nextGeneration();
+        gol.setCellAlive(4, 0);
+
+        // assert the snapshot still holds the vertical blinker, at the old size and offset
+        assertEquals(1, snapshot.getGridWidth());
+        assertEquals(3, snapshot.getGridHeight());
+        assertEquals(0, snapshot.getOffsetX());
+        assertEquals(3, snapshot.getCellCount());
+        assertTrue(snapshot.isCellAlive(0, 2));
+
+        // assert a new snapshot holds the new generation
+        assertEquals(4, gol.publishSnapshot().getCellCount());
+    }
+}
@@ -0,0 +1,132 @@
+package test;
+
+import model.GameOfLife;
+import model.GenerationMetrics;
+import model.GenerationMetricsMXBean;
+import model.PhaseTimings;
+import model.StaticGameOfLife;
+import model.TimingHistogram;
+import org.junit.Test;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for the timing histograms and generation metrics.
+ */
+public class GenerationMetricsTest {
+
+    @Test
+    public void testGetPercentile_ifTimingsRecorded_thenWithinAQuarter() {
+        // record the timings 1 to 1000
+        TimingHistogram histogram = new TimingHistogram();
+        for (long nanos = 1; nanos <= 1000; nanos++)
+            histogram.record(nanos);
+
+        // assert count, mean and max
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertEquals(1000, histogram.getMax());
+
+        // assert the percentiles are at or above the exact percentile, and less than a quarter above it
+        for (int percentile : new int[]{1, 50, 90, 99}) {
+            long timing = histogram.getPercentile(percentile);
+            assertTrue(timing >= 10 * percentile);
+            assertTrue(timing <= 10 * percentile * 1.25);
+        }
+        assertEquals(1000, histogram.getPercentile(100));
+
+        // reset, and assert empty
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testNextGeneration_ifMetricsEnabled_thenPhasesRecorded() throws Exception {
+        // instantiate gol with a blinker
+        StaticGameOfLife gol = new StaticGameOfLife(20, 10);
+        gol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+        gol.setCellAlive(4, 3);
+        gol.setCellAlive(4, 4);
+        gol.setCellAlive(4, 5);
+
+        GenerationMetrics metrics = GenerationMetrics.getInstance();
+        metrics.reset();
+
+        // evolve in two-phase mode
+        gol.nextGenerations(5);
+
+        // assert generations, cells and population counted
+        assertEquals(5, metrics.getGenerations());
+        assertEquals(5 * 20 * 10, metrics.getCellsProcessed());
+        assertEquals(3, metrics.getPopulation());
+
+        // assert every phase of two-phase mode timed once per generation
+        assertEquals(5, metrics.getHistogram(GenerationMetrics.Phase.COUNT_NEIGHBOURS).getCount());
+        assertEquals(5, metrics.getHistogram(GenerationMetrics.Phase.EVOLVE).getCount());
+        assertEquals(5, metrics.getHistogram(GenerationMetrics.Phase.GENERATION).getCount());
+        assertEquals(0, metrics.getHistogram(GenerationMetrics.Phase.FIT_BOARD).getCount());
+
+        // assert the metrics can be read through JMX
+        Object generations = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(GenerationMetrics.OBJECT_NAME), "Generations");
+        assertEquals(5L, generations);
+
+        // disable, and assert nothing more recorded
+        metrics.setEnabled(false);
+        gol.nextGeneration();
+        metrics.setEnabled(true);
+        assertEquals(5, metrics.getGenerations());
+    }
+
+    @Test
+    public void testGetGenerationTimings_ifReadThroughMXBeanProxy_thenSameAsMetrics() throws Exception {
+        // instantiate gol with a blinker, and evolve
+        StaticGameOfLife gol = new StaticGameOfLife(20, 10);
+        gol.setCellAlive(4, 3);
+        gol.setCellAlive(4, 4);
+        gol.setCellAlive(4, 5);
+
+        GenerationMetrics metrics = GenerationMetrics.getInstance();
+        metrics.reset();
+        gol.nextGenerations(3);
+
+        // read the timings through a proxy of the registered MXBean
+        GenerationMetricsMXBean proxy = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName(GenerationMetrics.OBJECT_NAME), GenerationMetricsMXBean.class);
+        PhaseTimings timings = proxy.getGenerationTimings();
+
+        // assert the timings are built again with the same values
+        PhaseTimings expected = metrics.getTimings(GenerationMetrics.Phase.GENERATION);
+        assertEquals(3, timings.getCount());
+        assertEquals(expected.getMeanNanos(), timings.getMeanNanos(), 0);
+        assertEquals(expected.getMedianNanos(), timings.getMedianNanos());
+        assertEquals(expected.getP99Nanos(), timings.getP99Nanos());
+        assertEquals(expected.getMaxNanos(), timings.getMaxNanos());
+    }
+
+    @Test
+    public void testNextGeneration_ifTilesSkipped_thenOnlyVisitedCellsProcessed() {
+        // instantiate gol of 8x8 tiles with a blinker in the top left tile
+        StaticGameOfLife gol = new StaticGameOfLife(256, 256);
+        gol.setCellAlive(4, 3);
+        gol.setCellAlive(4, 4);
+        gol.setCellAlive(4, 5);
+
+        // evolve once, so only the tiles around the blinker are marked as changed
+        gol.nextGeneration();
+
+        GenerationMetrics metrics = GenerationMetrics.getInstance();
+        metrics.reset();
+
+        // evolve, and assert only the tile of the blinker and the three tiles around it are counted
+        gol.nextGeneration();
+        assertEquals(4 * 32 * 32, metrics.getCellsProcessed());
+    }
+}
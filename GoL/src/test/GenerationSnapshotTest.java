@@ -0,0 +1,131 @@
+package test;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for the snapshots published for drawing while the game boards evolve.
+ */
+public class GenerationSnapshotTest {
+
+    @Test
+    public void testGetSnapshot_ifTakenEveryGeneration_thenDrawnSnapshotUnchangedUntilNextIsTaken() {
+        for (GameOfLife gol : createBoards()) {
+            String name = gol.getClass().getSimpleName() + " " + gol.getEvolutionMode();
+            SparseGameOfLife expected = createPattern(gol);
+
+            // take the first snapshot, as the drawing thread would
+            gol.publishSnapshot();
+            GenerationSnapshot drawn = gol.getSnapshot();
+            String drawnCells = describe(drawn);
+
+            for (int i = 0; i < 30; i++) {
+                // evolve and publish, the last two generations without the drawing thread taking them
+                gol.nextGeneration();
+                expected.nextGeneration();
+                GenerationSnapshot published = gol.publishSnapshot();
+
+                if (i % 5 < 3) {
+                    // assert the snapshot being drawn has not changed, then take the new one
+                    assertEquals(name, drawnCells, describe(drawn));
+
+                    drawn = gol.getSnapshot();
+                    drawnCells = describe(drawn);
+                }
+
+                // assert the board and the published snapshot hold the same generation as the reference board
+                assertEquals(name, describe(expected), describe(gol));
+                assertEquals(name, describe(expected), describe(published));
+            }
+            assertEquals(name, drawnCells, describe(drawn));
+        }
+    }
+
+    @Test
+    public void testPublishSnapshot_ifBoardEditedAfterPublishing_thenSnapshotUnchanged() {
+        for (GameOfLife gol : createBoards()) {
+            String name = gol.getClass().getSimpleName() + " " + gol.getEvolutionMode();
+            createPattern(gol);
+
+            // take a snapshot, and clone the board so the cells are shared with both
+            gol.publishSnapshot();
+            GenerationSnapshot drawn = gol.getSnapshot();
+            String drawnCells = describe(drawn);
+            GameOfLife clone = gol.clone();
+            String cloneCells = describe(clone);
+
+            // publish more snapshots of the same generation while editing the board, taking none of them
+            for (int i = 0; i < 4; i++) {
+                gol.setCellAlive(45 + i, 35);
+                gol.publishSnapshot();
+                gol.setCellDead(45 + i, 35);
+                gol.publishSnapshot();
+                gol.nextGeneration();
+            }
+
+            // assert neither the drawn snapshot nor the clone changed
+            assertEquals(name, drawnCells, describe(drawn));
+            assertEquals(name, cloneCells, describe(clone));
+        }
+    }
+
+    /**
+     * Creates every kind of game board
+     */
+    private static List<GameOfLife> createBoards() {
+
+        List<GameOfLife> boards = new ArrayList<>();
+        boards.add(new StaticGameOfLife(150, 100));
+        StaticGameOfLife twoPhaseGol = new StaticGameOfLife(150, 100);
+        twoPhaseGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+        boards.add(twoPhaseGol);
+        boards.add(new PackedGameOfLife(150, 100));
+        boards.add(new DynamicGameOfLife());
+        DynamicGameOfLife twoPhaseDynamicGol = new DynamicGameOfLife();
+        twoPhaseDynamicGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+        boards.add(twoPhaseDynamicGol);
+        boards.add(new SparseGameOfLife());
+        boards.add(new HashLifeGameOfLife());
+        return boards;
+    }
+
+    /**
+     * Creates a pattern spread over several tiles on the board, and on a reference board
+     */
+    private static SparseGameOfLife createPattern(GameOfLife gol) {
+
+        SparseGameOfLife expected = new SparseGameOfLife();
+
+        for (int x = 40; x < 110; x++) {
+            for (int y = 30; y < 70; y++) {
+                if ((x * 7 + y * 13) % 5 < 2) {
+                    gol.setCellAlive(x, y);
+                    expected.setCellAlive(x, y);
+                }
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Describes the live cells of a board relative to the origin
+     */
+    private static String describe(BoardView board) {
+
+        StringBuilder cells = new StringBuilder();
+
+        for (int x = 0; x < 150; x++) {
+            for (int y = 0; y < 100; y++)
+                cells.append(board.isCellAlive(x + board.getOffsetX(), y + board.getOffsetY()) ? 'O' : '.');
+            cells.append('\n');
+        }
+        return cells.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package test;
+
+import model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for statistics counted while evolving the game boards.
+ */
+public class GenerationStatisticsTest {
+
+    @Test
+    public void testCollect_ifEvolved_thenSameAsScanningBoard() {
+        // instantiate every kind of game board
+        List<GameOfLife> boards = new ArrayList<>();
+        boards.add(new StaticGameOfLife(150, 100));
+        StaticGameOfLife twoPhaseGol = new StaticGameOfLife(150, 100);
+        twoPhaseGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+        boards.add(twoPhaseGol);
+        boards.add(new PackedGameOfLife(150, 100));
+        boards.add(new DynamicGameOfLife());
+        boards.add(new SparseGameOfLife());
+        boards.add(new HashLifeGameOfLife());
+
+        for (GameOfLife gol : boards) {
+            String name = gol.getClass().getSimpleName() + " " + gol.getEvolutionMode();
+
+            // create a pattern spread over several tiles
+            for (int x = 40; x < 110; x++)
+                for (int y = 30; y < 70; y++)
+                    if ((x * 7 + y * 13) % 5 < 2)
+                        gol.setCellAlive(x, y);
+
+            // collect the statistics of every generation
+            List<GenerationStatistics> collected = new ArrayList<>();
+            gol.addStatisticsCollector(collected::add);
+
+            for (int i = 0; i < 5; i++) {
+
+                // keep the generation before evolving
+                boolean[][] before = getCells(gol);
+                gol.nextGeneration();
+
+                // assert the statistics equal the ones found by scanning both generations
+                GenerationStatistics statistics = collected.get(collected.size() - 1);
+                long[] expected = scan(before, gol);
+
+                assertEquals(name, gol.getCellCount(), statistics.getLiveCells());
+                assertEquals(name, expected[0], statistics.getSumX());
+                assertEquals(name, expected[1], statistics.getSumY());
+
+                // the HashLife board does not count births and deaths
+                if (!(gol instanceof HashLifeGameOfLife)) {
+                    assertEquals(name, expected[2], statistics.getBirths());
+                    assertEquals(name, expected[3], statistics.getDeaths());
+                }
+
+                int[] box = gol.getBoundingBox();
+                assertEquals(name, box[0] - gol.getOffsetX(), statistics.getMinX());
+                assertEquals(name, box[3] - gol.getOffsetY(), statistics.getMaxY());
+            }
+            assertEquals(name, 5, collected.size());
+        }
+    }
+
+    /**
+     * Gets the cells around the pattern relative to the origin, starting at (-20,-20)
+     */
+    private boolean[][] getCells(GameOfLife gol) {
+
+        boolean[][] cells = new boolean[180][140];
+
+        for (int x = 0; x < 180; x++)
+            for (int y = 0; y < 140; y++)
+                cells[x][y] = gol.isCellAlive(x - 20 + gol.getOffsetX(), y - 20 + gol.getOffsetY());
+
+        return cells;
+    }
+
+    /**
+     * Sums the coordinates of the live cells relative to the origin, and counts births and deaths,
+     * by looking at every cell around the pattern
+     */
+    private long[] scan(boolean[][] before, GameOfLife gol) {
+
+        boolean[][] after = getCells(gol);
+        long[] expected = new long[4];
+
+        for (int x = 0; x < 180; x++) {
+            for (int y = 0; y < 140; y++) {
+
+                boolean wasAlive = before[x][y];
+                boolean alive = after[x][y];
+
+                if (alive) {
+                    expected[0] += x - 20;
+                    expected[1] += y - 20;
+                }
+                if (alive && !wasAlive)
+                    expected[2]++;
+                if (wasAlive && !alive)
+                    expected[3]++;
+            }
+        }
+        return expected;
+    }
+}
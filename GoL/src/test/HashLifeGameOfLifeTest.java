@@ -0,0 +1,277 @@
+package test;
+
+import model.GameOfLife;
+import model.HashLifeGameOfLife;
+import model.SparseGameOfLife;
+import model.rules.RuleParser;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for Game of Life HashLife game board.
+ */
+public class HashLifeGameOfLifeTest {
+
+    private HashLifeGameOfLife gol;
+
+    // Gosper glider gun
+    private static final int[][] GLIDER_GUN = {
+            {24, 0}, {22, 1}, {24, 1}, {12, 2}, {13, 2}, {20, 2}, {21, 2}, {34, 2}, {35, 2},
+            {11, 3}, {15, 3}, {20, 3}, {21, 3}, {34, 3}, {35, 3}, {0, 4}, {1, 4}, {10, 4}, {16, 4}, {20, 4}, {21, 4},
+            {0, 5}, {1, 5}, {10, 5}, {14, 5}, {16, 5}, {17, 5}, {22, 5}, {24, 5}, {10, 6}, {16, 6}, {24, 6},
+            {11, 7}, {15, 7}, {12, 8}, {13, 8}};
+
+    @Test
+    public void testNextGeneration_ifBlinker_thenRotate() {
+        // instantiate gol
+        gol = new HashLifeGameOfLife();
+
+        // create blinker
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is vertical, with one empty cell around it
+        assertEquals("000 010 010 010 000", gol.toString());
+        assertEquals(3, gol.getCellCount());
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is back to horizontal
+        assertEquals("00000 01110 00000", gol.toString());
+    }
+
+    @Test
+    public void testNextGeneration_ifRPentomino_thenSameAsSparseGameOfLife() {
+        // instantiate both boards
+        gol = new HashLifeGameOfLife();
+        SparseGameOfLife sparseGol = new SparseGameOfLife();
+
+        // create R-pentomino on both boards
+        int[][] rPentomino = {{1, 0}, {2, 0}, {0, 1}, {1, 1}, {1, 2}};
+        for (int[] cell : rPentomino) {
+            gol.setCellAlive(cell[0], cell[1]);
+            sparseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards one generation at a time
+        for (int i = 0; i < 200; i++) {
+            gol.nextGeneration();
+            sparseGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertSameBoard(sparseGol, gol);
+    }
+
+    @Test
+    public void testNextGenerations_ifRPentominoJump_thenSameAsSparseGameOfLife() {
+        // instantiate both boards
+        gol = new HashLifeGameOfLife();
+        SparseGameOfLife sparseGol = new SparseGameOfLife();
+
+        // create R-pentomino on both boards
+        int[][] rPentomino = {{1, 0}, {2, 0}, {0, 1}, {1, 1}, {1, 2}};
+        for (int[] cell : rPentomino) {
+            gol.setCellAlive(cell[0], cell[1]);
+            sparseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // jump a number of generations that is not a power of two
+        gol.nextGenerations(1234);
+        for (int i = 0; i < 1234; i++)
+            sparseGol.nextGeneration();
+
+        // assert equal boards, the R-pentomino has stabilized with 116 cells
+        assertEquals(116, gol.getCellCount());
+        assertSameBoard(sparseGol, gol);
+    }
+
+    @Test
+    public void testNextGenerations_ifGliderGunJump_thenOneGliderEveryThirtyGenerations() {
+        // instantiate gol
+        gol = new HashLifeGameOfLife();
+
+        // create glider gun
+        for (int[] cell : GLIDER_GUN)
+            gol.setCellAlive(cell[0], cell[1]);
+
+        // jump 2^16 generations
+        gol.nextGenerations(1 << 16);
+
+        // assert the gun has produced one glider every 30 generations, a glider has 5 cells,
+        // and the gun itself has between 36 and 60 cells depending on its phase
+        long gliders = (1 << 16) / 30;
+        assertTrue(gol.getPopulation() >= 36 + 5 * gliders);
+        assertTrue(gol.getPopulation() <= 60 + 5 * (gliders + 1));
+    }
+
+    @Test
+    public void testNextGenerations_ifFewNodesAllowed_thenSameAsSparseGameOfLife() {
+        // instantiate both boards, with a tiny node table to force eviction
+        gol = new HashLifeGameOfLife(RuleParser.CLASSIC_RULESTRING, 64);
+        SparseGameOfLife sparseGol = new SparseGameOfLife();
+
+        // create glider gun on both boards
+        for (int[] cell : GLIDER_GUN) {
+            gol.setCellAlive(cell[0], cell[1]);
+            sparseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards in uneven steps
+        for (int i = 0; i < 20; i++) {
+            gol.nextGenerations(i + 1);
+            for (int j = 0; j <= i; j++)
+                sparseGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertSameBoard(sparseGol, gol);
+    }
+
+    @Test
+    public void testNextGeneration_ifHighLifeRule_thenSameAsSparseGameOfLife() {
+        // instantiate both boards with HighLife
+        gol = new HashLifeGameOfLife(RuleParser.HIGHLIFE_RULESTRING);
+        SparseGameOfLife sparseGol = new SparseGameOfLife(RuleParser.HIGHLIFE_RULESTRING);
+
+        // create HighLife replicator
+        int[][] replicator = {{2, 0}, {3, 0}, {4, 0}, {1, 1}, {4, 1}, {0, 2}, {4, 2},
+                {0, 3}, {3, 3}, {0, 4}, {1, 4}, {2, 4}};
+        for (int[] cell : replicator) {
+            gol.setCellAlive(cell[0], cell[1]);
+            sparseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        gol.nextGenerations(100);
+        for (int i = 0; i < 100; i++)
+            sparseGol.nextGeneration();
+
+        // assert equal boards
+        assertSameBoard(sparseGol, gol);
+    }
+
+    @Test
+    public void testClone_ifClonedAndNextGeneration_thenDifferent() {
+        // instantiate gol
+        gol = new HashLifeGameOfLife();
+
+        // set blinker
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // clone and evolve clone
+        HashLifeGameOfLife clone = gol.clone();
+        clone.nextGeneration();
+
+        // assert only clone changed
+        assertTrue(gol.isCellAlive(1, 2));
+        assertTrue(clone.isCellAlive(2 + clone.getOffsetX(), 1 + clone.getOffsetY()));
+        assertFalse(clone.isCellAlive(1 + clone.getOffsetX(), 2 + clone.getOffsetY()));
+    }
+
+    @Test
+    public void testClone_ifEvolvedWithOtherRule_thenResultsNotShared() {
+        // instantiate gol with a glider gun, and a clone with another rule
+        gol = createGliderGun(RuleParser.CLASSIC_RULESTRING);
+        HashLifeGameOfLife clone = gol.clone();
+        clone.setRule(RuleParser.LWD_RULESTRING);
+
+        // evolve both, the original first
+        gol.nextGenerations(100);
+        clone.nextGenerations(100);
+
+        // assert each board matches a new board evolved with its rule
+        HashLifeGameOfLife expected = createGliderGun(RuleParser.CLASSIC_RULESTRING);
+        expected.nextGenerations(100);
+        assertEquals(expected.getCellCount(), gol.getCellCount());
+        assertEquals(expected.getPatternHash(), gol.getPatternHash());
+
+        HashLifeGameOfLife expectedClone = createGliderGun(RuleParser.LWD_RULESTRING);
+        expectedClone.nextGenerations(100);
+        assertEquals(expectedClone.getCellCount(), clone.getCellCount());
+        assertEquals(expectedClone.getPatternHash(), clone.getPatternHash());
+    }
+
+    @Test
+    public void testClearGrid_ifCleared_thenEmpty() {
+        // instantiate gol
+        gol = new HashLifeGameOfLife();
+
+        // set alive cells
+        gol.setCellAlive(1, 1);
+        gol.setCellAlive(-30, 3);
+
+        // clear
+        gol.clearGrid();
+
+        // assert empty
+        assertEquals(0, gol.getCellCount());
+        assertFalse(gol.isCellAlive(1, 1));
+        assertFalse(gol.isCellAlive(-30, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateGameBoard_ifB0Rule_thenIllegalArgumentException() {
+        // instantiate gol with a rule where dead cells without neighbours are born
+        new HashLifeGameOfLife("B0/S8");
+    }
+
+    @Test
+    public void testSetRule_ifB0Rule_thenRuleUnchanged() {
+        // instantiate gol, and create blinker
+        gol = new HashLifeGameOfLife();
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // set a B0 rule, and assert it is rejected
+        try {
+            gol.setRule("B0/S8");
+            fail("B0 rule accepted");
+        } catch (IllegalArgumentException expected) {
+            // the rule is kept
+        }
+        assertEquals(RuleParser.CLASSIC_RULESTRING, gol.getRule().toString());
+
+        // evolve, and assert the blinker still rotates
+        gol.nextGeneration();
+        assertEquals("000 010 010 010 000", gol.toString());
+        assertEquals(3, gol.getCellCount());
+    }
+
+    /**
+     * Asserts that two unbounded game boards have the same live cells, relative to their origins
+     */
+    private static void assertSameBoard(GameOfLife expected, GameOfLife actual) {
+
+        assertEquals(expected.getCellCount(), actual.getCellCount());
+
+        for (int x = 0; x < expected.getGridWidth(); x++) {
+            for (int y = 0; y < expected.getGridHeight(); y++) {
+
+                int originX = x - expected.getOffsetX();
+                int originY = y - expected.getOffsetY();
+
+                assertEquals(expected.isCellAlive(x, y),
+                        actual.isCellAlive(originX + actual.getOffsetX(), originY + actual.getOffsetY()));
+            }
+        }
+    }
+
+    private static HashLifeGameOfLife createGliderGun(String rulestring) {
+        HashLifeGameOfLife gliderGun = new HashLifeGameOfLife(rulestring);
+        for (int[] cell : GLIDER_GUN)
+            gliderGun.setCellAlive(cell[0], cell[1]);
+        return gliderGun;
+    }
+}
@@ -0,0 +1,124 @@
+package test;
+
+import model.Parser.MappedPatternReader;
+import model.Parser.ParseResult;
+import model.Parser.PatternParser;
+import model.PatternFormatException;
+import model.SparseGameOfLife;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for reading RLE and Life 1.06 files from a memory-mapped buffer.
+ */
+public class MappedPatternReaderTest {
+
+    private static final String[] FILES = {
+            "src/test/Test pattern/glider.rle",
+            "src/test/Test pattern/glider_106.lif",
+            "src/test/Test pattern/3enginecordershiprake_106.lif"};
+
+    @Test
+    public void testParse_ifTestPatterns_thenSameAsPatternParser() throws IOException {
+        for (String file : FILES) {
+            // parse file from a mapped buffer, and with the pattern parser
+            ParseResult mapped = new MappedPatternReader(Paths.get(file)).parse();
+            ParseResult parsed = new PatternParser().parse(new File(file));
+
+            // assert same cells, rule and meta data
+            assertEquals(file, parsed.getWidth(), mapped.getWidth());
+            assertEquals(file, parsed.getHeight(), mapped.getHeight());
+            for (int x = 0; x < parsed.getWidth(); x++)
+                for (int y = 0; y < parsed.getHeight(); y++)
+                    assertEquals(file, parsed.isCellAlive(x, y), mapped.isCellAlive(x, y));
+
+            assertEquals(file, parsed.getRule(), mapped.getRule());
+            assertEquals(file, parsed.getMetaData(), mapped.getMetaData());
+        }
+    }
+
+    @Test
+    public void testParse_ifLife05_thenNotSupported() throws IOException {
+        // map Life 1.05 file
+        MappedPatternReader reader = new MappedPatternReader(Paths.get("src/test/Test pattern/glider_105.lif"));
+
+        // assert it is left to the pattern parser
+        assertFalse(reader.isSupported());
+        assertNull(reader.parse());
+    }
+
+    @Test
+    public void testDecode_ifLife06WithCommentsAndLineBreaks_thenCellsOnBoard() throws IOException {
+        // write Life 1.06 file with a UTF-8 comment, windows line breaks, negative coordinates and a blank line
+        Path file = writeTemporary(".lif", "#Life 1.06\r\n#D Glider — by Richard K. Guy\r\n0 -1\r\n1 0\r\n\r\n-1 1\r\n 0 1 \r\n1 1");
+
+        // decode onto a board
+        MappedPatternReader reader = new MappedPatternReader(file);
+        reader.readHeader();
+        SparseGameOfLife gol = new SparseGameOfLife();
+        long cells = reader.decode(gol, 10, 20);
+
+        // assert size, comments, and the glider relative to its bounding box
+        assertEquals(3, reader.getWidth());
+        assertEquals(3, reader.getHeight());
+        assertEquals("#D Glider — by Richard K. Guy", reader.getComments().get(1));
+        assertEquals(5, cells);
+        assertEquals(5, gol.getCellCount());
+        assertTrue(gol.isCellAlive(11, 20));
+        assertTrue(gol.isCellAlive(12, 21));
+        assertTrue(gol.isCellAlive(10, 22) && gol.isCellAlive(11, 22) && gol.isCellAlive(12, 22));
+    }
+
+    @Test(expected = PatternFormatException.class)
+    public void testReadHeader_ifLife06LineWithThreeNumbers_thenPatternFormatException() throws IOException {
+        // write Life 1.06 file with a bad line, and read it
+        new MappedPatternReader(writeTemporary(".lif", "#Life 1.06\n0 0\n1 2 3\n")).readHeader();
+    }
+
+    @Test(expected = PatternFormatException.class)
+    public void testReadHeader_ifLife06WithoutCells_thenPatternFormatException() throws IOException {
+        // write Life 1.06 file without cells, and read it
+        new MappedPatternReader(writeTemporary(".lif", "#Life 1.06\n\n")).readHeader();
+    }
+
+    @Test
+    public void testParse_ifLargeRleFile_thenMappedByPatternParser() throws IOException {
+        // write RLE file larger than a megabyte, with rows of alternating cells
+        StringBuilder rle = new StringBuilder("#C large\nx = 2000, y = 1200, rule = B36/S23\n");
+        for (int y = 0; y < 1200; y++) {
+            for (int x = 0; x < 1000; x++)
+                rle.append((x % 70 == 69) ? "bo\n" : "bo");
+            rle.append(y < 1199 ? "$" : "!");
+        }
+        Path file = writeTemporary(".rle", rle.toString());
+        assertTrue(Files.size(file) >= 1 << 20);
+
+        // parse with the pattern parser
+        ParseResult result = new PatternParser().parse(file.toFile());
+
+        // assert every cell and the rule are read
+        assertEquals(2000, result.getWidth());
+        assertEquals(1200, result.getHeight());
+        assertEquals("B36/S23", result.getRule());
+        for (int y = 0; y < 1200; y += 199)
+            for (int x = 0; x < 2000; x++)
+                assertEquals(x % 2 == 1, result.isCellAlive(x, y));
+    }
+
+    private static Path writeTemporary(String suffix, String content) throws IOException {
+        Path file = Files.createTempFile("pattern", suffix);
+        file.toFile().deleteOnExit();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,342 @@
+package test;
+
+import model.PackedGameOfLife;
+import model.StaticGameOfLife;
+import model.rules.RuleParser;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for Game of Life packed game board.
+ */
+public class PackedGameOfLifeTest {
+
+    private PackedGameOfLife gol;
+
+    @Test
+    public void testCreateGameBoard_ifSeventyByFiveGrid_thenReturnWidthAndHeight() {
+        gol = new PackedGameOfLife(70, 5);
+
+        assertEquals(70, gol.getGridWidth());
+        assertEquals(5, gol.getGridHeight());
+    }
+
+    @Test
+    public void testNextGeneration_ifBlinker_thenRotate() {
+        // instantiate gol
+        gol = new PackedGameOfLife(5, 5);
+
+        // create blinker
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is vertical
+        assertEquals("00000 00100 00100 00100 00000", gol.toString());
+        assertEquals(3, gol.getCellCount());
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is back to horizontal
+        assertEquals("00000 00000 01110 00000 00000", gol.toString());
+    }
+
+    @Test
+    public void testNextGeneration_ifBlinkerAcrossWordBoundary_thenRotate() {
+        // instantiate gol, wider than one word
+        gol = new PackedGameOfLife(130, 5);
+
+        // create blinker with the middle cell at the last bit of the first word
+        gol.setCellAlive(62, 2);
+        gol.setCellAlive(63, 2);
+        gol.setCellAlive(64, 2);
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is vertical
+        assertTrue(gol.isCellAlive(63, 1));
+        assertTrue(gol.isCellAlive(63, 2));
+        assertTrue(gol.isCellAlive(63, 3));
+        assertFalse(gol.isCellAlive(62, 2));
+        assertFalse(gol.isCellAlive(64, 2));
+        assertEquals(3, gol.getCellCount());
+    }
+
+    @Test
+    public void testNextGeneration_ifRPentomino_thenSameAsStaticGameOfLife() {
+        // instantiate both boards
+        gol = new PackedGameOfLife(100, 100);
+        StaticGameOfLife staticGol = new StaticGameOfLife(100, 100);
+
+        // create R-pentomino in the middle of both boards
+        int[][] rPentomino = {{50, 51}, {51, 50}, {51, 51}, {51, 52}, {52, 50}};
+        for (int[] cell : rPentomino) {
+            gol.setCellAlive(cell[0], cell[1]);
+            staticGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        for (int i = 0; i < 30; i++) {
+            gol.nextGeneration();
+            staticGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertEquals(staticGol.toString(), gol.toString());
+        assertEquals(staticGol.getCellCount(), gol.getCellCount());
+    }
+
+    @Test
+    public void testNextGeneration_ifHighLifeRule_thenSameAsStaticGameOfLife() {
+        // instantiate both boards with HighLife
+        gol = new PackedGameOfLife(80, 80, RuleParser.HIGHLIFE_RULESTRING);
+        StaticGameOfLife staticGol = new StaticGameOfLife(80, 80, RuleParser.HIGHLIFE_RULESTRING);
+
+        // create HighLife replicator
+        int[][] replicator = {{40, 38}, {41, 38}, {42, 38}, {39, 39}, {42, 39}, {38, 40}, {42, 40},
+                {38, 41}, {41, 41}, {38, 42}, {39, 42}, {40, 42}};
+        for (int[] cell : replicator) {
+            gol.setCellAlive(cell[0], cell[1]);
+            staticGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        for (int i = 0; i < 20; i++) {
+            gol.nextGeneration();
+            staticGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertEquals(staticGol.toString(), gol.toString());
+    }
+
+    @Test
+    public void testSetCellAlive_ifOutsideBoard_thenIgnored() {
+        // instantiate gol
+        gol = new PackedGameOfLife(5, 5);
+
+        // set cells outside board
+        gol.setCellAlive(5, 0);
+        gol.setCellAlive(-1, 0);
+
+        // assert nothing happened
+        assertEquals(0, gol.getCellCount());
+        assertFalse(gol.isCellAlive(5, 0));
+    }
+
+    @Test
+    public void testGetNeighboursAt_ifOneAlive_thenReturnOne() {
+        // instantiate gol
+        gol = new PackedGameOfLife(3, 3);
+
+        // set alive cell
+        gol.setCellAlive(1, 1);
+
+        // assert neighbours
+        assertEquals(1, gol.getNeighboursAt(0, 0));
+        assertEquals(0, gol.getNeighboursAt(1, 1));
+    }
+
+    @Test
+    public void testClone_ifClonedAndNextGeneration_thenDifferent() {
+        // instantiate gol
+        gol = new PackedGameOfLife(5, 5);
+
+        // set blinker
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // clone and evolve clone
+        PackedGameOfLife clone = gol.clone();
+        clone.nextGeneration();
+
+        // assert only clone changed
+        assertTrue(gol.isCellAlive(1, 2));
+        assertFalse(clone.isCellAlive(1, 2));
+        assertTrue(clone.isCellAlive(2, 1));
+    }
+
+    @Test
+    public void testClearGrid_ifCleared_thenEmpty() {
+        // instantiate gol
+        gol = new PackedGameOfLife(5, 5);
+
+        // set alive cells
+        gol.setCellAlive(1, 1);
+        gol.setCellAlive(3, 3);
+
+        // clear
+        gol.clearGrid();
+
+        // assert empty
+        assertEquals("00000 00000 00000 00000 00000", gol.toString());
+        assertEquals(0, gol.getCellCount());
+    }
+
+    @Test
+    public void testNextGeneration_ifGliderCrossesTiles_thenSameAsStaticGameOfLife() {
+        // instantiate both boards, big enough for several tiles
+        gol = new PackedGameOfLife(200, 200);
+        StaticGameOfLife staticGol = new StaticGameOfLife(200, 200);
+
+        // create a glider moving down and right, and a block that never changes
+        int[][] cells = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}, {150, 10}, {151, 10}, {150, 11}, {151, 11}};
+        for (int[] cell : cells) {
+            gol.setCellAlive(cell[0], cell[1]);
+            staticGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards until the glider has crossed several tiles
+        for (int i = 0; i < 600; i++) {
+            gol.nextGeneration();
+            staticGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertEquals(staticGol.toString(), gol.toString());
+        assertEquals(staticGol.getCellCount(), gol.getCellCount());
+    }
+
+    @Test
+    public void testNextGeneration_ifCellSetInStableTile_thenEvolved() {
+        // instantiate gol
+        gol = new PackedGameOfLife(200, 200);
+
+        // evolve an empty board, so no tile has changed
+        gol.nextGeneration();
+        gol.nextGeneration();
+
+        // create blinker across a tile corner
+        gol.setCellAlive(63, 64);
+        gol.setCellAlive(64, 64);
+        gol.setCellAlive(65, 64);
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is vertical
+        assertTrue(gol.isCellAlive(64, 63));
+        assertTrue(gol.isCellAlive(64, 65));
+        assertFalse(gol.isCellAlive(63, 64));
+        assertEquals(3, gol.getCellCount());
+    }
+
+    @Test
+    public void testNextGeneration_ifOtherRules_thenSameAsStaticGameOfLife() {
+        String[] rulestrings = {RuleParser.SEEDS_RULESTRING, RuleParser.DIAMOEBA_RULESTRING,
+                RuleParser.REPLICATOR_RULESTRING, RuleParser.DNN_RULESTRING, RuleParser.LWD_RULESTRING};
+
+        for (String rulestring : rulestrings) {
+            // instantiate both boards, big enough for the pattern to never reach the edge
+            gol = new PackedGameOfLife(200, 200, rulestring);
+            StaticGameOfLife staticGol = new StaticGameOfLife(200, 200, rulestring);
+
+            // create the same irregular pattern across a word boundary on both boards
+            for (int x = 50; x < 80; x++) {
+                for (int y = 90; y < 110; y++) {
+                    if ((x * 7 + y * 13) % 5 < 2) {
+                        gol.setCellAlive(x, y);
+                        staticGol.setCellAlive(x, y);
+                    }
+                }
+            }
+
+            // evolve both boards
+            for (int i = 0; i < 30; i++) {
+                gol.nextGeneration();
+                staticGol.nextGeneration();
+            }
+
+            // assert equal boards
+            assertEquals(rulestring, staticGol.toString(), gol.toString());
+            assertEquals(rulestring, staticGol.getCellCount(), gol.getCellCount());
+        }
+    }
+
+    @Test
+    public void testGetBoundingBox_ifGliderEvolved_thenSameAsSearchedBoard() {
+        // instantiate gol, big enough for several tiles
+        gol = new PackedGameOfLife(200, 200);
+
+        // create a glider moving down and right, and a block that never changes
+        int[][] cells = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}, {150, 10}, {151, 10}, {150, 11}, {151, 11}};
+        for (int[] cell : cells)
+            gol.setCellAlive(cell[0], cell[1]);
+
+        // evolve until the glider has crossed a tile border
+        for (int i = 0; i < 300; i++)
+            gol.nextGeneration();
+
+        // copy the board into a new game board, which has to search for its live cells
+        PackedGameOfLife searchedGol = new PackedGameOfLife(200, 200);
+        for (int x = 0; x < 200; x++)
+            for (int y = 0; y < 200; y++)
+                if (gol.isCellAlive(x, y))
+                    searchedGol.setCellAlive(x, y);
+
+        // assert the bounding box found while evolving equals the one searched for on the copy
+        assertArrayEquals(searchedGol.getBoundingBox(), gol.getBoundingBox());
+        assertArrayEquals(new int[]{77, 151, 10, 79}, gol.getBoundingBox());
+    }
+
+    @Test
+    public void testClone_ifOriginalOrCloneChanged_thenOtherUnchanged() {
+        // instantiate gol, wider than one word
+        gol = new PackedGameOfLife(100, 100);
+
+        // create glider
+        int[][] glider = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}};
+        for (int[] cell : glider)
+            gol.setCellAlive(cell[0], cell[1]);
+
+        // clone, and remember the board
+        PackedGameOfLife clone = gol.clone();
+        String board = gol.toString();
+
+        // change the original, by setting a cell and evolving
+        gol.setCellAlive(80, 80);
+        gol.nextGeneration();
+
+        // assert the clone still holds the glider
+        assertEquals(board, clone.toString());
+        assertEquals(5, clone.getCellCount());
+
+        // change the clone, by clearing a cell and evolving
+        String originalBoard = gol.toString();
+        clone.setCellDead(3, 2);
+        clone.nextGeneration();
+        clone.nextGeneration();
+
+        // assert the original is unchanged
+        assertEquals(originalBoard, gol.toString());
+        assertFalse(clone.isCellAlive(3, 2));
+    }
+
+    @Test
+    public void testGetRowWords_ifRunNotAlignedToWords_thenSameAsCells() {
+        // instantiate gol wider than two words, with every third cell alive in a row
+        gol = new PackedGameOfLife(200, 3);
+        for (int x = 0; x < 200; x += 3)
+            gol.setCellAlive(x, 1);
+
+        // read runs of the row starting inside words and across word boundaries
+        int[][] runs = {{0, 200}, {5, 64}, {63, 130}, {70, 7}, {130, 70}};
+        for (int[] run : runs) {
+            long[] words = new long[(run[1] + 63) / 64];
+            gol.getRowWords(run[0], 1, run[1], words);
+
+            // assert every bit is the state of its cell, and the bits after the run are cleared
+            for (int i = 0; i < words.length * 64; i++)
+                assertEquals(i < run[1] && gol.isCellAlive(run[0] + i, 1), (words[i / 64] & (1L << i)) != 0);
+        }
+    }
+}
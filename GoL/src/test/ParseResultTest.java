@@ -0,0 +1,72 @@
+package test;
+
+import model.Parser.ParseResult;
+import model.Parser.PatternParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for parse results, and for parsing many files at once with one parser.
+ */
+public class ParseResultTest {
+
+    private static final String[] FILES = {
+            "src/test/Test pattern/glider.cells",
+            "src/test/Test pattern/glider.rle",
+            "src/test/Test pattern/glider_105.lif",
+            "src/test/Test pattern/glider_106.lif",
+            "src/test/Test pattern/3enginecordershipgun.cells",
+            "src/test/Test pattern/3enginecordershiprake_105.lif",
+            "src/test/Test pattern/3enginecordershiprake_106.lif"};
+
+    @Test
+    public void testParse_ifResultChanged_thenResultUnchanged() throws Exception {
+        // parse glider
+        ParseResult result = new PatternParser().parse(new File("src/test/Test pattern/glider.rle"));
+
+        // change the returned pattern, and assert the result keeps its pattern
+        boolean[][] pattern = result.getPattern();
+        pattern[0][0] = !pattern[0][0];
+        assertNotEquals(pattern[0][0], result.isCellAlive(0, 0));
+        assertNotEquals(pattern[0][0], result.getPattern()[0][0]);
+
+        // assert meta data can not be changed
+        try {
+            result.getMetaData().add("#C changed");
+            fail("Meta data could be changed");
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Test
+    public void testParse_ifFilesParsedInParallel_thenSameAsOneByOne() throws Exception {
+        // parse every file one by one
+        PatternParser parser = new PatternParser();
+        List<boolean[][]> expected = new ArrayList<>();
+        for (String file : FILES)
+            expected.add(parser.parse(new File(file)).getPattern());
+
+        // parse every file many times at once with the same parser
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<ParseResult>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            for (String file : FILES)
+                results.add(pool.submit(() -> parser.parse(new File(file))));
+
+        // assert same patterns
+        for (int i = 0; i < results.size(); i++)
+            assertArrayEquals(expected.get(i % FILES.length), results.get(i).get().getPattern());
+
+        pool.shutdown();
+    }
+}
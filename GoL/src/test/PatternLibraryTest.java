@@ -0,0 +1,193 @@
+package test;
+
+import model.Parser.ParseResult;
+import model.Parser.PatternLibrary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for indexing pattern files and zip archives in a pattern library.
+ */
+public class PatternLibraryTest {
+
+    private static final String GLIDER_RLE = "#N Glider\nx = 3, y = 3, rule = 23/3\nbo$2bo$3o!\n";
+    private static final String BLINKER_CELLS = "!Name: Blinker\nOOO\n";
+    private static final String HIGHLIFE_RLE = "x = 2, y = 1, rule = B36/S23\n2o!\n";
+
+    private Path root;
+    private Path cache;
+
+    @Before
+    public void setUp() throws IOException {
+        // instantiate a directory with a plain text file, a RLE file in a subdirectory, a zip archive and a broken file
+        root = Files.createTempDirectory("patterns");
+        cache = Files.createTempFile("library", ".index");
+        Files.delete(cache);
+
+        write(root.resolve("blinker.cells"), BLINKER_CELLS);
+        Files.createDirectory(root.resolve("Guns"));
+        write(root.resolve("Guns/glider.rle"), GLIDER_RLE);
+        write(root.resolve("broken.rle"), "no header here");
+        write(root.resolve("readme.txt"), "not a pattern");
+
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(root.resolve("archive.zip")))) {
+            addZipEntry(zip, "highlife.rle", HIGHLIFE_RLE);
+            addZipEntry(zip, "__MACOSX/._highlife.rle", "resource fork");
+            addZipEntry(zip, "rules.rule", "not a pattern");
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        // delete the directory and the cache
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(path);
+        }
+        Files.deleteIfExists(cache);
+    }
+
+    @Test
+    public void testScan_ifFilesAndArchive_thenEveryPatternIndexed() throws IOException {
+        // scan library
+        List<PatternLibrary.Entry> entries = new PatternLibrary(root, cache).scan();
+
+        // assert the patterns are found by location, without the broken file and the other files
+        assertEquals(Arrays.asList("Guns/glider.rle", "archive.zip!/highlife.rle", "blinker.cells"),
+                entries.stream().map(PatternLibrary.Entry::getLocation).collect(Collectors.toList()));
+
+        // assert names, rules in the B/S notation, bounding boxes and populations
+        PatternLibrary.Entry glider = entries.get(0);
+        assertEquals("Glider", glider.getName());
+        assertEquals("B3/S23", glider.getRule());
+        assertEquals(3, glider.getWidth());
+        assertEquals(3, glider.getHeight());
+        assertEquals(5, glider.getPopulation());
+
+        PatternLibrary.Entry highLife = entries.get(1);
+        assertTrue(highLife.isInArchive());
+        assertEquals("B36/S23", highLife.getRule());
+        assertEquals(2, highLife.getPopulation());
+
+        PatternLibrary.Entry blinker = entries.get(2);
+        assertEquals("Blinker", blinker.getName());
+        assertEquals("B3/S23", blinker.getRule());
+        assertEquals(3, blinker.getWidth());
+        assertEquals(1, blinker.getHeight());
+        assertEquals(3, blinker.getPopulation());
+    }
+
+    @Test
+    public void testFilter_ifRuleSizeAndPopulation_thenMatchingPatterns() throws IOException {
+        // scan library
+        PatternLibrary library = new PatternLibrary(root, cache);
+        library.scan();
+
+        // assert filtering by rule in any notation, by size and by population
+        assertEquals(2, library.filter("23/3", Integer.MAX_VALUE, Integer.MAX_VALUE, 0, Long.MAX_VALUE).size());
+        assertEquals("archive.zip!/highlife.rle",
+                library.filter("B36/S23", Integer.MAX_VALUE, Integer.MAX_VALUE, 0, Long.MAX_VALUE).get(0).getLocation());
+        assertEquals(2, library.filter(null, 3, 1, 0, Long.MAX_VALUE).size());
+        assertEquals(1, library.filter(null, Integer.MAX_VALUE, Integer.MAX_VALUE, 4, 10).size());
+    }
+
+    @Test
+    public void testScan_ifFileUnchanged_thenTakenFromCache() throws IOException {
+        // scan library, writing the cache
+        new PatternLibrary(root, cache).scan();
+        assertTrue(Files.exists(cache));
+
+        // change the glider file, but keep its modification time
+        Path glider = root.resolve("Guns/glider.rle");
+        FileTime modified = Files.getLastModifiedTime(glider);
+        write(glider, "x = 1, y = 1\no!\n");
+        Files.setLastModifiedTime(glider, modified);
+
+        // assert a new library takes the glider from the cache
+        List<PatternLibrary.Entry> entries = new PatternLibrary(root, cache).scan();
+        assertEquals(5, entries.get(0).getPopulation());
+
+        // change the modification time, and assert the glider is read again
+        Files.setLastModifiedTime(glider, FileTime.fromMillis(modified.toMillis() + 10000));
+        entries = new PatternLibrary(root, cache).scan();
+        assertEquals(1, entries.get(0).getPopulation());
+    }
+
+    @Test
+    public void testScan_ifFileUnparseableAndUnchanged_thenNotReadAgain() throws IOException {
+        // scan library, caching the broken file as unparseable
+        new PatternLibrary(root, cache).scan();
+
+        // fix the broken file, but keep its modification time
+        Path broken = root.resolve("broken.rle");
+        FileTime modified = Files.getLastModifiedTime(broken);
+        write(broken, "x = 1, y = 1\no!\n");
+        Files.setLastModifiedTime(broken, modified);
+
+        // assert a new library still leaves it out, as it is not read again
+        assertEquals(3, new PatternLibrary(root, cache).scan().size());
+
+        // change the modification time, and assert the file is read again
+        Files.setLastModifiedTime(broken, FileTime.fromMillis(modified.toMillis() + 10000));
+        List<PatternLibrary.Entry> entries = new PatternLibrary(root, cache).scan();
+        assertEquals(4, entries.size());
+        assertEquals("broken.rle", entries.get(3).getLocation());
+    }
+
+    @Test
+    public void testScan_ifCacheDamaged_thenEveryFileRead() throws IOException {
+        // write a damaged cache
+        write(cache, "damaged");
+
+        // assert every pattern is still found, and the cache is replaced
+        assertEquals(3, new PatternLibrary(root, cache).scan().size());
+        assertEquals(3, new PatternLibrary(root, cache).scan().size());
+        assertNotEquals(7, Files.size(cache));
+    }
+
+    @Test
+    public void testLoad_ifPatternInArchive_thenParsedFromArchive() throws IOException {
+        // scan library
+        PatternLibrary library = new PatternLibrary(root, cache);
+        List<PatternLibrary.Entry> entries = library.scan();
+
+        // load the pattern of the zip archive and the plain text file
+        ParseResult highLife = library.load(entries.get(1));
+        ParseResult blinker = library.load(entries.get(2));
+
+        // assert the cells and rule are read
+        assertEquals(2, highLife.getWidth());
+        assertTrue(highLife.isCellAlive(0, 0) && highLife.isCellAlive(1, 0));
+        assertEquals("B36/S23", highLife.getRule());
+        assertEquals(3, blinker.getWidth());
+        assertTrue(blinker.isCellAlive(2, 0));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void addZipEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
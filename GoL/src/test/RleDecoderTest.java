@@ -0,0 +1,114 @@
+package test;
+
+import model.PackedGameOfLife;
+import model.Parser.RleDecoder;
+import model.PatternFormatException;
+import model.SparseGameOfLife;
+import model.StaticGameOfLife;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for decoding RLE files straight onto game boards, and setting runs of cells alive.
+ */
+public class RleDecoderTest {
+
+    private static final String GLIDER =
+            "#N Glider\n" +
+            "#C A comment\n" +
+            "x = 3, y = 3, rule = B3/S23\n" +
+            "bo$2bo$3o!\n";
+
+    @Test
+    public void testDecode_ifGlider_thenCellsOnBoard() throws IOException {
+        // decode glider onto a board
+        StaticGameOfLife gol = new StaticGameOfLife(10, 10);
+        RleDecoder decoder = new RleDecoder(new StringReader(GLIDER));
+        long liveCells = decoder.decode(gol, 2, 4);
+
+        // assert header read
+        assertEquals(3, decoder.getWidth());
+        assertEquals(3, decoder.getHeight());
+        assertEquals("B3/S23", decoder.getRule());
+        assertEquals(2, decoder.getComments().size());
+
+        // assert cells placed at the given position
+        assertEquals(5, liveCells);
+        assertEquals(5, gol.getCellCount());
+        assertTrue(gol.isCellAlive(3, 4));
+        assertTrue(gol.isCellAlive(4, 5));
+        assertTrue(gol.isCellAlive(2, 6));
+        assertTrue(gol.isCellAlive(3, 6));
+        assertTrue(gol.isCellAlive(4, 6));
+    }
+
+    @Test
+    public void testDecode_ifReadFromChannelInSmallRows_thenSameCells() throws IOException {
+        // pattern with long runs and empty rows, split over several lines
+        String rle = "x = 150, y = 4\n" +
+                "150o2$\n" +
+                "10b\n" +
+                "140o!";
+
+        SparseGameOfLife gol = new SparseGameOfLife();
+        RleDecoder decoder = new RleDecoder(Channels.newChannel(
+                new ByteArrayInputStream(rle.getBytes(StandardCharsets.UTF_8))));
+        decoder.decode(gol, 0, 0);
+
+        // assert rows of cells, and the empty row
+        assertEquals(290, gol.getCellCount());
+        assertTrue(gol.isCellAlive(149, 0));
+        assertFalse(gol.isCellAlive(0, 1));
+        assertFalse(gol.isCellAlive(9, 2));
+        assertTrue(gol.isCellAlive(10, 2));
+        assertNull(decoder.getRule());
+    }
+
+    @Test(expected = PatternFormatException.class)
+    public void testDecode_ifCellsOutsideHeaderSize_thenPatternFormatException() throws IOException {
+        new RleDecoder(new StringReader("x = 2, y = 1\n3o!")).decode((x, y, length) -> { });
+    }
+
+    @Test(expected = PatternFormatException.class)
+    public void testDecode_ifNoExclamationMark_thenPatternFormatException() throws IOException {
+        new RleDecoder(new StringReader("x = 3, y = 1\n3o")).decode((x, y, length) -> { });
+    }
+
+    @Test(expected = PatternFormatException.class)
+    public void testDecode_ifRunLengthWrapsAroundToPositive_thenPatternFormatException() throws IOException {
+        // 2^32 + 1 overflows to a run of one cell
+        new RleDecoder(new StringReader("x = 2000000000, y = 1\n4294967297o!")).decode((x, y, length) -> { });
+    }
+
+    @Test(expected = PatternFormatException.class)
+    public void testReadHeader_ifRuleInHeaderAndXLifeLine_thenPatternFormatException() throws IOException {
+        new RleDecoder(new StringReader("#r 23/3\nx = 3, y = 1, rule = B36/S23\n3o!")).readHeader();
+    }
+
+    @Test
+    public void testSetRowAlive_ifPackedBoard_thenRunAcrossWords() {
+        // set a run across three words, over an already live cell
+        PackedGameOfLife gol = new PackedGameOfLife(200, 10);
+        gol.setCellAlive(70, 3);
+        gol.setRowAlive(60, 3, 100);
+
+        // assert every cell of the run alive, and counted once
+        assertEquals(100, gol.getCellCount());
+        for (int x = 0; x < 200; x++)
+            assertEquals(x >= 60 && x < 160, gol.isCellAlive(x, 3));
+
+        // assert the cells outside the board are left out
+        gol.setRowAlive(190, 4, 20);
+        assertEquals(110, gol.getCellCount());
+        assertArrayEquals(new int[]{60, 199, 3, 4}, gol.getBoundingBox());
+    }
+}
@@ -0,0 +1,143 @@
+package test;
+
+import model.PackedGameOfLife;
+import model.Parser.PatternOutput;
+import model.Parser.PatternParser;
+import model.Parser.PlainTextWriter;
+import model.Parser.RleWriter;
+import model.SparseGameOfLife;
+import model.StaticGameOfLife;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for writing patterns in the RLE and plain text formats.
+ */
+public class RleWriterTest {
+
+    private static final int[][] GLIDER = {{1, 0}, {2, 1}, {0, 2}, {1, 2}, {2, 2}};
+
+    @Test
+    public void testWrite_ifGlider_thenRunsOfCells() {
+        // instantiate gol with a glider away from the corner
+        StaticGameOfLife gol = new StaticGameOfLife(20, 20);
+        for (int[] cell : GLIDER)
+            gol.setCellAlive(cell[0] + 5, cell[1] + 7);
+
+        // write pattern
+        List<String> lines = RleWriter.write(gol, "B3/S23");
+
+        // assert header with the size of the bounding box, and the cells without trailing dead cells
+        assertEquals(Arrays.asList("x = 3, y = 3, rule = B3/S23", "bo$2bo$3o!"), lines);
+    }
+
+    @Test
+    public void testWrite_ifEmptyRows_thenMergedIntoOneTag() {
+        // instantiate gol with two cells and empty rows between them
+        SparseGameOfLife gol = new SparseGameOfLife();
+        gol.setCellAlive(0, 0);
+        gol.setCellAlive(3, 4);
+
+        // write pattern without rule
+        List<String> lines = RleWriter.write(gol, null);
+
+        // assert the empty rows are counted by the end of row tag
+        assertEquals(Arrays.asList("x = 4, y = 5", "o4$3bo!"), lines);
+    }
+
+    @Test
+    public void testWrite_ifLongRows_thenLinesAreWrapped() {
+        // instantiate gol with rows of alternating cells
+        StaticGameOfLife gol = new StaticGameOfLife(100, 10);
+        for (int x = 0; x < 100; x += 2)
+            for (int y = 0; y < 10; y++)
+                gol.setCellAlive(x, y);
+
+        // write pattern
+        List<String> lines = RleWriter.write(gol, null);
+
+        // assert no line is longer than recommended
+        for (String line : lines)
+            assertTrue(line.length() <= 70);
+        assertTrue(lines.size() > 2);
+    }
+
+    @Test
+    public void testWrite_ifReadByPatternParser_thenSamePattern() throws IOException {
+        // instantiate gol with a glider and a blinker
+        StaticGameOfLife gol = new StaticGameOfLife(30, 30);
+        for (int[] cell : GLIDER)
+            gol.setCellAlive(cell[0] + 2, cell[1] + 3);
+        for (int y = 10; y < 13; y++)
+            gol.setCellAlive(20, y);
+
+        // write pattern to a temporary file, and read it back
+        File file = File.createTempFile("pattern", ".rle");
+        file.deleteOnExit();
+        Files.write(file.toPath(), RleWriter.write(gol, "B3/S23"));
+        boolean[][] pattern = PatternParser.read(file);
+
+        // assert same cells relative to the bounding box, and the rule is read
+        int[] boundingBox = gol.getBoundingBox();
+        assertEquals(boundingBox[1] - boundingBox[0] + 1, pattern.length);
+        assertEquals(boundingBox[3] - boundingBox[2] + 1, pattern[0].length);
+
+        for (int x = 0; x < pattern.length; x++)
+            for (int y = 0; y < pattern[x].length; y++)
+                assertEquals(gol.isCellAlive(x + boundingBox[0], y + boundingBox[2]), pattern[x][y]);
+
+        assertEquals("B3/S23", PatternParser.getLastImportedRule());
+    }
+
+    @Test
+    public void testWrite_ifPackedBoard_thenSameAsStaticBoard() {
+        // instantiate both boards with the same random cells, wider than two words
+        PackedGameOfLife packed = new PackedGameOfLife(150, 40);
+        StaticGameOfLife unpacked = new StaticGameOfLife(150, 40);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 1500; i++) {
+            int x = 3 + random.nextInt(140);
+            int y = 2 + random.nextInt(35);
+            packed.setCellAlive(x, y);
+            unpacked.setCellAlive(x, y);
+        }
+
+        // assert the runs found a word at a time are the runs found cell by cell
+        assertEquals(RleWriter.write(unpacked, "B3/S23"), RleWriter.write(packed, "B3/S23"));
+        assertEquals(PlainTextWriter.write(unpacked), PlainTextWriter.write(packed));
+    }
+
+    @Test
+    public void testWrite_ifStreamed_thenSameAsLines() throws IOException {
+        // instantiate gol with a glider
+        PackedGameOfLife gol = new PackedGameOfLife(100, 100);
+        for (int[] cell : GLIDER)
+            gol.setCellAlive(cell[0] + 62, cell[1] + 10);
+
+        // stream both formats to memory
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PatternOutput output = new PatternOutput(Channels.newChannel(bytes));
+        output.writeLine("#N Glider");
+        RleWriter.write(gol, "B3/S23", output);
+        PlainTextWriter.write(gol, output);
+        output.flush();
+
+        // assert the comment, the RLE file and the plain text rows, every line ending with a line break
+        assertEquals("#N Glider\nx = 3, y = 3, rule = B3/S23\nbo$2bo$3o!\n.O.\n..O\nOOO\n",
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
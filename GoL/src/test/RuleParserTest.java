@@ -168,4 +168,33 @@ public class RuleParserTest {
 
         assertArrayEquals(expectedDigits, digits);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompileTransitionTable_ifClassicRuleString_thenBornOnThreeAndSurviveOnTwoAndThree(){
+
+        int transitionTable = RuleParser.compileTransitionTable(CLASSIC_RULESTRING);
+
+        for (int neighbourCount = 0; neighbourCount <= 8; neighbourCount++) {
+            assertEquals(neighbourCount == 3, Rule.isAlive(transitionTable, false, neighbourCount));
+            assertEquals(neighbourCount == 2 || neighbourCount == 3, Rule.isAlive(transitionTable, true, neighbourCount));
+        }
+    }
+
+    @Test
+    public void testCompileTransitionTable_ifSeedsRuleString_thenNoSurvival(){
+
+        int transitionTable = RuleParser.compileTransitionTable(RuleParser.SEEDS_RULESTRING);
+
+        assertEquals(1 << 2, transitionTable);
+    }
+
+    @Test
+    public void testCreateRule_ifCustomRuleString_thenSameTransitionTableAsCompiled(){
+
+        Rule rule = RuleParser.createRule(gol, CUSTOM_RULESTRING);
+
+        assertEquals(RuleParser.compileTransitionTable(CUSTOM_RULESTRING), rule.getTransitionTable());
+        assertTrue(Rule.isAlive(rule.getTransitionTable(), false, 5));
+        assertFalse(Rule.isAlive(rule.getTransitionTable(), true, 3));
+    }
+}
@@ -0,0 +1,60 @@
+package test;
+
+import org.junit.Test;
+import tools.SimilarityMeasure;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for finding the best similarity measure of every iteration.
+ */
+public class SimilarityMeasureTest {
+
+    @Test
+    public void testGetBestSimilarities_ifMixedRepresentations_thenSameAsComparingEveryPair() {
+        // create representations with negatives, zeros and duplicates, like cell growth gives
+        Random random = new Random(42);
+        double[] representations = new double[500];
+        for (int i = 0; i < representations.length; i++)
+            representations[i] = 0.5 * random.nextInt(40) + 3.0 * (random.nextInt(21) - 10) + 0.25 * random.nextInt(8);
+
+        // assert the sorted search finds the same best matches as comparing every pair
+        assertArrayEquals(compareEveryPair(representations), SimilarityMeasure.getBestSimilarities(representations));
+    }
+
+    @Test
+    public void testGetBestSimilarities_ifManyIterations_thenSameAsComparingEveryPair() {
+        // create enough representations to be sorted and compared in parallel
+        Random random = new Random(7);
+        double[] representations = new double[20000];
+        for (int i = 0; i < representations.length; i++)
+            representations[i] = random.nextGaussian() * 1000;
+
+        // assert the same best matches as comparing every pair
+        assertArrayEquals(compareEveryPair(representations), SimilarityMeasure.getBestSimilarities(representations));
+    }
+
+    @Test
+    public void testGetBestSimilarities_ifOneIteration_thenZero() {
+        assertArrayEquals(new int[]{0}, SimilarityMeasure.getBestSimilarities(new double[]{12.5}));
+    }
+
+    /**
+     * Finds the best similarities the slow way, by comparing every pair
+     */
+    private int[] compareEveryPair(double[] representations) {
+
+        int[] similarities = new int[representations.length];
+
+        for (int i = 0; i < representations.length; i++)
+            for (int j = 0; j < representations.length; j++)
+                if (i != j)
+                    similarities[i] = Math.max(similarities[i], SimilarityMeasure.compare(representations[i], representations[j]));
+
+        return similarities;
+    }
+}
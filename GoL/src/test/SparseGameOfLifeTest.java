@@ -0,0 +1,221 @@
+package test;
+
+import model.PackedGameOfLife;
+import model.SparseGameOfLife;
+import model.rules.RuleParser;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Pair programmed.
+ *
+ * Test class for Game of Life sparse game board.
+ */
+public class SparseGameOfLifeTest {
+
+    private SparseGameOfLife gol;
+
+    @Test
+    public void testNextGeneration_ifBlinker_thenRotate() {
+        // instantiate gol
+        gol = new SparseGameOfLife();
+
+        // create blinker
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is vertical, with one empty cell around it
+        assertEquals("000 010 010 010 000", gol.toString());
+        assertEquals(3, gol.getCellCount());
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is back to horizontal
+        assertEquals("00000 01110 00000", gol.toString());
+    }
+
+    @Test
+    public void testNextGeneration_ifGlider_thenOffsetFollowsPattern() {
+        // instantiate gol
+        gol = new SparseGameOfLife();
+
+        // create glider moving up and left
+        gol.setCellAlive(10, 10);
+        gol.setCellAlive(11, 10);
+        gol.setCellAlive(12, 10);
+        gol.setCellAlive(10, 11);
+        gol.setCellAlive(11, 12);
+
+        // evolve until the glider has moved past the origin
+        for (int i = 0; i < 60; i++)
+            gol.nextGeneration();
+
+        // assert the glider has moved 15 cells up and left, and the board still fits tightly around it
+        assertEquals(5, gol.getCellCount());
+        assertEquals(5, gol.getGridWidth());
+        assertEquals(5, gol.getGridHeight());
+        assertTrue(gol.isCellAlive(-5 + gol.getOffsetX(), -5 + gol.getOffsetY()));
+        assertTrue(gol.isCellAlive(-4 + gol.getOffsetX(), -3 + gol.getOffsetY()));
+    }
+
+    @Test
+    public void testNextGeneration_ifRPentomino_thenSameAsPackedGameOfLife() {
+        // instantiate both boards, the packed board big enough to never reach its edge
+        gol = new SparseGameOfLife();
+        PackedGameOfLife packedGol = new PackedGameOfLife(200, 200);
+
+        // create R-pentomino in the middle of both boards
+        int[][] rPentomino = {{100, 101}, {101, 100}, {101, 101}, {101, 102}, {102, 100}};
+        for (int[] cell : rPentomino) {
+            gol.setCellAlive(cell[0], cell[1]);
+            packedGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        for (int i = 0; i < 100; i++) {
+            gol.nextGeneration();
+            packedGol.nextGeneration();
+        }
+
+        // assert equal boards, the sparse board is moved by its offset
+        assertEquals(packedGol.getCellCount(), gol.getCellCount());
+
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 200; y++) {
+                assertEquals(packedGol.isCellAlive(x, y), gol.isCellAlive(x + gol.getOffsetX(), y + gol.getOffsetY()));
+            }
+        }
+    }
+
+    @Test
+    public void testNextGeneration_ifHighLifeRule_thenSameAsPackedGameOfLife() {
+        // instantiate both boards with HighLife
+        gol = new SparseGameOfLife(RuleParser.HIGHLIFE_RULESTRING);
+        PackedGameOfLife packedGol = new PackedGameOfLife(80, 80, RuleParser.HIGHLIFE_RULESTRING);
+
+        // create HighLife replicator
+        int[][] replicator = {{40, 38}, {41, 38}, {42, 38}, {39, 39}, {42, 39}, {38, 40}, {42, 40},
+                {38, 41}, {41, 41}, {38, 42}, {39, 42}, {40, 42}};
+        for (int[] cell : replicator) {
+            gol.setCellAlive(cell[0], cell[1]);
+            packedGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        for (int i = 0; i < 20; i++) {
+            gol.nextGeneration();
+            packedGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertEquals(packedGol.getCellCount(), gol.getCellCount());
+
+        for (int x = 0; x < 80; x++) {
+            for (int y = 0; y < 80; y++) {
+                assertEquals(packedGol.isCellAlive(x, y), gol.isCellAlive(x + gol.getOffsetX(), y + gol.getOffsetY()));
+            }
+        }
+    }
+
+    @Test
+    public void testSetCellDead_ifManyCellsSetAndKilled_thenOnlyRemainingAlive() {
+        // instantiate gol
+        gol = new SparseGameOfLife();
+
+        // set a block of cells alive, then kill every other cell
+        for (int x = 0; x < 50; x++)
+            for (int y = 0; y < 50; y++)
+                gol.setCellAlive(x, y);
+
+        for (int x = 0; x < 50; x++)
+            for (int y = 0; y < 50; y++)
+                if ((x + y) % 2 == 0)
+                    gol.setCellDead(x, y);
+
+        // assert only the remaining cells are alive
+        assertEquals(1250, gol.getCellCount());
+
+        for (int x = 0; x < 50; x++)
+            for (int y = 0; y < 50; y++)
+                assertEquals((x + y) % 2 != 0, gol.isCellAlive(x, y));
+    }
+
+    @Test
+    public void testGetBoundingBox_ifHorizontalBlinker_thenReturnWidthThree() {
+        // instantiate gol
+        gol = new SparseGameOfLife();
+
+        // set horizontal blinker
+        gol.setCellAlive(2, 1);
+        gol.setCellAlive(3, 1);
+        gol.setCellAlive(4, 1);
+
+        // assert bounding box
+        assertArrayEquals(new int[]{2, 4, 1, 1}, gol.getBoundingBox());
+    }
+
+    @Test
+    public void testClone_ifClonedAndNextGeneration_thenDifferent() {
+        // instantiate gol
+        gol = new SparseGameOfLife();
+
+        // set blinker
+        gol.setCellAlive(1, 2);
+        gol.setCellAlive(2, 2);
+        gol.setCellAlive(3, 2);
+
+        // clone and evolve clone
+        SparseGameOfLife clone = gol.clone();
+        clone.nextGeneration();
+
+        // assert only clone changed
+        assertTrue(gol.isCellAlive(1, 2));
+        assertTrue(clone.isCellAlive(2 + clone.getOffsetX(), 1 + clone.getOffsetY()));
+        assertFalse(clone.isCellAlive(1 + clone.getOffsetX(), 2 + clone.getOffsetY()));
+    }
+
+    @Test
+    public void testClearGrid_ifCleared_thenEmpty() {
+        // instantiate gol
+        gol = new SparseGameOfLife();
+
+        // set alive cells
+        gol.setCellAlive(1, 1);
+        gol.setCellAlive(-3, 3);
+
+        // clear
+        gol.clearGrid();
+
+        // assert empty
+        assertEquals(0, gol.getCellCount());
+        assertFalse(gol.isCellAlive(1, 1));
+        assertFalse(gol.isCellAlive(-3, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateGameBoard_ifB0Rule_thenIllegalArgumentException() {
+        // instantiate gol with a rule where dead cells without neighbours are born
+        new SparseGameOfLife("B0/S8");
+    }
+
+    @Test
+    public void testSetRule_ifB0Rule_thenRuleUnchanged() {
+        // instantiate gol with HighLife
+        SparseGameOfLife gol = new SparseGameOfLife("B36/S23");
+
+        // set a B0 rule, and assert it is rejected
+        try {
+            gol.setRule("B0/S8");
+            fail("B0 rule accepted");
+        } catch (IllegalArgumentException expected) {
+            // the rule is kept
+        }
+        assertEquals("B36/S23", gol.getRule().toString());
+    }
+}
@@ -1,8 +1,14 @@
 package test;
 
+import model.GameOfLife;
 import model.StaticGameOfLife;
+import model.rules.RuleParser;
 import org.junit.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 
 import static org.junit.Assert.*;
 
@@ -543,4 +549,213 @@ public class StaticGameOfLifeTest {
         assertTrue(gol.isCellAlive(2, 3) != clone.isCellAlive(2, 3));
         assertTrue(gol.isCellAlive(3, 2) != clone.isCellAlive(3, 2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNextGeneration_ifDoubleBuffered_thenSameAsTwoPhase() {
+        // instantiate one board for each evolution mode
+        gol = new StaticGameOfLife(40, 40);
+        StaticGameOfLife twoPhaseGol = new StaticGameOfLife(40, 40);
+        twoPhaseGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+
+        // create R-pentomino close to the border, so cells reach the edge of the board
+        int[][] rPentomino = {{6, 5}, {7, 5}, {5, 6}, {6, 6}, {6, 7}};
+        for (int[] cell : rPentomino) {
+            gol.setCellAlive(cell[0], cell[1]);
+            twoPhaseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        for (int i = 0; i < 60; i++) {
+            gol.nextGeneration();
+            twoPhaseGol.nextGeneration();
+
+            // assert equal boards every generation
+            assertEquals(twoPhaseGol.toString(), gol.toString());
+            assertEquals(twoPhaseGol.getCellCount(), gol.getCellCount());
+        }
+    }
+
+    @Test
+    public void testNextGeneration_ifDoubleBufferedHighLife_thenSameAsTwoPhase() {
+        // instantiate one board for each evolution mode with HighLife
+        gol = new StaticGameOfLife(30, 30, RuleParser.HIGHLIFE_RULESTRING);
+        StaticGameOfLife twoPhaseGol = new StaticGameOfLife(30, 30, RuleParser.HIGHLIFE_RULESTRING);
+        twoPhaseGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+
+        // create HighLife replicator
+        int[][] replicator = {{15, 13}, {16, 13}, {17, 13}, {14, 14}, {17, 14}, {13, 15}, {17, 15},
+                {13, 16}, {16, 16}, {13, 17}, {14, 17}, {15, 17}};
+        for (int[] cell : replicator) {
+            gol.setCellAlive(cell[0], cell[1]);
+            twoPhaseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards
+        for (int i = 0; i < 30; i++) {
+            gol.nextGeneration();
+            twoPhaseGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertEquals(twoPhaseGol.toString(), gol.toString());
+    }
+
+    @Test
+    public void testNextGeneration_ifGliderCrossesTiles_thenSameAsTwoPhase() {
+        // instantiate one board for each evolution mode, big enough for several tiles
+        gol = new StaticGameOfLife(100, 100);
+        StaticGameOfLife twoPhaseGol = new StaticGameOfLife(100, 100);
+        twoPhaseGol.setEvolutionMode(GameOfLife.EvolutionMode.TWO_PHASE);
+
+        // create a glider moving down and right, and a block that never changes
+        int[][] cells = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}, {80, 10}, {81, 10}, {80, 11}, {81, 11}};
+        for (int[] cell : cells) {
+            gol.setCellAlive(cell[0], cell[1]);
+            twoPhaseGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve both boards until the glider has crossed several tiles
+        for (int i = 0; i < 300; i++) {
+            gol.nextGeneration();
+            twoPhaseGol.nextGeneration();
+        }
+
+        // assert equal boards
+        assertEquals(twoPhaseGol.toString(), gol.toString());
+        assertEquals(twoPhaseGol.getCellCount(), gol.getCellCount());
+    }
+
+    @Test
+    public void testNextGeneration_ifCellSetInStableTile_thenEvolved() {
+        // instantiate gol
+        gol = new StaticGameOfLife(100, 100);
+
+        // evolve an empty board, so no tile has changed
+        gol.nextGeneration();
+        gol.nextGeneration();
+
+        // create blinker in the middle of the board
+        gol.setCellAlive(49, 50);
+        gol.setCellAlive(50, 50);
+        gol.setCellAlive(51, 50);
+
+        // evolve
+        gol.nextGeneration();
+
+        // assert blinker is vertical
+        assertTrue(gol.isCellAlive(50, 49));
+        assertTrue(gol.isCellAlive(50, 51));
+        assertFalse(gol.isCellAlive(49, 50));
+        assertEquals(3, gol.getCellCount());
+    }
+
+    @Test
+    public void testGetBoundingBox_ifGliderEvolved_thenSameAsSearchedBoard() {
+        for (GameOfLife.EvolutionMode mode : GameOfLife.EvolutionMode.values()) {
+            // instantiate gol, big enough for several tiles
+            gol = new StaticGameOfLife(100, 100);
+            gol.setEvolutionMode(mode);
+
+            // create a glider moving down and right, and a block that never changes
+            int[][] cells = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}, {80, 10}, {81, 10}, {80, 11}, {81, 11}};
+            for (int[] cell : cells)
+                gol.setCellAlive(cell[0], cell[1]);
+
+            // evolve until the glider has crossed a tile border
+            for (int i = 0; i < 160; i++)
+                gol.nextGeneration();
+
+            // copy the board into a new game board, which has to search for its live cells
+            StaticGameOfLife searchedGol = new StaticGameOfLife(100, 100);
+            searchedGol.deepCopyOnSet(gol.getGrid());
+
+            // assert the bounding box found while evolving equals the one searched for on the copy
+            assertArrayEquals(mode.toString(), searchedGol.getBoundingBox(), gol.getBoundingBox());
+            assertArrayEquals(mode.toString(), new int[]{42, 81, 10, 44}, gol.getBoundingBox());
+        }
+    }
+
+    @Test
+    public void testGetBoundingBox_ifCellSetAfterNextGeneration_thenBoxGrows() {
+        // instantiate gol
+        gol = new StaticGameOfLife(20, 20);
+
+        // create block and evolve
+        gol.setCellAlive(5, 5);
+        gol.setCellAlive(6, 5);
+        gol.setCellAlive(5, 6);
+        gol.setCellAlive(6, 6);
+        gol.nextGeneration();
+
+        // set a cell outside the block
+        gol.setCellAlive(15, 2);
+
+        // assert the bounding box covers the new cell
+        assertArrayEquals(new int[]{5, 15, 2, 6}, gol.getBoundingBox());
+    }
+
+    @Test
+    public void testNextGenerations_ifListenerStopsBatch_thenStopAfterThatGeneration() {
+        // instantiate two boards
+        gol = new StaticGameOfLife(20, 20);
+        StaticGameOfLife expectedGol = new StaticGameOfLife(20, 20);
+
+        // create glider on both boards
+        int[][] glider = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}};
+        for (int[] cell : glider) {
+            gol.setCellAlive(cell[0], cell[1]);
+            expectedGol.setCellAlive(cell[0], cell[1]);
+        }
+
+        // evolve one board in a batch stopped by the listener after three generations, and the other one at a time
+        List<Integer> cellCounts = new ArrayList<>();
+        long generations = gol.nextGenerations(10, (game, generation) -> {
+            cellCounts.add(game.getCellCount());
+            return generation < 3;
+        });
+
+        for (int i = 0; i < 3; i++)
+            expectedGol.nextGeneration();
+
+        // assert the batch stopped after three generations, and the listener saw every generation
+        assertEquals(3, generations);
+        assertEquals(Arrays.asList(5, 5, 5), cellCounts);
+        assertEquals(expectedGol.toString(), gol.toString());
+    }
+
+    @Test
+    public void testClone_ifOriginalOrCloneChanged_thenOtherUnchanged() {
+        for (GameOfLife.EvolutionMode mode : GameOfLife.EvolutionMode.values()) {
+            // instantiate gol, big enough for several tiles
+            gol = new StaticGameOfLife(80, 80);
+            gol.setEvolutionMode(mode);
+
+            // create glider
+            int[][] glider = {{3, 2}, {4, 3}, {2, 4}, {3, 4}, {4, 4}};
+            for (int[] cell : glider)
+                gol.setCellAlive(cell[0], cell[1]);
+
+            // clone, and remember the board
+            StaticGameOfLife clone = gol.clone();
+            String board = gol.toString();
+
+            // change the original, by setting a cell and evolving
+            gol.setCellAlive(60, 60);
+            gol.nextGeneration();
+
+            // assert the clone still holds the glider
+            assertEquals(mode.toString(), board, clone.toString());
+            assertEquals(mode.toString(), 5, clone.getCellCount());
+
+            // change the clone, by clearing a cell and evolving
+            String originalBoard = gol.toString();
+            clone.setCellDead(3, 2);
+            clone.nextGeneration();
+            clone.nextGeneration();
+
+            // assert the original is unchanged
+            assertEquals(mode.toString(), originalBoard, gol.toString());
+            assertFalse(mode.toString(), clone.isCellAlive(3, 2));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package tools;
+
+import java.util.function.Consumer;
+
+/**
+ * @author Pair programming
+ *
+ * Passes messages for the user from the model to whoever shows them, so the model does not depend on JavaFX.
+ * Messages are written to the error stream until the application sets a handler, like MessageBox::alert,
+ * which lets the model run on machines without a display.
+ */
+public class Messages {
+
+    private static volatile Consumer<String> handler = System.err::println;
+
+    private Messages() {
+    }
+
+    /**
+     * Sets the handler showing the messages to the user
+     *
+     * @param messageHandler Handler called with every message, or null to write the messages to the error stream
+     */
+    public static void setHandler(Consumer<String> messageHandler) {
+        handler = (messageHandler != null) ? messageHandler : System.err::println;
+    }
+
+    /**
+     * Alerts the user about something, using the current handler
+     *
+     * @param message Message to be shown to the user
+     */
+    public static void alert(String message) {
+        handler.accept(message);
+    }
+}
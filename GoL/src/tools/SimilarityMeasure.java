@@ -0,0 +1,101 @@
+package tools;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * @author Pair programming
+ *
+ * Finds the best similarity measure of every iteration, compared with every other iteration.
+ * The similarity of two reduced representations a and b is 100 * min(a, b) / max(a, b) percent, never below 0.
+ * Instead of comparing every pair, the representations are sorted, and only the few representations
+ * that can give the best match are compared, so n iterations take O(n log n) time.
+ */
+public class SimilarityMeasure {
+
+    // number of iterations from which the sorting and comparing is split between threads
+    private static final int PARALLEL_THRESHOLD = 10000;
+
+    private SimilarityMeasure() {
+    }
+
+    /**
+     * Compares two reduced representations and calculate the similarity in percent
+     *
+     * @param repA A reduced representation of an iteration
+     * @param repB A reduced representation of another iteration
+     * @return Similarity of the two representations in percent, which may be negative
+     */
+    public static int compare(double repA, double repB) {
+        return (int) (100 * Math.min(repA, repB) / Math.max(repA, repB));
+    }
+
+    /**
+     * Finds the best similarity of every representation with any other representation.
+     * Gives the same result as comparing every pair, and keeping the highest similarity, starting at 0.
+     *
+     * @param representations Reduced representation of every iteration
+     * @return The best similarity of every iteration in percent
+     */
+    public static int[] getBestSimilarities(double[] representations) {
+
+        int n = representations.length;
+        int[] similarities = new int[n];
+
+        if (n < 2)
+            return similarities;
+
+        double[] sorted = representations.clone();
+
+        if (n >= PARALLEL_THRESHOLD)
+            Arrays.parallelSort(sorted);
+        else
+            Arrays.sort(sorted);
+
+        // position of the negative representation closest to 0, or -1 if none are negative
+        int lastNegative = -1;
+        while (lastNegative + 1 < n && sorted[lastNegative + 1] < 0)
+            lastNegative++;
+
+        final int finalLastNegative = lastNegative;
+
+        IntStream iterations = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD)
+            iterations = iterations.parallel();
+
+        iterations.forEach(i -> similarities[i] = getBestSimilarity(representations[i], sorted, finalLastNegative));
+
+        return similarities;
+    }
+
+    /**
+     * Finds the best similarity of a representation with the other representations.
+     * For positive representations, the best match is the closest smaller or larger representation,
+     * found next to the representation in sorted order.
+     * For negative representations, min / max grows the further apart they are, so the best match is
+     * the most negative representation or the negative representation closest to 0.
+     * Zero and representations of the other sign never give a similarity above 0.
+     *
+     * @param representation The representation
+     * @param sorted All representations, sorted
+     * @param lastNegative Position of the negative representation closest to 0
+     * @return The best similarity in percent
+     */
+    private static int getBestSimilarity(double representation, double[] sorted, int lastNegative) {
+
+        // any position of a representation with the same value, equal representations are interchangeable
+        int position = Arrays.binarySearch(sorted, representation);
+
+        int[] candidates = {position - 1, position + 1, 0, 1, lastNegative - 1, lastNegative};
+        int best = 0;
+
+        for (int candidate : candidates) {
+
+            if (candidate < 0 || candidate >= sorted.length || candidate == position)
+                continue;
+
+            best = Math.max(best, compare(representation, sorted[candidate]));
+        }
+        return best;
+    }
+}